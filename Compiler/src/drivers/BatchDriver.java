@@ -0,0 +1,316 @@
+package drivers;
+import errors.*;
+import lex.Source;
+import parser.Compilation;
+import parser.Parser;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+/** Compiles many Pascal files at once, on a fixed pool of threads. <br>
+ *  The files are given as files, as directories (every .pas file below the directory), or as
+ *  glob patterns such as <code>resources/pascal_files/*.pas</code>. The code of each file is
+ *  written next to it, in a file of the same name ending in .tvi. <br>
+ *  Each compilation prints to a Compilation of its own, so the diagnostics of a file are never
+ *  mixed with those of another, and the results are reported in the order the files were
+ *  found, however the threads were scheduled. Only the timings change from run to run.
+ */
+public class BatchDriver {
+	/** Extension of the source files looked for in directories */
+	public static final String SOURCE_EXTENSION = ".pas";
+	/** Extension of the code files */
+	public static final String CODE_EXTENSION = ".tvi";
+	/** Line printed by every successful compilation, which the report leaves out */
+	private static final String SUCCESS = "Compilation successful";
+
+	/** Outcome of the compilation of a file */
+	public enum Status {
+		/** The file was parsed to the end, possibly recovering from errors, and its code written */
+		OK,
+		/** The compiler stopped on an error it could not recover from */
+		ERROR,
+		/** The compiler failed unexpectedly, or the code could not be written */
+		FAILED
+	}
+
+	/** The outcome, diagnostics, and time of the compilation of a file */
+	public static class Result {
+		private final File source;
+		private final Status status;
+		private final String diagnostics;
+		private final long nanos;
+
+		/** Constructor */
+		Result(File source, Status status, String diagnostics, long nanos){
+			this.source = source;
+			this.status = status;
+			this.diagnostics = diagnostics;
+			this.nanos = nanos;
+		}
+
+		/** Returns the compiled file */
+		public File getSource(){
+			return source;
+		}
+
+		/** Returns the outcome of the compilation */
+		public Status getStatus(){
+			return status;
+		}
+
+		/** Returns everything the compiler printed besides the code */
+		public String getDiagnostics(){
+			return diagnostics;
+		}
+
+		/** Returns the time the compilation took, in nanoseconds */
+		public long getNanos(){
+			return nanos;
+		}
+	}
+
+	/** Options of ParseDriver selecting the lexical analyzer and the parser engine */
+	private final List<String> options;
+	/** Number of threads compiling */
+	private final int threads;
+	/** Cache of the compilations, or null */
+	private CompilationCache cache;
+
+	/** Constructor. Compiles with the options of ParseDriver, on the given number of threads */
+	public BatchDriver(List<String> options, int threads){
+		if(threads < 1){
+			throw new IllegalArgumentException("Number of threads: " + threads);
+		}
+		this.options = new ArrayList<String>(options);
+		this.threads = threads;
+	}
+
+	/** Looks up the compilation of each file in a cache before compiling it, and caches it
+	 *  after. The cache may be null, for no cache. */
+	public void setCache(CompilationCache cache){
+		this.cache = cache;
+	}
+
+	/** Returns the files to compile: the files given, the .pas files below the directories
+	 *  given, and the files matching the glob patterns given. The files found for each
+	 *  argument are sorted by path, and a file found twice is only compiled once. */
+	public static List<File> findSources(List<String> args) throws IOException{
+		Set<File> sources = new LinkedHashSet<File>();
+		for(String arg: args){
+			File file = new File(arg);
+			if(file.isFile()){
+				sources.add(file);
+			}
+			else if(file.isDirectory()){
+				sources.addAll(walk(file.toPath(), FileSystems.getDefault().getPathMatcher("glob:**" + SOURCE_EXTENSION)));
+			}
+			else{
+				List<File> matches = glob(arg);
+				if(matches.isEmpty()){
+					throw new FileNotFoundException(arg);
+				}
+				sources.addAll(matches);
+			}
+		}
+		return new ArrayList<File>(sources);
+	}
+
+	/** Returns the files matching a glob pattern, searched for below the longest leading
+	 *  directory of the pattern without any special character */
+	private static List<File> glob(String pattern) throws IOException{
+		Path base = Paths.get(".");
+		Path prefix = null;
+		for(Path part: Paths.get(pattern)){
+			if(part.toString().matches(".*[*?\\[\\]{}].*")){
+				break;
+			}
+			prefix = prefix == null ? part : prefix.resolve(part);
+		}
+		if(Paths.get(pattern).isAbsolute()){
+			prefix = prefix == null ? Paths.get(pattern).getRoot() : Paths.get(pattern).getRoot().resolve(prefix);
+		}
+		if(prefix != null){
+			base = prefix;
+		}
+		if(!Files.isDirectory(base)){
+			return new ArrayList<File>();
+		}
+		// Paths below "." are matched without their leading "./"
+		final Path root = prefix == null ? base : null;
+		final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+		return walk(base, new PathMatcher(){
+			public boolean matches(Path path){
+				return matcher.matches(root == null ? path : root.relativize(path));
+			}
+		});
+	}
+
+	/** Returns the regular files below a directory accepted by a matcher, sorted by path */
+	private static List<File> walk(Path dir, final PathMatcher matcher) throws IOException{
+		final List<File> found = new ArrayList<File>();
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>(){
+			@Override
+			public FileVisitResult visitFile(Path path, BasicFileAttributes attributes){
+				if(attributes.isRegularFile() && matcher.matches(path)){
+					found.add(path.toFile());
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		Collections.sort(found);
+		return found;
+	}
+
+	/** Returns the file the code of a source file is written to: the source file with its
+	 *  extension replaced by .tvi */
+	public static File codeFile(File source){
+		String name = source.getName();
+		int dot = name.lastIndexOf('.');
+		return new File(source.getParentFile(), (dot > 0 ? name.substring(0, dot) : name) + CODE_EXTENSION);
+	}
+
+	/** Compiles a file on the calling thread. The code file left by an earlier compilation
+	 *  is deleted first, so it is only there if this compilation succeeds. */
+	public Result compile(File source){
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		PrintStream diagnostics = new PrintStream(printed, true);
+		File codeFile = codeFile(source);
+		codeFile.delete();
+		long start = System.nanoTime();
+		if(cache != null){
+			return compileCached(source, codeFile, start);
+		}
+		Status status = compile(Source.file(source.getPath()), options, new Compilation(diagnostics, null, codeFile));
+		long nanos = System.nanoTime() - start;
+		diagnostics.flush();
+		return new Result(source, status, printed.toString(), nanos);
+	}
+
+	/** Compiles a file, unless its compilation is in the cache */
+	private Result compileCached(File source, File codeFile, long start){
+		CompilationCache.Entry entry;
+		try{
+			entry = cache.compile(Files.readAllBytes(source.toPath()), options);
+			if(entry.getStatus() == Status.OK){
+				Files.write(codeFile.toPath(), entry.getCode());
+			}
+		}catch(IOException e){
+			return new Result(source, Status.FAILED, e + System.lineSeparator(), System.nanoTime() - start);
+		}
+		return new Result(source, entry.getStatus(), entry.getDiagnostics(), System.nanoTime() - start);
+	}
+
+	/** Compiles a program with the options of ParseDriver, on the calling thread, and returns
+	 *  its outcome. The error stopping the compiler is printed to the diagnostics. */
+	public static Status compile(Source source, List<String> options, Compilation compilation){
+		try{
+			Parser parser = new Parser(ParseDriver.openLexer(source, options), compilation);
+			ParseDriver.selectEngine(parser, options);
+			return parser.parse() ? Status.OK : Status.FAILED;
+		}catch(CompilerError e){
+			compilation.getDiagnostics().println(e.getMessage());
+			return Status.ERROR;
+		}catch(RuntimeException e){
+			// Some semantic actions fail on programs with parse errors
+			compilation.getDiagnostics().println(e);
+			return Status.FAILED;
+		}catch(StackOverflowError e){
+			// Fails this file only: the stack is unwound, and the other compilations go on
+			compilation.getDiagnostics().println(e);
+			return Status.FAILED;
+		}
+	}
+
+	/** Compiles files on a pool of threads, and returns their results in the order of the files */
+	public List<Result> compileAll(List<File> sources) throws InterruptedException{
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			List<Future<Result>> futures = new ArrayList<Future<Result>>();
+			for(final File source: sources){
+				futures.add(pool.submit(new Callable<Result>(){
+					public Result call(){
+						return compile(source);
+					}
+				}));
+			}
+			List<Result> results = new ArrayList<Result>();
+			for(Future<Result> future: futures){
+				try{
+					results.add(future.get());
+				}catch(ExecutionException e){
+					// compile() only lets Errors other than StackOverflowError through
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			return results;
+		}finally{
+			pool.shutdownNow();
+		}
+	}
+
+	/** Prints the status and time of each compilation, followed by its diagnostics, and a
+	 *  summary. The diagnostics are printed indented, without the line of a successful
+	 *  compilation. Everything but the times is the same from run to run. */
+	public static void report(List<Result> results, long nanos, int threads, PrintStream out){
+		Map<Status, Integer> counts = new EnumMap<Status, Integer>(Status.class);
+		for(Status status: Status.values()){
+			counts.put(status, 0);
+		}
+		for(Result result: results){
+			counts.put(result.getStatus(), counts.get(result.getStatus()) + 1);
+			out.printf("%-7s %9.2f ms  %s%n", result.getStatus(), result.getNanos() / 1e6, result.getSource().getPath());
+			for(String line: result.getDiagnostics().split("\r?\n")){
+				if(!line.isEmpty() && !line.equals(SUCCESS)){
+					out.println("    " + line);
+				}
+			}
+		}
+		out.printf("%d files: %d ok, %d with errors, %d failed, in %.2f ms on %d threads%n", results.size(),
+				counts.get(Status.OK), counts.get(Status.ERROR), counts.get(Status.FAILED), nanos / 1e6, threads);
+	}
+
+	/** Compiles the files, directories, and glob patterns given as arguments. They may be
+	 *  preceded by the options of ParseDriver, by "-threads n" (by default, one thread per
+	 *  processor), and by "-cache directory", which keeps a CompilationCache in the directory.
+	 *  Exits with status 1 if any file did not compile. */
+	public static void main(String[] args) throws IOException, InterruptedException{
+		List<String> options = new ArrayList<String>();
+		int threads = Runtime.getRuntime().availableProcessors();
+		File cacheDirectory = null;
+		int i = 0;
+		for(; i < args.length && args[i].startsWith("-"); i++){
+			if(args[i].equals("-threads") && i + 1 < args.length){
+				threads = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-cache") && i + 1 < args.length){
+				cacheDirectory = new File(args[++i]);
+			}
+			else if(ParseDriver.isOption(args[i])){
+				options.add(args[i]);
+			}
+			else{
+				System.err.println("Unknown option " + args[i]);
+			}
+		}
+		if(i == args.length){
+			System.err.println("Usage: BatchDriver [options] [-threads n] [-cache directory] file|directory|pattern...");
+			System.exit(2);
+		}
+		List<File> sources = findSources(Arrays.asList(args).subList(i, args.length));
+		BatchDriver driver = new BatchDriver(options, threads);
+		if(cacheDirectory != null){
+			driver.setCache(new CompilationCache(cacheDirectory, CompilationCache.DEFAULT_LIMIT));
+		}
+		long start = System.nanoTime();
+		List<Result> results = driver.compileAll(sources);
+		report(results, System.nanoTime() - start, threads, System.out);
+		for(Result result: results){
+			if(result.getStatus() != Status.OK){
+				System.exit(1);
+			}
+		}
+	}
+}
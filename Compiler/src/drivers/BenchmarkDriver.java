@@ -0,0 +1,620 @@
+package drivers;
+import errors.*;
+import grammarsymbols.TokenType;
+import lex.*;
+import parser.Compilation;
+import parser.Parser;
+import semanticActions.*;
+import symboltable.*;
+import token.Operator;
+import token.Token;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/** Micro-benchmarks for the compiler front end.
+ *  The sample programs in resources/pascal_files are concatenated and repeated until
+ *  the corpus is a few megabytes long, so that the timings measure throughput rather
+ *  than file opening. Each benchmark is run a few times to let the JIT warm up, and
+ *  the best run is reported.
+ */
+public class BenchmarkDriver {
+	/** Directory holding the sample programs */
+	private static final String SAMPLE_DIR = "resources/pascal_files";
+	/** Approximate size of the generated corpus, in bytes */
+	private static final int CORPUS_SIZE = 8 * 1024 * 1024;
+	/** Number of timed runs for each benchmark */
+	private static final int RUNS = 7;
+	/** Number of pairs of statements in the program generated for the parser benchmark */
+	private static final int PROGRAM_STATEMENTS = 10000;
+	/** Mode timing the semantic actions of a given program, run by benchmarkActions() in a
+	 *  JVM which does not compile the actions */
+	private static final String INTERPRETED_ACTIONS = "actions-interpreted";
+	/** Options of that JVM: as before the actions were split into handlers, when Execute()
+	 *  was too large for the JIT (see HugeMethodLimit), the body of every action runs
+	 *  interpreted while the methods it calls are compiled */
+	private static final String[] INTERPRETED_OPTIONS = {"-XX:CompileCommand=quiet",
+			"-XX:CompileCommand=exclude,semanticActions.SemanticActions::action*"};
+
+	/** File containing the generated corpus */
+	private File corpus;
+	/** Number of characters in the corpus */
+	private long corpusLength;
+
+	/** Constructor. Builds the corpus from the sample programs. */
+	public BenchmarkDriver() throws IOException{
+		buildCorpus();
+	}
+
+	/** Concatenates the sample programs into a temporary file until it reaches CORPUS_SIZE */
+	private void buildCorpus() throws IOException{
+		ByteArrayOutputStream samples = new ByteArrayOutputStream();
+		File[] files = new File(SAMPLE_DIR).listFiles();
+		if(files == null){
+			throw new FileNotFoundException(SAMPLE_DIR);
+		}
+		for(File f: files){
+			FileInputStream in = new FileInputStream(f);
+			try{
+				byte[] chunk = new byte[4096];
+				int n;
+				while((n = in.read(chunk)) > 0){
+					samples.write(chunk, 0, n);
+				}
+				samples.write('\n');
+			}finally{
+				in.close();
+			}
+		}
+		corpus = File.createTempFile("corpus", ".pas");
+		corpus.deleteOnExit();
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(corpus));
+		try{
+			byte[] bytes = samples.toByteArray();
+			corpusLength = 0;
+			while(corpusLength < CORPUS_SIZE){
+				out.write(bytes);
+				corpusLength += bytes.length;
+			}
+		}finally{
+			out.close();
+		}
+	}
+
+	/** Reads every character of a CharStream the way the Tokenizer does: the character
+	 *  following each run of letters or digits is pushed back and read again.
+	 *  Lexical errors (the samples are not all valid programs) are skipped over.
+	 *  @param boxed If true, the characters are pushed back onto a Stack of Characters
+	 *  checked before each read, as CharStream did before it had a char[] of its own
+	 *  @return the number of characters read */
+	private long drain(CharStream stream, boolean boxed){
+		Classification classification = Classification.getInstance();
+		Stack<Character> stack = new Stack<Character>();
+		long count = 0;
+		boolean inWord = false;
+		while(true){
+			char ch;
+			try{
+				ch = boxed && !stack.empty() ? stack.pop() : stream.currentChar();
+			}catch(LexicalError e){
+				continue;
+			}
+			if(ch == CharStream.EOF){
+				return count;
+			}
+			count++;
+			boolean wordChar = ch < Classification.SIZE && classification.isLetterOrDigit(ch);
+			if(inWord && !wordChar){
+				// Delimiter after a word: push it back and read it again
+				if(boxed){
+					stack.push(ch);
+				}
+				else{
+					stream.pushBack(ch);
+				}
+				inWord = false;
+				continue;
+			}
+			inWord = wordChar;
+		}
+	}
+
+	/** Measures how many characters per second each CharStream backend delivers, with the
+	 *  char[] pushback and with the Stack of Characters it replaced */
+	public void benchmarkCharStreams(){
+		report("CharStream (Stack)", charStreamRate(false, true));
+		report("CharStream", charStreamRate(false, false));
+		report("ByteCharStream (Stack)", charStreamRate(true, true));
+		report("ByteCharStream", charStreamRate(true, false));
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs for one backend */
+	private double charStreamRate(boolean mapped, boolean boxed){
+		double best = 0;
+		for(int run = 0; run < RUNS; run++){
+			long start = System.nanoTime();
+			CharStream stream = mapped ? new ByteCharStream(corpus.getPath()) : new CharStream(corpus.getPath());
+			long chars = drain(stream, boxed);
+			stream.close();
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, chars * 1e9 / elapsed);
+		}
+		return best;
+	}
+
+	/** Reads every token of a Tokenizer until the end of file. Lexical errors are skipped over.
+	 *  @return the number of tokens read */
+	private long drain(Tokenizer lexer){
+		long count = 0;
+		while(true){
+			Token token;
+			try{
+				token = lexer.GetNextToken();
+			}catch(LexicalError e){
+				continue;
+			}
+			if(token.getType() == TokenType.ENDOFFILE){
+				return count;
+			}
+			count++;
+		}
+	}
+
+	/** Measures how many characters per second the Tokenizer and the DfaTokenizer lex, on each
+	 *  CharStream backend, after checking that both produce the same tokens on the corpus */
+	public void benchmarkLexers(){
+		long mismatches = LexerComparison.compare(corpus.getPath());
+		System.out.println("Tokenizer vs DfaTokenizer: " + mismatches + " mismatched tokens");
+		for(boolean mapped: new boolean[] {false, true}){
+			String backend = mapped ? " (mapped)" : "";
+			report("Tokenizer" + backend, lexerRate(false, mapped));
+			report("DfaTokenizer" + backend, lexerRate(true, mapped));
+		}
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs for one lexer */
+	private double lexerRate(boolean dfa, boolean mapped){
+		return lexerRate(corpus, corpusLength, dfa, mapped);
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs for one lexer on a file */
+	private double lexerRate(File file, long length, boolean dfa, boolean mapped){
+		double best = 0;
+		for(int run = 0; run < RUNS; run++){
+			long start = System.nanoTime();
+			CharStream stream = mapped ? new ByteCharStream(file.getPath()) : new CharStream(file.getPath());
+			drain(dfa ? new DfaTokenizer(stream) : new Tokenizer(stream));
+			stream.close();
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, length * 1e9 / elapsed);
+		}
+		return best;
+	}
+
+	/** Measures how fast the lexers skip comments and indentation, on a corpus where every
+	 *  sample program is indented and preceded by a large comment block */
+	public void benchmarkComments() throws IOException{
+		File comments = File.createTempFile("comments", ".pas");
+		comments.deleteOnExit();
+		Writer out = new BufferedWriter(new FileWriter(comments));
+		try{
+			BufferedReader in = new BufferedReader(new FileReader(corpus));
+			try{
+				String line;
+				int count = 0;
+				while((line = in.readLine()) != null){
+					// A block of comment lines every 20 lines of code
+					if(count++ % 20 == 0){
+						out.write("{\n");
+						for(int i = 0; i < 20; i++){
+							out.write("        This line of the comment block is skipped by the lexer.\n");
+						}
+						out.write("}\n");
+					}
+					out.write("            ");
+					out.write(line);
+					out.write('\n');
+				}
+			}finally{
+				in.close();
+			}
+		}finally{
+			out.close();
+		}
+		long length = comments.length();
+		report("Tokenizer (comments)", lexerRate(comments, length, false, false), length);
+		report("Tokenizer (comments, mapped)", lexerRate(comments, length, false, true), length);
+		report("DfaTokenizer (comments, mapped)", lexerRate(comments, length, true, true), length);
+		comments.delete();
+	}
+
+	/** Measures how many characters per second the DfaTokenizer lexes into a TokenBuffer,
+	 *  compared with creating Token objects, after checking that the packed tokens are the
+	 *  same as the Tokenizer's on the corpus */
+	public void benchmarkPacked(){
+		long mismatches = LexerComparison.compare(new Tokenizer(corpus.getPath()), PackedTokens.tokenize(corpus.getPath()));
+		System.out.println("Tokenizer vs PackedTokens: " + mismatches + " mismatched tokens");
+		report("DfaTokenizer (mapped)", lexerRate(true, true));
+		report("DfaTokenizer (packed)", packedRate(false));
+		report("DfaTokenizer (packed, reused)", packedRate(true));
+	}
+
+	/** Measures how many characters per second the ParallelTokenizer lexes into a TokenBuffer
+	 *  with pools of 1, 2, 4 ... threads (up to the number of processors), after checking
+	 *  that its tokens are the same as the Tokenizer's on the corpus */
+	public void benchmarkParallel(){
+		long mismatches = LexerComparison.compare(new Tokenizer(corpus.getPath()), ParallelTokenizer.tokenize(corpus.getPath()));
+		System.out.println("Tokenizer vs ParallelTokenizer: " + mismatches + " mismatched tokens");
+		report("DfaTokenizer (packed)", packedRate(false));
+		int processors = Runtime.getRuntime().availableProcessors();
+		for(int threads = 1; threads <= processors; threads *= 2){
+			report("ParallelTokenizer (" + threads + " threads)", parallelRate(threads));
+		}
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs of the ParallelTokenizer */
+	private double parallelRate(int threads){
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		double best = 0;
+		try{
+			for(int run = 0; run < RUNS; run++){
+				long start = System.nanoTime();
+				new ParallelTokenizer(pool).tokenize(new ByteCharStream(corpus.getPath()), new TokenBuffer());
+				long elapsed = System.nanoTime() - start;
+				best = Math.max(best, corpusLength * 1e9 / elapsed);
+			}
+		}finally{
+			pool.shutdown();
+		}
+		return best;
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs for lexing into a TokenBuffer.
+	 *  If reuse is true, the same buffer is cleared and filled on every run. */
+	private double packedRate(boolean reuse){
+		TokenBuffer tokens = new TokenBuffer();
+		double best = 0;
+		for(int run = 0; run < RUNS; run++){
+			long start = System.nanoTime();
+			if(reuse){
+				tokens.clear();
+			}
+			else{
+				tokens = new TokenBuffer();
+			}
+			new DfaTokenizer(new ByteCharStream(corpus.getPath())).tokenize(tokens);
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, corpusLength * 1e9 / elapsed);
+		}
+		return best;
+	}
+
+	/** Measures how long it takes to bring the tokens of the corpus up to date after typing a
+	 *  character, with an IncrementalTokenizer and by lexing the whole corpus again */
+	public void benchmarkIncremental() throws IOException{
+		byte[] source = Files.readAllBytes(corpus.toPath());
+		IncrementalTokenizer lexer = new IncrementalTokenizer(source);
+		Random random = new Random(1);
+		int edits = 1000;
+		long relexed = 0;
+		long start = System.nanoTime();
+		for(int i = 0; i < edits; i++){
+			// Type a character, then delete it again
+			int offset = random.nextInt(source.length);
+			lexer.edit(offset, 0, "x");
+			relexed += lexer.getRelexed();
+			lexer.edit(offset, 1, "");
+			relexed += lexer.getRelexed();
+		}
+		double incremental = (System.nanoTime() - start) / 1e3 / (2 * edits);
+		double best = Double.MAX_VALUE;
+		for(int run = 0; run < RUNS; run++){
+			start = System.nanoTime();
+			new IncrementalTokenizer(source);
+			best = Math.min(best, (System.nanoTime() - start) / 1e3);
+		}
+		System.out.printf("%-30s %10.1f us per edit  (%.1f tokens lexed per edit)%n",
+				"IncrementalTokenizer", incremental, relexed / (2.0 * edits));
+		System.out.printf("%-30s %10.1f us per edit  (%d tokens lexed per edit)%n",
+				"Whole corpus", best, lexer.getTokens().size());
+	}
+
+	/** Measures how many characters per second the Parser compiles when it reads its tokens
+	 *  straight from the lexer, and when the lexer runs on a thread of its own (PipelinedTokens),
+	 *  on a generated program of PROGRAM_STATEMENTS pairs of statements, after checking that both streams
+	 *  return the same tokens. The generated code is thrown away. */
+	public void benchmarkPipelined() throws IOException{
+		File program = generateProgram();
+		long length = program.length();
+		long mismatches = LexerComparison.compare(new Tokenizer(program.getPath()), new PipelinedTokens(new Tokenizer(program.getPath())));
+		System.out.println("Tokenizer vs PipelinedTokens: " + mismatches + " mismatched tokens");
+		for(boolean mapped: new boolean[] {false, true}){
+			String backend = mapped ? " mapped" : "";
+			report("Parser (Tokenizer" + backend + ")", parseRate(program, length, mapped, false), length);
+			report("Parser (pipelined" + backend + ")", parseRate(program, length, mapped, true), length);
+		}
+		program.delete();
+	}
+
+	/** Measures how many productions per second each Parser engine expands, on the program
+	 *  generated for benchmarkPipelined(). The tokens are lexed into a TokenBuffer before each
+	 *  timed run, and the generated code is printed after it, so that neither is timed; the
+	 *  semantic actions are. */
+	public void benchmarkParser() throws IOException{
+		File program = generateProgram();
+		for(Parser.Engine engine: Parser.Engine.values()){
+			double best = 0;
+			long productions = 0;
+			for(int run = 0; run < RUNS; run++){
+				long[] printed = new long[1];
+				Parser parser = new Parser(PackedTokens.tokenize(program.getPath()), discard(printed));
+				parser.setEngine(engine);
+				long elapsed = timeParse(parser, printed);
+				productions = parser.getProductionCount();
+				best = Math.max(best, productions * 1e9 / elapsed);
+			}
+			System.out.printf("%-30s %10.1f M productions/s  (%d productions)%n",
+					"Parser (" + engine + ")", best / 1e6, productions);
+		}
+		program.delete();
+	}
+
+	/** Measures how long the compiler takes to compile a generated program with
+	 *  PROGRAM_STATEMENTS groups of statements of every kind: assignments, array references,
+	 *  conditions, loops, and calls of functions and procedures, so that most of the semantic
+	 *  actions run many times, and how long it takes as it was before the actions were split 
+	 *  into handlers, with the actions interpreted (see INTERPRETED_OPTIONS) in another JVM. */
+	public void benchmarkActions() throws IOException, InterruptedException{
+		File program = generateStatements();
+		double handlers = timeActions(program);
+		List<String> command = new ArrayList<String>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+		command.addAll(Arrays.asList(INTERPRETED_OPTIONS));
+		command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), BenchmarkDriver.class.getName(),
+				INTERPRETED_ACTIONS, program.getPath()));
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		String output = reader.readLine();
+		reader.close();
+		if(process.waitFor() != 0 || output == null){
+			throw new IOException("The JVM timing the interpreted actions failed: " + output);
+		}
+		double interpreted = Double.parseDouble(output);
+		System.out.printf("%-30s %10.1f ms per compilation  (%d lines)%n",
+				"Semantic actions (handlers)", handlers, PROGRAM_STATEMENTS * 3);
+		System.out.printf("%-30s %10.1f ms per compilation  (%.1fx)%n",
+				"Semantic actions interpreted", interpreted, interpreted / handlers);
+		program.delete();
+	}
+
+	/** Returns the best time over RUNS runs of the compilation of a program, in ms. The tokens
+	 *  are lexed into a TokenBuffer before each timed run, and the generated code is printed
+	 *  after it, so that neither is timed. */
+	private static double timeActions(File program){
+		double best = Double.MAX_VALUE;
+		for(int run = 0; run < RUNS; run++){
+			long[] printed = new long[1];
+			Parser parser = new Parser(PackedTokens.tokenize(program.getPath()), discard(printed));
+			best = Math.min(best, timeParse(parser, printed) / 1e6);
+		}
+		return best;
+	}
+
+	/** Measures how many million values per second the semantic stack pushes and pops, and an
+	 *  ArrayDeque of Objects cast back to their classes, as it was before: the values of an
+	 *  expression "a + b" and of the condition of a loop, in the order the semantic actions
+	 *  push and pop them. */
+	public void benchmarkStack(){
+		SymbolTableEntry a = new VariableEntry("A", TokenType.INTEGER);
+		SymbolTableEntry b = new VariableEntry("B", TokenType.INTEGER);
+		Operator plus = new Operator(TokenType.ADDOP, "+");
+		List<Integer> labels = new ArrayList<Integer>(Arrays.asList(1, 2));
+		int repeats = 1000000;
+		// Values pushed by each repeat
+		int values = 12;
+		double typed = 0, boxed = 0;
+		long check = 0;
+		for(int run = 0; run < RUNS; run++){
+			SemanticStack stack = new SemanticStack();
+			long start = System.nanoTime();
+			for(int i = 0; i < repeats; i++){
+				stack.push(i);
+				stack.push(a);
+				stack.push(EType.ARITHMETIC);
+				check += stack.popEType().ordinal();
+				stack.push(plus);
+				stack.push(b);
+				stack.push(EType.ARITHMETIC);
+				check += stack.popEType().ordinal();
+				check += stack.popEntry().getAddress();
+				check += stack.popOperator().getTVICode().length();
+				check += stack.popEntry().getAddress();
+				stack.push(labels);
+				stack.push(labels);
+				stack.push(EType.RELATIONAL);
+				check += stack.popEType().ordinal();
+				check += stack.popLabels().size() + stack.popLabels().size();
+				stack.push(a);
+				stack.push(EType.ARITHMETIC);
+				check += stack.popEType().ordinal() + stack.popEntry().getAddress();
+				check += stack.popNumber();
+			}
+			typed = Math.max(typed, values * repeats * 1e3 / (System.nanoTime() - start));
+			ArrayDeque<Object> deque = new ArrayDeque<Object>();
+			start = System.nanoTime();
+			for(int i = 0; i < repeats; i++){
+				deque.push(i);
+				deque.push(a);
+				deque.push(EType.ARITHMETIC);
+				check += ((EType) deque.pop()).ordinal();
+				deque.push(plus);
+				deque.push(b);
+				deque.push(EType.ARITHMETIC);
+				check += ((EType) deque.pop()).ordinal();
+				check += ((SymbolTableEntry) deque.pop()).getAddress();
+				check += ((Operator) deque.pop()).getTVICode().length();
+				check += ((SymbolTableEntry) deque.pop()).getAddress();
+				deque.push(labels);
+				deque.push(labels);
+				deque.push(EType.RELATIONAL);
+				check += ((EType) deque.pop()).ordinal();
+				check += ((List<?>) deque.pop()).size() + ((List<?>) deque.pop()).size();
+				deque.push(a);
+				deque.push(EType.ARITHMETIC);
+				check += ((EType) deque.pop()).ordinal() + ((SymbolTableEntry) deque.pop()).getAddress();
+				check += (Integer) deque.pop();
+			}
+			boxed = Math.max(boxed, values * repeats * 1e3 / (System.nanoTime() - start));
+		}
+		System.out.printf("%-30s %10.1f M values/s%n", "SemanticStack", typed);
+		System.out.printf("%-30s %10.1f M values/s  (checksum %d)%n", "ArrayDeque of Objects", boxed, check);
+	}
+
+	/** Writes a program of PROGRAM_STATEMENTS groups of three lines of statements of every kind
+	 *  to a temporary file */
+	private static File generateStatements() throws IOException{
+		File program = File.createTempFile("statements", ".pas");
+		program.deleteOnExit();
+		Writer out = new BufferedWriter(new FileWriter(program));
+		try{
+			out.write("program big (input, output);\n");
+			out.write("var a, b, c : integer;\n    x, y : real;\n    v : array [1..10] of integer;\n");
+			out.write("function f (n : integer) : result integer;\nbegin f := n * 2 end\n");
+			out.write("procedure p (q, r : integer);\nvar t : integer;\n");
+			out.write("begin t := q mod r; if t > 0 then write(t) else write(q) end\n");
+			out.write("begin\n");
+			out.write("  a := 1; b := 2; c := 3; x := 0.5; y := 1.5e1");
+			for(int i = 0; i < PROGRAM_STATEMENTS; i++){
+				out.write(";\n  a := (b + c) * " + i + " - a div 3; x := y / 2.0 + x");
+				out.write(";\n  if (a < b) and not (c = 0) then v[" + (i % 10 + 1) + "] := f(a) else while b > 0 do b := b - 1");
+				out.write(";\n  p(a, " + (i + 1) + "); read(c); if (x >= " + i + ".5) or (a <> b) then x := x - 1 else y := -y * a");
+			}
+			out.write(";\n  write(a, b, c, x, y)\nend.\n");
+		}finally{
+			out.close();
+		}
+		return program;
+	}
+
+	/** Writes a program of PROGRAM_STATEMENTS pairs of statements to a temporary file */
+	private static File generateProgram() throws IOException{
+		File program = File.createTempFile("program", ".pas");
+		program.deleteOnExit();
+		Writer out = new BufferedWriter(new FileWriter(program));
+		try{
+			out.write("program big (input, output);\n");
+			out.write("var a, b, c : integer;\n    x, y : real;\n");
+			out.write("begin\n");
+			out.write("  a := 1; b := 2; c := 3; x := 0.5; y := 1.5e1");
+			for(int i = 0; i < PROGRAM_STATEMENTS; i++){
+				out.write(";\n  a := (b + c) * " + i + " - a div 3");
+				out.write(";\n  x := y / 2.0 + x");
+			}
+			out.write(";\n  write(a, b, c, x, y)\nend.\n");
+		}finally{
+			out.close();
+		}
+		return program;
+	}
+
+	/** Returns a compilation which throws its output away, and records in printed[0] when
+	 *  the first line was printed */
+	private static Compilation discard(final long[] printed){
+		PrintStream discard = new PrintStream(new OutputStream(){
+			@Override
+			public void write(int b){
+				if(printed[0] == 0){
+					printed[0] = System.nanoTime();
+				}
+			}
+			@Override
+			public void write(byte[] b, int off, int len){
+				write(0);
+			}
+		});
+		return new Compilation(discard, discard);
+	}
+
+	/** Parses a program with a compilation created by discard(printed), and returns the time
+	 *  taken in nanoseconds by the parse itself: up to the first line printed, "Compilation
+	 *  successful", before the generated code is printed. The program must not have any errors. */
+	private static long timeParse(Parser parser, long[] printed){
+		long start = System.nanoTime();
+		try{
+			parser.parse();
+		}catch(CompilerError e){
+			throw new IllegalStateException(e);
+		}
+		return printed[0] - start;
+	}
+
+	/** Returns the best characters-per-second rate over RUNS runs for parsing a file */
+	private double parseRate(File file, long length, boolean mapped, boolean pipelined){
+		double best = 0;
+		for(int run = 0; run < RUNS; run++){
+			long start = System.nanoTime();
+			CharStream stream = mapped ? new ByteCharStream(file.getPath()) : new CharStream(file.getPath());
+			TokenStream lexer = new Tokenizer(stream);
+			if(pipelined){
+				lexer = new PipelinedTokens(lexer);
+			}
+			long[] printed = new long[1];
+			timeParse(new Parser(lexer, discard(printed)), printed);
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, length * 1e9 / elapsed);
+		}
+		return best;
+	}
+
+	/** Prints one benchmark result */
+	private void report(String name, double charsPerSecond){
+		report(name, charsPerSecond, corpusLength);
+	}
+
+	private void report(String name, double charsPerSecond, long length){
+		System.out.printf("%-30s %10.1f M chars/s  (%d byte corpus)%n",
+				name, charsPerSecond / 1e6, length);
+	}
+
+	/** Runs the benchmark named on the command line, or all of them */
+	public static void main(String[] args) throws IOException, InterruptedException{
+		String mode = args.length > 0 ? args[0] : "all";
+		if(mode.equals(INTERPRETED_ACTIONS) && args.length == 2){
+			System.out.println(timeActions(new File(args[1])));
+			return;
+		}
+		BenchmarkDriver driver = new BenchmarkDriver();
+		if(mode.equals("charstream") || mode.equals("all")){
+			driver.benchmarkCharStreams();
+		}
+		if(mode.equals("lexer") || mode.equals("all")){
+			driver.benchmarkLexers();
+		}
+		if(mode.equals("packed") || mode.equals("all")){
+			driver.benchmarkPacked();
+		}
+		if(mode.equals("parallel") || mode.equals("all")){
+			driver.benchmarkParallel();
+		}
+		if(mode.equals("comments") || mode.equals("all")){
+			driver.benchmarkComments();
+		}
+		if(mode.equals("incremental") || mode.equals("all")){
+			driver.benchmarkIncremental();
+		}
+		if(mode.equals("pipelined") || mode.equals("all")){
+			driver.benchmarkPipelined();
+		}
+		if(mode.equals("parser") || mode.equals("all")){
+			driver.benchmarkParser();
+		}
+		if(mode.equals("actions") || mode.equals("all")){
+			driver.benchmarkActions();
+		}
+		if(mode.equals("stack") || mode.equals("all")){
+			driver.benchmarkStack();
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package drivers;
+import lex.Source;
+import parser.*;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.*;
+import java.util.*;
+import java.util.jar.*;
+
+/** A cache of compilations on disk, so that a program which has not changed since it was last
+ *  compiled is not compiled again. <br>
+ *  An entry holds the outcome, the code, and the diagnostics of a compilation, and is found by
+ *  a SHA-256 hash of the program and of the fingerprint of the compiler: every class and
+ *  resource of the directory or jar the compiler was loaded from, so a changed compiler never
+ *  finds the entries of another. Every lexical analyzer and parser engine compile a program the same
+ *  way, so the options of ParseDriver are not part of the key. Compilations which failed
+ *  unexpectedly are not cached. <br>
+ *  Each entry is a file of the cache directory. The entries used least recently are deleted
+ *  when the files take more room than the limit of the cache; the time an entry was last used
+ *  is kept as the time its file was last modified, so it outlives the process. The methods
+ *  may be called from any thread, and several processes may share a directory.
+ */
+public class CompilationCache {
+	/** Version of the format of the entries, part of the fingerprint */
+	private static final int VERSION = 1;
+	/** Extension of the files of the entries */
+	private static final String EXTENSION = ".entry";
+	/** Default limit on the room taken by the entries, in bytes */
+	public static final long DEFAULT_LIMIT = 64L * 1024 * 1024;
+
+	/** Fingerprint of the compiler, computed the first time it is needed */
+	private static final class Shared {
+		static final byte[] FINGERPRINT = computeFingerprint();
+	}
+
+	/** The outcome, code, and diagnostics of a compilation */
+	public static class Entry {
+		private final BatchDriver.Status status;
+		private final byte[] code;
+		private final String diagnostics;
+
+		/** Constructor */
+		Entry(BatchDriver.Status status, byte[] code, String diagnostics){
+			this.status = status;
+			this.code = code;
+			this.diagnostics = diagnostics;
+		}
+
+		/** Returns the outcome of the compilation */
+		public BatchDriver.Status getStatus(){
+			return status;
+		}
+
+		/** Returns the code, which is empty unless the compilation succeeded */
+		public byte[] getCode(){
+			return code;
+		}
+
+		/** Returns everything the compiler printed besides the code */
+		public String getDiagnostics(){
+			return diagnostics;
+		}
+	}
+
+	/** Fingerprint of the compiler the entries were compiled by */
+	private final byte[] fingerprint;
+	/** Directory holding the entries */
+	private final File directory;
+	/** Limit on the room taken by the entries, in bytes */
+	private final long limit;
+	/** Size of the file of each entry, by key, from the least to the most recently used */
+	private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<String, Long>(16, 0.75f, true);
+	/** Room taken by the entries, in bytes */
+	private long size;
+	/** Number of compilations found in the cache, and not found */
+	private long hits, misses;
+
+	/** Constructor. Uses the entries already in the directory, which is created if need be */
+	public CompilationCache(File directory, long limit) throws IOException{
+		this(directory, limit, Shared.FINGERPRINT);
+	}
+
+	/** Constructor for the entries of a compiler with the given fingerprint, instead of this
+	 *  one. Entries of another fingerprint in the directory are never found */
+	public CompilationCache(File directory, long limit, byte[] fingerprint) throws IOException{
+		this.fingerprint = fingerprint.clone();
+		this.directory = directory;
+		this.limit = limit;
+		Files.createDirectories(directory.toPath());
+		File[] files = directory.listFiles();
+		Arrays.sort(files, new Comparator<File>(){
+			public int compare(File a, File b){
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+		for(File f: files){
+			if(f.getName().endsWith(EXTENSION)){
+				String key = f.getName().substring(0, f.getName().length() - EXTENSION.length());
+				sizes.put(key, f.length());
+				size += f.length();
+			}
+		}
+		synchronized(this){
+			evict();
+		}
+	}
+
+	/** Returns the fingerprint of the compiler */
+	public static byte[] fingerprint(){
+		return Shared.FINGERPRINT.clone();
+	}
+
+	/** Hashes the version of the entries, and the name and bytes of every class and resource
+	 *  of the directory or jar the compiler was loaded from, in the order of their names */
+	private static byte[] computeFingerprint(){
+		MessageDigest digest = sha256();
+		digest.update((byte) VERSION);
+		CodeSource code = CompilationCache.class.getProtectionDomain().getCodeSource();
+		try{
+			if(code == null || code.getLocation() == null){
+				throw new IOException("No code source");
+			}
+			File location = new File(code.getLocation().toURI());
+			if(location.isDirectory()){
+				hashDirectory(digest, location.toPath());
+			}
+			else{
+				hashJar(digest, location);
+			}
+		}catch(IOException | URISyntaxException | IllegalArgumentException e){
+			throw new IllegalStateException("Cannot read the classes of the compiler", e);
+		}
+		return digest.digest();
+	}
+
+	/** Adds the name and bytes of every file below a directory to a hash */
+	private static void hashDirectory(MessageDigest digest, final Path root) throws IOException{
+		final SortedMap<String, Path> files = new TreeMap<String, Path>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>(){
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes){
+				if(attributes.isRegularFile()){
+					files.put(root.relativize(file).toString().replace(File.separatorChar, '/'), file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		for(Map.Entry<String, Path> file: files.entrySet()){
+			InputStream in = Files.newInputStream(file.getValue());
+			try{
+				hash(digest, file.getKey(), in);
+			}finally{
+				in.close();
+			}
+		}
+	}
+
+	/** Adds the name and bytes of every entry of a jar to a hash */
+	private static void hashJar(MessageDigest digest, File location) throws IOException{
+		JarFile jar = new JarFile(location);
+		try{
+			SortedMap<String, JarEntry> entries = new TreeMap<String, JarEntry>();
+			for(Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ){
+				JarEntry entry = e.nextElement();
+				if(!entry.isDirectory()){
+					entries.put(entry.getName(), entry);
+				}
+			}
+			for(Map.Entry<String, JarEntry> entry: entries.entrySet()){
+				InputStream in = jar.getInputStream(entry.getValue());
+				try{
+					hash(digest, entry.getKey(), in);
+				}finally{
+					in.close();
+				}
+			}
+		}finally{
+			jar.close();
+		}
+	}
+
+	/** Adds the name of a file, its length, and its bytes to a hash */
+	private static void hash(MessageDigest digest, String name, InputStream in) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for(int n = in.read(buffer); n != -1; n = in.read(buffer)){
+			bytes.write(buffer, 0, n);
+		}
+		digest.update(name.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(Long.toString(bytes.size()).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(bytes.toByteArray());
+	}
+
+	/** Returns a new SHA-256 digest */
+	private static MessageDigest sha256(){
+		try{
+			return MessageDigest.getInstance("SHA-256");
+		}catch(NoSuchAlgorithmException e){
+			// Every Java platform has SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** Returns the key of the entry of a program: the hash of the fingerprint of the compiler
+	 *  and of the program, in hexadecimal */
+	private String key(byte[] source){
+		MessageDigest digest = sha256();
+		digest.update(fingerprint);
+		digest.update(source);
+		StringBuilder key = new StringBuilder();
+		for(byte b: digest.digest()){
+			key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return key.toString();
+	}
+
+	/** Returns the compilation of a program found in the cache, or compiles it with the options
+	 *  of ParseDriver and caches it */
+	public Entry compile(byte[] source, List<String> options){
+		String key = key(source);
+		Entry entry = get(key);
+		if(entry != null){
+			return entry;
+		}
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		PrintStream diagnostics = new PrintStream(printed, true);
+		BatchDriver.Status status = BatchDriver.compile(Source.of(source), options,
+				new Compilation(diagnostics, new PrintStream(code, true)));
+		diagnostics.flush();
+		entry = new Entry(status, code.toByteArray(), printed.toString());
+		if(status != BatchDriver.Status.FAILED){
+			put(key, entry);
+		}
+		return entry;
+	}
+
+	/** Returns the compilation of a program found in the cache, or null */
+	public Entry get(byte[] source){
+		return get(key(source));
+	}
+
+	/** Returns the entry of a key, or null. An entry which cannot be read is deleted. */
+	private synchronized Entry get(String key){
+		File file = file(key);
+		if(sizes.get(key) == null && !file.isFile()){
+			misses++;
+			return null;
+		}
+		try{
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try{
+				BatchDriver.Status status = BatchDriver.Status.values()[in.readUnsignedByte()];
+				byte[] code = new byte[in.readInt()];
+				in.readFully(code);
+				byte[] diagnostics = new byte[in.readInt()];
+				in.readFully(diagnostics);
+				if(sizes.get(key) == null){
+					// Added by another process
+					sizes.put(key, file.length());
+					size += file.length();
+				}
+				file.setLastModified(System.currentTimeMillis());
+				hits++;
+				return new Entry(status, code, new String(diagnostics, StandardCharsets.UTF_8));
+			}finally{
+				in.close();
+			}
+		}catch(IOException | RuntimeException e){
+			// Deleted by another process, or not completely written
+			remove(key);
+			misses++;
+			return null;
+		}
+	}
+
+	/** Writes an entry for a program */
+	public void put(byte[] source, Entry entry){
+		put(key(source), entry);
+	}
+
+	/** Writes the entry of a key, and deletes the least recently used entries if the cache
+	 *  has grown too large. The entry is written to a temporary file, moved in place at once,
+	 *  so that it is never seen partly written. */
+	private synchronized void put(String key, Entry entry){
+		try{
+			File temporary = File.createTempFile(key, ".tmp", directory);
+			try{
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+				try{
+					out.writeByte(entry.status.ordinal());
+					out.writeInt(entry.code.length);
+					out.write(entry.code);
+					byte[] diagnostics = entry.diagnostics.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(diagnostics.length);
+					out.write(diagnostics);
+				}finally{
+					out.close();
+				}
+				Files.move(temporary.toPath(), file(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}finally{
+				temporary.delete();
+			}
+		}catch(IOException e){
+			// The program is compiled again next time
+			return;
+		}
+		Long previous = sizes.put(key, file(key).length());
+		size += file(key).length() - (previous == null ? 0 : previous);
+		evict();
+	}
+
+	/** Deletes the least recently used entries until the cache fits its limit */
+	private void evict(){
+		Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+		while(size > limit && eldest.hasNext()){
+			Map.Entry<String, Long> entry = eldest.next();
+			file(entry.getKey()).delete();
+			size -= entry.getValue();
+			eldest.remove();
+		}
+	}
+
+	/** Deletes the entry of a key */
+	private void remove(String key){
+		Long previous = sizes.remove(key);
+		if(previous != null){
+			size -= previous;
+		}
+		file(key).delete();
+	}
+
+	/** Returns the file of the entry of a key */
+	private File file(String key){
+		return new File(directory, key + EXTENSION);
+	}
+
+	/** Returns the room taken by the entries, in bytes */
+	public synchronized long size(){
+		return size;
+	}
+
+	/** Returns the number of compilations found in the cache */
+	public synchronized long getHits(){
+		return hits;
+	}
+
+	/** Returns the number of compilations not found in the cache */
+	public synchronized long getMisses(){
+		return misses;
+	}
+}
@@ -0,0 +1,130 @@
+package drivers;
+import java.io.*;
+import java.net.*;
+import java.nio.file.Files;
+import java.util.*;
+
+/** A client of a CompileServer: sends programs over one connection and reads the code and
+ *  the diagnostics of each. <br>
+ *  From the command line, it compiles files the way BatchDriver does, one after the other:
+ *  the code of each file is written next to it, and the diagnostics are printed.
+ */
+public class CompileClient implements Closeable {
+	/** Connection to the server */
+	private final Socket socket;
+	private final DataInputStream in;
+	private final DataOutputStream out;
+
+	/** The outcome, code, and diagnostics of a compilation done by the server */
+	public static class Reply {
+		private final BatchDriver.Status status;
+		private final byte[] code;
+		private final String diagnostics;
+
+		/** Constructor */
+		Reply(BatchDriver.Status status, byte[] code, String diagnostics){
+			this.status = status;
+			this.code = code;
+			this.diagnostics = diagnostics;
+		}
+
+		/** Returns the outcome of the compilation */
+		public BatchDriver.Status getStatus(){
+			return status;
+		}
+
+		/** Returns the code, which is empty unless the compilation succeeded */
+		public byte[] getCode(){
+			return code;
+		}
+
+		/** Returns everything the compiler printed besides the code */
+		public String getDiagnostics(){
+			return diagnostics;
+		}
+	}
+
+	/** Constructor. Connects to the server listening on the given port of the loopback interface */
+	public CompileClient(int port) throws IOException{
+		socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		socket.setTcpNoDelay(true);
+		in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/** Has the server compile a program, and returns the outcome */
+	public Reply compile(byte[] source) throws IOException{
+		out.writeByte(CompileServer.COMPILE);
+		out.writeInt(source.length);
+		out.write(source);
+		out.flush();
+		BatchDriver.Status status = BatchDriver.Status.values()[in.readUnsignedByte()];
+		byte[] code = readBytes();
+		return new Reply(status, code, new String(readBytes(), "ISO-8859-1"));
+	}
+
+	/** Returns the statistics of the server (see CompileServer.getStats()) */
+	public String getStats() throws IOException{
+		out.writeByte(CompileServer.STATS);
+		out.flush();
+		return in.readUTF();
+	}
+
+	/** Reads bytes preceded by their number */
+	private byte[] readBytes() throws IOException{
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/** Closes the connection */
+	public void close() throws IOException{
+		socket.close();
+	}
+
+	/** Compiles the files, directories, and glob patterns given as arguments (see BatchDriver)
+	 *  on a server. They may be preceded by "-port n" (by default CompileServer.DEFAULT_PORT)
+	 *  and by "-stats", which prints the statistics of the server once the files are compiled.
+	 *  Exits with status 1 if any file did not compile. */
+	public static void main(String[] args) throws IOException{
+		int port = CompileServer.DEFAULT_PORT;
+		boolean stats = false;
+		int i = 0;
+		for(; i < args.length && args[i].startsWith("-"); i++){
+			if(args[i].equals("-port") && i + 1 < args.length){
+				port = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-stats")){
+				stats = true;
+			}
+			else{
+				System.err.println("Unknown option " + args[i]);
+			}
+		}
+		boolean failed = false;
+		CompileClient client = new CompileClient(port);
+		try{
+			for(File source: BatchDriver.findSources(Arrays.asList(args).subList(i, args.length))){
+				Reply reply = client.compile(Files.readAllBytes(source.toPath()));
+				File codeFile = BatchDriver.codeFile(source);
+				codeFile.delete();
+				if(reply.getStatus() == BatchDriver.Status.OK){
+					Files.write(codeFile.toPath(), reply.getCode());
+				}
+				else{
+					failed = true;
+				}
+				System.out.println(reply.getStatus() + " " + source.getPath());
+				System.out.print(reply.getDiagnostics());
+			}
+			if(stats){
+				System.out.println(client.getStats());
+			}
+		}finally{
+			client.close();
+		}
+		if(failed){
+			System.exit(1);
+		}
+	}
+}
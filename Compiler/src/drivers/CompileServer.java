@@ -0,0 +1,254 @@
+package drivers;
+import lex.Source;
+import parser.Compilation;
+import parser.PackedGrammar;
+import parser.ParseTable;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/** A compiler which stays up, so that compiling a file does not pay for starting a JVM,
+ *  loading the tables, and warming up the JIT each time. <br>
+ *  The server listens on a port of the loopback interface. A client (see CompileClient) sends
+ *  requests on a connection, one after the other, and reads the reply to each. A request is
+ *  one byte, COMPILE or STATS, and a program to compile follows COMPILE as its length (an int)
+ *  and its bytes. The reply to COMPILE is the Status of the compilation (one byte), the code,
+ *  and the diagnostics, each one as its length and its bytes; the reply to STATS is a line of
+ *  statistics, written with writeUTF. <br>
+ *  Connections are served on threads of their own, and the programs are compiled on a fixed
+ *  pool of threads. The queue depth is the number of programs waiting for a thread of the pool.
+ */
+public class CompileServer implements Closeable {
+	/** Port the server listens on by default */
+	public static final int DEFAULT_PORT = 4040;
+	/** Request to compile a program */
+	public static final int COMPILE = 'C';
+	/** Request for the statistics of the server */
+	public static final int STATS = 'S';
+	/** Longest program the server accepts, in bytes */
+	public static final int MAX_SOURCE = 64 * 1024 * 1024;
+	/** Number of the latest requests the latency percentiles are computed over */
+	private static final int LATENCY_WINDOW = 4096;
+
+	/** Options of ParseDriver selecting the lexical analyzer and the parser engine */
+	private final List<String> options;
+	/** Socket accepting the connections */
+	private final ServerSocket serverSocket;
+	/** Threads compiling the programs */
+	private final ThreadPoolExecutor compilers;
+	/** Threads serving the connections */
+	private final ExecutorService connections;
+	/** Connections open, closed when the server is */
+	private final Set<Socket> open = Collections.synchronizedSet(new HashSet<Socket>());
+	/** Latencies of the latest requests, in nanoseconds, used as a ring */
+	private final long[] latencies = new long[LATENCY_WINDOW];
+	/** Number of programs compiled; guarded by latencies */
+	private long requests;
+
+	/** Constructor. Listens on the given port of the loopback interface (0 for any free port),
+	 *  and compiles with the options of ParseDriver on the given number of threads. The tables
+	 *  of the compiler are loaded before the constructor returns. */
+	public CompileServer(int port, List<String> options, int threads) throws IOException{
+		this.options = new ArrayList<String>(options);
+		ParseTable.getInstance();
+		PackedGrammar.getInstance();
+		compilers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		connections = Executors.newCachedThreadPool();
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+	}
+
+	/** Returns the port the server listens on */
+	public int getPort(){
+		return serverSocket.getLocalPort();
+	}
+
+	/** Accepts connections on the calling thread, until the server is closed */
+	public void run(){
+		while(!serverSocket.isClosed()){
+			final Socket socket;
+			try{
+				socket = serverSocket.accept();
+			}catch(IOException e){
+				// The server was closed
+				break;
+			}
+			open.add(socket);
+			try{
+				connections.execute(new Runnable(){
+					public void run(){
+						serve(socket);
+					}
+				});
+			}catch(RejectedExecutionException e){
+				close(socket);
+			}
+		}
+	}
+
+	/** Accepts connections on a thread of their own, and returns */
+	public void start(){
+		Thread acceptor = new Thread(new Runnable(){
+			public void run(){
+				CompileServer.this.run();
+			}
+		}, "CompileServer:" + getPort());
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/** Answers the requests sent on a connection, until the client closes it */
+	private void serve(Socket socket){
+		try{
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			for(int request = in.read(); request != -1; request = in.read()){
+				if(request == COMPILE){
+					int length = in.readInt();
+					if(length < 0 || length > MAX_SOURCE){
+						throw new IOException("Program of " + length + " bytes");
+					}
+					byte[] source = new byte[length];
+					in.readFully(source);
+					long start = System.nanoTime();
+					Reply reply = compile(source);
+					record(System.nanoTime() - start);
+					out.writeByte(reply.status.ordinal());
+					out.writeInt(reply.code.length);
+					out.write(reply.code);
+					out.writeInt(reply.diagnostics.length);
+					out.write(reply.diagnostics);
+				}
+				else if(request == STATS){
+					out.writeUTF(getStats());
+				}
+				else{
+					throw new IOException("Unknown request " + request);
+				}
+				out.flush();
+			}
+		}catch(IOException e){
+			// The connection is dropped
+		}catch(InterruptedException e){
+			// The server was closed
+		}finally{
+			close(socket);
+		}
+	}
+
+	/** The outcome, code, and diagnostics of a compilation */
+	private static class Reply {
+		BatchDriver.Status status;
+		byte[] code;
+		byte[] diagnostics;
+	}
+
+	/** Compiles a program on the pool, and waits for it */
+	private Reply compile(final byte[] source) throws InterruptedException{
+		Future<Reply> reply = compilers.submit(new Callable<Reply>(){
+			public Reply call(){
+				ByteArrayOutputStream code = new ByteArrayOutputStream();
+				ByteArrayOutputStream printed = new ByteArrayOutputStream();
+				PrintStream diagnostics = new PrintStream(printed, true);
+				Reply reply = new Reply();
+				reply.status = BatchDriver.compile(Source.of(source), options, new Compilation(diagnostics, new PrintStream(code, true)));
+				diagnostics.flush();
+				reply.code = code.toByteArray();
+				reply.diagnostics = printed.toByteArray();
+				return reply;
+			}
+		});
+		try{
+			return reply.get();
+		}catch(ExecutionException e){
+			// BatchDriver.compile() only lets Errors other than StackOverflowError through
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/** Records the latency of a request */
+	private void record(long nanos){
+		synchronized(latencies){
+			latencies[(int) (requests % LATENCY_WINDOW)] = nanos;
+			requests++;
+		}
+	}
+
+	/** Returns the number of programs compiled, the number of programs waiting for a thread
+	 *  and the number being compiled, and the percentiles of the latency of the latest
+	 *  requests, from the time the program was received until its reply was ready */
+	public String getStats(){
+		long[] sorted;
+		long count;
+		synchronized(latencies){
+			count = requests;
+			sorted = Arrays.copyOf(latencies, (int) Math.min(count, LATENCY_WINDOW));
+		}
+		Arrays.sort(sorted);
+		return String.format("requests %d, queued %d, compiling %d, latency p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+				count, compilers.getQueue().size(), compilers.getActiveCount(), percentile(sorted, 50) / 1e6,
+				percentile(sorted, 90) / 1e6, percentile(sorted, 99) / 1e6, percentile(sorted, 100) / 1e6);
+	}
+
+	/** Returns a percentile of sorted values, or 0 if there are none */
+	private static long percentile(long[] sorted, int percent){
+		if(sorted.length == 0){
+			return 0;
+		}
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	/** Closes a connection */
+	private void close(Socket socket){
+		open.remove(socket);
+		try{
+			socket.close();
+		}catch(IOException e){
+			// Nothing more to do with it
+		}
+	}
+
+	/** Stops the server: closes the socket and every connection, and stops the threads */
+	public void close(){
+		try{
+			serverSocket.close();
+		}catch(IOException e){
+			// It is closed anyway
+		}
+		synchronized(open){
+			for(Socket socket: new ArrayList<Socket>(open)){
+				close(socket);
+			}
+		}
+		connections.shutdownNow();
+		compilers.shutdownNow();
+	}
+
+	/** Starts a server. The arguments may be the options of ParseDriver, "-port n" (by default
+	 *  DEFAULT_PORT), and "-threads n" (by default, one thread per processor). */
+	public static void main(String[] args) throws IOException{
+		List<String> options = new ArrayList<String>();
+		int port = DEFAULT_PORT;
+		int threads = Runtime.getRuntime().availableProcessors();
+		for(int i = 0; i < args.length; i++){
+			if(args[i].equals("-port") && i + 1 < args.length){
+				port = Integer.parseInt(args[++i]);
+			}
+			else if(args[i].equals("-threads") && i + 1 < args.length){
+				threads = Integer.parseInt(args[++i]);
+			}
+			else if(ParseDriver.isOption(args[i])){
+				options.add(args[i]);
+			}
+			else{
+				System.err.println("Unknown option " + args[i]);
+			}
+		}
+		CompileServer server = new CompileServer(port, options, threads);
+		System.out.println("Compile server listening on " + server.serverSocket.getLocalSocketAddress()
+				+ " with " + threads + " threads");
+		server.run();
+	}
+}
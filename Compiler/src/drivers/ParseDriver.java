@@ -1,11 +1,17 @@
 package drivers;
 import parser.*;
 import errors.*;
+import lex.*;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
 
 
 public class ParseDriver {
+	/** Options accepted before the file name */
+	private static final List<String> OPTIONS = Arrays.asList("-mapped", "-dfa", "-packed", "-parallel", "-pipelined", "-encoded", "-descent");
+	
 	public Parser parser;
 	
 	// Default constructor: opens the "resources/parsetest.dat" file. 
@@ -18,7 +24,63 @@ public class ParseDriver {
 	public ParseDriver(String filename){
 		parser = new Parser(filename);
 	}
+	
+	/** Constructor. Takes a path to a file as a parameter. If mapped is true, 
+	 * the file is memory-mapped and scanned as bytes by a ByteCharStream. */
+	public ParseDriver(String filename, boolean mapped){
+		this(openLexer(filename, mapped ? Arrays.asList("-mapped") : new ArrayList<String>()));
+	}
+
+	/** Constructor. Parses the tokens from the given lexical analyzer */
+	public ParseDriver(TokenStream lexer){
+		parser = new Parser(lexer);
+	}
+
+	/** Creates the lexical analyzer for a file, as selected by command line options: 
+	 * "-mapped" memory-maps the file and scans it as bytes with a ByteCharStream, 
+	 * "-dfa" lexes the file with the table driven DfaTokenizer, and 
+	 * "-packed" lexes the whole (mapped) file into a TokenBuffer before parsing, and 
+	 * "-parallel" does the same using one thread per processor, and 
+	 * "-pipelined" runs the lexer on a thread of its own while the file is parsed. */
+	public static TokenStream openLexer(String filename, List<String> options){
+		return openLexer(Source.file(filename), options);
+	}
+
+	/** Creates the lexical analyzer for a file or a program held in memory, as selected 
+	 * by the options of openLexer(String, List). A program in memory is read where it is 
+	 * by the options which would memory-map a file. */
+	public static TokenStream openLexer(Source source, List<String> options){
+		if(options.contains("-pipelined")){
+			List<String> others = new ArrayList<String>(options);
+			others.remove("-pipelined");
+			return new PipelinedTokens(openLexer(source, others));
+		}
+		if(options.contains("-parallel")){
+			return ParallelTokenizer.tokenize(new ByteCharStream(source));
+		}
+		if(options.contains("-packed")){
+			return PackedTokens.tokenize(new ByteCharStream(source));
+		}
+		CharStream stream = options.contains("-mapped") ? new ByteCharStream(source) : new CharStream(source);
+		return options.contains("-dfa") ? new DfaTokenizer(stream) : new Tokenizer(stream);
+	}
 
+	/** Returns true if the argument is one of the options accepted before the file name */
+	public static boolean isOption(String arg){
+		return OPTIONS.contains(arg);
+	}
+
+	/** Selects the engine of a parser, as selected by command line options: "-encoded" parses 
+	 * with the engine working on grammar symbols encoded as ints, "-descent" with the generated 
+	 * recursive-descent parser */
+	public static void selectEngine(Parser parser, List<String> options){
+		if(options.contains("-encoded")){
+			parser.setEngine(Parser.Engine.ENCODED);
+		}
+		if(options.contains("-descent")){
+			parser.setEngine(Parser.Engine.DESCENT);
+		}
+	}
 	
 	public void run() 
 	{ 
@@ -31,16 +93,48 @@ public class ParseDriver {
 //		System.out.println("Compilation successful");
 	}
 	
-	public static void main(String[] args){
+	/** Prints the diagnostics and the code of a file, and writes the code to out.tvi, as run() 
+	 * does, taking them from a CompilationCache kept in the given directory if the file was 
+	 * compiled before. */
+	public static void runCached(String filename, List<String> options, File directory) throws IOException{
+		CompilationCache cache = new CompilationCache(directory, CompilationCache.DEFAULT_LIMIT);
+		CompilationCache.Entry entry = cache.compile(Files.readAllBytes(new File(filename).toPath()), options);
+		System.out.print(entry.getDiagnostics());
+		if(entry.getStatus() == BatchDriver.Status.OK){
+			System.out.write(entry.getCode());
+			Files.write(new File(Compilation.TVI_FILE).toPath(), entry.getCode());
+		}
+		System.out.flush();
+	}
+	
+	public static void main(String[] args) throws IOException{
 		ParseDriver pd;
 		// If no arguments are given, use default constructor.
 	    // Opens the parsetest.dat file using a hard-coded path to the local "resources" directory
 		if(args.length == 0){
 			pd = new ParseDriver();
 		}
-		// Otherwise use the parameter to the program as a parameter for the parse driver
+		// Otherwise the last argument is the file to parse. It may be preceded by the 
+		// options of openLexer(), by "-encoded" or "-descent", and by "-cache directory"
 		else{
-			pd = new ParseDriver(args[0]);
+			List<String> options = new ArrayList<String>(Arrays.asList(args).subList(0, args.length - 1));
+			int cache = options.indexOf("-cache");
+			File directory = null;
+			if(cache >= 0 && cache + 1 < options.size()){
+				directory = new File(options.remove(cache + 1));
+				options.remove(cache);
+			}
+			for(String option: options){
+				if(!isOption(option)){
+					System.err.println("Unknown option " + option);
+				}
+			}
+			if(directory != null){
+				runCached(args[args.length - 1], options, directory);
+				return;
+			}
+			pd = new ParseDriver(openLexer(args[args.length - 1], options));
+			selectEngine(pd.parser, options);
 		}
 		// Parse the file
 		pd.run();
@@ -24,16 +24,101 @@ public abstract class CompilerError extends Exception
     */
    protected final Type errorType;
 
+   /** Where the line quoted by the message is found, or null if the message is complete */
+   private final SourceLines source;
+   /** Offset in the source of the first character of the token the error was found at */
+   private final int offset;
+   /** The complete message, once it has been rendered */
+   private String message;
+
    public CompilerError(Type errorType)
    {
-      super("Unknown error");
-      this.errorType = errorType;
+      this(errorType, "Unknown error");
    }
 
    public CompilerError(Type errorType, String message)
    {
       super(message);
       this.errorType = errorType;
+      this.source = null;
+      this.offset = -1;
+   }
+
+   /** Constructor for an error at a token of the source. The message starts with the line
+    * number, the column and the text of the line holding the token, which are only looked
+    * up in the source when the message is first asked for: the source must not change
+    * until then.
+    * @param source The source the line is read from
+    * @param offset Offset in the source of the first character of the token
+    * @param detail The rest of the message
+    */
+   public CompilerError(Type errorType, SourceLines source, int offset, String detail)
+   {
+      super(detail);
+      this.errorType = errorType;
+      this.source = source;
+      this.offset = offset;
+   }
+
+   /** Returns the message, reading the line it quotes from the source the first time */
+   @Override
+   public String getMessage()
+   {
+      String text = message;
+      if (text == null)
+      {
+         if (source == null)
+         {
+            text = super.getMessage();
+         }
+         else
+         {
+            int start = source.lineStart(offset);
+            String line = source.lineAt(start);
+            text = ">>> ERROR AT LINE " + source.lineNumber(offset)
+                  + (line == null ? "" : ", COLUMN " + getColumn(start, line))
+                  + ": " + line + "\n>>> " + super.getMessage();
+         }
+         message = text;
+      }
+      return text;
+   }
+
+   /** Returns the column of the token in the line it quotes, counting from 1. A token past
+    * the end of the line, such as the end of the file, is put just after its last character */
+   private int getColumn(int start, String line)
+   {
+      return Math.min(offset - start, line.length()) + 1;
+   }
+
+   /** Returns the offset in the source of the line quoted by the message, or -1 */
+   public int getLineOffset()
+   {
+      return source == null ? -1 : source.lineStart(offset);
+   }
+
+   /** Returns the offset in the source of the token the error was found at */
+   public int getOffset()
+   {
+      return offset;
+   }
+
+   /** Returns the number of the line quoted by the message, or 0 */
+   public int getLineNumber()
+   {
+      return source == null ? 0 : source.lineNumber(offset);
+   }
+
+   /** Returns the source of the line quoted by the message, or null if the message is complete */
+   public SourceLines getSource()
+   {
+      return source;
+   }
+
+   /** Returns the message without the line it quotes */
+   protected String getDetail()
+   {
+      return super.getMessage();
    }
 
 }
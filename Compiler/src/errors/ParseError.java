@@ -11,43 +11,37 @@ public class ParseError extends CompilerError{
 		super(errorNumber, message);
 	}
 
-	/** The header for the error message. 
-	 * @param lineNumber  line number where error occurs 
-	 * @param lineContent the line itself
-	 * 
-	 * @return
-	 */
-	private static String errorStart(int lineNumber, String lineContent){
-		return ">>> ERROR AT LINE " + lineNumber + ": " + lineContent + "\n>>> ";
+	/** Constructor for an error quoting a line of the source
+	 * @see CompilerError#CompilerError(Type, SourceLines, int, String) */
+	public ParseError(Type errorNumber, SourceLines source, int offset, String detail)
+	{
+		super(errorNumber, source, offset, detail);
 	}
 	
 	/** Parse error thrown when two terminals don't match
-	 *  @param lineNumber lineNumber
-	 *  @param lineContent The text in the line
+	 *  @param source The source the line is read from
+	 *  @param offset Offset in the source of the token found
 	 *  @param expected The expected Token Type
 	 *  @param actual The actual Token Type found*/
-	public static ParseError UnmatchedTerminals(int lineNumber, String lineContent, 
+	public static ParseError UnmatchedTerminals(SourceLines source, int offset, 
 												GrammarSymbol expected, GrammarSymbol actual){
 		return new ParseError(Type.UNMATCHED_TERMINALS,
-				errorStart(lineNumber, lineContent) +
-				" Expected to find a " + expected.toString() + " but found a " + actual.toString());
+				source, offset, " Expected to find a " + expected.toString() + " but found a " + actual.toString());
 	}
 
 	/** Parse error thrown when the element found in the parse table is an error. 
 	 * Takes in an error message as a parameter. This message will be stored in 
 	 * the ParseTable class*/
-	public static ParseError ErrorProduction(int lineNumber, String lineContent, 
+	public static ParseError ErrorProduction(SourceLines source, int offset, 
 			String message, GrammarSymbol s){
 		return new ParseError(Type.ERROR_PRODUCTION,
-				errorStart(lineNumber, lineContent) +
-				message + "\n>>> Got a " + s.toString() + " instead");
+				source, offset, message + "\n>>> Got a " + s.toString() + " instead");
 	}
 	
 	/** Parse error thrown when a grammar symbol is neither a terminal, nonterminal, nor a semantic action */
-	public static ParseError UnknownSymbolType(int lineNumber, String lineContent, GrammarSymbol s){
+	public static ParseError UnknownSymbolType(SourceLines source, int offset, GrammarSymbol s){
 		return new ParseError(Type.UNKNOWN_SYMBOL_TYPE, 
-				errorStart(lineNumber, lineContent) + 
-				s.toString() + " is not a terminal, nonterminal, nor a semantic action");
+				source, offset, s.toString() + " is not a terminal, nonterminal, nor a semantic action");
 	}
 	
 	/** Parse error thrown when, in panic mode error recovery, the parser reaches the EOF symbol 
@@ -0,0 +1,25 @@
+package errors;
+
+/**
+ * A source whose lines are quoted by error messages. An error only holds the offset in the
+ * source of the token it was found at, and the line holding that offset is only looked up
+ * if the message of the error is asked for.
+ */
+public interface SourceLines
+{
+   /** Returns the line starting at the given offset, without its line terminator
+    * @param offset Offset of the first character of the line, or -1 for no line
+    * @return the line, or null if the offset is -1
+    */
+   public String lineAt(int offset);
+
+   /** Returns the offset of the first character of the line holding the given offset. An
+    * offset past the end of the source is held by the last line.
+    * @return the offset of the line, or -1 if the source has no lines
+    */
+   public int lineStart(int offset);
+
+   /** Returns the number of the line holding the given offset, counting from 1, or 0 if the
+    * source has no lines */
+   public int lineNumber(int offset);
+}
@@ -0,0 +1,110 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+import drivers.BatchDriver;
+import org.junit.Test;
+
+/** JUnit tests for compiling many files at once */
+public class BatchDriverTest {
+
+	/** Copies the sample programs into a new temporary directory, and returns it */
+	private File copySamples() throws IOException{
+		File dir = Files.createTempDirectory("batch").toFile();
+		for(String samples: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			File copies = new File(dir, new File(samples).getName());
+			copies.mkdir();
+			for(File f: new File(samples).listFiles()){
+				Files.copy(f.toPath(), new File(copies, f.getName()).toPath());
+			}
+		}
+		return dir;
+	}
+
+	/** Deletes a directory and everything below it */
+	private void delete(File file){
+		File[] files = file.listFiles();
+		if(files != null){
+			for(File f: files){
+				delete(f);
+			}
+		}
+		file.delete();
+	}
+
+	/** Tests that the results are the same on one thread and on many, and that the code of
+	 *  each file compiled is written next to it */
+	@Test
+	public void compileAllTest() throws Exception{
+		File dir = copySamples();
+		try{
+			List<File> sources = BatchDriver.findSources(Arrays.asList(dir.getPath()));
+			assertEquals(new File("resources/pascal_files").list().length + new File("resources/pascal_testError").list().length,
+					sources.size());
+			List<BatchDriver.Result> serial = new BatchDriver(new ArrayList<String>(), 1).compileAll(sources);
+			Map<File, byte[]> code = new HashMap<File, byte[]>();
+			for(BatchDriver.Result result: serial){
+				File codeFile = BatchDriver.codeFile(result.getSource());
+				assertEquals(result.getSource().getPath(), result.getStatus() == BatchDriver.Status.OK, codeFile.isFile());
+				if(codeFile.isFile()){
+					code.put(codeFile, Files.readAllBytes(codeFile.toPath()));
+				}
+			}
+			assertTrue(code.size() > 0);
+			for(List<String> options: Arrays.asList(Arrays.<String>asList(), Arrays.asList("-packed", "-encoded"))){
+				List<BatchDriver.Result> parallel = new BatchDriver(options, 4).compileAll(sources);
+				assertEquals(serial.size(), parallel.size());
+				for(int i = 0; i < serial.size(); i++){
+					assertEquals(serial.get(i).getSource(), parallel.get(i).getSource());
+					assertEquals(serial.get(i).getStatus(), parallel.get(i).getStatus());
+					assertEquals(serial.get(i).getDiagnostics(), parallel.get(i).getDiagnostics());
+				}
+				for(Map.Entry<File, byte[]> entry: code.entrySet()){
+					assertTrue(entry.getKey().getPath(), Arrays.equals(entry.getValue(), Files.readAllBytes(entry.getKey().toPath())));
+				}
+			}
+		}finally{
+			delete(dir);
+		}
+	}
+
+	/** Tests that a file whose code cannot be written fails, saying why */
+	@Test
+	public void unwritableCodeTest() throws Exception{
+		File dir = Files.createTempDirectory("batch").toFile();
+		try{
+			File source = new File(dir, "simple.pas");
+			Files.copy(new File("resources/pascal_files/simple.pas").toPath(), source.toPath());
+			// A directory in the way of the code file, which is not empty so it is not deleted
+			BatchDriver.codeFile(source).mkdir();
+			new File(BatchDriver.codeFile(source), "keep").createNewFile();
+			BatchDriver.Result result = new BatchDriver(new ArrayList<String>(), 1).compile(source);
+			assertEquals(BatchDriver.Status.FAILED, result.getStatus());
+			assertTrue(result.getDiagnostics(), result.getDiagnostics().contains("Could not write the code to " + BatchDriver.codeFile(source)));
+		}finally{
+			delete(dir);
+		}
+	}
+
+	/** Tests that files are found by glob patterns, in order and only once */
+	@Test
+	public void findSourcesTest() throws Exception{
+		List<File> sources = BatchDriver.findSources(Arrays.asList("resources/pascal_files/f*.pas",
+				"resources/pascal_files/func.pas", "resources/pascal_files/a*"));
+		List<String> paths = new ArrayList<String>();
+		for(File f: sources){
+			paths.add(f.getName());
+		}
+		assertEquals(Arrays.asList("fib.pas", "func.pas", "func2.pas", "func3.pas", "array.pas", "arrayref.pas", "arraysimple.pas"), paths);
+		assertEquals(new File("resources/pascal_files/fib.tvi"), BatchDriver.codeFile(sources.get(0)));
+		try{
+			BatchDriver.findSources(Arrays.asList("resources/pascal_files/*.none"));
+			fail();
+		}catch(FileNotFoundException e){
+		}
+	}
+
+}
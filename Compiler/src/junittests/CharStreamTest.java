@@ -0,0 +1,199 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import errors.LexicalError;
+import lex.*;
+import org.junit.Test;
+
+/** JUnit tests comparing the CharStream and ByteCharStream implementations */
+public class CharStreamTest {
+
+	/** Reads both streams until the end of file (or a LexicalError), checking that they
+	 *  return the same characters, line numbers, indices and current lines. */
+	private void compareStreams(String file){
+		CharStream expected = new CharStream(file);
+		CharStream actual = new ByteCharStream(file);
+		assertEquals(expected.isOpen(), actual.isOpen());
+		while(expected.isOpen()){
+			String expectedError = null;
+			String actualError = null;
+			char expectedChar = 0;
+			char actualChar = 0;
+			try{
+				expectedChar = expected.currentChar();
+			}catch(Exception e){
+				expectedError = e.getMessage();
+			}
+			try{
+				actualChar = actual.currentChar();
+			}catch(Exception e){
+				actualError = e.getMessage();
+			}
+			assertEquals(file, expectedError, actualError);
+			assertEquals(file, expectedChar, actualChar);
+			assertEquals(file, expected.lineNumber(), actual.lineNumber());
+			assertEquals(file, expected.indexNumber(), actual.indexNumber());
+			assertEquals(file, expected.getCurrentLine(), actual.getCurrentLine());
+			assertEquals(file, expected.getCurrentLine(), expected.lineAt(expected.currentLineOffset()));
+			assertEquals(file, actual.getCurrentLine(), actual.lineAt(actual.currentLineOffset()));
+			if(expectedError != null || expectedChar == CharStream.EOF){
+				break;
+			}
+		}
+	}
+
+	/** Tests that the byte backend matches the line based backend on every sample file */
+	@Test
+	public void sampleFilesTest(){
+		compareStreams("resources/lextest.dat");
+		compareStreams("resources/parsetest.dat");
+		compareStreams("resources/symtabtest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				compareStreams(f.getPath());
+			}
+		}
+	}
+
+	/** Tests that long runs of white space and comments, which the byte backend skips a word
+	 *  at a time, give the same characters, positions and errors as the line based backend */
+	@Test
+	public void commentsTest() throws Exception{
+		String[] sources = {
+			"program                      x  \t\t\t   \f  y\r\n\n\n                    z",
+			"a { a comment spanning\r\n   several lines,\r   with   \t   blanks }  b{}c{ x }\n{\n}\n",
+			"begin\n    { a comment longer than a word } { another one }\n              end",
+			"x := 1; { a comment with { a nested left brace } y",
+			"x { this comment is never closed\n          \n",
+			"        \u000b\u001c    {}     ",
+		};
+		File file = File.createTempFile("comments", ".pas");
+		file.deleteOnExit();
+		for(String source: sources){
+			Files.write(file.toPath(), source.getBytes(StandardCharsets.ISO_8859_1));
+			compareStreams(file.getPath());
+		}
+	}
+
+	/** Tests that both backends decode bytes outside the ASCII range the same way, whatever
+	 *  the platform's default charset */
+	@Test
+	public void charsetTest() throws Exception{
+		File file = File.createTempFile("charset", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), new byte[] {'x', ' ', (byte) 0xE9, '\n', 'y', (byte) 0xC3, (byte) 0xA9});
+		compareStreams(file.getPath());
+		CharStream stream = new CharStream(file.getPath());
+		try{
+			while(stream.currentChar() != CharStream.EOF){
+			}
+			fail();
+		}catch(LexicalError e){
+			assertTrue(e.getMessage(), e.getMessage().endsWith("Illegal character: \u00e9"));
+			assertEquals("x \u00e9", stream.lineAt(e.getLineOffset()));
+		}
+	}
+
+	/** Tests that an error quotes the line it was found on, although the line is only read
+	 *  when the message is asked for, after the stream has moved on */
+	@Test
+	public void errorLineTest() throws Exception{
+		File file = File.createTempFile("errors", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "x := 1;\r\n\n  y } z\nw".getBytes(StandardCharsets.ISO_8859_1));
+		for(CharStream stream: new CharStream[] {new CharStream(file.getPath()), new ByteCharStream(file.getPath())}){
+			LexicalError error = null;
+			while(error == null){
+				try{
+					stream.currentChar();
+				}catch(LexicalError e){
+					error = e;
+				}
+			}
+			assertEquals(10, error.getLineOffset());
+			while(stream.currentChar() != CharStream.EOF){
+			}
+			assertEquals(">>> ERROR AT LINE 3, COLUMN 5:   y } z\n>>>  Unmatched comment bracket. "
+					+ "Cannot have a } before a corresponding {", error.getMessage());
+		}
+	}
+
+	/** Tests the column of an error in the middle, at the start, and at the end of a line */
+	@Test
+	public void errorColumnTest() throws Exception{
+		File file = File.createTempFile("columns", ".pas");
+		file.deleteOnExit();
+		String[] sources = {"ab } c", "} c", "x\nab }\ny"};
+		String[] columns = {", COLUMN 4: ab } c\n", ", COLUMN 1: } c\n", ", COLUMN 4: ab }\n"};
+		for(int i = 0; i < sources.length; i++){
+			Files.write(file.toPath(), sources[i].getBytes(StandardCharsets.ISO_8859_1));
+			for(CharStream stream: new CharStream[] {new CharStream(file.getPath()), new ByteCharStream(file.getPath())}){
+				String message = null;
+				while(message == null){
+					try{
+						stream.currentChar();
+					}catch(LexicalError e){
+						message = e.getMessage();
+					}
+				}
+				assertTrue(message, message.contains(columns[i]));
+			}
+		}
+	}
+
+	/** Tests that lines are found by any offset in them, with every kind of line terminator,
+	 *  and that offsets past the end of the source are held by the last line */
+	@Test
+	public void lineStartTest() throws Exception{
+		File file = File.createTempFile("lines", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "ab\r\ncd\n\ref\n".getBytes(StandardCharsets.ISO_8859_1));
+		int[] starts = {0, 0, 0, 0, 4, 4, 4, 7, 8, 8, 8, 8, 8};
+		int[] numbers = {1, 1, 1, 1, 2, 2, 2, 3, 4, 4, 4, 4, 4};
+		for(CharStream stream: new CharStream[] {new CharStream(file.getPath()), new ByteCharStream(file.getPath())}){
+			for(int offset = 0; offset < starts.length; offset++){
+				assertEquals(starts[offset], stream.lineStart(offset));
+				assertEquals(numbers[offset], stream.lineNumber(offset));
+			}
+			assertEquals("", stream.lineAt(stream.lineStart(7)));
+			assertEquals("ef", stream.lineAt(stream.lineStart(11)));
+		}
+		Files.write(file.toPath(), new byte[0]);
+		CharStream empty = new CharStream(file.getPath());
+		assertEquals(-1, empty.lineStart(0));
+		assertEquals(0, empty.lineNumber(0));
+	}
+
+	/** Tests that a missing file is reported as not open */
+	@Test
+	public void missingFileTest(){
+		assertFalse(new ByteCharStream("resources/does_not_exist.pas").isOpen());
+	}
+
+	/** Tests that pushed back characters are returned last in, first out */
+	@Test
+	public void pushBackTest() throws Exception{
+		CharStream stream = new ByteCharStream("resources/lextest.dat");
+		char first = stream.currentChar();
+		stream.pushBack('.');
+		stream.pushBack('.');
+		stream.pushBack(first);
+		assertEquals(first, stream.currentChar());
+		assertEquals('.', stream.currentChar());
+		assertEquals('.', stream.currentChar());
+	}
+
+	/** Tests that the fixed-size pushback buffer rejects overflow */
+	@Test(expected = IllegalStateException.class)
+	public void pushBackOverflowTest(){
+		CharStream stream = new CharStream("resources/lextest.dat");
+		for(int i = 0; i <= CharStream.PUSHBACK_CAPACITY; i++){
+			stream.pushBack('a');
+		}
+	}
+
+}
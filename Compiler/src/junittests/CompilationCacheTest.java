@@ -0,0 +1,107 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+import drivers.*;
+import org.junit.Test;
+
+/** JUnit tests for the cache of compilations */
+public class CompilationCacheTest {
+
+	/** Deletes a directory and everything in it */
+	private void delete(File dir){
+		for(File f: dir.listFiles()){
+			f.delete();
+		}
+		dir.delete();
+	}
+
+	/** Tests that a cached compilation is the compilation, in this cache and in another one
+	 *  using the same directory */
+	@Test
+	public void hitTest() throws Exception{
+		File dir = Files.createTempDirectory("cache").toFile();
+		try{
+			CompilationCache cache = new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT);
+			List<File> files = new ArrayList<File>();
+			for(String samples: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+				files.addAll(Arrays.asList(new File(samples).listFiles()));
+			}
+			for(File f: files){
+				byte[] source = Files.readAllBytes(f.toPath());
+				assertNull(cache.get(source));
+				CompilationCache.Entry compiled = cache.compile(source, Arrays.asList("-packed"));
+				for(CompilationCache.Entry cached: Arrays.asList(cache.get(source), cache.compile(source, new ArrayList<String>()))){
+					assertEquals(f.getPath(), compiled.getStatus(), cached.getStatus());
+					assertTrue(f.getPath(), Arrays.equals(compiled.getCode(), cached.getCode()));
+					assertEquals(f.getPath(), compiled.getDiagnostics(), cached.getDiagnostics());
+				}
+			}
+			assertEquals(2 * files.size(), cache.getHits());
+			assertEquals(2 * files.size(), cache.getMisses());
+			CompilationCache reopened = new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT);
+			assertEquals(cache.size(), reopened.size());
+			assertNotNull(reopened.get(Files.readAllBytes(files.get(0).toPath())));
+		}finally{
+			delete(dir);
+		}
+	}
+
+	/** Tests that the entries of a compiler are not found by a compiler with another
+	 *  fingerprint, even in the same directory */
+	@Test
+	public void fingerprintTest() throws Exception{
+		File dir = Files.createTempDirectory("cache").toFile();
+		try{
+			byte[] source = Files.readAllBytes(new File("resources/pascal_files/simple.pas").toPath());
+			byte[] fingerprint = CompilationCache.fingerprint();
+			assertEquals(32, fingerprint.length);
+			assertTrue(Arrays.equals(fingerprint, CompilationCache.fingerprint()));
+			CompilationCache cache = new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT);
+			cache.compile(source, new ArrayList<String>());
+			assertNotNull(new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT, fingerprint).get(source));
+			fingerprint[0]++;
+			CompilationCache changed = new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT, fingerprint);
+			assertNull(changed.get(source));
+			changed.compile(source, new ArrayList<String>());
+			assertEquals(2, changed.getMisses());
+			assertEquals(2, dir.list().length);
+			assertNotNull(cache.get(source));
+		}finally{
+			delete(dir);
+		}
+	}
+
+	/** Tests that the least recently used entries are deleted when the cache is full */
+	@Test
+	public void evictionTest() throws Exception{
+		File dir = Files.createTempDirectory("cache").toFile();
+		try{
+			String program = new String(Files.readAllBytes(new File("resources/pascal_files/simple.pas").toPath()), "ISO-8859-1");
+			// Programs compiled to entries of the same size
+			byte[] a = (program + " ").getBytes("ISO-8859-1");
+			byte[] b = (program + "  ").getBytes("ISO-8859-1");
+			byte[] c = (program + "   ").getBytes("ISO-8859-1");
+			CompilationCache measure = new CompilationCache(dir, CompilationCache.DEFAULT_LIMIT);
+			measure.compile(a, new ArrayList<String>());
+			long entry = measure.size();
+			delete(dir);
+			CompilationCache cache = new CompilationCache(dir, 2 * entry);
+			cache.compile(a, new ArrayList<String>());
+			cache.compile(b, new ArrayList<String>());
+			assertNotNull(cache.get(a));
+			cache.compile(c, new ArrayList<String>());
+			assertEquals(2 * entry, cache.size());
+			assertNull(cache.get(b));
+			assertNotNull(cache.get(a));
+			assertNotNull(cache.get(c));
+			assertEquals(2, dir.list().length);
+		}finally{
+			delete(dir);
+		}
+	}
+
+}
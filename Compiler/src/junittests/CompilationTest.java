@@ -0,0 +1,93 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import errors.CompilerError;
+import lex.Tokenizer;
+import org.junit.Test;
+import parser.*;
+
+/** JUnit tests for compilations writing to sinks of their own */
+public class CompilationTest {
+
+	/** Compiles a file, and returns the diagnostics followed by the code */
+	private static String compile(String file){
+		ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		Parser parser = new Parser(new Tokenizer(file), new Compilation(new PrintStream(diagnostics), new PrintStream(code)));
+		try{
+			parser.parse();
+		}catch(CompilerError e){
+			parser.getCompilation().getDiagnostics().println(e.getMessage());
+		}catch(RuntimeException e){
+			// Some semantic actions fail on programs with errors
+			parser.getCompilation().getDiagnostics().println(e);
+		}
+		parser.getCompilation().getDiagnostics().flush();
+		return diagnostics.toString() + "----\n" + code.toString();
+	}
+
+	/** Returns the sample programs */
+	private static List<String> files(){
+		List<String> files = new ArrayList<String>();
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		return files;
+	}
+
+	/** Tests that a compilation writes its diagnostics and code to its own sinks only */
+	@Test
+	public void sinksTest(){
+		PrintStream console = System.out;
+		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(stdout));
+		String output;
+		try{
+			output = compile("resources/pascal_files/simple.pas");
+		}finally{
+			System.setOut(console);
+		}
+		assertEquals("", stdout.toString());
+		assertTrue(output, output.startsWith("Compilation successful\n----\nCODE\n"));
+		assertTrue(output, output.contains("PROCBEGIN main"));
+	}
+
+	/** Tests that compilations running at the same time on several threads give the same
+	 *  output as one after the other */
+	@Test
+	public void concurrentTest() throws Exception{
+		List<String> files = files();
+		Map<String, String> expected = new HashMap<String, String>();
+		for(String file: files){
+			expected.put(file, compile(file));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try{
+			Map<String, Future<String>> results = new HashMap<String, Future<String>>();
+			for(int round = 0; round < 3; round++){
+				for(final String file: files){
+					results.put(file + round, pool.submit(new Callable<String>(){
+						@Override
+						public String call(){
+							return compile(file);
+						}
+					}));
+				}
+			}
+			for(int round = 0; round < 3; round++){
+				for(String file: files){
+					assertEquals(file, expected.get(file), results.get(file + round).get());
+				}
+			}
+		}finally{
+			pool.shutdown();
+		}
+	}
+
+}
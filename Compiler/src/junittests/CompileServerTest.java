@@ -0,0 +1,83 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+import drivers.*;
+import lex.Source;
+import org.junit.Test;
+import parser.Compilation;
+
+/** JUnit tests for the compile server and its client */
+public class CompileServerTest {
+
+	/** Sample programs */
+	private List<File> files(){
+		List<File> files = new ArrayList<File>();
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			files.addAll(Arrays.asList(new File(dir).listFiles()));
+		}
+		return files;
+	}
+
+	/** Compiles a program in this process, and returns its status, code, and diagnostics */
+	private String compile(byte[] source){
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		BatchDriver.Status status = BatchDriver.compile(Source.of(source), new ArrayList<String>(),
+				new Compilation(new PrintStream(printed, true), new PrintStream(code, true)));
+		return status + "\n" + code + printed;
+	}
+
+	/** Returns the status, code, and diagnostics of a reply of the server */
+	private String toString(CompileClient.Reply reply){
+		return reply.getStatus() + "\n" + new String(reply.getCode()) + reply.getDiagnostics();
+	}
+
+	/** Tests that the server compiles every sample program as this process does, for clients
+	 *  connected at the same time */
+	@Test
+	public void compileTest() throws Exception{
+		final CompileServer server = new CompileServer(0, new ArrayList<String>(), 2);
+		server.start();
+		ExecutorService clients = Executors.newFixedThreadPool(3);
+		try{
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for(int c = 0; c < 3; c++){
+				results.add(clients.submit(new Callable<Integer>(){
+					public Integer call() throws Exception{
+						CompileClient client = new CompileClient(server.getPort());
+						try{
+							for(File f: files()){
+								byte[] source = Files.readAllBytes(f.toPath());
+								assertEquals(f.getPath(), compile(source), CompileServerTest.this.toString(client.compile(source)));
+							}
+						}finally{
+							client.close();
+						}
+						return files().size();
+					}
+				}));
+			}
+			int compiled = 0;
+			for(Future<Integer> result: results){
+				compiled += result.get();
+			}
+			CompileClient client = new CompileClient(server.getPort());
+			try{
+				String stats = client.getStats();
+				assertTrue(stats, stats.startsWith("requests " + compiled + ", queued 0, "));
+				assertTrue(stats, stats.contains("p99"));
+			}finally{
+				client.close();
+			}
+		}finally{
+			clients.shutdownNow();
+			server.close();
+		}
+	}
+
+}
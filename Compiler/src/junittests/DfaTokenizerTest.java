@@ -0,0 +1,25 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import lex.LexerComparison;
+import org.junit.Test;
+
+/** JUnit tests comparing the Tokenizer and the table driven DfaTokenizer */
+public class DfaTokenizerTest {
+
+	/** Tests that both lexers return the same tokens and errors on every sample file */
+	@Test
+	public void sampleFilesTest(){
+		assertEquals(0, LexerComparison.compare("resources/lextest.dat"));
+		assertEquals(0, LexerComparison.compare("resources/parsetest.dat"));
+		assertEquals(0, LexerComparison.compare("resources/symtabtest.dat"));
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				assertEquals(f.getPath(), 0, LexerComparison.compare(f.getPath()));
+			}
+		}
+	}
+
+}
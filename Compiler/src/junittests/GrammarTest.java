@@ -0,0 +1,103 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.EnumSet;
+
+import grammarsymbols.*;
+import org.junit.Test;
+import parser.*;
+
+/** JUnit tests for the LL(1) table generator */
+public class GrammarTest {
+
+	/** Reads a grammar from a String */
+	private Grammar grammar(String text) throws Exception{
+		return new Grammar(new StringReader(text), "test");
+	}
+
+	/** Tests that the tables the parser loads are the ones generated from the grammar */
+	@Test
+	public void generatedTablesTest(){
+		Grammar grammar = Grammar.load();
+		assertEquals(grammar.getConflicts().toString(), 0, grammar.getConflicts().size());
+		ParseTable table = ParseTable.getInstance();
+		for(TokenType t: TokenType.values()){
+			for(NonTerminal a: NonTerminal.values()){
+				assertEquals(t + " " + a, grammar.getCode(t, a), table.getCode(t, a));
+				assertEquals(t + " " + a, grammar.getSyncSet(a).contains(t), table.isSynchronizing(t, a));
+			}
+		}
+		RHSTable rhs = new RHSTable();
+		for(int p = 1; p < grammar.size(); p++){
+			assertArrayEquals("production " + p, grammar.getRule(p), rhs.getRule(p));
+		}
+	}
+
+	/** Tests some of the FIRST and FOLLOW sets of the grammar */
+	@Test
+	public void firstFollowTest(){
+		Grammar grammar = Grammar.load();
+		assertEquals(EnumSet.of(TokenType.IDENTIFIER, TokenType.INTCONSTANT, TokenType.REALCONSTANT, TokenType.LEFTPAREN,
+				TokenType.NOT, TokenType.UNARYPLUS, TokenType.UNARYMINUS), grammar.getFirst(NonTerminal.expression));
+		assertTrue(grammar.isNullable(NonTerminal.declarations));
+		assertFalse(grammar.isNullable(NonTerminal.statement));
+		assertTrue(grammar.getFollow(NonTerminal.statement).containsAll(EnumSet.of(TokenType.SEMICOLON, TokenType.END, TokenType.ELSE)));
+		assertEquals(EnumSet.of(TokenType.ENDOFFILE), grammar.getFollow(NonTerminal.Goal));
+		assertTrue(grammar.getSyncSet(NonTerminal.expression).containsAll(EnumSet.of(TokenType.THEN, TokenType.SEMICOLON, TokenType.END)));
+	}
+
+	/** Tests that the synchronizing set of every NonTerminal is its FOLLOW set plus the tokens
+	 *  of the %sync line */
+	@Test
+	public void syncSetTest() throws Exception{
+		Grammar grammar = Grammar.load();
+		for(NonTerminal a: NonTerminal.values()){
+			EnumSet<TokenType> expected = grammar.getFollow(a);
+			expected.addAll(EnumSet.of(TokenType.SEMICOLON, TokenType.END));
+			assertEquals(a.toString(), expected, grammar.getSyncSet(a));
+		}
+		Grammar small = grammar("%start <Goal>\n"
+				+ "%sync SEMICOLON\n"
+				+ "<Goal> ::= <statement> ENDMARKER\n"
+				+ "<statement> ::= IF <expression> THEN <statement>\n"
+				+ "<statement> ::= IDENTIFIER\n"
+				+ "<expression> ::= IDENTIFIER\n");
+		assertEquals(EnumSet.of(TokenType.THEN, TokenType.SEMICOLON), small.getSyncSet(NonTerminal.expression));
+		assertEquals(EnumSet.of(TokenType.ENDMARKER, TokenType.SEMICOLON), small.getSyncSet(NonTerminal.statement));
+	}
+
+	/** Tests that conflicts are reported unless the grammar settles them */
+	@Test
+	public void conflictTest() throws Exception{
+		String text = "%start <Goal>\n"
+				+ "<Goal> ::= <statement> ENDMARKER\n"
+				+ "<statement> ::= IF <expression> THEN <statement> <else_clause>\n"
+				+ "<statement> ::= IDENTIFIER\n"
+				+ "<else_clause> ::= ELSE <statement>\n"
+				+ "<else_clause> ::=\n"
+				+ "<expression> ::= IDENTIFIER  // a comment\n";
+		Grammar ambiguous = grammar(text);
+		assertEquals(1, ambiguous.getConflicts().size());
+		assertTrue(ambiguous.getConflicts().get(0).contains("else_clause"));
+		Grammar settled = grammar(text + "%resolve <else_clause> ELSE 4\n");
+		assertEquals(0, settled.getConflicts().size());
+		assertEquals(4, settled.getCode(TokenType.ELSE, NonTerminal.else_clause));
+		assertEquals(-5, settled.getCode(TokenType.ENDMARKER, NonTerminal.else_clause));
+		assertEquals(ParseTable.ERRORCODE + NonTerminal.statement.getIndex(), settled.getCode(TokenType.THEN, NonTerminal.statement));
+		assertEquals(0, settled.getCode(TokenType.BEGIN, NonTerminal.statement));
+		assertEquals(1, grammar(text + "%resolve <else_clause> ELSE 4\n%resolve <statement> IF 2\n").getConflicts().size());
+	}
+
+	/** Tests that a misspelled symbol is reported with its line */
+	@Test
+	public void badSymbolTest() throws Exception{
+		try{
+			grammar("%start <Goal>\n<Goal> ::= PROGRAMME\n");
+			fail();
+		}catch(IllegalArgumentException e){
+			assertTrue(e.getMessage(), e.getMessage().startsWith("test:2: "));
+		}
+	}
+
+}
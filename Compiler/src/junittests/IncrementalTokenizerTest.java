@@ -0,0 +1,107 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import errors.SourceLines;
+import lex.*;
+import org.junit.Test;
+
+/** JUnit tests for re-lexing edited sources */
+public class IncrementalTokenizerTest {
+
+	/** Returns a description of entry i of a buffer */
+	private String entry(TokenBuffer tokens, int i){
+		int type = tokens.getType(i);
+		String value = type == TokenBuffer.LEXICAL_ERROR ? tokens.getError(i).getMessage()
+				: tokens.getLexeme(i) < 0 ? "" : tokens.getLexemes().get(tokens.getLexeme(i));
+		return type + " " + value + " " + tokens.getStart(i) + "+" + tokens.getLength(i) + " @"
+				+ tokens.getLine(i) + ":" + tokens.getIndex(i) + " " + tokens.getLineOffset(i);
+	}
+
+	/** Checks that two buffers hold the same entries */
+	private void compare(String message, TokenBuffer expected, TokenBuffer actual){
+		assertEquals(message, expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++){
+			assertEquals(message, entry(expected, i), entry(actual, i));
+		}
+	}
+
+	/** Returns the sources quoted by the LexicalErrors of a buffer */
+	private Set<SourceLines> sources(TokenBuffer tokens){
+		Set<SourceLines> sources = Collections.newSetFromMap(new IdentityHashMap<SourceLines, Boolean>());
+		for(int i = 0; i < tokens.size(); i++){
+			if(tokens.getType(i) == TokenBuffer.LEXICAL_ERROR && tokens.getError(i).getSource() != null){
+				sources.add(tokens.getError(i).getSource());
+			}
+		}
+		return sources;
+	}
+
+	/** Applies an edit, and checks the tokens against lexing the edited source from scratch,
+	 *  and that their LexicalErrors no longer quote the old source */
+	private String edit(IncrementalTokenizer lexer, String source, int offset, int deleted, String inserted){
+		String edited = source.substring(0, offset) + inserted + source.substring(offset + deleted);
+		Set<SourceLines> old = sources(lexer.getTokens());
+		TokenBuffer tokens = lexer.edit(offset, deleted, inserted);
+		compare("\"" + inserted + "\" at " + offset, new IncrementalTokenizer(edited).getTokens(), tokens);
+		old.retainAll(sources(tokens));
+		assertTrue(old.isEmpty());
+		assertEquals(edited, lexer.getSource());
+		return edited;
+	}
+
+	/** Tests that the tokens of the sample programs are those of the DfaTokenizer, and stay
+	 *  right while the programs are edited */
+	@Test
+	public void sampleFilesTest() throws Exception{
+		Random random = new Random(11);
+		String[] insertions = {"{", "}", "-", "+", "\n", "\r\n", " x ", "1..", ".", "?", "{ }", ""};
+		for(File f: new File("resources/pascal_files").listFiles()){
+			TokenBuffer expected = new TokenBuffer();
+			new DfaTokenizer(new ByteCharStream(f.getPath())).tokenize(expected);
+			String source = new String(Files.readAllBytes(f.toPath()), StandardCharsets.ISO_8859_1);
+			IncrementalTokenizer lexer = new IncrementalTokenizer(source);
+			compare(f.getPath(), expected, lexer.getTokens());
+			for(int i = 0; i < 30; i++){
+				int offset = random.nextInt(source.length() + 1);
+				int deleted = Math.min(random.nextInt(3), source.length() - offset);
+				source = edit(lexer, source, offset, deleted, insertions[random.nextInt(insertions.length)]);
+			}
+		}
+	}
+
+	/** Tests edits which change the tokens far past them: opening and closing a comment, and
+	 *  turning the token before a '-' into (or out of) an operand */
+	@Test
+	public void resyncTest(){
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 2000; i++){
+			builder.append("x := y\n- 1; { comment }\nz := (a) -2 * b..c;\n");
+		}
+		String source = builder.toString();
+		IncrementalTokenizer lexer = new IncrementalTokenizer(source);
+		int total = lexer.getTokens().size();
+		int middle = source.length() / 2;
+		middle = source.indexOf("x := y", middle);
+		// Opening a comment swallows the tokens up to the next '}'
+		source = edit(lexer, source, middle, 0, "{");
+		source = edit(lexer, source, middle, 1, "");
+		// An edit away from comments only re-lexes a few tokens
+		assertTrue(lexer.getRelexed() < total / 10);
+		// "y" becomes an operator, so the "-" on the next line becomes unary
+		source = edit(lexer, source, middle + 5, 1, "*");
+		assertTrue(lexer.getRelexed() < total / 10);
+		// Adding and removing lines moves the line numbers of every following token
+		source = edit(lexer, source, middle, 0, "\n\n\n");
+		source = edit(lexer, source, 3, 0, "?\n");
+		source = edit(lexer, source, 0, 4, "");
+		// An unterminated comment reaches the end of the source
+		source = edit(lexer, source, source.length() - 10, 0, "{");
+		edit(lexer, source, 0, 0, "{");
+	}
+
+}
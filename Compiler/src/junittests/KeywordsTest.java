@@ -0,0 +1,43 @@
+package junittests;
+import lex.Keywords;
+import grammarsymbols.TokenType;
+import token.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/** JUnit tests for the Keywords class */
+public class KeywordsTest {
+
+	String[] keywords = {"PROGRAM", "BEGIN", "END", "VAR", "FUNCTION", "PROCEDURE", "RESULT",
+			"INTEGER", "REAL", "ARRAY", "OF", "IF", "THEN", "ELSE", "DO", "WHILE", "NOT",
+			"OR", "DIV", "MOD", "AND"};
+
+	/** Tests that every keyword is found, ignoring case */
+	@Test
+	public void keywordTest(){
+		for(String keyword: keywords){
+			Token token = Keywords.lookup(keyword);
+			assertNotNull(keyword, token);
+			assertEquals(keyword, token.getValue());
+			assertSame(token, Keywords.lookup(keyword.toLowerCase()));
+			char[] chars = ("x" + keyword + "y").toCharArray();
+			assertSame(token, Keywords.lookup(chars, 1, keyword.length()));
+		}
+		assertEquals(TokenType.PROGRAM, Keywords.lookup("Program").getType());
+		assertEquals(new Operator(TokenType.MULOP, "DIV"), Keywords.lookup("div"));
+		assertEquals(new Operator(TokenType.ADDOP, "OR"), Keywords.lookup("or"));
+	}
+
+	/** Tests that identifiers which are not keywords are not found */
+	@Test
+	public void identifierTest(){
+		String[] identifiers = {"", "X", "PROGRAMS", "PROGRA", "BEGUN", "ENDS", "VARS", "IF1", "D0", "O",
+				"RESULTS", "A", "ANDY", "MODE", "ELSEIF", "WHILST", "N0T", "0F", "1F"};
+		for(String identifier: identifiers){
+			assertNull(identifier, Keywords.lookup(identifier));
+			assertNull(identifier, Keywords.lookup(identifier.toCharArray(), 0, identifier.length()));
+		}
+	}
+
+}
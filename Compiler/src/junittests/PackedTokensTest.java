@@ -0,0 +1,133 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import grammarsymbols.TokenType;
+import lex.*;
+import token.*;
+import org.junit.Test;
+
+/** JUnit tests for lexing into a TokenBuffer */
+public class PackedTokensTest {
+
+	/** Files to test with */
+	private String[] files(){
+		List<String> files = new ArrayList<String>();
+		files.add("resources/lextest.dat");
+		files.add("resources/parsetest.dat");
+		files.add("resources/symtabtest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		return files.toArray(new String[files.size()]);
+	}
+
+	/** Tests that the packed tokens, errors and positions are the same as the Tokenizer's */
+	@Test
+	public void sampleFilesTest(){
+		for(String file: files()){
+			assertEquals(file, 0, LexerComparison.compare(new Tokenizer(file), PackedTokens.tokenize(file)));
+		}
+	}
+
+	/** Tests that the offset and length of each token point at its text in the source */
+	@Test
+	public void offsetTest() throws Exception{
+		for(String file: files()){
+			String source = new String(Files.readAllBytes(new File(file).toPath()), StandardCharsets.ISO_8859_1);
+			TokenBuffer tokens = PackedTokens.tokenize(file).getTokens();
+			for(int i = 0; i < tokens.size(); i++){
+				int type = tokens.getType(i);
+				String text = source.substring(tokens.getStart(i), tokens.getStart(i) + tokens.getLength(i));
+				if(type == TokenType.ENDOFFILE.getIndex()){
+					assertEquals(file, source.length(), tokens.getStart(i));
+				}
+				else if(type == TokenType.DOUBLEDOT.getIndex()){
+					assertEquals(file, "..", text);
+				}
+				else if(tokens.getLexeme(i) >= 0 && type != TokenBuffer.LEXICAL_ERROR){
+					assertEquals(file, tokens.getLexemes().get(tokens.getLexeme(i)), text.toUpperCase());
+				}
+			}
+		}
+	}
+
+	/** Tests that each distinct lexeme is stored once */
+	@Test
+	public void lexemePoolTest(){
+		LexemePool pool = new LexemePool();
+		char[] chars = "XYZXYZ".toCharArray();
+		int id = pool.intern(chars, 0, 3);
+		assertEquals(id, pool.intern(chars, 3, 3));
+		assertEquals(id, pool.intern("XYZ"));
+		assertEquals("XYZ", pool.get(id));
+		for(int i = 0; i < 1000; i++){
+			assertEquals(i + 1, pool.intern("ID" + i));
+		}
+		for(int i = 0; i < 1000; i++){
+			assertEquals("ID" + i, pool.get(pool.intern(("ID" + i).toCharArray(), 0, ("ID" + i).length())));
+		}
+		assertEquals(1001, pool.size());
+	}
+
+	/** Tests that every occurrence of a name, in any case, is the same canonical String,
+	 *  and that the names are shared with the packed tokens */
+	@Test
+	public void internTest() throws Exception{
+		File file = File.createTempFile("intern", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "count Count COUNT x1 X1 program".getBytes(StandardCharsets.ISO_8859_1));
+		TokenStream[] lexers = {new Tokenizer(file.getPath()), new DfaTokenizer(file.getPath()),
+				new DfaTokenizer(new ByteCharStream(file.getPath())), PackedTokens.tokenize(file.getPath())};
+		for(TokenStream lexer: lexers){
+			String count = lexer.GetNextToken().getValue();
+			assertEquals("COUNT", count);
+			assertSame(count, lexer.GetNextToken().getValue());
+			assertSame(count, lexer.GetNextToken().getValue());
+			String x1 = lexer.GetNextToken().getValue();
+			assertEquals("X1", x1);
+			assertSame(x1, lexer.GetNextToken().getValue());
+			assertEquals(TokenType.PROGRAM, lexer.GetNextToken().getType());
+			assertSame(count, lexer.getLexemes().canonical("COUNT"));
+		}
+	}
+
+	/** Tests that constant values are carried in the token buffer and match the Tokenizer's */
+	@Test
+	public void constantValueTest() throws Exception{
+		File file = File.createTempFile("constants", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "42 1.5e1 0.25 9223372036854775807 3..4".getBytes(StandardCharsets.ISO_8859_1));
+		Tokenizer expected = new Tokenizer(file.getPath());
+		PackedTokens packed = PackedTokens.tokenize(file.getPath());
+		for(int i = 0; i < 6; i++){
+			Token want = expected.GetNextToken(), got = packed.GetNextToken();
+			assertEquals(want.getType(), got.getType());
+			if(want instanceof Constant){
+				assertEquals(((Constant)want).getIntValue(), ((Constant)got).getIntValue());
+				assertEquals(((Constant)want).getRealValue(), ((Constant)got).getRealValue(), 0);
+			}
+		}
+		assertEquals(Double.doubleToRawLongBits(15.0), packed.getTokens().getValue(1));
+	}
+
+	/** Tests that a name interned with its hash code is found by every other lookup */
+	@Test
+	public void canonicalTest(){
+		LexemePool pool = new LexemePool();
+		char[] chars = "ABCD".toCharArray();
+		String name = pool.canonical(chars, 1, 2, "BC".hashCode());
+		assertEquals("BC", name);
+		assertSame(name, pool.canonical(new StringBuilder("BC"), "BC".hashCode()));
+		assertSame(name, pool.canonical("BC"));
+		assertSame(name, pool.get(pool.intern(chars, 1, 2)));
+		assertEquals(1, pool.size());
+	}
+
+}
@@ -0,0 +1,89 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import lex.*;
+import org.junit.Test;
+
+/** JUnit tests for lexing a source in parallel chunks */
+public class ParallelTokenizerTest {
+
+	/** Files to test with */
+	private List<String> files(){
+		List<String> files = new ArrayList<String>();
+		files.add("resources/lextest.dat");
+		files.add("resources/parsetest.dat");
+		files.add("resources/symtabtest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		return files;
+	}
+
+	/** Returns a description of entry i of a buffer */
+	private String entry(TokenBuffer tokens, int i){
+		int type = tokens.getType(i);
+		String value = type == TokenBuffer.LEXICAL_ERROR ? tokens.getError(i).getMessage()
+				: tokens.getLexeme(i) < 0 ? "" : tokens.getLexemes().get(tokens.getLexeme(i));
+		return type + " " + value + " " + tokens.getStart(i) + "+" + tokens.getLength(i) + " @"
+				+ tokens.getLine(i) + ":" + tokens.getIndex(i) + " " + tokens.getLineOffset(i);
+	}
+
+	/** Checks that lexing a file in chunks of the given size gives the same buffer as lexing
+	 *  it with a single DfaTokenizer */
+	private void compare(String file, ForkJoinPool pool, int chunkSize){
+		TokenBuffer expected = new TokenBuffer();
+		new DfaTokenizer(new ByteCharStream(file)).tokenize(expected);
+		TokenBuffer actual = new TokenBuffer();
+		new ParallelTokenizer(pool, chunkSize).tokenize(new ByteCharStream(file), actual);
+		assertEquals(file, expected.size(), actual.size());
+		for(int i = 0; i < expected.size(); i++){
+			assertEquals(file + " in chunks of " + chunkSize, entry(expected, i), entry(actual, i));
+		}
+	}
+
+	/** Tests every sample file, with chunks of a few bytes up to a few lines */
+	@Test
+	public void sampleFilesTest(){
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try{
+			for(String file: files()){
+				for(int chunkSize: new int[] {1, 16, 100, 1000}){
+					compare(file, pool, chunkSize);
+				}
+			}
+		}finally{
+			pool.shutdown();
+		}
+	}
+
+	/** Tests chunks starting inside comments, and '+' and '-' at the start of chunks, which
+	 *  are unary or binary depending on the token before them */
+	@Test
+	public void chunkStartTest() throws Exception{
+		StringBuilder source = new StringBuilder();
+		for(int i = 0; i < 50; i++){
+			source.append("x := y\n+ z\n- 1 {\nstill in a comment\n} * (\n-2) ..3\n\n\r\n{ a { b }\n");
+		}
+		File file = File.createTempFile("parallel", ".pas");
+		file.deleteOnExit();
+		Files.write(file.toPath(), source.toString().getBytes(StandardCharsets.ISO_8859_1));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try{
+			for(int chunkSize = 1; chunkSize < 80; chunkSize += 3){
+				compare(file.getPath(), pool, chunkSize);
+			}
+		}finally{
+			pool.shutdown();
+		}
+		assertEquals(0, LexerComparison.compare(new Tokenizer(file.getPath()), ParallelTokenizer.tokenize(file.getPath())));
+	}
+
+}
@@ -1,5 +1,7 @@
 package junittests;
 import static org.junit.Assert.*;
+import java.io.File;
+import java.util.Scanner;
 import grammarsymbols.NonTerminal;
 import grammarsymbols.TokenType;
 import org.junit.Test;
@@ -70,4 +72,41 @@ public class ParseTableTest {
 		}
 	}
 
+	/** Tests that the table generated from the grammar holds the codes of the original,
+	 *  hand built table */
+	@Test
+	public void binaryTableTest() throws Exception{
+		assertNotNull(ParseTable.class.getResourceAsStream(ParseTable.RESOURCE));
+		ParseTable shared = ParseTable.getInstance();
+		Scanner scanner = new Scanner(new File("resources/parsetable-2const.dat"));
+		int entries = 0;
+		while(scanner.hasNextInt()){
+			int code = scanner.nextInt();
+			int loaded = shared.getCode(entries / ParseTable.SIZE, entries % ParseTable.SIZE);
+			if(code == ParseTable.ERRORCODE){
+				assertTrue(loaded >= ParseTable.ERRORCODE);
+			}
+			else{
+				assertEquals(code, loaded);
+			}
+			entries++;
+		}
+		scanner.close();
+		for(; entries < ParseTable.SIZE * ParseTable.SIZE; entries++){
+			assertEquals(0, shared.getCode(entries / ParseTable.SIZE, entries % ParseTable.SIZE));
+		}
+	}
+
+	/** Tests that parsers share one table, and that the shared tables cannot be changed
+	 *  through what they return */
+	@Test
+	public void sharedTableTest(){
+		assertSame(ParseTable.getInstance(), ParseTable.getInstance());
+		assertEquals(1, ParseTable.getInstance().getCode(TokenType.PROGRAM, NonTerminal.program));
+		assertEquals(pTable.getErrorMessage(1000), ParseTable.getInstance().getErrorMessage(1000));
+		assertSame(RHSTable.getInstance(), RHSTable.getInstance());
+		RHSTable.getInstance().getRule(1)[0] = TokenType.END;
+		assertEquals(TokenType.PROGRAM, RHSTable.getInstance().getRule(1)[0]);
+	}
+
 }
@@ -0,0 +1,129 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import errors.CompilerError;
+import grammarsymbols.*;
+import lex.*;
+import org.junit.Test;
+import parser.*;
+
+/** JUnit tests for the parser engines working on grammar symbols encoded as ints, and on the
+ *  generated recursive-descent parser */
+public class ParserEngineTest {
+
+	/** Parses a file with the given engine, and returns what the parser printed */
+	private String parse(String file, Parser.Engine engine, boolean packed){
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(printed, true);
+		Parser parser = new Parser(packed ? PackedTokens.tokenize(file) : new Tokenizer(file), new Compilation(out, out));
+		parser.setEngine(engine);
+		try{
+			parser.parse();
+			return printed.toString() + parser.getProductionCount();
+		}catch(CompilerError e){
+			return printed.toString() + e.getMessage();
+		}catch(RuntimeException e){
+			// Some semantic actions fail on programs with parse errors
+			return printed.toString() + e;
+		}
+	}
+
+	/** Tests that both engines print the same code and errors for every sample program */
+	@Test
+	public void sampleFilesTest(){
+		List<String> files = new ArrayList<String>();
+		files.add("resources/parsetest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		for(String file: files){
+			for(boolean packed: new boolean[] {false, true}){
+				String expected = parse(file, Parser.Engine.TABLE, packed);
+				assertEquals(file, expected, parse(file, Parser.Engine.ENCODED, packed));
+				assertEquals(file, expected, parse(file, Parser.Engine.DESCENT, packed));
+			}
+		}
+	}
+
+	/** Tests that the recursive-descent parser hands errors anywhere in a program over to the
+	 *  table-driven loop the same way, by deleting each token of a program in turn */
+	@Test
+	public void descentRecoveryTest() throws Exception{
+		String program = "program p (input, output);\n"
+				+ "var a, b : integer; x : array [1..5] of real;\n"
+				+ "function f (n : integer) : result integer;\n"
+				+ "begin f := n * 2 end;\n"
+				+ "begin\n"
+				+ "  read(a); b := f(a) + 3;\n"
+				+ "  if a < b then x[1] := 2.5 else while b > 0 do b := b - 1;\n"
+				+ "  write(a, b)\n"
+				+ "end.\n";
+		String[] words = program.split(" ");
+		File file = File.createTempFile("descent", ".pas");
+		file.deleteOnExit();
+		try{
+			for(int i = 0; i < words.length; i++){
+				StringBuilder edited = new StringBuilder();
+				for(int j = 0; j < words.length; j++){
+					if(j != i){
+						edited.append(words[j]).append(' ');
+					}
+				}
+				Writer out = new FileWriter(file);
+				try{
+					out.write(edited.toString());
+				}finally{
+					out.close();
+				}
+				assertEquals(edited.toString(), parse(file.getPath(), Parser.Engine.TABLE, false),
+						parse(file.getPath(), Parser.Engine.DESCENT, false));
+			}
+		}finally{
+			file.delete();
+		}
+	}
+
+	/** Tests that the generated recursive-descent parser is up to date with the grammar */
+	@Test
+	public void generatedParserTest() throws Exception{
+		StringWriter generated = new StringWriter();
+		Grammar.load().writeDescentParser(generated);
+		byte[] source = java.nio.file.Files.readAllBytes(new File("src/parser/DescentParser.java").toPath());
+		assertEquals(new String(source, "UTF-8"), generated.toString());
+	}
+
+	/** Tests that every grammar symbol is decoded to itself */
+	@Test
+	public void encodingTest(){
+		List<GrammarSymbol> symbols = new ArrayList<GrammarSymbol>();
+		symbols.addAll(Arrays.asList(TokenType.values()));
+		symbols.addAll(Arrays.asList(NonTerminal.values()));
+		symbols.addAll(Arrays.asList(SemanticAction.values()));
+		Set<Integer> codes = new HashSet<Integer>();
+		for(GrammarSymbol symbol: symbols){
+			int code = PackedGrammar.encode(symbol);
+			assertSame(symbol, PackedGrammar.decode(code));
+			assertEquals(symbol.getIndex(), code & PackedGrammar.INDEX_MASK);
+			assertTrue(codes.add(code));
+		}
+		assertEquals(TokenType.SEMICOLON.getIndex(), PackedGrammar.encode(TokenType.SEMICOLON));
+	}
+
+	/** Tests that the flat table holds the codes of the parse table */
+	@Test
+	public void tableTest(){
+		ParseTable table = ParseTable.getInstance();
+		PackedGrammar packed = PackedGrammar.getInstance();
+		for(TokenType t: TokenType.values()){
+			for(NonTerminal a: NonTerminal.values()){
+				assertEquals(t + " " + a, table.getCode(t, a), packed.getCode(t.getIndex(), a.getIndex()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.*;
+
+import lex.*;
+import org.junit.Test;
+
+/** JUnit tests for running the lexer on a thread of its own */
+public class PipelinedTokensTest {
+
+	/** Files to test with */
+	private List<String> files(){
+		List<String> files = new ArrayList<String>();
+		files.add("resources/lextest.dat");
+		files.add("resources/parsetest.dat");
+		files.add("resources/symtabtest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		return files;
+	}
+
+	/** Tests that every sample file gives the same tokens, errors and positions as the
+	 *  lexer called directly, with the smallest ring (which wraps around many times on the
+	 *  larger files) and with the default one */
+	@Test
+	public void sampleFilesTest(){
+		for(String file: files()){
+			assertEquals(file, 0, LexerComparison.compare(new Tokenizer(file),
+					new PipelinedTokens(new Tokenizer(file), 128)));
+			assertEquals(file, 0, LexerComparison.compare(new DfaTokenizer(new ByteCharStream(file)),
+					new PipelinedTokens(new DfaTokenizer(new ByteCharStream(file)))));
+		}
+	}
+
+	/** Tests the capacity checks */
+	@Test
+	public void capacityTest(){
+		for(int capacity: new int[] {0, 64, 100, 1000}){
+			try{
+				new PipelinedTokens(new Tokenizer("resources/lextest.dat"), capacity);
+				fail("Capacity " + capacity + " accepted");
+			}catch(IllegalArgumentException e){
+				// Expected
+			}
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.junit.Test;
+import semanticActions.Opcode;
+import semanticActions.Quadruples;
+
+/** JUnit tests for the packed storage of the quadruples */
+public class QuadruplesTest {
+
+	/** Tests that every field is given back as it was stored */
+	@Test
+	public void fieldsTest(){
+		Quadruples quads = new Quadruples();
+		String[][] stored = {{"CODE"}, {"call", "main", "0"}, {"param", "@_12"}, {"param", "@%3"}, {"move", "^%1", "%2"},
+				{"move", "3.5", "_0"}, {"blt", "_1", "-7", "_"}, {";; a comment ;;"}, {"print", "\"x = \""},
+				{"move", "007", "_01"}, {"sub", "-0", "2147483648", "-2147483648"}, {"goto", "_"}, {"alloc", "%"}};
+		for(String[] quadruple: stored){
+			quads.addQuad(quadruple);
+		}
+		assertEquals(stored.length, quads.getNextQuad());
+		for(int i = 0; i < stored.length; i++){
+			assertArrayEquals(stored[i], quads.getQuad(i));
+			assertEquals(stored[i].length, quads.getSize(i));
+		}
+		assertEquals(Quadruples.operand(Quadruples.GLOBAL_REFERENCE, 12), quads.parse("@_12"));
+		assertEquals(Quadruples.number(-7), quads.parse("-7"));
+	}
+
+	/** Tests that labels are patched and the code printed as it was before */
+	@Test
+	public void printTest(){
+		Quadruples quads = new Quadruples();
+		quads.add(Opcode.CODE);
+		quads.add(Opcode.ALLOC, Quadruples.pending());
+		quads.add(Opcode.BLT, Quadruples.operand(Quadruples.GLOBAL, 1), quads.text("3.5"), Quadruples.pending());
+		quads.add(Opcode.EXIT);
+		quads.addComment(";; a comment ;;");
+		quads.setNumber(1, 1, 8);
+		quads.setNumber(2, 3, 3);
+		quads.setField(3, 0, "newl");
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(printed, true);
+		quads.print(out);
+		String n = System.lineSeparator();
+		assertEquals("CODE" + n + " 1: alloc 8 " + n + " 2: blt _1, 3.5, 3 " + n + " 3: newl " + n + " 4: ;; a comment ;; " + n,
+				printed.toString());
+		assertEquals("3", quads.getField(2, 3));
+	}
+
+}
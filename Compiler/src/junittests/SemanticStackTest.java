@@ -0,0 +1,105 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import grammarsymbols.TokenType;
+import org.junit.Test;
+import semanticActions.*;
+import symboltable.*;
+import token.*;
+
+/** JUnit tests for the typed stack of the semantic actions */
+public class SemanticStackTest {
+
+	/** Tests that every kind of value is popped as it was pushed, in order */
+	@Test
+	public void pushPopTest(){
+		SemanticStack stack = new SemanticStack();
+		FunctionEntry function = new FunctionEntry("F");
+		ArrayEntry array = new ArrayEntry("A", TokenType.INTEGER, 10, 1);
+		VariableEntry variable = new VariableEntry("X", TokenType.REAL);
+		List<Integer> labels = new ArrayList<Integer>(Arrays.asList(3, 4));
+		Identifier id = new Identifier("Y");
+		Constant constant = new Constant(TokenType.INTCONSTANT, "5");
+		Operator operator = new Operator(TokenType.MULOP, "*");
+		stack.push(function);
+		stack.push(array);
+		for(int i = 0; i < 100; i++){
+			stack.push(i);
+		}
+		stack.push(TokenType.REAL);
+		stack.push(id);
+		stack.push(constant);
+		stack.push(operator);
+		stack.push(new Token(TokenType.UNARYMINUS));
+		stack.push(labels);
+		stack.push(variable);
+		stack.push(EType.RELATIONAL);
+		assertEquals(110, stack.size());
+		assertTrue(stack.contains(TokenType.REAL));
+		assertTrue(stack.contains(99));
+		assertFalse(stack.contains(EType.ARITHMETIC));
+		assertSame(function, stack.findSubroutine());
+		assertSame(array, stack.findArray());
+		assertSame(labels, stack.findLabels());
+		assertSame(variable, stack.findEntry());
+		assertEquals(EType.RELATIONAL, stack.popEType());
+		assertTrue(stack.topIsEntry());
+		assertSame(variable, stack.popEntry());
+		assertSame(labels, stack.popLabels());
+		assertTrue(stack.topIsToken());
+		assertFalse(stack.topIsIdentifier());
+		assertEquals(TokenType.UNARYMINUS, stack.popToken().getType());
+		assertSame(operator, stack.popOperator());
+		assertSame(constant, stack.popConstant());
+		assertTrue(stack.topIsIdentifier());
+		assertSame(id, stack.popIdentifier());
+		assertEquals(TokenType.REAL, stack.popType());
+		for(int i = 99; i >= 0; i--){
+			assertEquals(i, stack.popNumber());
+		}
+		assertSame(array, stack.popEntry());
+		assertSame(function, stack.peekFunction());
+		assertSame(function, stack.popFunction());
+		assertTrue(stack.isEmpty());
+		assertFalse(stack.topIsToken());
+	}
+
+	/** Tests that popping a value of the wrong kind fails, naming both kinds, and leaves the
+	 *  stack as it was */
+	@Test
+	public void typeConfusionTest(){
+		SemanticStack stack = new SemanticStack();
+		stack.push(new VariableEntry("X", TokenType.INTEGER));
+		try{
+			stack.popEType();
+			fail();
+		}catch(ClassCastException e){
+			assertEquals("Semantic stack: expected an expression type, found a symbol table entry X", e.getMessage());
+		}
+		try{
+			stack.popFunction();
+			fail();
+		}catch(ClassCastException e){
+			assertEquals("Semantic stack: expected a function, found X", e.getMessage());
+		}
+		stack.push(EType.ARITHMETIC);
+		try{
+			stack.popLabels();
+			fail();
+		}catch(ClassCastException e){
+			assertEquals("Semantic stack: expected a list of labels, found an expression type ARITHMETIC", e.getMessage());
+		}
+		assertEquals(2, stack.size());
+		stack.pop();
+		stack.pop();
+		try{
+			stack.popEntry();
+			fail();
+		}catch(NoSuchElementException e){
+			assertEquals("Semantic stack: expected a symbol table entry, found nothing", e.getMessage());
+		}
+	}
+
+}
@@ -1,12 +1,16 @@
 package junittests;
 import static org.junit.Assert.*;
+import java.io.*;
 import java.util.*;
 import grammarsymbols.*;
 import org.junit.Test;
 import semanticActions.*;
 import token.*;
+import drivers.BatchDriver;
 import drivers.ParseDriver;
 import errors.SemanticError;
+import lex.Source;
+import parser.Compilation;
 import symboltable.*;
 
 public class SemanticTest {
@@ -137,20 +141,59 @@ public class SemanticTest {
 	public void generateTest(){
 		SemanticActions actions = new SemanticActions();
 		Quadruples quads = actions.getQuads();
-		actions.generate("hello");
+		actions.generateComment("hello");
 		assertTrue(quads.getNextQuad() == 1);
 		assertArrayEquals(new String[] {"hello"}, quads.getQuad(0));
 		
 		VariableEntry varE = new VariableEntry("A", TokenType.IDENTIFIER);
 		varE.setAddress(1);
-		actions.generate("move", new ConstantEntry("100"), varE);
+		actions.generate(Opcode.MOVE, new ConstantEntry("100"), varE);
 		assertTrue(quads.getNextQuad()==3);
 		assertArrayEquals(new String[] {"move", "100", "_0"}, quads.getQuad(1));
 		assertArrayEquals(new String[]{"move", "_0", "_1"}, quads.getQuad(2));
 		
-		actions.generate("PROCBEGIN", new ProcedureEntry("MAIN"));
+		actions.generate(Opcode.PROCBEGIN, new ProcedureEntry("MAIN"));
 		assertTrue(quads.getNextQuad() == 4);
 		assertArrayEquals(new String[] {"PROCBEGIN", "main"}, quads.getQuad(3));
+		
+		actions.generate(Opcode.BLT, varE, Quadruples.number(-1), Quadruples.pending());
+		actions.generate(Opcode.GOTO, Quadruples.number(2));
+		assertArrayEquals(new String[] {"blt", "_1", "-1", "_"}, quads.getQuad(4));
+		assertArrayEquals(new String[] {"goto", "2"}, quads.getQuad(5));
+	}
+	
+	/** Tests that AND on arithmetic operands, which has no TVI opcode, is compiled to an 
+	 *  "error" quadruple, or "ferror" on reals */
+	@Test
+	public void arithmeticAndTest(){
+		String program = "program t(input, output);\nvar a, b, c: integer;\n    x, y: real;\n"
+				+ "begin\n  c := a and b;\n  x := x and y\nend.\n";
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		PrintStream diagnostics = new PrintStream(new ByteArrayOutputStream());
+		assertEquals(BatchDriver.Status.OK, BatchDriver.compile(Source.of(program), new ArrayList<String>(),
+				new Compilation(diagnostics, new PrintStream(code, true))));
+		String printed = code.toString();
+		assertTrue(printed, printed.contains(": error _2, _1, _"));
+		assertTrue(printed, printed.contains(": ferror _4, _3, _"));
+	}
+	
+	/** Compiles a program, returning the diagnostics printed */
+	private String diagnostics(String program){
+		ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		BatchDriver.compile(Source.of(program), new ArrayList<String>(),
+				new Compilation(new PrintStream(printed, true), new PrintStream(new ByteArrayOutputStream())));
+		return printed.toString();
+	}
+	
+	/** Tests that semantic errors about an identifier give the line and column where it was
+	 *  read, not where the lexer is when the error is found */
+	@Test
+	public void errorPositionTest(){
+		String undeclared = diagnostics("program t(input, output);\nvar a: integer;\nbegin\n  a := 1;\n"
+				+ "  a := a + zz\nend.\n");
+		assertTrue(undeclared, undeclared.contains(">>> ERROR AT LINE 5, COLUMN 12:   a := a + zz\n"));
+		String reserved = diagnostics("program t(input, output);\nvar i, write: integer;\nbegin\nend.\n");
+		assertTrue(reserved, reserved.contains(">>> ERROR AT LINE 2, COLUMN 8: var i, write: integer;\n"));
 	}
 	
 	/** Tests the create function */
@@ -202,5 +245,19 @@ public class SemanticTest {
 		assertFalse(test1.equals(l4));
 	}
 	
+	/** Tests that actions without a handler, and numbers of no action, do nothing */
+	@Test
+	public void noActionTest() throws SemanticError{
+		SemanticActions actions = new SemanticActions();
+		actions.Execute(SemanticAction.action13, new Identifier("x"));
+		for(int number: new int[] {-1, 0, 8, 57, 58, 99, 102, 1000}){
+			actions.Execute(number, t);
+		}
+		actions.Execute(SemanticAction.action57, t);
+		assertEquals(1, actions.getStack().size());
+		assertTrue(actions.isInsert());
+		assertEquals(0, actions.getQuads().getNextQuad());
+	}
+	
 
 }
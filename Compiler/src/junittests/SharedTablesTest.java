@@ -0,0 +1,75 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import lex.*;
+import org.junit.Test;
+import parser.*;
+import token.Token;
+
+/** JUnit tests for the grammar and lexical tables shared by every compilation */
+public class SharedTablesTest {
+
+	/** Tests that the shared tables have no static fields which can be assigned, and no
+	 *  public fields but constants, so they cannot be changed once they are published */
+	@Test
+	public void immutableTest(){
+		for(Class<?> table: Arrays.<Class<?>>asList(Classification.class, Keywords.class, ParseTable.class,
+				RHSTable.class, PackedGrammar.class, DfaTokenizer.class)){
+			for(Field field: table.getDeclaredFields()){
+				int modifiers = field.getModifiers();
+				if(Modifier.isStatic(modifiers)){
+					assertTrue(table.getSimpleName() + "." + field.getName(), Modifier.isFinal(modifiers));
+				}
+				if(Modifier.isPublic(modifiers)){
+					assertTrue(table.getSimpleName() + "." + field.getName(),
+							Modifier.isFinal(modifiers) && (field.getType().isPrimitive() || field.getType() == String.class));
+				}
+			}
+		}
+		assertTrue(Modifier.isFinal(fieldModifiers(Token.class, "type")));
+	}
+
+	/** Returns the modifiers of a field */
+	private static int fieldModifiers(Class<?> type, String name){
+		try{
+			return type.getDeclaredField(name).getModifiers();
+		}catch(NoSuchFieldException e){
+			throw new AssertionError(e);
+		}
+	}
+
+	/** Tests that lexers on several threads, created at the same time, read the same tokens
+	 *  from the shared tables as a single lexer */
+	@Test
+	public void concurrentLexersTest() throws Exception{
+		final String file = "resources/pascal_files/func.pas";
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try{
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<Long>> results = new ArrayList<Future<Long>>();
+			for(int i = 0; i < threads; i++){
+				final boolean dfa = i % 2 == 0;
+				results.add(pool.submit(new Callable<Long>(){
+					@Override
+					public Long call() throws Exception{
+						start.await();
+						TokenStream lexer = dfa ? new DfaTokenizer(file) : new Tokenizer(file);
+						return LexerComparison.compare(new Tokenizer(file), lexer);
+					}
+				}));
+			}
+			start.countDown();
+			for(Future<Long> result: results){
+				assertEquals(0L, (long)result.get());
+			}
+		}finally{
+			pool.shutdown();
+		}
+	}
+
+}
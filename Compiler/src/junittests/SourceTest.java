@@ -0,0 +1,99 @@
+package junittests;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import drivers.ParseDriver;
+import lex.*;
+import org.junit.Test;
+import parser.Compilation;
+import parser.Parser;
+
+/** JUnit tests for reading programs held in memory rather than in files */
+public class SourceTest {
+
+	/** Files to test with */
+	private List<String> files(){
+		List<String> files = new ArrayList<String>();
+		files.add("resources/lextest.dat");
+		files.add("resources/parsetest.dat");
+		for(String dir: new String[] {"resources/pascal_files", "resources/pascal_testError"}){
+			for(File f: new File(dir).listFiles()){
+				files.add(f.getPath());
+			}
+		}
+		return files;
+	}
+
+	/** Returns every kind of source holding the given bytes */
+	private List<Source> sources(byte[] bytes) throws Exception{
+		List<Source> sources = new ArrayList<Source>();
+		sources.add(Source.of(new String(bytes, StandardCharsets.ISO_8859_1)));
+		sources.add(Source.of(bytes));
+		// A buffer holding the program part way through
+		ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 10);
+		buffer.position(7);
+		buffer.put(bytes);
+		buffer.flip();
+		buffer.position(7);
+		sources.add(Source.of(buffer));
+		assertEquals(7, buffer.position());
+		sources.add(Source.read(Channels.newChannel(new ByteArrayInputStream(bytes))));
+		return sources;
+	}
+
+	/** Tests that every lexer reads the same tokens, positions and errors from a program in
+	 *  memory as from the file holding it */
+	@Test
+	public void sampleFilesTest() throws Exception{
+		for(String file: files()){
+			byte[] bytes = Files.readAllBytes(new File(file).toPath());
+			for(Source source: sources(bytes)){
+				for(List<String> options: Arrays.asList(Arrays.<String>asList(), Arrays.asList("-dfa"),
+						Arrays.asList("-mapped", "-dfa"), Arrays.asList("-packed"))){
+					assertEquals(file + " from " + source + " " + options, 0, LexerComparison.compare(
+							new Tokenizer(file), ParseDriver.openLexer(source, options)));
+				}
+			}
+		}
+	}
+
+	/** Tests that a channel larger than the first buffer is read whole */
+	@Test
+	public void channelTest() throws Exception{
+		StringBuilder text = new StringBuilder();
+		while(text.length() < 100000){
+			text.append("x := y + 1;\n");
+		}
+		byte[] bytes = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+		Source source = Source.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+		assertEquals(0, LexerComparison.compare(new Tokenizer(Source.of(bytes)), new DfaTokenizer(new ByteCharStream(source))));
+	}
+
+	/** Compiles a program to sinks in memory, and returns the diagnostics followed by the code */
+	private String compile(TokenStream lexer) throws Exception{
+		ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		new Parser(lexer, new Compilation(new PrintStream(diagnostics), new PrintStream(code))).parse();
+		return diagnostics.toString() + "----\n" + code.toString();
+	}
+
+	/** Tests that a program in memory compiles to the same code as the file holding it */
+	@Test
+	public void parseTest() throws Exception{
+		String file = "resources/pascal_files/simple.pas";
+		byte[] bytes = Files.readAllBytes(new File(file).toPath());
+		String compiled = compile(new Tokenizer(Source.of(new String(bytes, StandardCharsets.ISO_8859_1))));
+		assertTrue(compiled, compiled.startsWith("Compilation successful\n"));
+		assertEquals(compile(new Tokenizer(file)), compiled);
+	}
+
+}
@@ -122,5 +122,39 @@ public class SymbolTableTest {
 		assertTrue(globals.lookup("INPUT")!=null);
 		assertTrue(globals.lookup("OUTPUT")!=null);
 	}
+	
+	/** Tests that constants with the same value share one entry, named after the first one */
+	@Test
+	public void constantTableTest(){
+		ConstantTable table = new ConstantTable(SIZE);
+		table.insert(new ConstantEntry("1.50", 1.5));
+		table.insert(new ConstantEntry("7", 7L));
+		assertEquals("1.50", table.lookup(new token.Constant(TokenType.REALCONSTANT, "1.5").getRealValue()).getName());
+		assertEquals("1.50", table.lookup(new token.Constant(TokenType.REALCONSTANT, "15E-1").getRealValue()).getName());
+		assertEquals(7, table.lookup(new token.Constant(TokenType.INTCONSTANT, "007").getIntValue()).getIntValue());
+		assertNull(table.lookup(7.0));
+		assertNull(table.lookup(8L));
+		// Enough constants to grow the table
+		for(int i = 0; i < 1000; i++){
+			table.insert(new ConstantEntry(Integer.toString(i), (long)i));
+			table.insert(new ConstantEntry(i + ".5", i + 0.5));
+		}
+		assertEquals(2000, table.size());
+		for(int i = 0; i < 1000; i++){
+			assertEquals(i, table.lookup((long)i).getIntValue());
+			assertEquals(i + 0.5, table.lookup(i + 0.5).getRealValue(), 0.0);
+		}
+		assertEquals("7", table.lookup(7L).getName());
+		assertEquals("1.50", table.lookup(1.5).getName());
+		assertEquals("1500", new ConstantEntry("1.5E3", 1500.0).getName());
+		assertEquals("0.025", new ConstantEntry("25E-3", 0.025).getName());
+		assertEquals(0.1, new token.Constant(TokenType.REALCONSTANT, "0.1").getRealValue(), 0.0);
+		assertEquals(Long.MAX_VALUE, new token.Constant(TokenType.INTCONSTANT, "99999999999999999999").getIntValue());
+		try{
+			new ConstantEntry("9999999999", 9999999999L);
+			fail("Value too large for an int");
+		}catch(NumberFormatException e){
+		}
+	}
 
 }
@@ -0,0 +1,499 @@
+package lex;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import errors.*;
+
+/** A CharStream that memory-maps the source file and scans its bytes
+ * directly, instead of decoding it one line at a time through a
+ * <code>BufferedReader</code>.
+ *
+ * The source is assumed to be ASCII: every byte is presented as one
+ * character, so any byte outside the ASCII range is reported as an illegal
+ * character.  Lines are split exactly the way <code>readLine()</code> splits
+ * them ("\n", "\r" or "\r\n"), so line numbers, the current line and the
+ * characters returned by <code>currentChar()</code> are the same as for a
+ * plain CharStream.  Line contents are only turned into Strings when
+ * <code>getCurrentLine()</code> is called.
+ *
+ * Line breaks, white space and comments are found eight bytes at a time:
+ * each 8-byte word of the source is tested for the bytes being looked for
+ * with a few arithmetic operations on a long ("SIMD within a register"),
+ * and only the word holding a match is examined byte by byte.
+ */
+public class ByteCharStream extends CharStream
+{
+   /** A long with every byte set to 0x01. */
+   private static final long ONES = 0x0101010101010101L;
+   /** A long with the low seven bits of every byte set. */
+   private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+   /** A long with the high bit of every byte set. */
+   private static final long HIGH_BITS = 0x8080808080808080L;
+   /** Eight copies of each byte that is searched for. */
+   private static final long SPACES = ONES * ' ';
+   private static final long TABS = ONES * '\t';
+   private static final long NEWLINES = ONES * '\n';
+   private static final long RETURNS = ONES * '\r';
+   private static final long LEFT_BRACES = ONES * '{';
+   private static final long RIGHT_BRACES = ONES * '}';
+
+   /** The whole source file. */
+   private ByteBuffer source = null;
+
+   /** Default constructor. */
+   public ByteCharStream()
+   {
+      super();
+   }
+
+   /** Creates a ByteCharStream and maps filename into memory.  As with
+    * CharStream, <code>isOpen()</code> should be checked after using this
+    * constructor.
+    */
+   public ByteCharStream(String filename)
+   {
+      super();
+      open(filename);
+   }
+
+   /** Creates a ByteCharStream reading the given source.  A file is mapped
+    * into memory, and a source held in memory is read where it is.  As with
+    * CharStream, <code>isOpen()</code> should be checked after using this
+    * constructor.
+    */
+   public ByteCharStream(Source source)
+   {
+      super();
+      open(source);
+   }
+
+   /**
+    * Maps the given file into memory. Returns true if the file was opened
+    * successfully, or false otherwise.
+    *
+    * @param filename String The name of the file to open
+    * @return boolean True if the file was opened, false otherwise.
+    */
+   @Override
+   public boolean open(String filename)
+   {
+      try
+      {
+         RandomAccessFile file = new RandomAccessFile(filename, "r");
+         try
+         {
+            FileChannel channel = file.getChannel();
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+               throw new IOException(filename + " is too large to be mapped");
+            }
+            open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+         }
+         finally
+         {
+            file.close();
+         }
+      }
+      catch (Exception ex)
+      {
+         System.out.println(ex);
+         ex.printStackTrace(System.out);
+         source = null;
+      }
+      return source != null;
+   }
+
+   /**
+    * Attempts to open the given source: a file is mapped into memory, and
+    * the bytes of a source held in memory are read where they are. Returns
+    * true if the source was opened successfully, or false otherwise.
+    */
+   @Override
+   public boolean open(Source source)
+   {
+      if (source.isFile())
+      {
+         return open(source.getName());
+      }
+      try
+      {
+         open(source.bytes());
+      }
+      catch (LexicalError ex)
+      {
+         System.out.println(ex);
+         ex.printStackTrace(System.out);
+         this.source = null;
+      }
+      return this.source != null;
+   }
+
+   /** Starts scanning the given buffer from its first byte. */
+   protected void open(ByteBuffer buffer) throws LexicalError
+   {
+      // Words are read in little-endian order, so that the first byte of
+      // the source is the lowest byte of the word
+      source = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      limit = buffer.limit();
+      nextOffset = 0;
+      start();
+   }
+
+   /** Returns true if a file has be opened, false otherwise. */
+   @Override
+   public boolean isOpen() { return source != null; }
+
+   /** Returns the number of bytes in the source. */
+   public int length()
+   {
+      return limit;
+   }
+
+   /** Returns a new stream reading the same source, starting at the line
+    * which begins at the given offset.  The new stream numbers lines from
+    * <code>lineNumber</code>, and is in the state a stream reading the
+    * whole source would be in at the start of that line: either outside a
+    * comment, or inside a comment opened on an earlier line.  Used to lex
+    * parts of a source in parallel.
+    *
+    * @param offset The offset of the first byte of a line
+    * @param lineNumber The number of that line
+    * @param inComment True to start inside a comment
+    * @throws LexicalError if the comment, or a comment at the start of the
+    *         line, is not properly closed
+    */
+   public ByteCharStream startingAt(int offset, int lineNumber, boolean inComment) throws LexicalError
+   {
+      ByteCharStream stream = new ByteCharStream();
+      stream.source = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      stream.limit = limit;
+      stream.nextLineStart = offset;
+      stream.nextOffset = offset;
+      stream.lineNumber = lineNumber;
+      stream.charIndex = 0;
+      stream.readLine();
+      stream.previousLineStart = lineBefore(offset);
+      stream.previousLineLength = stream.previousLineStart == NO_LINE ? 0
+            : findLineEnd(stream.previousLineStart, limit) - stream.previousLineStart;
+      if (inComment)
+      {
+         stream.skipComment();
+      }
+      else
+      {
+         stream.currentChar = stream.getChar();
+      }
+      stream.skipWhiteSpace();
+      return stream;
+   }
+
+   /** Returns the offset of the line before the line starting at offset,
+    * or NO_LINE for the first line.
+    */
+   private int lineBefore(int offset)
+   {
+      if (offset == 0)
+      {
+         return NO_LINE;
+      }
+      int start = offset - 1;
+      // Step back over the terminator of the previous line
+      if (source.get(start) == '\n' && start > 0 && source.get(start - 1) == '\r')
+      {
+         --start;
+      }
+      while (start > 0 && source.get(start - 1) != '\n' && source.get(start - 1) != '\r')
+      {
+         --start;
+      }
+      return start;
+   }
+
+   /** Returns the offset of the start of the line following the given
+    * offset, or the length of the source if there is none.
+    */
+   public int nextLineStart(int offset)
+   {
+      int end = findLineEnd(offset, limit);
+      if (end < limit && source.get(end) == '\r' && end + 1 < limit && source.get(end + 1) == '\n')
+      {
+         ++end;
+      }
+      return Math.min(end + 1, limit);
+   }
+
+   /** Returns the number of line breaks in [from, to), counting "\r\n" as
+    * one.  Neither offset may fall between the two bytes of a "\r\n".
+    */
+   public int countLines(int from, int to)
+   {
+      int count = 0;
+      int offset = from;
+      while (to - offset >= 8)
+      {
+         long word = source.getLong(offset);
+         long newlines = zeroBytes(word ^ NEWLINES);
+         long returns = zeroBytes(word ^ RETURNS);
+         // A '\r' directly followed by a '\n' is part of the same break
+         count += Long.bitCount(newlines) + Long.bitCount(returns) - Long.bitCount((returns << 8) & newlines);
+         if (returns < 0 && offset + 8 < to && source.get(offset + 8) == '\n')
+         {
+            --count;
+         }
+         offset += 8;
+      }
+      for (; offset < to; offset++)
+      {
+         byte b = source.get(offset);
+         if (b == '\n' || (b == '\r' && (offset + 1 >= limit || source.get(offset + 1) != '\n')))
+         {
+            ++count;
+         }
+      }
+      return count;
+   }
+
+   /** Returns the offset of the character held by the stream, which the
+    * next call to <code>currentChar()</code> returns unless characters have
+    * been pushed back.
+    */
+   int nextOffset()
+   {
+      return nextOffset;
+   }
+
+   /** Returns the offset of the current line, or -1 past the last line. */
+   int lineStart()
+   {
+      return lineStart;
+   }
+
+   /** Returns the offset of the line before the current line, or -1 on
+    * the first line.
+    */
+   int previousLineStart()
+   {
+      return previousLineStart;
+   }
+
+   /** Returns the offset just past the last byte the stream has looked at:
+    * the end of the current line, terminator included.
+    */
+   int readLimit()
+   {
+      return lineStart == NO_LINE ? limit : nextLineStart;
+   }
+
+   /** Returns a new stream reading the given source in the state described
+    * by the arguments, which are those of a stream that read a source with
+    * the same bytes from the start of the previous line up to its read
+    * limit.  Used to resume lexing part way through a source.
+    *
+    * @param source The source
+    * @param offset The offset of the character held by the stream
+    * @param lineStart The offset of the current line, which must not be -1
+    * @param lineNumber The number of the current line
+    * @param charIndex The index in the current line
+    * @param currentChar The character held by the stream
+    * @param pushedBack The characters on the pushback stack, bottom first
+    */
+   static ByteCharStream resume(ByteBuffer source, int offset, int lineStart, int lineNumber, int charIndex,
+         char currentChar, String pushedBack)
+   {
+      ByteCharStream stream = new ByteCharStream();
+      stream.source = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      stream.limit = source.limit();
+      stream.nextLineStart = lineStart;
+      stream.readLine();
+      stream.previousLineStart = stream.lineBefore(lineStart);
+      stream.previousLineLength = stream.previousLineStart == NO_LINE ? 0
+            : stream.findLineEnd(stream.previousLineStart, stream.limit) - stream.previousLineStart;
+      stream.nextOffset = offset;
+      stream.lineNumber = lineNumber;
+      stream.charIndex = charIndex;
+      stream.currentChar = currentChar;
+      // The characters pushed back are the ones just before the character held
+      stream.lastOffset = offset - 1;
+      for (int i = 0; i < pushedBack.length(); i++)
+      {
+         stream.pushBack(pushedBack.charAt(i));
+      }
+      stream.lastOffset = offset;
+      return stream;
+   }
+
+   /** Returns the byte of the source at the given offset, as a character. */
+   @Override
+   protected char charAt(int offset)
+   {
+      return (char) (source.get(offset) & 0xFF);
+   }
+
+   /** Reads a character from the source buffer, returning '\n' at the end
+    * of each line and CharStream.EOF at the end of the buffer.
+    */
+   @Override
+   protected char getChar()
+   {
+      lastOffset = nextOffset;
+      if (lineStart != NO_LINE && charIndex >= lineLength)
+      {
+         nextOffset = lineStart + lineLength;
+         getLine();
+         return '\n';
+      }
+      if (lineStart == NO_LINE)
+      {
+         nextOffset = limit;
+         close();
+         return EOF;
+      }
+      nextOffset = lineStart + charIndex;
+      return (char) (source.get(lineStart + charIndex++) & 0xFF);
+   }
+
+   /** Skips over consecutive white space characters.  Comments are treated
+    * as white space.  Runs of blanks within a line are skipped without
+    * reading them one character at a time.
+    */
+   @Override
+   protected void skipWhiteSpace() throws LexicalError
+   {
+      while (true)
+      {
+         if (currentChar == L_CURLY)
+         {
+            skipComment();
+         }
+         else if (Character.isWhitespace(currentChar))
+         {
+            if (lineStart != NO_LINE)
+            {
+               charIndex = skipBlanks(lineStart + charIndex, lineStart + lineLength) - lineStart;
+            }
+            currentChar = getChar();
+         }
+         else
+         {
+            return;
+         }
+      }
+   }
+
+   /** Skips characters until the right brace is encountered.  Each line of
+    * the comment is searched for the next brace a word at a time; a left
+    * brace means that comments are nested, which is an error.
+    */
+   @Override
+   protected void skipComment() throws LexicalError
+   {
+      int start = nextOffset;
+      while (lineStart != NO_LINE)
+      {
+         int end = lineStart + lineLength;
+         int brace = findBrace(lineStart + charIndex, end);
+         if (brace < end)
+         {
+            charIndex = brace - lineStart;
+            currentChar = getChar();
+            if (currentChar == L_CURLY)
+            {
+               throw LexicalError.BadComment(this, nextOffset);
+            }
+            currentChar = getChar();
+            return;
+         }
+         // Move on to the next line
+         charIndex = lineLength;
+         currentChar = getChar();
+      }
+      currentChar = getChar();
+      throw LexicalError.UnterminatedComment(this, start);
+   }
+
+   /** Returns the offset of the first byte in [from, end) that is not a
+    * white space character, or end if there is none.
+    */
+   private int skipBlanks(int from, int end)
+   {
+      int offset = from;
+      while (offset < end)
+      {
+         if (end - offset >= 8)
+         {
+            long word = source.getLong(offset);
+            long blanks = zeroBytes(word ^ SPACES) | zeroBytes(word ^ TABS);
+            if (blanks == HIGH_BITS)
+            {
+               offset += 8;
+               continue;
+            }
+            offset += Long.numberOfTrailingZeros(~blanks & HIGH_BITS) >>> 3;
+         }
+         // Spaces and tabs are handled above, but other white space is rare
+         if (!Character.isWhitespace((char) (source.get(offset) & 0xFF)))
+         {
+            return offset;
+         }
+         ++offset;
+      }
+      return end;
+   }
+
+   /** Returns the offset of the first '{' or '}' in [from, end), or end if
+    * there is none.
+    */
+   private int findBrace(int from, int end)
+   {
+      int offset = from;
+      while (end - offset >= 8)
+      {
+         long word = source.getLong(offset);
+         long braces = zeroBytes(word ^ LEFT_BRACES) | zeroBytes(word ^ RIGHT_BRACES);
+         if (braces != 0)
+         {
+            return offset + (Long.numberOfTrailingZeros(braces) >>> 3);
+         }
+         offset += 8;
+      }
+      while (offset < end && source.get(offset) != L_CURLY && source.get(offset) != R_CURLY)
+      {
+         ++offset;
+      }
+      return offset;
+   }
+
+   /** Returns the offset of the first '\n' or '\r' in [from, end), or end if
+    * there is none, searching a word at a time.
+    */
+   @Override
+   protected int findLineEnd(int from, int end)
+   {
+      int offset = from;
+      while (end - offset >= 8)
+      {
+         long word = source.getLong(offset);
+         long breaks = zeroBytes(word ^ NEWLINES) | zeroBytes(word ^ RETURNS);
+         if (breaks != 0)
+         {
+            return offset + (Long.numberOfTrailingZeros(breaks) >>> 3);
+         }
+         offset += 8;
+      }
+      while (offset < end && source.get(offset) != '\n' && source.get(offset) != '\r')
+      {
+         ++offset;
+      }
+      return offset;
+   }
+
+   /** Returns a word with the high bit set in each byte of v that is zero,
+    * and every other bit clear.
+    */
+   private static long zeroBytes(long v)
+   {
+      return ~(((v & LOW_BITS) + LOW_BITS) | v | LOW_BITS);
+   }
+}
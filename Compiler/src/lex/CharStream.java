@@ -1,7 +1,8 @@
 package lex;
 
 import java.io.*;
-import java.util.*; 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import errors.*;
 
 /** The CharStream class reads a text file and presents "significant"
@@ -9,10 +10,23 @@ import errors.*;
  * Comments are ignored (treated as white-space) and multiple white-space
  * characters are treated as a single space character.
  *
+ * The whole file is read into a single buffer when it is opened, decoding
+ * its bytes as ISO-8859-1 characters (as the ByteCharStream reads them), so
+ * that an offset into it is the offset of the same byte in the file, and
+ * lines are kept as offsets into it.  A line is only copied into a String
+ * when it is asked for, by <code>getCurrentLine()</code> or
+ * <code>lineAt()</code> (usually for an error message).  Errors hold the
+ * offset of the character they were found at, and the line holding it is
+ * found through a table of line starts, which is only built the first
+ * time an error message is rendered.  Subclasses which
+ * hold the source some other way share the handling of lines, and only
+ * supply its characters through <code>charAt()</code> and
+ * <code>findLineEnd()</code>.
+ *
  * When the CharStream has reached end of the file the
  * <code>currentChar()</code> method will return <code>CharStream.EOF</code>.
  */
-public class CharStream
+public class CharStream implements SourceLines
 {
    /** Character returned for all white-space characters. */
    public static final char BLANK = ' ';
@@ -22,29 +36,58 @@ public class CharStream
     */
    public static final char EOF = (char)-1;
 
+   /** Maximum number of characters that can be pushed back at once.  The
+    * Tokenizer never needs more than two (the ".." after an integer). */
+   public static final int PUSHBACK_CAPACITY = 8;
+
+   /** Line offset standing for no line: past the last line, or before the
+    * first one. */
+   static final int NO_LINE = -1;
+
    /** Character used to mark the start of a comment. */
-   private static final char L_CURLY = '{';
+   static final char L_CURLY = '{';
    /** Character used to mark the end of a comment. */
-   private static final char R_CURLY = '}';
+   static final char R_CURLY = '}';
 
    /** A list of the valid characters that may appear in the source code. */
-   private static final String VALID_CHARS =
+   static final String VALID_CHARS =
       "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz1234567890" +
       ".,;:<>/*[]+-=(){\t ";
 
-   /** Used to read the source code file. */
-   private BufferedReader reader = null;
-   /** The current line being processed. */
-   private String currentLine = null;
-   private String previousLine = null;
+   /** The source code, or null if no file is open. */
+   private char[] text = null;
+   /** Number of characters in the source. */
+   protected int limit;
+   /** Offset and length of the current line being processed.  The offset
+    * is NO_LINE past the last line. */
+   protected int lineStart = NO_LINE;
+   protected int lineLength;
+   /** Offset and length of the line before the current line. */
+   protected int previousLineStart = NO_LINE;
+   protected int previousLineLength;
+   /** Offset of the line after the current line. */
+   protected int nextLineStart;
    /** The current character that has been read from the file. */
-   private char currentChar = 0;
+   protected char currentChar = 0;
+   /** Offset of the character held in <code>currentChar</code>. */
+   protected int nextOffset;
+   /** Offset of the character read before <code>currentChar</code>. */
+   protected int lastOffset;
    /** Index of the current character in the current line. */
-   private int charIndex;
+   protected int charIndex;
    /** The current line number being read. */
-   private int lineNumber = 0;
-   /** Stack used to hold characters that are "put back". */
-   private Stack<Character> stack = new Stack<Character>();
+   protected int lineNumber = 0;
+   /** Holds characters that are "put back", used as a stack.  A plain array
+    * avoids boxing each character and the synchronization of java.util.Stack.
+    */
+   private final char[] pushback = new char[PUSHBACK_CAPACITY];
+   /** Offsets of the characters held in <code>pushback</code>. */
+   private final int[] pushbackOffsets = new int[PUSHBACK_CAPACITY];
+   /** Number of characters currently held in <code>pushback</code>. */
+   private int pushbackCount = 0;
+   /** Offsets of the first characters of the lines, or null until an error
+    * asks for the line holding an offset. */
+   private int[] lineStarts = null;
 
    /** Default constructor. */
    public CharStream()
@@ -67,6 +110,16 @@ public class CharStream
       open(filename);
    }
 
+   /** Creates a CharStream object and opens the given source for reading.
+    * As with a file name, <code>isOpen()</code> should be checked after
+    * constructing a CharStream object with this constructor.
+    */
+   public CharStream(Source source)
+   {
+      super();
+      open(source);
+   }
+
    /**
     * Attempts to open the given file. Returns true if the file was opened
     * successfully, or false otherwise.
@@ -78,24 +131,86 @@ public class CharStream
    {
       try
       {
-         reader = new BufferedReader(new FileReader(filename));
-         lineNumber = 1;
-         currentLine = reader.readLine();
-         previousLine = currentLine;
-         currentChar = getChar();
-         skipWhiteSpace();
+         Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename),
+               StandardCharsets.ISO_8859_1));
+         try
+         {
+            CharArrayWriter contents = new CharArrayWriter();
+            char[] block = new char[8192];
+            int count;
+            while ((count = reader.read(block)) > 0)
+            {
+               contents.write(block, 0, count);
+            }
+            open(contents.toCharArray());
+         }
+         finally
+         {
+            reader.close();
+         }
       }
       catch (Exception ex)
       {
          System.out.println(ex);
          ex.printStackTrace(System.out);
-         reader = null;
+         text = null;
+      }
+      return text != null;
+   }
+
+   /**
+    * Attempts to open the given source: a file is opened by its name, and a
+    * source held in memory is read from memory. Returns true if the source
+    * was opened successfully, or false otherwise.
+    *
+    * @param source Source The source to open
+    * @return boolean True if the source was opened, false otherwise.
+    */
+   public boolean open(Source source)
+   {
+      if (source.isFile())
+      {
+         return open(source.getName());
+      }
+      try
+      {
+         open(source.chars());
+      }
+      catch (LexicalError ex)
+      {
+         System.out.println(ex);
+         ex.printStackTrace(System.out);
+         text = null;
       }
-      return reader != null;
+      return text != null;
+   }
+
+   /** Starts scanning the given characters from the first one. */
+   private void open(char[] source) throws LexicalError
+   {
+      text = source;
+      limit = source.length;
+      start();
+   }
+
+   /** Starts scanning the source from its first character, once it has
+    * been opened.
+    */
+   protected void start() throws LexicalError
+   {
+      nextLineStart = 0;
+      nextOffset = 0;
+      lineNumber = 1;
+      charIndex = 0;
+      readLine();
+      previousLineStart = lineStart;
+      previousLineLength = lineLength;
+      currentChar = getChar();
+      skipWhiteSpace();
    }
 
    /** Returns true if a file has be opened, false otherwise. */
-   public boolean isOpen() { return reader != null; }
+   public boolean isOpen() { return text != null; }
 
    /** Returns the number of the line currently being scanned. Returns
     * 0 (zero) if no file is currently open.
@@ -106,37 +221,165 @@ public class CharStream
     */
    public int indexNumber() { return charIndex; }
 
+   /** Returns the offset in the source of the last character returned by
+    * <code>currentChar()</code>, whether it was read from the source or
+    * from the pushback stack.  Meaningless for CharStream.BLANK, which may
+    * stand for a whole run of white space and comments.
+    */
+   public int lastOffset()
+   {
+      return lastOffset;
+   }
+
    /** Prints the current line to std output. */
    public void dumpLine()
    {
-      System.out.println(currentLine);
+      System.out.println(lineString(lineStart, lineLength));
    }
 
    /** Returns the current line. */
    public String getCurrentLine() { 
 	   if(charIndex == 0){
-		   return previousLine; 
+		   return lineString(previousLineStart, previousLineLength); 
 	   }
-	   return currentLine;
+	   return lineString(lineStart, lineLength);
    }
 
-   /** Closes the currently open file.  Has no effect if no file is open. */
-   public void close()
+   /** Returns the offset of the line that <code>getCurrentLine()</code>
+    * would return, or -1 if it would return null.
+    */
+   public int currentLineOffset()
    {
-      if (reader != null)
+      return charIndex == 0 ? previousLineStart : lineStart;
+   }
+
+   /** Returns the line starting at the given offset (see
+    * <code>currentLineOffset()</code>), without its terminator.  Returns
+    * null for -1.
+    */
+   public String lineAt(int offset)
+   {
+      if (offset == NO_LINE)
       {
-         currentChar = (char) EOF;
-         lineNumber = 0;
-         try
+         return null;
+      }
+      return lineString(offset, findLineEnd(offset, limit) - offset);
+   }
+
+   /** Returns the offset of the first character of the line holding the
+    * given offset, or -1 if the source has no lines.  An offset past the
+    * end of the source is held by the last line.
+    */
+   public int lineStart(int offset)
+   {
+      int line = lineIndex(offset);
+      return line < 0 ? NO_LINE : lineStarts[line];
+   }
+
+   /** Returns the number of the line holding the given offset, counting
+    * from 1, or 0 if the source has no lines.
+    */
+   public int lineNumber(int offset)
+   {
+      return lineIndex(offset) + 1;
+   }
+
+   /** Returns the index in <code>lineStarts</code> of the line holding the
+    * given offset, building the table the first time it is needed.
+    */
+   private int lineIndex(int offset)
+   {
+      if (lineStarts == null)
+      {
+         lineStarts = findLineStarts();
+      }
+      // Find the last line starting at or before the offset
+      int low = 0;
+      int high = lineStarts.length - 1;
+      while (low <= high)
+      {
+         int middle = (low + high) >>> 1;
+         if (lineStarts[middle] <= offset)
          {
-            reader.close();
+            low = middle + 1;
          }
-         catch (IOException ex)
+         else
          {
-            System.err.println(ex);
-            ex.printStackTrace();
+            high = middle - 1;
          }
       }
+      return lineStarts.length == 0 ? -1 : Math.max(high, 0);
+   }
+
+   /** Returns the offsets of the first characters of all the lines of the
+    * source, split as <code>readLine()</code> splits them.
+    */
+   private int[] findLineStarts()
+   {
+      int[] starts = new int[16];
+      int count = 0;
+      int offset = 0;
+      while (offset < limit)
+      {
+         if (count == starts.length)
+         {
+            starts = Arrays.copyOf(starts, count * 2);
+         }
+         starts[count++] = offset;
+         int end = findLineEnd(offset, limit);
+         if (end < limit && charAt(end) == '\r' && end + 1 < limit && charAt(end + 1) == '\n')
+         {
+            ++end;
+         }
+         offset = end + 1;
+      }
+      return Arrays.copyOf(starts, count);
+   }
+
+   /** Returns a line as a String, or null for NO_LINE. */
+   private String lineString(int start, int length)
+   {
+      if (start == NO_LINE)
+      {
+         return null;
+      }
+      char[] line = new char[length];
+      for (int i = 0; i < length; i++)
+      {
+         line[i] = charAt(start + i);
+      }
+      return new String(line);
+   }
+
+   /** Returns the character of the source at the given offset. */
+   protected char charAt(int offset)
+   {
+      return text[offset];
+   }
+
+   /** Returns the offset of the first '\n' or '\r' in [from, end), or end if
+    * there is none.
+    */
+   protected int findLineEnd(int from, int end)
+   {
+      int offset = from;
+      while (offset < end && text[offset] != '\n' && text[offset] != '\r')
+      {
+         ++offset;
+      }
+      return offset;
+   }
+
+   /** Stops reading the file.  Has no effect if no file is open.  The
+    * lines of the file can still be retrieved with <code>lineAt()</code>.
+    */
+   public void close()
+   {
+      if (isOpen())
+      {
+         currentChar = (char) EOF;
+         lineNumber = 0;
+      }
    }
 
    /** Returns a character to the stream.  The character returned to the
@@ -145,7 +388,32 @@ public class CharStream
     */
    public void pushBack(int ch)
    {
-      stack.push((char)ch);
+      if (pushbackCount == PUSHBACK_CAPACITY)
+      {
+         throw new IllegalStateException("Cannot push back more than " +
+                                         PUSHBACK_CAPACITY + " characters");
+      }
+      // The character pushed back is the last one read, and the one read
+      // before it becomes the last one
+      pushbackOffsets[pushbackCount] = lastOffset--;
+      pushback[pushbackCount++] = (char)ch;
+   }
+
+   /** Returns true if there are characters on the pushback stack, i.e. the
+    * next call to <code>currentChar()</code> will return a pushed back
+    * character.
+    */
+   public boolean hasPushedBack()
+   {
+      return pushbackCount > 0;
+   }
+
+   /** Returns the characters on the pushback stack, bottom first.  Used to
+    * compare the states of two streams.
+    */
+   String pushedBack()
+   {
+      return new String(pushback, 0, pushbackCount);
    }
 
    /** Returns true if the character ch is allowed to appear in a source
@@ -162,10 +430,43 @@ public class CharStream
    public char currentChar() throws LexicalError
    {
       // Return characters from the stack if there are any.
-      if (!stack.empty())
+      if (pushbackCount > 0)
+      {
+         lastOffset = pushbackOffsets[--pushbackCount];
+         return pushback[pushbackCount];
+      }
+      char ch = nextChar();
+
+      // Make sure ch is a valid character (blanks always are).
+      if (ch != BLANK && ch != EOF && !valid(ch))
       {
-         return stack.pop();
+    	 if(ch == R_CURLY){
+    		 throw LexicalError.UnmatchedComment(this, lastOffset);
+    	 }
+         throw LexicalError.IllegalCharacter(ch, this, lastOffset);
       }
+      return ch;
+   }
+
+   /** Returns the next character like <code>currentChar()</code>, but does
+    * not check that it is a valid character.  Used by lexers that check
+    * validity themselves, such as the DfaTokenizer.
+    */
+   public char uncheckedChar() throws LexicalError
+   {
+      if (pushbackCount > 0)
+      {
+         lastOffset = pushbackOffsets[--pushbackCount];
+         return pushback[pushbackCount];
+      }
+      return nextChar();
+   }
+
+   /** Reads the next character, collapsing white space and comments into a
+    * single CharStream.BLANK.  Does not look at the pushback stack.
+    */
+   private char nextChar() throws LexicalError
+   {
       // If the current character is a white space character then skip over
       // any following white space characters and return CharStream.BLANK.
       if (Character.isWhitespace(currentChar) || currentChar == L_CURLY)
@@ -177,18 +478,6 @@ public class CharStream
       // currentChar variable for the next read.
       char ch = currentChar;
       currentChar = getChar();
-
-      // Make sure ch is a valid character.
-      if (ch != EOF && !valid(ch))
-      {
-    	 if(ch == R_CURLY){
-    		 throw LexicalError.UnmatchedComment(lineNumber, getCurrentLine());
-    	 }
-         throw LexicalError.IllegalCharacter(ch, lineNumber, getCurrentLine());
-      }
-      if (ch == EOF){
-    	  return (char)EOF;
-      }
       return ch;
    }
 
@@ -213,74 +502,83 @@ public class CharStream
    /** Skips characters until the right brace is encountered. */
    protected void skipComment() throws LexicalError
    {
+      int start = nextOffset;
       currentChar = getChar();
       while (currentChar != EOF && currentChar != R_CURLY)
       {
          if (currentChar == L_CURLY)
          {
-            throw LexicalError.BadComment(lineNumber, getCurrentLine());
+            throw LexicalError.BadComment(this, nextOffset);
          }
          currentChar = getChar();
       }
       if (currentChar == EOF)
       {
-         throw LexicalError.UnterminatedComment(lineNumber, getCurrentLine());
+         throw LexicalError.UnterminatedComment(this, start);
       }
       currentChar = getChar();
    }
 
-   private void getLine()
+   /** Moves to the next non-empty line, counting every line passed. */
+   protected void getLine()
    {
-      while (currentLine != null && charIndex >= currentLine.length())
+      while (lineStart != NO_LINE && charIndex >= lineLength)
       {
          charIndex = 0;
          ++lineNumber;
+         previousLineStart = lineStart;
+         previousLineLength = lineLength;
+         readLine();
+      }
+   }
 
-         try
-         {
-        	previousLine = currentLine;
-            currentLine = reader.readLine();
-         }
-         catch (IOException ex)
+   /** Makes the line at <code>nextLineStart</code> the current line, using
+    * the same line terminators as <code>BufferedReader.readLine()</code>.
+    */
+   protected void readLine()
+   {
+      if (nextLineStart >= limit)
+      {
+         lineStart = NO_LINE;
+         lineLength = 0;
+         return;
+      }
+      int end = findLineEnd(nextLineStart, limit);
+      lineStart = nextLineStart;
+      lineLength = end - lineStart;
+      // Skip the terminator, treating "\r\n" as a single line break
+      if (end < limit)
+      {
+         if (charAt(end) == '\r' && end + 1 < limit && charAt(end + 1) == '\n')
          {
-            System.out.println(ex);
-            ex.printStackTrace(System.out);
-            currentLine = null;
+            ++end;
          }
+         ++end;
       }
+      nextLineStart = end;
    }
 
-   /** Reads a character from the source file.  If an IOException occurs
-    * during the read an EOF will be returned.
+   /** Reads a character from the source file, returning '\n' at the end of
+    * each line and CharStream.EOF at the end of the file.  Subclasses that
+    * read the source some other way override this method; the end of every
+    * line is reported as a single '\n'.
     */
-   private char getChar()
+   protected char getChar()
    {
-      if (currentLine != null && charIndex >= currentLine.length())
+      lastOffset = nextOffset;
+      if (lineStart != NO_LINE && charIndex >= lineLength)
       {
+         nextOffset = lineStart + lineLength;
          getLine();
 		 return '\n';
       }
-      if (currentLine == null)
+      if (lineStart == NO_LINE)
       {  
+         nextOffset = limit;
     	 close();
          return (char)EOF;
       }
-      return currentLine.charAt(charIndex++);
-//      char ch;
-//      try
-//      {
-//         ch = (char) reader.read();
-//         if (ch == '\n')
-//         {
-//            ++lineNumber;
-//         }
-//         return ch;
-//      }
-//      catch (IOException ex)
-//      {
-//         System.out.println(ex);
-//         ex.printStackTrace(System.out);
-//         return (char) EOF;
-//      }
-   }
-}
\ No newline at end of file
+      nextOffset = lineStart + charIndex;
+      return text[lineStart + charIndex++];
+   }
+}
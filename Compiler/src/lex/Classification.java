@@ -16,36 +16,34 @@ package lex;
  *
  */
 public class Classification {
-	/** Instance of the class. Singleton design pattern */
-	private static Classification instance = null;
 	/** The size of each array. We assume the encoding is in ASCII, so we 
 	 * reserve byte arrays of size 128. */
 	public static final int SIZE = 128;
+	/** Instance of the class. Singleton design pattern. Created when the class is 
+	 * initialized, so every thread sees the arrays filled in, and never changed */
+	private static final Classification INSTANCE = new Classification();
 	
 	// Arrays: all initialized to false
 	/** Array to determine if a character is a digit */
-	public static boolean[] digits = new boolean[SIZE];
+	private final boolean[] digits = new boolean[SIZE];
 	/** Array to determine if character is letter */
-	public static boolean[] letters = new boolean[SIZE];
+	private final boolean[] letters = new boolean[SIZE];
 	/** Array to determine if character is letter or digit */
-	public static boolean[] letterOrDigit = new boolean[SIZE];
+	private final boolean[] letterOrDigit = new boolean[SIZE];
 	/** Array to determine if character is any operator */
-	public static boolean[] operators = new boolean[SIZE];
+	private final boolean[] operators = new boolean[SIZE];
 	/** Array to determine if character is a plus or a minus */
-	public static boolean[] plusMinus = new boolean[SIZE];
-	/** Array to determine if character is a plus or a minus */
-	public static boolean[] relop = new boolean[SIZE];
-	/** Array to determine if character is a plus or a minus */
-	public static boolean[] mulop = new boolean[SIZE];
+	private final boolean[] plusMinus = new boolean[SIZE];
+	/** Array to determine if character is a relational operator */
+	private final boolean[] relop = new boolean[SIZE];
+	/** Array to determine if character is a multiplicative operator */
+	private final boolean[] mulop = new boolean[SIZE];
 	
 //== Constructor ======================================================================= //
 	
 	/** Public getInstance method. */
 	public static Classification getInstance(){
-		if(instance == null){
-			instance = new Classification();
-		}
-		return instance;
+		return INSTANCE;
 	}
 	
 	/** Private Constructor. Initializes all of the arrays. */
@@ -54,7 +52,7 @@ public class Classification {
 	}
 	
 	/** Initializes all of the arrays */
-	public void preCompute(){
+	private void preCompute(){
 		initDigits();
 		initLetters();
 		initLetterOrDigit();
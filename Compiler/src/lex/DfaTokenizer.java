@@ -0,0 +1,498 @@
+package lex;
+import java.util.Arrays;
+
+import errors.*;
+import grammarsymbols.TokenType;
+import token.*;
+
+/** A table driven version of the lexical analyzer. <br>
+ *  Instead of classifying each character with a chain of if/else tests, every character
+ *  is looked up in a single transition table indexed by (state, character). The table folds
+ *  together the validity check done by <code>CharStream.currentChar()</code>, the character
+ *  classes from Classification and the states of the Tokenizer's subroutines, so each
+ *  character read costs one array access. The table is computed once and shared by all
+ *  instances. <br>
+ *  A DfaTokenizer returns the same tokens and throws the same LexicalErrors as a Tokenizer
+ *  reading the same input, so the two can be swapped freely (see ParseDriver -dfa).
+ */
+public class DfaTokenizer extends Tokenizer {
+// == States =====================================================================================
+	// Scanning states. Lexeme characters are collected in the states IDENTIFIER to EXP_DIGITS.
+	/** Nothing read yet (blanks are skipped here) */
+	private static final int START = 0;
+	/** Reading an identifier */
+	private static final int IDENTIFIER = 1;
+	/** Reading the integer part of a constant */
+	private static final int INTEGER_PART = 2;
+	/** Saw digits followed by a '.' */
+	private static final int DECIMAL_POINT = 3;
+	/** Reading the fraction part of a real constant */
+	private static final int FRACTION = 4;
+	/** Saw an 'E' in a constant */
+	private static final int EXPONENT = 5;
+	/** Saw an 'E' followed by a '+' or '-' */
+	private static final int EXP_SIGN = 6;
+	/** Reading the digits of an exponent */
+	private static final int EXP_DIGITS = 7;
+	/** Saw a '<' */
+	private static final int LESS = 8;
+	/** Saw a '>' */
+	private static final int GREATER = 9;
+	/** Saw a ':' */
+	private static final int COLON = 10;
+	/** Saw a '.' */
+	private static final int DOT = 11;
+	/** Number of scanning states. Reaching any state past these ends <code>assemble()</code> */
+	private static final int SCANNING_STATES = 12;
+
+	// Final states which return a token
+	private static final int END_OF_FILE = 12;
+	private static final int IDENTIFIER_FOUND = 13;
+	private static final int INT_FOUND = 14;
+	/** An integer directly followed by "..". Both dots are pushed back */
+	private static final int INT_BEFORE_DOUBLEDOT = 15;
+	private static final int REAL_FOUND = 16;
+	private static final int PLUS_FOUND = 17;
+	private static final int MINUS_FOUND = 18;
+	private static final int EQUAL_FOUND = 19;
+	private static final int LESS_FOUND = 20;
+	private static final int LESS_EQUAL_FOUND = 21;
+	private static final int NOT_EQUAL_FOUND = 22;
+	private static final int GREATER_FOUND = 23;
+	private static final int GREATER_EQUAL_FOUND = 24;
+	private static final int TIMES_FOUND = 25;
+	private static final int SLASH_FOUND = 26;
+	private static final int ASSIGNOP_FOUND = 27;
+	private static final int COLON_FOUND = 28;
+	private static final int COMMA_FOUND = 29;
+	private static final int SEMICOLON_FOUND = 30;
+	private static final int RIGHTPAREN_FOUND = 31;
+	private static final int LEFTPAREN_FOUND = 32;
+	private static final int RIGHTBRACKET_FOUND = 33;
+	private static final int LEFTBRACKET_FOUND = 34;
+	private static final int DOUBLEDOT_FOUND = 35;
+	private static final int ENDMARKER_FOUND = 36;
+
+	// Final states which throw a LexicalError
+	private static final int ILLEGAL_CHARACTER = 37;
+	private static final int UNMATCHED_COMMENT = 38;
+	private static final int ILLEGAL_DECIMAL = 39;
+	private static final int BAD_CONSTANT = 40;
+	private static final int ILLEGAL_FLOAT = 41;
+	private static final int ILLEGAL_FLOAT2 = 42;
+	private static final int ILLEGAL_EXPONENT = 43;
+	/** Total number of states */
+	private static final int STATES = 44;
+
+// == Tables =====================================================================================
+	/** Column used for CharStream.EOF */
+	private static final int EOF_COLUMN = Classification.SIZE;
+	/** Column used for any character outside of the ASCII range */
+	private static final int OTHER_COLUMN = Classification.SIZE + 1;
+	/** Number of columns in the transition table */
+	private static final int COLUMNS = Classification.SIZE + 2;
+
+	/** The transition table: the next state is TRANSITIONS[state * COLUMNS + column] */
+	private static final byte[] TRANSITIONS = new byte[SCANNING_STATES * COLUMNS];
+	/** True for the final states that must push back the last character read */
+	private static final boolean[] PUSHBACK = new boolean[STATES];
+	/** Type of the token returned by each final state that returns a fixed token */
+	private static final TokenType[] TYPES = new TokenType[STATES];
+	/** Lexeme of the Operator returned by each final state, or null if the token is not an Operator */
+	private static final String[] OPERATORS = new String[STATES];
+	/** Number of source characters making up the token returned by each final state */
+	private static final int[] WIDTHS = new int[STATES];
+
+	static{
+		buildTransitions();
+		PUSHBACK[IDENTIFIER_FOUND] = true;
+		PUSHBACK[INT_FOUND] = true;
+		PUSHBACK[REAL_FOUND] = true;
+		PUSHBACK[LESS_FOUND] = true;
+		PUSHBACK[GREATER_FOUND] = true;
+		PUSHBACK[COLON_FOUND] = true;
+		PUSHBACK[ENDMARKER_FOUND] = true;
+		fixedToken(EQUAL_FOUND, TokenType.RELOP, "=", 1);
+		fixedToken(LESS_FOUND, TokenType.RELOP, "<", 1);
+		fixedToken(LESS_EQUAL_FOUND, TokenType.RELOP, "<=", 2);
+		fixedToken(NOT_EQUAL_FOUND, TokenType.RELOP, "<>", 2);
+		fixedToken(GREATER_FOUND, TokenType.RELOP, ">", 1);
+		fixedToken(GREATER_EQUAL_FOUND, TokenType.RELOP, ">=", 2);
+		fixedToken(TIMES_FOUND, TokenType.MULOP, "*", 1);
+		fixedToken(SLASH_FOUND, TokenType.MULOP, "/", 1);
+		fixedToken(ASSIGNOP_FOUND, TokenType.ASSIGNOP, null, 2);
+		fixedToken(COLON_FOUND, TokenType.COLON, null, 1);
+		fixedToken(COMMA_FOUND, TokenType.COMMA, null, 1);
+		fixedToken(SEMICOLON_FOUND, TokenType.SEMICOLON, null, 1);
+		fixedToken(RIGHTPAREN_FOUND, TokenType.RIGHTPAREN, null, 1);
+		fixedToken(LEFTPAREN_FOUND, TokenType.LEFTPAREN, null, 1);
+		fixedToken(RIGHTBRACKET_FOUND, TokenType.RIGHTBRACKET, null, 1);
+		fixedToken(LEFTBRACKET_FOUND, TokenType.LEFTBRACKET, null, 1);
+		fixedToken(DOUBLEDOT_FOUND, TokenType.DOUBLEDOT, null, 2);
+		fixedToken(ENDMARKER_FOUND, TokenType.ENDMARKER, null, 1);
+	}
+
+	/** Characters of the lexeme being assembled. Letters are stored in upper case */
+	private char[] lexeme = new char[MAX_LENGTH + 1];
+	/** Number of characters in <code>lexeme</code> */
+	private int length;
+	/** Hash code of <code>lexeme</code>, computed as by <code>String.hashCode()</code> */
+	private int hash;
+	/** The last character read by <code>scan()</code> */
+	private char last;
+	/** True if the first character of the last token scanned came from the pushback stack */
+	private boolean firstPushedBack;
+	/** Type of the last token packed by <code>tokenize()</code> */
+	private TokenType previousType;
+	/** The CharStream, if it is a ByteCharStream; null otherwise */
+	private final ByteCharStream mapped;
+
+	/** Constructor for the lexical analyzer */
+	public DfaTokenizer(String file){
+		super(file);
+		mapped = null;
+	}
+
+	/** Constructor for the lexical analyzer. Reads a file, or a source held in memory */
+	public DfaTokenizer(Source source){
+		this(new CharStream(source));
+	}
+
+	/** Constructor for the lexical analyzer. Reads characters from an already opened CharStream */
+	public DfaTokenizer(CharStream stream){
+		super(stream);
+		mapped = stream instanceof ByteCharStream ? (ByteCharStream)stream : null;
+	}
+
+// == Lexical Analysis Methods ===================================================================
+// ===============================================================================================
+	/** Assembles the next simple token by running the DFA until it reaches a final state.
+	 * @return Any Token, including Keyword Tokens
+	 * @throws LexicalError
+	 */
+	@Override
+	public Token assemble() throws LexicalError{
+		return accept(scan());
+	}
+
+	/** Runs the DFA from the start state until it reaches a final state, collecting the
+	 *  characters of identifiers and constants in <code>lexeme</code>. The character ending
+	 *  the token is left in <code>last</code>, and pushed back if the final state requires it.
+	 * @return The final state reached
+	 */
+	private int scan() throws LexicalError{
+		int state;
+		char ch;
+		int h = 0;
+		length = 0;
+		// Skip blanks, noting whether the first character of the token was pushed back
+		do{
+			firstPushedBack = charStream.hasPushedBack();
+			ch = charStream.uncheckedChar();
+			state = TRANSITIONS[column(ch)];
+		} while(state == START);
+		tokenOffset = charStream.lastOffset();
+		while(state < SCANNING_STATES){
+			// Collect the characters of identifiers and constants
+			if(state <= EXP_DIGITS){
+				if(length == lexeme.length){
+					lexeme = Arrays.copyOf(lexeme, length * 2);
+				}
+				char upper = (ch >= 'a' && ch <= 'z') ? (char)(ch - ('a' - 'A')) : ch;
+				lexeme[length++] = upper;
+				h = 31 * h + upper;
+			}
+			ch = charStream.uncheckedChar();
+			state = TRANSITIONS[state * COLUMNS + column(ch)];
+		}
+		hash = h;
+		last = ch;
+		if(PUSHBACK[state]){
+			pushback(ch);
+		}
+		return state;
+	}
+
+	/** Returns the column of the transition table for a character */
+	private static int column(char ch){
+		return ch < Classification.SIZE ? ch : (ch == CharStream.EOF ? EOF_COLUMN : OTHER_COLUMN);
+	}
+
+	/** Returns the token for a final state, or throws the LexicalError for an error state
+	 * @param state The final state reached by <code>scan()</code>
+	 */
+	private Token accept(int state) throws LexicalError{
+		switch(state){
+		case END_OF_FILE:
+			return new Token(TokenType.ENDOFFILE);
+		case IDENTIFIER_FOUND:
+			if(length > MAX_LENGTH){
+				throw LexicalError.IdentifierTooLong(this, getTokenOffset());
+			}
+			Token keyword = Keywords.lookup(lexeme, 0, length);
+			if(keyword != null){
+				return keyword;
+			}
+			return new Identifier(TokenType.IDENTIFIER, lexemes.canonical(lexeme, 0, length, hash), tokenOffset);
+		case INT_BEFORE_DOUBLEDOT:
+			// The buffer ends with the first dot, which belongs to the ".." token
+			length--;
+			doublePushback();
+			return new Constant(new String(lexeme, 0, length), Constant.intValue(lexeme, 0, length));
+		case INT_FOUND:
+			return new Constant(new String(lexeme, 0, length), Constant.intValue(lexeme, 0, length));
+		case REAL_FOUND:
+			return new Constant(new String(lexeme, 0, length), Constant.realValue(lexeme, 0, length));
+		case PLUS_FOUND:
+			return isBinaryOperator() ? new Operator(TokenType.ADDOP, "+") : new Token(TokenType.UNARYPLUS);
+		case MINUS_FOUND:
+			return isBinaryOperator() ? new Operator(TokenType.ADDOP, "-") : new Token(TokenType.UNARYMINUS);
+		default:
+			if(state >= ILLEGAL_CHARACTER){
+				throw error(state);
+			}
+			if(OPERATORS[state] != null){
+				return new Operator(TYPES[state], OPERATORS[state]);
+			}
+			return new Token(TYPES[state]);
+		}
+	}
+
+	/** Returns the LexicalError for an error state */
+	private LexicalError error(int state){
+		switch(state){
+		case UNMATCHED_COMMENT:
+			return LexicalError.UnmatchedComment(this, getTokenOffset());
+		case ILLEGAL_DECIMAL:
+			return LexicalError.IllegalDecimal(this, getTokenOffset());
+		case BAD_CONSTANT:
+			return LexicalError.BadConstant(this, getTokenOffset());
+		case ILLEGAL_FLOAT:
+			return LexicalError.IllegalFLoat(this, getTokenOffset());
+		case ILLEGAL_FLOAT2:
+			return LexicalError.IllegalFloat2(this, getTokenOffset());
+		case ILLEGAL_EXPONENT:
+			return LexicalError.IllegalExponent(this, getTokenOffset());
+		default:
+			return LexicalError.IllegalCharacter(last, this, getTokenOffset());
+		}
+	}
+
+// == Packed Lexical Analysis ====================================================================
+// ===============================================================================================
+	/** Lexes the rest of the input into a TokenBuffer, without creating Token objects.
+	 *  Lexemes are interned in the buffer's LexemePool. Lexical errors are stored in the
+	 *  buffer where <code>GetNextToken()</code> would have thrown them, and lexing carries
+	 *  on after them as it would with repeated calls to <code>GetNextToken()</code>.
+	 *  The last entry is always the ENDOFFILE token. <br>
+	 *  Only a ByteCharStream knows the source offsets of the tokens, so the DfaTokenizer
+	 *  must have been created with one.
+	 * @param tokens The buffer the tokens are appended to
+	 */
+	public void tokenize(TokenBuffer tokens){
+		if(mapped == null){
+			throw new IllegalStateException("Packed lexing needs a ByteCharStream");
+		}
+		previousType = previousToken == null ? null : previousToken.getType();
+		// Typical programs have a token for every four or five bytes of source
+		tokens.ensureCapacity(tokens.size() + mapped.length() / 4);
+		int end = 0;
+		while(previousType != TokenType.ENDOFFILE){
+			end = pack(tokens, end);
+		}
+	}
+
+	/** Lexes one token (or LexicalError) into a TokenBuffer. 
+	 * @param tokens The buffer the token is appended to
+	 * @param end Offset just past the previous token, where a pushed back character starts
+	 * @return The offset just past this token
+	 */
+	int pack(TokenBuffer tokens, int end){
+		int start = end;
+		int width = 0;
+		TokenType type;
+		int id = -1;
+		long value = 0;
+		try{
+			int state = scan();
+			start = firstPushedBack ? end : tokenOffset;
+			width = length;
+			switch(state){
+			case END_OF_FILE:
+				type = TokenType.ENDOFFILE;
+				break;
+			case IDENTIFIER_FOUND:
+				if(length > MAX_LENGTH){
+					throw LexicalError.IdentifierTooLong(this, getTokenOffset());
+				}
+				Token keyword = Keywords.lookup(lexeme, 0, length);
+				type = keyword == null ? TokenType.IDENTIFIER : keyword.getType();
+				if(keyword == null || keyword instanceof Operator){
+					id = tokens.getLexemes().intern(lexeme, 0, length, hash);
+				}
+				break;
+			case INT_BEFORE_DOUBLEDOT:
+				length--;
+				width--;
+				doublePushback();
+				type = TokenType.INTCONSTANT;
+				id = tokens.getLexemes().intern(lexeme, 0, length);
+				value = Constant.intValue(lexeme, 0, length);
+				break;
+			case INT_FOUND:
+				type = TokenType.INTCONSTANT;
+				id = tokens.getLexemes().intern(lexeme, 0, length, hash);
+				value = Constant.intValue(lexeme, 0, length);
+				break;
+			case REAL_FOUND:
+				type = TokenType.REALCONSTANT;
+				id = tokens.getLexemes().intern(lexeme, 0, length, hash);
+				value = Double.doubleToRawLongBits(Constant.realValue(lexeme, 0, length));
+				break;
+			case PLUS_FOUND:
+			case MINUS_FOUND:
+				width = 1;
+				if(previousType != null && endsOperand(previousType)){
+					type = TokenType.ADDOP;
+					id = tokens.getLexemes().intern(state == PLUS_FOUND ? "+" : "-");
+				}
+				else{
+					type = state == PLUS_FOUND ? TokenType.UNARYPLUS : TokenType.UNARYMINUS;
+				}
+				break;
+			default:
+				if(state >= ILLEGAL_CHARACTER){
+					throw error(state);
+				}
+				type = TYPES[state];
+				width = WIDTHS[state];
+				if(OPERATORS[state] != null){
+					id = tokens.getLexemes().intern(OPERATORS[state]);
+				}
+			}
+		}catch(LexicalError e){
+			tokens.addError(e, start, width, getLineNumber(), getIndexNumber(), mapped.currentLineOffset());
+			return start + width;
+		}
+		tokens.add(type.getIndex(), start, width, id, value, getLineNumber(), getIndexNumber(), mapped.currentLineOffset());
+		previousType = type;
+		return start + width;
+	}
+
+	/** Returns true if a '+' or '-' read next would be a binary operator, because the
+	 *  previous token ends an operand */
+	boolean afterOperand(){
+		return previousType != null && endsOperand(previousType);
+	}
+
+	/** Returns the type of the last token packed, or null */
+	TokenType previousType(){
+		return previousType;
+	}
+
+	/** Sets the type of the token read before the next one, for a lexer resuming part way
+	 *  through a source */
+	void setPreviousType(TokenType type){
+		previousType = type;
+	}
+
+	/** Returns the ByteCharStream the tokens are read from, or null */
+	ByteCharStream getMapped(){
+		return mapped;
+	}
+
+// == Table construction =========================================================================
+// ===============================================================================================
+	/** Records the token returned by a final state */
+	private static void fixedToken(int state, TokenType type, String operator, int width){
+		TYPES[state] = type;
+		OPERATORS[state] = operator;
+		WIDTHS[state] = width;
+	}
+
+	/** Fills in the transition table for every scanning state and every column */
+	private static void buildTransitions(){
+		Classification classification = Classification.getInstance();
+		for(int state = 0; state < SCANNING_STATES; state++){
+			for(int column = 0; column < COLUMNS; column++){
+				TRANSITIONS[state * COLUMNS + column] = (byte)transition(classification, state, column);
+			}
+		}
+	}
+
+	/** Computes one entry of the transition table. Follows the Tokenizer's subroutines:
+	 *  invalid characters are rejected in every state (as <code>CharStream.currentChar()</code>
+	 *  would), and EOF ends a token like any other delimiter.
+	 */
+	private static int transition(Classification classification, int state, int column){
+		if(column == EOF_COLUMN){
+			return state == START ? END_OF_FILE : transition(classification, state, CharStream.BLANK);
+		}
+		if(column == OTHER_COLUMN || CharStream.VALID_CHARS.indexOf(column) < 0){
+			return column == CharStream.R_CURLY ? UNMATCHED_COMMENT : ILLEGAL_CHARACTER;
+		}
+		char ch = (char)column;
+		boolean digit = classification.isDigit(ch);
+		boolean letter = classification.isLetter(ch);
+		switch(state){
+		case START:
+			if(ch == CharStream.BLANK) return START;
+			if(digit) return INTEGER_PART;
+			if(letter) return IDENTIFIER;
+			switch(ch){
+			case '=': return EQUAL_FOUND;
+			case '<': return LESS;
+			case '>': return GREATER;
+			case '+': return PLUS_FOUND;
+			case '-': return MINUS_FOUND;
+			case '*': return TIMES_FOUND;
+			case '/': return SLASH_FOUND;
+			case ':': return COLON;
+			case ',': return COMMA_FOUND;
+			case ';': return SEMICOLON_FOUND;
+			case ')': return RIGHTPAREN_FOUND;
+			case '(': return LEFTPAREN_FOUND;
+			case ']': return RIGHTBRACKET_FOUND;
+			case '[': return LEFTBRACKET_FOUND;
+			case '.': return DOT;
+			default: return ILLEGAL_CHARACTER;
+			}
+		case IDENTIFIER:
+			return classification.isLetterOrDigit(ch) ? IDENTIFIER : IDENTIFIER_FOUND;
+		case INTEGER_PART:
+			if(digit) return INTEGER_PART;
+			if(ch == '.') return DECIMAL_POINT;
+			if(ch == 'e' || ch == 'E') return EXPONENT;
+			return letter ? BAD_CONSTANT : INT_FOUND;
+		case DECIMAL_POINT:
+			if(digit) return FRACTION;
+			return ch == '.' ? INT_BEFORE_DOUBLEDOT : ILLEGAL_FLOAT;
+		case FRACTION:
+			if(digit) return FRACTION;
+			if(ch == 'e' || ch == 'E') return EXPONENT;
+			if(letter) return BAD_CONSTANT;
+			return ch == '.' ? ILLEGAL_FLOAT2 : REAL_FOUND;
+		case EXPONENT:
+			if(ch == '+' || ch == '-') return EXP_SIGN;
+			return digit ? EXP_DIGITS : ILLEGAL_EXPONENT;
+		case EXP_SIGN:
+			return digit ? EXP_DIGITS : ILLEGAL_EXPONENT;
+		case EXP_DIGITS:
+			if(digit) return EXP_DIGITS;
+			if(ch == '.') return ILLEGAL_EXPONENT;
+			return letter ? BAD_CONSTANT : REAL_FOUND;
+		case LESS:
+			if(ch == '>') return NOT_EQUAL_FOUND;
+			return ch == '=' ? LESS_EQUAL_FOUND : LESS_FOUND;
+		case GREATER:
+			return ch == '=' ? GREATER_EQUAL_FOUND : GREATER_FOUND;
+		case COLON:
+			return ch == '=' ? ASSIGNOP_FOUND : COLON_FOUND;
+		case DOT:
+			if(ch == '.') return DOUBLEDOT_FOUND;
+			return classification.isLetterOrDigit(ch) ? ILLEGAL_DECIMAL : ENDMARKER_FOUND;
+		default:
+			return ILLEGAL_CHARACTER;
+		}
+	}
+}
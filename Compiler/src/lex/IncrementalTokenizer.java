@@ -0,0 +1,242 @@
+package lex;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import errors.*;
+import grammarsymbols.TokenType;
+
+/** Keeps the tokens of a source held in memory (such as an editor buffer) up to date as the
+ *  source is edited, re-lexing only the part of it an edit can change. <br>
+ *  While lexing, the state of the lexer (see LexerState) is saved every CHECKPOINT_INTERVAL
+ *  tokens. After an edit, lexing resumes from the last checkpoint saved before the lexer had
+ *  looked at the edited bytes, and carries on until the lexer reaches the state saved at one
+ *  of the old checkpoints past the edit, moved by the change in length. Since the state
+ *  holds whether the previous token ends an operand (so '+' and '-' are unary or binary the
+ *  same way) and the lexer can only be in a state saved after a token outside a comment,
+ *  the old tokens from there on are the ones the lexer would read again: they are copied,
+ *  with their offsets and line numbers moved. An edit which opens or closes a comment, or
+ *  changes the meaning of a following '+' or '-', is re-lexed up to where the tokens agree
+ *  again. <br>
+ *  The tokens are always the ones <code>DfaTokenizer.tokenize()</code> reads from the whole
+ *  source. They are kept in a single TokenBuffer, which each edit updates in place.
+ *  Lexemes are interned in a single pool, which keeps the lexemes of tokens edited away.
+ */
+public class IncrementalTokenizer {
+	/** Number of tokens between two saved lexer states */
+	public static final int CHECKPOINT_INTERVAL = 128;
+	/** Type code of the ENDOFFILE token */
+	private static final int ENDOFFILE = TokenType.ENDOFFILE.getIndex();
+
+	/** The current source */
+	private byte[] source;
+	/** A stream on the current source, used to retrieve lines for error messages */
+	private ByteCharStream stream;
+	/** The tokens of the current source */
+	private TokenBuffer tokens;
+	/** Buffer the tokens are lexed into before they are put in place */
+	private TokenBuffer scratch;
+	/** Saved lexer states, in source order */
+	private List<Checkpoint> checkpoints;
+	/** Number of tokens lexed by the last edit */
+	private int relexed;
+
+	/** Constructor. Lexes a whole source, read as ISO-8859-1 characters */
+	public IncrementalTokenizer(String source){
+		this(source.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	/** Constructor. Lexes a whole source. The array must not be changed afterwards */
+	public IncrementalTokenizer(byte[] source){
+		this.source = source;
+		ByteBuffer buffer = ByteBuffer.wrap(source);
+		tokens = new TokenBuffer();
+		scratch = new TokenBuffer(tokens.getLexemes());
+		checkpoints = new ArrayList<Checkpoint>();
+		relexed = lex(start(buffer), 0, 0, checkpoints, new ArrayList<Checkpoint>(), 0);
+	}
+
+	/** Replaces part of the source and brings the tokens up to date. The entries of the
+	 *  buffer before the edit are kept where they are.
+	 * @param offset Offset of the first byte replaced
+	 * @param deleted Number of bytes replaced
+	 * @param inserted The characters replacing them, read as ISO-8859-1
+	 * @return the tokens of the edited source
+	 */
+	public TokenBuffer edit(int offset, int deleted, String inserted){
+		if(offset < 0 || deleted < 0 || offset > source.length - deleted){
+			throw new IllegalArgumentException("Edit of " + deleted + " bytes at " + offset
+					+ " outside a source of " + source.length + " bytes");
+		}
+		byte[] text = inserted.getBytes(StandardCharsets.ISO_8859_1);
+		byte[] edited = new byte[source.length - deleted + text.length];
+		System.arraycopy(source, 0, edited, 0, offset);
+		System.arraycopy(text, 0, edited, offset, text.length);
+		System.arraycopy(source, offset + deleted, edited, offset + text.length, source.length - offset - deleted);
+		ByteBuffer buffer = ByteBuffer.wrap(edited);
+
+		// Keep the tokens read before the lexer looked at the edited bytes
+		int c = checkpoints.size() - 1;
+		while(c >= 0 && checkpoints.get(c).state.readLimit >= offset){
+			c--;
+		}
+		DfaTokenizer lexer;
+		int base;
+		int end;
+		scratch.clear();
+		if(c < 0){
+			lexer = start(buffer);
+			base = 0;
+			end = 0;
+		}
+		else{
+			Checkpoint from = checkpoints.get(c);
+			lexer = from.state.resume(buffer);
+			base = from.token + 1;
+			end = tokens.getStart(from.token) + tokens.getLength(from.token);
+		}
+		// Old checkpoints whose lexer only looks at bytes after the edit can be joined: the
+		// line before the lexer's line must start after the edit too
+		int first = c + 1;
+		while(first < checkpoints.size() && checkpoints.get(first).state.previousLineStart <= offset + deleted){
+			first++;
+		}
+		List<Checkpoint> saved = new ArrayList<Checkpoint>(checkpoints.subList(0, c + 1));
+		stream = lexer.getMapped();
+		relexed = lex(lexer, end, base, saved, checkpoints.subList(first, checkpoints.size()),
+				text.length - deleted);
+		// The errors kept before the edit quote the old source
+		moveErrors(0, base, 0);
+		source = edited;
+		checkpoints = saved;
+		return tokens;
+	}
+
+	/** Opens a stream on a source, and returns a lexer reading it from the start. A comment
+	 *  at the start of the source which is not closed properly is added to the scratch
+	 *  buffer as a LexicalError */
+	private DfaTokenizer start(ByteBuffer source){
+		stream = new ByteCharStream();
+		try{
+			stream.open(source);
+		}catch(LexicalError e){
+			scratch.addError(e, 0, 0, stream.lineNumber(), stream.indexNumber(), stream.currentLineOffset());
+		}
+		return new DfaTokenizer(stream);
+	}
+
+	/** Lexes tokens into the scratch buffer until the ENDOFFILE token, or until the lexer
+	 *  joins one of the old checkpoints, then puts them in place of the old tokens from base
+	 *  on: all of them, or the ones up to the checkpoint joined.
+	 * @param lexer The lexer
+	 * @param end Offset just past the token before base
+	 * @param base Index of the first token lexed
+	 * @param saved The list the checkpoints of the new tokens are appended to
+	 * @param old Checkpoints of the old tokens which may be joined
+	 * @param shift Difference between the offsets of the old and new source after the edit
+	 * @return the number of tokens lexed
+	 */
+	private int lex(DfaTokenizer lexer, int end, int base, List<Checkpoint> saved,
+			List<Checkpoint> old, int shift){
+		int last = saved.isEmpty() ? -1 : saved.get(saved.size() - 1).token;
+		int k = 0;
+		while(true){
+			end = lexer.pack(scratch, end);
+			int n = base + scratch.size() - 1;
+			if(scratch.getType(scratch.size() - 1) == ENDOFFILE){
+				tokens.replace(base, tokens.size(), scratch, 0, 0);
+				return scratch.size();
+			}
+			LexerState state = null;
+			// A lexer which has reached the end of the source cannot be resumed
+			if(n - last >= CHECKPOINT_INTERVAL && lexer.getMapped().lineStart() >= 0){
+				state = new LexerState(lexer);
+				saved.add(new Checkpoint(n, state));
+				last = n;
+			}
+			// Compare with the old checkpoints at the same place, if any
+			int at = lexer.getMapped().nextOffset();
+			while(k < old.size() && old.get(k).state.offset + shift < at){
+				k++;
+			}
+			for(int j = k; j < old.size() && old.get(j).state.offset + shift == at; j++){
+				if(state == null){
+					state = new LexerState(lexer);
+				}
+				Checkpoint join = old.get(j);
+				if(state.sameAs(join.state, shift)){
+					if(last != n){
+						saved.add(new Checkpoint(n, state));
+					}
+					int count = scratch.size();
+					int lineShift = state.lineNumber - join.state.lineNumber;
+					tokens.replace(base, join.token + 1, scratch, shift, lineShift);
+					join(old.subList(j, old.size()), n - join.token, shift, lineShift, saved);
+					return count;
+				}
+			}
+		}
+	}
+
+	/** Moves the old checkpoints from a joined checkpoint on to the new tokens, and the
+	 *  LexicalErrors of the tokens after it to the new source. The tokens after a checkpoint
+	 *  have been moved already.
+	 * @param old The old checkpoints from the joined one on
+	 * @param tokenShift Difference between the indices of the new and old tokens
+	 * @param shift Difference between the offsets of the new and old tokens
+	 * @param lineShift Difference between the line numbers of the new and old tokens
+	 * @param saved The list the moved checkpoints are appended to
+	 */
+	private void join(List<Checkpoint> old, int tokenShift, int shift, int lineShift, List<Checkpoint> saved){
+		for(int k = 1; k < old.size(); k++){
+			saved.add(new Checkpoint(old.get(k).token + tokenShift, old.get(k).state.shifted(shift, lineShift)));
+		}
+		moveErrors(old.get(0).token + tokenShift + 1, tokens.size(), shift);
+	}
+
+	/** Moves the LexicalErrors of the tokens in [from, to), lexed from the old source, to the
+	 *  current stream, so that they no longer keep the old source alive
+	 * @param shift Difference between the offsets of the new and old tokens
+	 */
+	private void moveErrors(int from, int to, int shift){
+		for(int i = from; i < to; i++){
+			if(tokens.getType(i) == TokenBuffer.LEXICAL_ERROR){
+				tokens.setError(i, tokens.getError(i).moved(stream, shift));
+			}
+		}
+	}
+
+	/** Returns the tokens of the current source */
+	public TokenBuffer getTokens(){
+		return tokens;
+	}
+
+	/** Returns the tokens of the current source as a TokenStream, for the parser */
+	public PackedTokens getPackedTokens(){
+		return new PackedTokens(tokens, stream);
+	}
+
+	/** Returns the current source as ISO-8859-1 characters */
+	public String getSource(){
+		return new String(source, StandardCharsets.ISO_8859_1);
+	}
+
+	/** Returns the number of tokens lexed by the last edit (or by the constructor). The
+	 *  other tokens were kept */
+	public int getRelexed(){
+		return relexed;
+	}
+
+	/** A saved lexer state */
+	private static final class Checkpoint {
+		/** Index of the token the lexer had just read */
+		final int token;
+		/** State of the lexer after that token */
+		final LexerState state;
+
+		Checkpoint(int token, LexerState state){
+			this.token = token;
+			this.state = state;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package lex;
+import grammarsymbols.TokenType;
+import token.*;
+
+/** Recognizes the reserved words of the language. <br>
+ *  The keywords are stored in a perfect hash table: the slot of a word is computed from its
+ *  first character, last character and length, and no two keywords share a slot. A lookup
+ *  is therefore one hash computation and at most one comparison, made directly on the
+ *  characters of the lexeme (ignoring case), without creating any Strings. <br>
+ *  The table is built once and shared by every Tokenizer. The keyword tokens it returns are
+ *  shared as well, so there is only one instance of each keyword token.
+ */
+public final class Keywords {
+	/** Number of slots in the table. Must be a power of two */
+	private static final int TABLE_SIZE = 32;
+	/** The keyword stored in each slot (in upper case), or null if the slot is empty */
+	private static final char[][] NAMES = new char[TABLE_SIZE][];
+	/** The token for the keyword stored in each slot */
+	private static final Token[] TOKENS = new Token[TABLE_SIZE];
+	/** The keyword token for each keyword type, indexed by <code>TokenType.getIndex()</code>.
+	 *  Operator keywords (OR, DIV, MOD, AND) are not included, since they share their types
+	 *  with other operators */
+	private static final Token[] BY_TYPE = new Token[TokenType.values().length];
+
+	static{
+		add("PROGRAM", new Token(TokenType.PROGRAM));
+		add("BEGIN", new Token(TokenType.BEGIN));
+		add("END", new Token(TokenType.END));
+		add("VAR", new Token(TokenType.VAR));
+		add("FUNCTION", new Token(TokenType.FUNCTION));
+		add("PROCEDURE", new Token(TokenType.PROCEDURE));
+		add("RESULT", new Token(TokenType.RESULT));
+		add("INTEGER", new Token(TokenType.INTEGER));
+		add("REAL", new Token(TokenType.REAL));
+		add("ARRAY", new Token(TokenType.ARRAY));
+		add("OF", new Token(TokenType.OF));
+		add("IF", new Token(TokenType.IF));
+		add("THEN", new Token(TokenType.THEN));
+		add("ELSE", new Token(TokenType.ELSE));
+		add("DO", new Token(TokenType.DO));
+		add("WHILE", new Token(TokenType.WHILE));
+		add("NOT", new Token(TokenType.NOT));
+		// Reserve the operator keywords
+		add("OR", new Operator(TokenType.ADDOP, "OR"));
+		add("DIV", new Operator(TokenType.MULOP, "DIV"));
+		add("MOD", new Operator(TokenType.MULOP, "MOD"));
+		add("AND", new Operator(TokenType.MULOP, "AND"));
+	}
+
+	/** No instances: all methods are static */
+	private Keywords(){
+	}
+
+	/** Reserves a keyword. Fails if the hash function is not perfect for the keyword set */
+	private static void add(String name, Token token){
+		int slot = slot(name.charAt(0), name.charAt(name.length() - 1), name.length());
+		if(NAMES[slot] != null){
+			throw new IllegalStateException("Keywords " + new String(NAMES[slot]) + " and " + name + " hash to the same slot");
+		}
+		NAMES[slot] = name.toCharArray();
+		TOKENS[slot] = token;
+		if(!(token instanceof Operator)){
+			BY_TYPE[token.getType().getIndex()] = token;
+		}
+	}
+
+	/** Hash function. The characters must already be in upper case */
+	private static int slot(int first, int last, int length){
+		return (3 * first + last + 2 * length) & (TABLE_SIZE - 1);
+	}
+
+	/** Converts a letter to upper case. Any other character is changed into a character
+	 *  which is not an upper case letter, so it cannot match a keyword. */
+	private static int upper(char ch){
+		return ch & ~0x20;
+	}
+
+	/** Returns the keyword token for the lexeme stored in chars[start .. start+length-1],
+	 *  or null if the lexeme is not a keyword. Case is ignored.
+	 */
+	public static Token lookup(char[] chars, int start, int length){
+		if(length == 0){
+			return null;
+		}
+		int slot = slot(upper(chars[start]), upper(chars[start + length - 1]), length);
+		char[] name = NAMES[slot];
+		if(name == null || name.length != length){
+			return null;
+		}
+		for(int i = 0; i < length; i++){
+			if(upper(chars[start + i]) != name[i]){
+				return null;
+			}
+		}
+		return TOKENS[slot];
+	}
+
+	/** Returns the keyword token of the given type, or null if the type is not the type of a
+	 *  keyword (operator keywords are looked up by their lexeme instead).
+	 */
+	public static Token lookup(TokenType type){
+		return BY_TYPE[type.getIndex()];
+	}
+
+	/** Returns the keyword token for the lexeme, or null if the lexeme is not a keyword.
+	 *  Case is ignored.
+	 */
+	public static Token lookup(CharSequence lexeme){
+		int length = lexeme.length();
+		if(length == 0){
+			return null;
+		}
+		int slot = slot(upper(lexeme.charAt(0)), upper(lexeme.charAt(length - 1)), length);
+		char[] name = NAMES[slot];
+		if(name == null || name.length != length){
+			return null;
+		}
+		for(int i = 0; i < length; i++){
+			if(upper(lexeme.charAt(i)) != name[i]){
+				return null;
+			}
+		}
+		return TOKENS[slot];
+	}
+}
@@ -0,0 +1,178 @@
+package lex;
+import java.util.Arrays;
+
+/** A pool of interned lexemes. <br>
+ *  Each distinct lexeme is stored once, as a String, and is identified by a small integer id.
+ *  Lexemes are looked up by hashing their characters directly, so interning a lexeme that is
+ *  already in the pool does not create any objects. <br>
+ *  Each compilation has one pool, shared by the lexer and the semantic actions, so every
+ *  occurrence of a name is the same (canonical) String: its hash code is computed once, and
+ *  symbol table lookups find it by identity. The lexers fold identifiers to upper case, and
+ *  compute the hash code, while they scan the characters.
+ */
+public class LexemePool {
+	/** Initial number of slots in the hash table. Must be a power of two */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Open addressing hash table holding (id + 1) of each lexeme, or 0 for an empty slot */
+	private int[] slots;
+	/** Hash code of each lexeme, indexed by id */
+	private int[] hashes;
+	/** The lexemes, indexed by id */
+	private String[] lexemes;
+	/** Number of lexemes in the pool */
+	private int size;
+
+	/** Constructor. Creates an empty pool */
+	public LexemePool(){
+		slots = new int[INITIAL_CAPACITY];
+		hashes = new int[INITIAL_CAPACITY / 2];
+		lexemes = new String[INITIAL_CAPACITY / 2];
+		size = 0;
+	}
+
+	/** Returns the number of distinct lexemes in the pool */
+	public int size(){
+		return size;
+	}
+
+	/** Returns the lexeme with the given id */
+	public String get(int id){
+		return lexemes[id];
+	}
+
+	/** Returns the id of the lexeme stored in chars[start .. start+length-1], adding it to
+	 *  the pool if it is not already there.
+	 */
+	public int intern(char[] chars, int start, int length){
+		int hash = 0;
+		for(int i = 0; i < length; i++){
+			hash = 31 * hash + chars[start + i];
+		}
+		return intern(chars, start, length, hash);
+	}
+
+	/** Returns the canonical String for the lexeme stored in chars[start .. start+length-1]
+	 * @param hash The hash code of the lexeme, computed as by <code>String.hashCode()</code>
+	 */
+	public String canonical(char[] chars, int start, int length, int hash){
+		return lexemes[intern(chars, start, length, hash)];
+	}
+
+	/** Returns the canonical String for the lexeme held in a CharSequence
+	 * @param hash The hash code of the lexeme, computed as by <code>String.hashCode()</code>
+	 */
+	public String canonical(CharSequence chars, int hash){
+		int length = chars.length();
+		int mask = slots.length - 1;
+		for(int slot = mix(hash) & mask; ; slot = (slot + 1) & mask){
+			int id = slots[slot] - 1;
+			if(id < 0){
+				return lexemes[add(chars.toString(), hash, slot)];
+			}
+			if(hashes[id] == hash && matches(lexemes[id], chars, length)){
+				return lexemes[id];
+			}
+		}
+	}
+
+	/** Returns the canonical String for the lexeme */
+	public String canonical(String lexeme){
+		return lexemes[intern(lexeme)];
+	}
+
+	/** Returns the id of the lexeme stored in chars[start .. start+length-1], adding it to
+	 *  the pool if it is not already there.
+	 * @param hash The hash code of the lexeme, computed as by <code>String.hashCode()</code>
+	 */
+	public int intern(char[] chars, int start, int length, int hash){
+		int mask = slots.length - 1;
+		for(int slot = mix(hash) & mask; ; slot = (slot + 1) & mask){
+			int id = slots[slot] - 1;
+			if(id < 0){
+				return add(new String(chars, start, length), hash, slot);
+			}
+			if(hashes[id] == hash && matches(lexemes[id], chars, start, length)){
+				return id;
+			}
+		}
+	}
+
+	/** Returns the id of the lexeme, adding it to the pool if it is not already there. */
+	public int intern(String lexeme){
+		int hash = lexeme.hashCode();
+		int mask = slots.length - 1;
+		for(int slot = mix(hash) & mask; ; slot = (slot + 1) & mask){
+			int id = slots[slot] - 1;
+			if(id < 0){
+				return add(lexeme, hash, slot);
+			}
+			if(hashes[id] == hash && lexemes[id].equals(lexeme)){
+				return id;
+			}
+		}
+	}
+
+	/** Stores a new lexeme in the given empty slot, and returns its id */
+	private int add(String lexeme, int hash, int slot){
+		int id = size++;
+		if(id == lexemes.length){
+			hashes = Arrays.copyOf(hashes, id * 2);
+			lexemes = Arrays.copyOf(lexemes, id * 2);
+		}
+		hashes[id] = hash;
+		lexemes[id] = lexeme;
+		slots[slot] = id + 1;
+		// Keep the table at most half full
+		if(size * 2 > slots.length){
+			rehash();
+		}
+		return id;
+	}
+
+	/** Doubles the size of the hash table */
+	private void rehash(){
+		int[] table = new int[slots.length * 2];
+		int mask = table.length - 1;
+		for(int id = 0; id < size; id++){
+			int slot = mix(hashes[id]) & mask;
+			while(table[slot] != 0){
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+		slots = table;
+	}
+
+	/** Returns true if the String holds exactly the given characters */
+	private static boolean matches(String lexeme, char[] chars, int start, int length){
+		if(lexeme.length() != length){
+			return false;
+		}
+		for(int i = 0; i < length; i++){
+			if(lexeme.charAt(i) != chars[start + i]){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Returns true if the String holds exactly the characters of the CharSequence */
+	private static boolean matches(String lexeme, CharSequence chars, int length){
+		if(lexeme.length() != length){
+			return false;
+		}
+		for(int i = 0; i < length; i++){
+			if(lexeme.charAt(i) != chars.charAt(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Spreads the bits of a hash code, so that lexemes differing only in their last
+	 *  characters do not end up in neighbouring slots */
+	private static int mix(int hash){
+		return (hash ^ (hash >>> 16)) * 0x45d9f3b;
+	}
+}
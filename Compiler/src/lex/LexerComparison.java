@@ -0,0 +1,57 @@
+package lex;
+import errors.*;
+import grammarsymbols.TokenType;
+import token.Token;
+
+/** Compares the tokens returned by two lexers. <br>
+ *  Used to check the faster lexers (the DfaTokenizer, and streams replaying packed,
+ *  parallel or pipelined tokens) against the Tokenizer, by the tests and before each
+ *  benchmark.
+ */
+public class LexerComparison {
+
+	private LexerComparison(){
+	}
+
+	/** Lexes a file with both a Tokenizer and a DfaTokenizer, comparing the tokens (and error
+	 *  messages) they return one by one.
+	 *  @return the number of tokens that differ */
+	public static long compare(String file){
+		return compare(new Tokenizer(file), new DfaTokenizer(file));
+	}
+
+	/** Compares the tokens (and error messages) returned by two TokenStreams one by one,
+	 *  along with the positions they report after each token.
+	 *  @return the number of tokens that differ */
+	public static long compare(TokenStream expected, TokenStream actual){
+		long mismatches = 0;
+		while(true){
+			String expectedToken = nextToken(expected);
+			String actualToken = nextToken(actual);
+			if(!expectedToken.equals(actualToken)){
+				mismatches++;
+			}
+			if(expectedToken.startsWith("ENDOFFILE") || actualToken.startsWith("ENDOFFILE")){
+				return mismatches;
+			}
+		}
+	}
+
+	/** Describes the next token from a lexer: its type, value and class, or the error message,
+	 *  followed by the position of the lexer */
+	private static String nextToken(TokenStream lexer){
+		String token;
+		try{
+			Token next = lexer.GetNextToken();
+			if(next.getType() == TokenType.ENDOFFILE){
+				token = "ENDOFFILE";
+			}
+			else{
+				token = next.getClass().getSimpleName() + " " + next.getType() + " " + next.getValue();
+			}
+		}catch(LexicalError e){
+			token = e.getMessage();
+		}
+		return token + " @" + lexer.getLineNumber() + ":" + lexer.getIndexNumber() + " " + lexer.getCurrentLine();
+	}
+}
@@ -0,0 +1,103 @@
+package lex;
+import java.nio.ByteBuffer;
+
+import grammarsymbols.TokenType;
+
+/** Everything about a DfaTokenizer reading a ByteCharStream that decides which tokens it reads
+ *  next: its position in the source, the characters it holds or has pushed back, and the
+ *  previous token as far as the choice between unary and binary '+' and '-' goes. <br>
+ *  Two lexers reading the same source in equal states read the same tokens from then on.
+ *  Used to join lexers started at different points of a source (see ParallelTokenizer), and
+ *  to restart lexing part way through a source (see IncrementalTokenizer).
+ */
+final class LexerState {
+	/** Offset of the character held by the stream */
+	final int offset;
+	/** Offset of the current line, or -1 past the last line */
+	final int lineStart;
+	/** Offset of the line before the current line, or -1 on the first line */
+	final int previousLineStart;
+	/** Offset just past the last byte the stream has looked at */
+	final int readLimit;
+	final int lineNumber;
+	final int charIndex;
+	final char current;
+	final String pushedBack;
+	/** Type of the last token read, or null */
+	final TokenType previousType;
+
+	/** Records the state of a lexer */
+	LexerState(DfaTokenizer lexer){
+		ByteCharStream stream = lexer.getMapped();
+		offset = stream.nextOffset();
+		lineStart = stream.lineStart();
+		previousLineStart = stream.previousLineStart();
+		readLimit = stream.readLimit();
+		lineNumber = stream.lineNumber;
+		charIndex = stream.charIndex;
+		current = stream.currentChar;
+		pushedBack = stream.pushedBack();
+		previousType = lexer.previousType();
+	}
+
+	/** Copies a state, moving it by shift bytes and lineShift lines */
+	private LexerState(LexerState state, int shift, int lineShift){
+		offset = state.offset + shift;
+		lineStart = shift(state.lineStart, shift);
+		previousLineStart = shift(state.previousLineStart, shift);
+		readLimit = state.readLimit + shift;
+		lineNumber = state.lineNumber + lineShift;
+		charIndex = state.charIndex;
+		current = state.current;
+		pushedBack = state.pushedBack;
+		previousType = state.previousType;
+	}
+
+	/** Moves an offset which may be -1 */
+	private static int shift(int offset, int shift){
+		return offset < 0 ? offset : offset + shift;
+	}
+
+	/** Returns the state of a lexer reading the same characters shift bytes further into the
+	 *  source, lineShift lines further down */
+	LexerState shifted(int shift, int lineShift){
+		return shift == 0 && lineShift == 0 ? this : new LexerState(this, shift, lineShift);
+	}
+
+	/** Returns true if a '+' or '-' read next would be a binary operator */
+	boolean afterOperand(){
+		return previousType != null && Tokenizer.endsOperand(previousType);
+	}
+
+	/** Returns true if this state is the state another one would be in shift bytes further
+	 *  into the source, whatever the line numbers */
+	boolean sameAs(LexerState other, int shift){
+		return offset == other.offset + shift && lineStart == shift(other.lineStart, shift)
+				&& charIndex == other.charIndex && current == other.current
+				&& afterOperand() == other.afterOperand() && pushedBack.equals(other.pushedBack);
+	}
+
+	/** Returns a lexer reading the given source from this state. The source must hold the
+	 *  same bytes as the one this state was recorded on, from the start of the previous line
+	 *  up to the read limit. */
+	DfaTokenizer resume(ByteBuffer source){
+		ByteCharStream stream = ByteCharStream.resume(source, offset, lineStart, lineNumber, charIndex, current, pushedBack);
+		DfaTokenizer lexer = new DfaTokenizer(stream);
+		lexer.setPreviousType(previousType);
+		return lexer;
+	}
+
+	@Override
+	public boolean equals(Object o){
+		if(!(o instanceof LexerState)){
+			return false;
+		}
+		LexerState other = (LexerState)o;
+		return lineNumber == other.lineNumber && sameAs(other, 0);
+	}
+
+	@Override
+	public int hashCode(){
+		return offset;
+	}
+}
@@ -0,0 +1,150 @@
+package lex;
+import errors.*;
+import grammarsymbols.TokenType;
+import token.*;
+
+/** A TokenStream which replays the tokens of a TokenBuffer. <br>
+ *  The parser can read the type of each token with <code>nextType()</code>, and only
+ *  create a Token object with <code>getToken()</code> when it needs one (for a semantic
+ *  action which uses the token's value). <code>GetNextToken()</code> does both, so a
+ *  PackedTokens can also be used in place of a Tokenizer. <br>
+ *  The tokens, positions and LexicalErrors are the ones a Tokenizer would return for the
+ *  same source: once the ENDOFFILE token is reached, it is returned again on every call.
+ */
+public class PackedTokens implements TokenStream {
+	/** Token types, indexed by type code */
+	private static final TokenType[] TYPES = TokenType.values();
+
+	/** The tokens */
+	private final TokenBuffer tokens;
+	/** The source the tokens were read from. Used to retrieve lines for error messages */
+	private final ByteCharStream source;
+	/** Index of the current token, or -1 before the first token */
+	private int current;
+
+	/** Constructor. Replays the tokens of a buffer filled from the given source */
+	public PackedTokens(TokenBuffer tokens, ByteCharStream source){
+		this.tokens = tokens;
+		this.source = source;
+		current = -1;
+	}
+
+	/** Memory-maps a file and lexes the whole of it into a new TokenBuffer.
+	 *  As with a Tokenizer, an error message is printed if the file cannot be opened.
+	 */
+	public static PackedTokens tokenize(String file){
+		return tokenize(new ByteCharStream(file));
+	}
+
+	/** Lexes the whole of a newly opened stream into a new TokenBuffer */
+	public static PackedTokens tokenize(ByteCharStream stream){
+		DfaTokenizer lexer = new DfaTokenizer(stream);
+		TokenBuffer tokens = new TokenBuffer(lexer.getLexemes());
+		lexer.tokenize(tokens);
+		return new PackedTokens(tokens, stream);
+	}
+
+	/** Returns the buffer of tokens */
+	public TokenBuffer getTokens(){
+		return tokens;
+	}
+
+	/** Moves to the next token and returns its type code (<code>TokenType.getIndex()</code>)
+	 * @throws LexicalError if the Tokenizer would have thrown one at this point
+	 */
+	public int nextType() throws LexicalError{
+		if(current < tokens.size() - 1){
+			current++;
+		}
+		int type = tokens.getType(current);
+		if(type == TokenBuffer.LEXICAL_ERROR){
+			throw tokens.getError(current);
+		}
+		return type;
+	}
+
+	/** Returns the index of the current token in the buffer, or -1 before the first token */
+	public int position(){
+		return current;
+	}
+
+	/** Creates the Token object for the current token. Keyword tokens are shared */
+	public Token getToken(){
+		return getToken(current);
+	}
+
+	/** Creates the Token object for the token at index i in the buffer. Keyword tokens are shared */
+	public Token getToken(int i){
+		TokenType type = TYPES[tokens.getType(i)];
+		int lexeme = tokens.getLexeme(i);
+		switch(type){
+		case IDENTIFIER:
+			return new Identifier(type, tokens.getLexemes().get(lexeme), tokens.getStart(i));
+		case INTCONSTANT:
+			return new Constant(tokens.getLexemes().get(lexeme), tokens.getValue(i));
+		case REALCONSTANT:
+			return new Constant(tokens.getLexemes().get(lexeme), Double.longBitsToDouble(tokens.getValue(i)));
+		case RELOP:
+		case ADDOP:
+		case MULOP:
+			String value = tokens.getLexemes().get(lexeme);
+			Token keyword = Keywords.lookup(value);
+			return keyword != null ? keyword : new Operator(type, value);
+		default:
+			keyword = Keywords.lookup(type);
+			return keyword != null ? keyword : new Token(type);
+		}
+	}
+
+	/** Returns the next token from the input
+	 * @throws LexicalError if the input does not form a valid token */
+	public Token GetNextToken() throws LexicalError{
+		nextType();
+		return getToken();
+	}
+
+	/** Get the current line number. Used for error message printing */
+	public int getLineNumber(){
+		return current < 0 ? 1 : tokens.getLine(current);
+	}
+
+	/** Get the current index number */
+	public int getIndexNumber(){
+		return current < 0 ? 0 : tokens.getIndex(current);
+	}
+
+	/** Returns the pool holding the lexemes of the tokens */
+	public LexemePool getLexemes(){
+		return tokens.getLexemes();
+	}
+
+	/** Get the current line as a String. Used for error message printing */
+	public String getCurrentLine(){
+		return current < 0 ? null : source.lineAt(tokens.getLineOffset(current));
+	}
+
+	/** Returns the offset of the current line in the source */
+	public int getLineOffset(){
+		return current < 0 ? -1 : tokens.getLineOffset(current);
+	}
+
+	/** Returns the offset in the source of the first character of the current token */
+	public int getTokenOffset(){
+		return current < 0 ? 0 : tokens.getStart(current);
+	}
+
+	/** Returns the line of the source starting at the given offset */
+	public String lineAt(int offset){
+		return source.lineAt(offset);
+	}
+
+	/** Returns the offset of the line of the source holding the given offset */
+	public int lineStart(int offset){
+		return source.lineStart(offset);
+	}
+
+	/** Returns the number of the line of the source holding the given offset */
+	public int lineNumber(int offset){
+		return source.lineNumber(offset);
+	}
+}
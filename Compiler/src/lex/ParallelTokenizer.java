@@ -0,0 +1,332 @@
+package lex;
+import java.util.*;
+import java.util.concurrent.*;
+
+import errors.*;
+import grammarsymbols.TokenType;
+
+/** Lexes a large memory-mapped source into a TokenBuffer using several threads. <br>
+ *  The source is split into chunks on line boundaries. Each chunk is lexed on a ForkJoinPool
+ *  by DfaTokenizers which start at the beginning of the chunk, in each of the two states the
+ *  lexer can be in at the start of a line: outside a comment, or inside a comment opened on
+ *  an earlier line. Only the first chunk is lexed from a state known to be right. <br>
+ *  The chunks are then stitched together in order. The lexer of the previous chunk carries on
+ *  past the end of its chunk (it is in exactly the state the sequential lexer would be in)
+ *  until it has read a token which one of the speculative lexers also read, ending in the
+ *  same state: same position in the source, same pushed back characters, and the same
+ *  previous token as far as the choice between unary and binary '+' and '-' goes. From then
+ *  on the two lexers can only read the same tokens, so the speculative lexer's tokens are
+ *  used. This way the buffer holds exactly the tokens, LexicalErrors and positions of
+ *  <code>DfaTokenizer.tokenize()</code>, whatever the speculative lexers got wrong near the
+ *  start of their chunks.
+ */
+public class ParallelTokenizer {
+	/** Default size of a chunk, in bytes */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+	/** Number of tokens at the start of a chunk which the previous chunk may join at */
+	private static final int SYNC_WINDOW = 64;
+	/** Type code of the ENDOFFILE token */
+	private static final int ENDOFFILE = TokenType.ENDOFFILE.getIndex();
+
+	/** Pool running the chunk lexers */
+	private final ForkJoinPool pool;
+	/** Size of a chunk, in bytes. Chunks are extended to the end of a line */
+	private final int chunkSize;
+
+	/** Constructor. Uses chunks of DEFAULT_CHUNK_SIZE bytes */
+	public ParallelTokenizer(ForkJoinPool pool){
+		this(pool, DEFAULT_CHUNK_SIZE);
+	}
+
+	/** Constructor
+	 * @param pool Pool running the chunk lexers
+	 * @param chunkSize Size of the chunks the source is split into
+	 */
+	public ParallelTokenizer(ForkJoinPool pool, int chunkSize){
+		if(chunkSize <= 0){
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		}
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/** Memory-maps a file and lexes it in parallel into a new TokenBuffer, using one thread
+	 *  per processor. As with a Tokenizer, an error message is printed if the file cannot
+	 *  be opened.
+	 */
+	public static PackedTokens tokenize(String file){
+		return tokenize(new ByteCharStream(file));
+	}
+
+	/** Lexes the whole of a newly opened stream in parallel into a new TokenBuffer, using
+	 *  one thread per processor */
+	public static PackedTokens tokenize(ByteCharStream stream){
+		TokenBuffer tokens = new TokenBuffer();
+		ForkJoinPool pool = new ForkJoinPool();
+		try{
+			new ParallelTokenizer(pool).tokenize(stream, tokens);
+		}finally{
+			pool.shutdown();
+		}
+		return new PackedTokens(tokens, stream);
+	}
+
+	/** Lexes a whole source into a TokenBuffer. The buffer ends up holding the same entries
+	 *  as after <code>new DfaTokenizer(stream).tokenize(tokens)</code>.
+	 * @param stream A newly opened ByteCharStream
+	 * @param tokens The buffer the tokens are appended to
+	 */
+	public void tokenize(final ByteCharStream stream, TokenBuffer tokens){
+		final int[] bounds = split(stream);
+		final int count = bounds.length - 1;
+		// With a single thread, speculating only adds work
+		if(count <= 1 || pool.getParallelism() == 1){
+			new DfaTokenizer(stream).tokenize(tokens);
+			return;
+		}
+		// Number the lines: each chunk starts on the line following the breaks before it
+		List<Callable<Integer>> counts = new ArrayList<Callable<Integer>>(count);
+		for(int k = 0; k < count; k++){
+			final int chunk = k;
+			counts.add(new Callable<Integer>(){
+				public Integer call(){
+					return stream.countLines(bounds[chunk], bounds[chunk + 1]);
+				}
+			});
+		}
+		final int[] lines = new int[count];
+		lines[0] = 1;
+		List<Integer> breaks = invokeAll(counts);
+		for(int k = 1; k < count; k++){
+			lines[k] = lines[k - 1] + breaks.get(k - 1);
+		}
+		// Lex the first chunk from the start of the source, and every other chunk twice
+		List<Callable<Chunk>> lexers = new ArrayList<Callable<Chunk>>(2 * count);
+		lexers.add(new Callable<Chunk>(){
+			public Chunk call(){
+				Chunk chunk = new Chunk(new DfaTokenizer(stream), bounds[1]);
+				chunk.lex();
+				return chunk;
+			}
+		});
+		for(int k = 1; k < count; k++){
+			for(final boolean inComment: new boolean[] {false, true}){
+				final int chunk = k;
+				lexers.add(new Callable<Chunk>(){
+					public Chunk call(){
+						return speculate(stream, bounds[chunk], bounds[chunk + 1], lines[chunk], inComment);
+					}
+				});
+			}
+		}
+		List<Chunk> chunks = invokeAll(lexers);
+		stitch(chunks, bounds, tokens);
+	}
+
+	/** Returns the offsets at which the chunks start, followed by the length of the source */
+	private int[] split(ByteCharStream stream){
+		int length = stream.length();
+		List<Integer> starts = new ArrayList<Integer>();
+		starts.add(0);
+		int offset = chunkSize;
+		while(offset < length){
+			int start = stream.nextLineStart(offset);
+			if(start >= length){
+				break;
+			}
+			starts.add(start);
+			offset = start + chunkSize;
+		}
+		int[] bounds = new int[starts.size() + 1];
+		for(int k = 0; k < starts.size(); k++){
+			bounds[k] = starts.get(k);
+		}
+		bounds[starts.size()] = length;
+		return bounds;
+	}
+
+	/** Lexes a chunk from its first line, assuming the lexer is or is not inside a comment
+	 *  there. Returns null if the assumption is certainly wrong: a comment is not closed
+	 *  properly before the first token.
+	 */
+	private static Chunk speculate(ByteCharStream stream, int start, int end, int line, boolean inComment){
+		ByteCharStream part;
+		try{
+			part = stream.startingAt(start, line, inComment);
+		}catch(LexicalError e){
+			return null;
+		}
+		Chunk chunk = new Chunk(new DfaTokenizer(part), end);
+		chunk.lex();
+		return chunk;
+	}
+
+	/** Copies the tokens of the chunks into the buffer, switching from the lexer of one chunk
+	 *  to a speculative lexer of the next one where they join.
+	 * @param chunks The lexer of the first chunk, then both lexers of each other chunk
+	 * @param bounds The offsets at which the chunks start, followed by the length of the source
+	 * @param tokens The buffer the tokens are appended to
+	 */
+	private static void stitch(List<Chunk> chunks, int[] bounds, TokenBuffer tokens){
+		int count = bounds.length - 1;
+		tokens.ensureCapacity(tokens.size() + bounds[count] / 4);
+		Chunk current = chunks.get(0);
+		// Index of the next entry of the current chunk
+		int i = 0;
+		// Next chunk to join
+		int k = 1;
+		while(true){
+			if(i == current.tokens.size()){
+				// Carry on lexing past the end of the chunk
+				current.next();
+			}
+			int start = current.tokens.getStart(i);
+			while(k < count && start >= bounds[k + 1]){
+				// The current lexer went through chunk k on its own
+				k++;
+			}
+			Chunk joined = null;
+			int j = -1;
+			if(k < count && start >= bounds[k]){
+				LexerState state = current.state(i);
+				for(int s = 2 * k - 1; s <= 2 * k && joined == null; s++){
+					Chunk speculation = chunks.get(s);
+					if(speculation != null){
+						j = speculation.find(current, i, state);
+						joined = j < 0 ? null : speculation;
+					}
+				}
+			}
+			current.copy(i, tokens);
+			if(current.tokens.getType(i) == ENDOFFILE){
+				return;
+			}
+			if(joined != null){
+				current = joined;
+				i = j + 1;
+				k++;
+			}
+			else{
+				i++;
+			}
+		}
+	}
+
+	/** Runs tasks on the pool and returns their results, in order */
+	private <T> List<T> invokeAll(List<Callable<T>> tasks){
+		List<T> results = new ArrayList<T>(tasks.size());
+		for(Future<T> future: pool.invokeAll(tasks)){
+			try{
+				results.add(future.get());
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while lexing", e);
+			}catch(ExecutionException e){
+				throw new IllegalStateException("Lexing a chunk failed", e.getCause());
+			}
+		}
+		return results;
+	}
+
+	/** The tokens read by one lexer, from the start of a chunk up to the first token past its
+	 *  end. The lexer is kept, so that it can carry on reading tokens past the end. */
+	private static class Chunk {
+		/** The lexer */
+		private final DfaTokenizer lexer;
+		/** The tokens, with lexemes interned in the chunk's own pool */
+		private final TokenBuffer tokens;
+		/** Offset at which the next chunk starts */
+		private final int end;
+		/** State of the lexer after each of the first SYNC_WINDOW tokens */
+		private final LexerState[] states;
+		/** Offset just past the last token */
+		private int last;
+		/** Id in the final buffer's pool of each lexeme of the chunk's pool, plus one */
+		private int[] ids;
+
+		Chunk(DfaTokenizer lexer, int end){
+			this.lexer = lexer;
+			this.end = end;
+			tokens = new TokenBuffer();
+			states = new LexerState[SYNC_WINDOW];
+			ids = new int[0];
+		}
+
+		/** Reads tokens until one starts at or past the end of the chunk */
+		void lex(){
+			tokens.ensureCapacity((end - lexer.getMapped().nextOffset()) / 4);
+			while(tokens.size() == 0 || !isFinal(tokens.size() - 1)){
+				next();
+			}
+		}
+
+		/** Returns true if the entry ends the chunk: it starts past its end, or is ENDOFFILE */
+		private boolean isFinal(int i){
+			return tokens.getStart(i) >= end || tokens.getType(i) == ENDOFFILE;
+		}
+
+		/** Reads one more token */
+		void next(){
+			last = lexer.pack(tokens, last);
+			int i = tokens.size() - 1;
+			if(i < SYNC_WINDOW){
+				states[i] = new LexerState(lexer);
+			}
+		}
+
+		/** Returns the state of the lexer after entry i, or null if it is not known */
+		LexerState state(int i){
+			if(i == tokens.size() - 1){
+				return new LexerState(lexer);
+			}
+			return i < SYNC_WINDOW ? states[i] : null;
+		}
+
+		/** Returns the index of the entry which is the same token as entry i of another chunk,
+		 *  read by a lexer which ended up in the same state, or -1 if there is none.
+		 */
+		int find(Chunk other, int i, LexerState state){
+			if(state == null || other.tokens.getType(i) == TokenBuffer.LEXICAL_ERROR){
+				return -1;
+			}
+			int start = other.tokens.getStart(i);
+			// Only the entries whose states were kept can be joined at
+			for(int j = 0; j < Math.min(tokens.size(), SYNC_WINDOW) && tokens.getStart(j) <= start; j++){
+				if(matches(j, other, i, state)){
+					return j;
+				}
+			}
+			int j = tokens.size() - 1;
+			return j >= SYNC_WINDOW && matches(j, other, i, state) ? j : -1;
+		}
+
+		/** Returns true if entry j is the same token as entry i of another chunk, and the
+		 *  lexers were in the same state after reading them */
+		private boolean matches(int j, Chunk other, int i, LexerState state){
+			return tokens.getStart(j) == other.tokens.getStart(i) && tokens.getType(j) == other.tokens.getType(i)
+					&& tokens.getLength(j) == other.tokens.getLength(i) && state.equals(state(j));
+		}
+
+		/** Appends entry i to a buffer, moving its lexeme to the buffer's pool */
+		void copy(int i, TokenBuffer target){
+			int type = tokens.getType(i);
+			if(type == TokenBuffer.LEXICAL_ERROR){
+				target.addError(tokens.getError(i), tokens.getStart(i), tokens.getLength(i),
+						tokens.getLine(i), tokens.getIndex(i), tokens.getLineOffset(i));
+				return;
+			}
+			int lexeme = tokens.getLexeme(i);
+			if(lexeme >= 0){
+				if(lexeme >= ids.length){
+					ids = Arrays.copyOf(ids, Math.max(tokens.getLexemes().size(), 2 * ids.length));
+				}
+				if(ids[lexeme] == 0){
+					ids[lexeme] = target.getLexemes().intern(tokens.getLexemes().get(lexeme)) + 1;
+				}
+				lexeme = ids[lexeme] - 1;
+			}
+			target.add(type, tokens.getStart(i), tokens.getLength(i), lexeme, tokens.getValue(i),
+					tokens.getLine(i), tokens.getIndex(i), tokens.getLineOffset(i));
+		}
+	}
+}
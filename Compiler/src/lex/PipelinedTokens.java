@@ -0,0 +1,276 @@
+package lex;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import errors.*;
+import grammarsymbols.TokenType;
+import token.Token;
+
+/** A TokenStream which runs another lexer (a Tokenizer or a DfaTokenizer) on a thread of its
+ *  own, so that lexing overlaps with parsing. <br>
+ *  The lexer thread writes each token into a single-producer/single-consumer ring buffer,
+ *  together with the position the lexer reported after reading it. A LexicalError is written
+ *  into the ring in place of a token, and is thrown by GetNextToken() when the parser reaches
+ *  it, so errors surface exactly where they would with the lexer called directly. Lines are
+ *  passed as offsets, and only read from the source (which does not change while the lexer
+ *  runs) when the parser asks for one. <br>
+ *  Neither side takes a lock: each side only writes its own counter (the number of entries
+ *  written or read), and both publish their counter every BATCH entries, or before waiting
+ *  for the other side. A side which finds the ring full (or empty) spins briefly and then
+ *  parks. <br>
+ *  The lexer thread is started by the first call to GetNextToken(), and stops after reading
+ *  the ENDOFFILE token, or when the stream is closed.
+ */
+public class PipelinedTokens implements TokenStream {
+	/** Default number of entries in the ring. Must be a power of two */
+	public static final int DEFAULT_CAPACITY = 1 << 12;
+	/** Number of entries a side handles before publishing its counter */
+	private static final int BATCH = 64;
+	/** Number of times a side yields before it starts to park while waiting */
+	private static final int SPINS = 100;
+	/** How long a waiting side parks for, in nanoseconds */
+	private static final long PARK_NANOS = 50000;
+
+	/** The lexer run on the producer thread */
+	private final TokenStream lexer;
+	/** Tokens, or the LexicalErrors (or RuntimeExceptions) thrown in their place */
+	private final Object[] items;
+	/** Line number of the lexer after each entry */
+	private final int[] lines;
+	/** Index number of the lexer after each entry */
+	private final int[] indices;
+	/** Offset of the current line of the lexer after each entry */
+	private final int[] lineOffsets;
+	/** Offset of the token of each entry */
+	private final int[] tokenOffsets;
+	/** Capacity - 1, to turn a counter into an index of the ring */
+	private final int mask;
+	/** Number of entries written by the producer, as published to the consumer */
+	private final AtomicLong written = new AtomicLong();
+	/** Number of entries read by the consumer, as published to the producer */
+	private final AtomicLong read = new AtomicLong();
+	/** Set to stop the producer early */
+	private volatile boolean closed;
+	/** The producer thread, or null until the first token is asked for */
+	private Thread producer;
+
+	// Consumer side
+	/** Number of entries read */
+	private long next;
+	/** Last value of written seen by the consumer */
+	private long available;
+	/** The ENDOFFILE token, once it has been read */
+	private Token endOfFile;
+	/** Position of the lexer after the current token */
+	private int lineNumber;
+	private int indexNumber;
+	private int lineOffset;
+	private int tokenOffset;
+
+	/** Constructor. Uses a ring of DEFAULT_CAPACITY entries */
+	public PipelinedTokens(TokenStream lexer){
+		this(lexer, DEFAULT_CAPACITY);
+	}
+
+	/** Constructor
+	 * @param lexer A lexer which has not been read from yet. It must not be used by
+	 * anything else once it is wrapped.
+	 * @param capacity Number of entries in the ring: a power of two, at least 2 * BATCH
+	 */
+	public PipelinedTokens(TokenStream lexer, int capacity){
+		if(capacity < 2 * BATCH || Integer.bitCount(capacity) != 1){
+			throw new IllegalArgumentException("Capacity must be a power of two of at least " + 2 * BATCH + ": " + capacity);
+		}
+		this.lexer = lexer;
+		items = new Object[capacity];
+		lines = new int[capacity];
+		indices = new int[capacity];
+		lineOffsets = new int[capacity];
+		tokenOffsets = new int[capacity];
+		mask = capacity - 1;
+		// Position before the first token
+		lineNumber = lexer.getLineNumber();
+		indexNumber = lexer.getIndexNumber();
+		lineOffset = lexer.getLineOffset();
+		tokenOffset = lexer.getTokenOffset();
+	}
+
+	/** Returns the next token lexed by the producer thread, waiting for it if needed.
+	 * @throws LexicalError if the lexer threw one at this point of the input */
+	@Override
+	public Token GetNextToken() throws LexicalError {
+		if(endOfFile != null){
+			return endOfFile;
+		}
+		if(producer == null){
+			start();
+		}
+		if(next == available){
+			available = waitForEntries();
+		}
+		int slot = (int)next & mask;
+		Object item = items[slot];
+		items[slot] = null;
+		lineNumber = lines[slot];
+		indexNumber = indices[slot];
+		lineOffset = lineOffsets[slot];
+		tokenOffset = tokenOffsets[slot];
+		next++;
+		if((next & (BATCH - 1)) == 0){
+			read.lazySet(next);
+		}
+		if(item instanceof LexicalError){
+			throw (LexicalError)item;
+		}
+		if(item instanceof RuntimeException){
+			throw (RuntimeException)item;
+		}
+		Token token = (Token)item;
+		if(token.getType() == TokenType.ENDOFFILE){
+			endOfFile = token;
+		}
+		return token;
+	}
+
+	/** Starts the producer thread */
+	private void start(){
+		producer = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				produce();
+			}
+		}, "Lexer");
+		producer.setDaemon(true);
+		producer.start();
+	}
+
+	/** Waits until the producer has written entries past the ones already read
+	 * @return the number of entries written */
+	private long waitForEntries(){
+		// Let the producer reuse everything read so far before waiting on it
+		read.lazySet(next);
+		int spins = 0;
+		long count;
+		while((count = written.get()) == next){
+			if(!producer.isAlive() && written.get() == next){
+				throw new IllegalStateException("The lexer thread stopped before the end of the input");
+			}
+			spins = idle(spins);
+		}
+		return count;
+	}
+
+	/** Body of the producer thread: lexes tokens into the ring until the end of the input */
+	private void produce(){
+		int capacity = mask + 1;
+		long count = 0;
+		long free = capacity;	// Number of entries which may be written without checking read
+		while(!closed){
+			if(count == free){
+				// Ring full as far as we know: publish, then wait for the consumer
+				written.set(count);
+				int spins = 0;
+				while((free = read.get() + capacity) == count){
+					if(closed){
+						return;
+					}
+					spins = idle(spins);
+				}
+			}
+			Object item;
+			try{
+				item = lexer.GetNextToken();
+			}catch(LexicalError e){
+				item = e;
+			}catch(RuntimeException e){
+				item = e;
+			}
+			int slot = (int)count & mask;
+			int line = lexer.getLineNumber();
+			int index = lexer.getIndexNumber();
+			items[slot] = item;
+			lines[slot] = line;
+			indices[slot] = index;
+			lineOffsets[slot] = lexer.getLineOffset();
+			tokenOffsets[slot] = lexer.getTokenOffset();
+			count++;
+			if(item instanceof RuntimeException
+					|| (item instanceof Token && ((Token)item).getType() == TokenType.ENDOFFILE)){
+				written.set(count);
+				return;
+			}
+			if((count & (BATCH - 1)) == 0){
+				written.lazySet(count);
+			}
+		}
+	}
+
+	/** Waits a little: yields for the first SPINS calls, then parks
+	 * @return the number of calls so far */
+	private static int idle(int spins){
+		if(spins < SPINS){
+			Thread.yield();
+		}
+		else{
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return spins + 1;
+	}
+
+	/** Stops the producer thread. Tokens not read yet are lost */
+	public void close(){
+		closed = true;
+	}
+
+	@Override
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	@Override
+	public int getIndexNumber() {
+		return indexNumber;
+	}
+
+	@Override
+	public String getCurrentLine() {
+		return lexer.lineAt(lineOffset);
+	}
+
+	@Override
+	public int getLineOffset() {
+		return lineOffset;
+	}
+
+	@Override
+	public int getTokenOffset() {
+		return tokenOffset;
+	}
+
+	/** Returns a line of the source. Safe to call while the lexer thread runs */
+	@Override
+	public String lineAt(int offset) {
+		return lexer.lineAt(offset);
+	}
+
+	/** Returns the offset of the line holding an offset. Only reads the source, so it is
+	 *  safe to call while the lexer thread runs */
+	@Override
+	public int lineStart(int offset) {
+		return lexer.lineStart(offset);
+	}
+
+	/** Returns the number of the line holding an offset. Only reads the source, so it is
+	 *  safe to call while the lexer thread runs */
+	@Override
+	public int lineNumber(int offset) {
+		return lexer.lineNumber(offset);
+	}
+
+	/** Returns the pool of the wrapped lexer. Only the producer thread interns lexemes in it
+	 *  once the first token has been asked for */
+	@Override
+	public LexemePool getLexemes() {
+		return lexer.getLexemes();
+	}
+}
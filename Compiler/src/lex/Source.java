@@ -0,0 +1,107 @@
+package lex;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/** The source code of a program, to be read by a CharStream: a file, or a program already
+ *  held in memory (a String, a byte array, a buffer, or whatever a channel delivers). <br>
+ *  A CharStream reads the source as characters and a ByteCharStream as bytes. A source
+ *  held as one is converted to the other when it is opened, reading bytes as ISO-8859-1
+ *  characters (the same way the ByteCharStream reads a file); characters that are not
+ *  ISO-8859-1 become '?'. Every character a program may contain is ASCII, so both
+ *  streams read the same tokens from a source either way. <br>
+ *  A source in memory is not copied when it is opened by the stream of the same kind: the
+ *  array or buffer it was made from must not be changed while the source is being read.
+ */
+public final class Source {
+	/** The name of the file, or a description of a source in memory */
+	private final String name;
+	/** True if the source is the file called name */
+	private final boolean file;
+	/** The characters of a source given as characters, or null */
+	private final char[] chars;
+	/** The bytes of a source given as bytes, or null */
+	private final ByteBuffer bytes;
+
+	private Source(String name, boolean file, char[] chars, ByteBuffer bytes){
+		this.name = name;
+		this.file = file;
+		this.chars = chars;
+		this.bytes = bytes;
+	}
+
+	/** Returns the source held in the given file */
+	public static Source file(String filename){
+		return new Source(filename, true, null, null);
+	}
+
+	/** Returns a source holding the given characters */
+	public static Source of(CharSequence text){
+		return new Source("<string>", false, text.toString().toCharArray(), null);
+	}
+
+	/** Returns a source holding the given bytes */
+	public static Source of(byte[] bytes){
+		return new Source("<bytes>", false, null, ByteBuffer.wrap(bytes));
+	}
+
+	/** Returns a source holding the bytes of a buffer between its position and its limit.
+	 *  The position of the buffer is not changed. */
+	public static Source of(ByteBuffer buffer){
+		return new Source("<buffer>", false, null, buffer.slice());
+	}
+
+	/** Reads a channel up to its end, and returns a source holding the bytes read. The
+	 *  channel is not closed.
+	 * @throws IOException if the channel cannot be read
+	 */
+	public static Source read(ReadableByteChannel channel) throws IOException{
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		while(channel.read(buffer) >= 0){
+			if(!buffer.hasRemaining()){
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+		buffer.flip();
+		return new Source("<channel>", false, null, buffer);
+	}
+
+	/** Returns the name of the file, or a description of a source held in memory */
+	public String getName(){
+		return name;
+	}
+
+	/** Returns true if the source is a file, which the streams open by its name */
+	public boolean isFile(){
+		return file;
+	}
+
+	/** Returns the characters of a source held in memory */
+	char[] chars(){
+		if(chars != null){
+			return chars;
+		}
+		char[] text = new char[bytes.remaining()];
+		for(int i = 0; i < text.length; i++){
+			text[i] = (char)(bytes.get(i) & 0xFF);
+		}
+		return text;
+	}
+
+	/** Returns the bytes of a source held in memory, from position 0 of a new buffer */
+	ByteBuffer bytes(){
+		if(bytes != null){
+			return bytes.duplicate();
+		}
+		return ByteBuffer.wrap(new String(chars).getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	@Override
+	public String toString(){
+		return name;
+	}
+}
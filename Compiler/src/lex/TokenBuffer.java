@@ -0,0 +1,243 @@
+package lex;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import errors.*;
+
+/** The tokens of a whole source file, stored as columns of primitive values instead of
+ *  Token objects. <br>
+ *  For each token the buffer holds its type code (<code>TokenType.getIndex()</code>), its
+ *  offset and length in the source, and the id of its lexeme in a LexemePool (or -1 for
+ *  tokens without a value), and the value the lexer computed for a constant: the value of an
+ *  INTCONSTANT, or the bits of the value of a REALCONSTANT. It also keeps the lexer's position just after the token was
+ *  read (line number, index, and the offset of the current line), which is what the
+ *  parser and the semantic actions report in error messages. <br>
+ *  A LexicalError takes up an entry of its own, with the type code LEXICAL_ERROR, so that
+ *  it is reported at the same point of the token stream as the Tokenizer would report it.
+ */
+public class TokenBuffer {
+	/** Type code of an entry holding a LexicalError */
+	public static final int LEXICAL_ERROR = -1;
+	/** Initial number of entries */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private int[] types;
+	private int[] starts;
+	private int[] lengths;
+	private int[] lexemes;
+	private long[] values;
+	private int[] lines;
+	private int[] indices;
+	private int[] lineOffsets;
+	/** Number of entries */
+	private int size;
+	/** Pool holding the lexemes of the tokens */
+	private final LexemePool pool;
+	/** Lexical errors, indexed by the lexeme column of their entries */
+	private final ArrayList<LexicalError> errors;
+	/** Number of entries holding a LexicalError. The list may also hold the errors of
+	 *  entries which have been replaced */
+	private int errorCount;
+
+	/** Constructor. Creates an empty buffer with its own LexemePool */
+	public TokenBuffer(){
+		this(new LexemePool());
+	}
+
+	/** Constructor. Creates an empty buffer which interns lexemes in the given pool */
+	public TokenBuffer(LexemePool pool){
+		this.pool = pool;
+		errors = new ArrayList<LexicalError>();
+		types = new int[INITIAL_CAPACITY];
+		starts = new int[INITIAL_CAPACITY];
+		lengths = new int[INITIAL_CAPACITY];
+		lexemes = new int[INITIAL_CAPACITY];
+		values = new long[INITIAL_CAPACITY];
+		lines = new int[INITIAL_CAPACITY];
+		indices = new int[INITIAL_CAPACITY];
+		lineOffsets = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/** Appends a token which is not a constant
+	 * @param type The token's type code
+	 * @param start Offset of the token in the source
+	 * @param length Number of characters of the source making up the token
+	 * @param lexeme Id of the token's lexeme in the pool, or -1
+	 * @param line Line number after the token was read
+	 * @param index Index in the current line after the token was read
+	 * @param lineOffset Offset of the current line after the token was read, or -1
+	 */
+	public void add(int type, int start, int length, int lexeme, int line, int index, int lineOffset){
+		add(type, start, length, lexeme, 0, line, index, lineOffset);
+	}
+
+	/** Appends a token, with the value of a constant: the value of an INTCONSTANT, the bits of
+	 *  the value of a REALCONSTANT (<code>Double.doubleToRawLongBits()</code>), or 0 */
+	public void add(int type, int start, int length, int lexeme, long value, int line, int index, int lineOffset){
+		if(size == types.length){
+			grow();
+		}
+		types[size] = type;
+		starts[size] = start;
+		lengths[size] = length;
+		lexemes[size] = lexeme;
+		values[size] = value;
+		lines[size] = line;
+		indices[size] = index;
+		lineOffsets[size] = lineOffset;
+		size++;
+	}
+
+	/** Appends a LexicalError, found at the given place in the source */
+	public void addError(LexicalError error, int start, int length, int line, int index, int lineOffset){
+		add(LEXICAL_ERROR, start, length, errors.size(), line, index, lineOffset);
+		errors.add(error);
+		errorCount++;
+	}
+
+	/** Replaces the entries [from, to) by the entries of another buffer which interns
+	 *  lexemes in the same pool, as after an edit of the source. The entries following them
+	 *  are moved by shift bytes and lineShift lines. The line number 0 the lexer reports at
+	 *  the end of the source, and line offsets of -1, are kept as they are.
+	 */
+	public void replace(int from, int to, TokenBuffer entries, int shift, int lineShift){
+		if(entries.pool != pool){
+			throw new IllegalArgumentException("The buffers do not share a lexeme pool");
+		}
+		int count = entries.size;
+		int tail = size - to;
+		for(int i = from; i < to; i++){
+			if(types[i] == LEXICAL_ERROR){
+				errorCount--;
+			}
+		}
+		int newSize = from + count + tail;
+		if(newSize > types.length){
+			resize(Math.max(newSize, 2 * types.length));
+		}
+		for(int[] column: new int[][] {types, starts, lengths, lexemes, lines, indices, lineOffsets}){
+			System.arraycopy(column, to, column, from + count, tail);
+		}
+		System.arraycopy(values, to, values, from + count, tail);
+		if(shift != 0 || lineShift != 0){
+			for(int i = from + count; i < newSize; i++){
+				starts[i] += shift;
+				if(lines[i] > 0){
+					lines[i] += lineShift;
+				}
+				if(lineOffsets[i] >= 0){
+					lineOffsets[i] += shift;
+				}
+			}
+		}
+		System.arraycopy(entries.types, 0, types, from, count);
+		System.arraycopy(entries.starts, 0, starts, from, count);
+		System.arraycopy(entries.lengths, 0, lengths, from, count);
+		System.arraycopy(entries.values, 0, values, from, count);
+		System.arraycopy(entries.lines, 0, lines, from, count);
+		System.arraycopy(entries.indices, 0, indices, from, count);
+		System.arraycopy(entries.lineOffsets, 0, lineOffsets, from, count);
+		for(int i = 0; i < count; i++){
+			if(entries.types[i] == LEXICAL_ERROR){
+				lexemes[from + i] = errors.size();
+				errors.add(entries.errors.get(entries.lexemes[i]));
+				errorCount++;
+			}
+			else{
+				lexemes[from + i] = entries.lexemes[i];
+			}
+		}
+		size = newSize;
+		// Drop the errors of the entries replaced once they make up most of the list
+		if(errors.size() > 16 && errors.size() > 2 * errorCount){
+			ArrayList<LexicalError> live = new ArrayList<LexicalError>();
+			for(int i = 0; i < size; i++){
+				if(types[i] == LEXICAL_ERROR){
+					live.add(errors.get(lexemes[i]));
+					lexemes[i] = live.size() - 1;
+				}
+			}
+			errors.clear();
+			errors.addAll(live);
+		}
+	}
+
+	/** Replaces the LexicalError of entry i, which must hold one */
+	public void setError(int i, LexicalError error){
+		errors.set(lexemes[i], error);
+	}
+
+	/** Removes all the entries. The lexeme pool is kept */
+	public void clear(){
+		size = 0;
+		errors.clear();
+		errorCount = 0;
+	}
+
+	/** Returns the number of entries */
+	public int size(){
+		return size;
+	}
+
+	/** Returns the pool holding the lexemes */
+	public LexemePool getLexemes(){
+		return pool;
+	}
+
+	public int getType(int i){
+		return types[i];
+	}
+	public int getStart(int i){
+		return starts[i];
+	}
+	public int getLength(int i){
+		return lengths[i];
+	}
+	public int getLexeme(int i){
+		return lexemes[i];
+	}
+	/** Returns the value of a constant (see add()), or 0 */
+	public long getValue(int i){
+		return values[i];
+	}
+	public int getLine(int i){
+		return lines[i];
+	}
+	public int getIndex(int i){
+		return indices[i];
+	}
+	public int getLineOffset(int i){
+		return lineOffsets[i];
+	}
+
+	/** Returns the LexicalError held by entry i, whose type is LEXICAL_ERROR */
+	public LexicalError getError(int i){
+		return errors.get(lexemes[i]);
+	}
+
+	/** Makes room for at least the given number of entries, so that a buffer whose final
+	 *  size can be estimated does not have to grow while it is filled */
+	public void ensureCapacity(int capacity){
+		if(capacity > types.length){
+			resize(capacity);
+		}
+	}
+
+	/** Doubles the capacity of every column */
+	private void grow(){
+		resize(types.length * 2);
+	}
+
+	/** Changes the capacity of every column */
+	private void resize(int capacity){
+		types = Arrays.copyOf(types, capacity);
+		starts = Arrays.copyOf(starts, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+		lexemes = Arrays.copyOf(lexemes, capacity);
+		values = Arrays.copyOf(values, capacity);
+		lines = Arrays.copyOf(lines, capacity);
+		indices = Arrays.copyOf(indices, capacity);
+		lineOffsets = Arrays.copyOf(lineOffsets, capacity);
+	}
+}
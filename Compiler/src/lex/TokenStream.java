@@ -0,0 +1,35 @@
+package lex;
+import errors.*;
+import token.Token;
+
+/** A source of tokens for the parser. <br>
+ *  Implemented by the Tokenizer, which lexes tokens on demand, and by streams that
+ *  replay tokens lexed ahead of time (see PackedTokens). The position methods describe
+ *  the state of the lexer just after it returned the current token, and are used for
+ *  error messages. Errors hold the offset of the current token (see SourceLines), and
+ *  only look up the line holding it if they are printed.
+ */
+public interface TokenStream extends SourceLines {
+	/** Returns the next token from the input
+	 * @throws LexicalError if the input does not form a valid token */
+	public Token GetNextToken() throws LexicalError;
+	
+	/** Get the current line number. Used for error message printing */
+	public int getLineNumber();
+	
+	/** Get the current index number */
+	public int getIndexNumber();
+	
+	/** Get the current line as a String. Used for error message printing */
+	public String getCurrentLine();
+	
+	/** Returns the offset of the line getCurrentLine() returns, or -1 if it returns null */
+	public int getLineOffset();
+	
+	/** Returns the offset in the source of the first character of the current token */
+	public int getTokenOffset();
+	
+	/** Returns the pool holding the canonical Strings of the identifiers (and other
+	 *  lexemes) of this compilation */
+	public LexemePool getLexemes();
+}
@@ -1,44 +1,56 @@
 package lex;
+import java.io.PrintStream;
+
 import errors.*;
 import grammarsymbols.TokenType;
-import symboltable.KeywordEntry;
-import symboltable.SymbolTable;
 import token.*;
 
 /** The Lexical Analyzer Class */
-public class Tokenizer {
+public class Tokenizer implements TokenStream {
 	/** Maximum length of an identifier. */
-	private static final int MAX_LENGTH = 64;
-	private static final int TABLE_SIZE = 37;
+	protected static final int MAX_LENGTH = 64;
 	
-	/** A table for identifying reserved words */
-	private SymbolTable keywordTable;
 	/** An object to identify characters */
 	private Classification classification;
 	
 	/** Charstream used to get characters from the input */
-	private CharStream charStream;
+	protected CharStream charStream;
 	
 	/** Token kept for lookbehind. Needed to identify unary operators */
-	private Token previousToken;
+	protected Token previousToken;
+	/** Offset in the source of the first character of the last token read */
+	protected int tokenOffset;
+	/** Canonical Strings for the identifiers of this compilation */
+	protected LexemePool lexemes;
 	/** Buffer to store lexemes (characters encountered so far)*/
 	private StringBuilder buffer;
 	/** Char to store current character */
 	private char currentChar;
+	/** Sink for the diagnostics of the compilation */
+	private PrintStream diagnostics = System.out;
 	
 	/** Constructor for the lexical analyzer */
 	public Tokenizer(String file){
-		// Initializes and reserves words in the keyword table
-		keywordTable = new SymbolTable(TABLE_SIZE);
-		initializeTable();
+		// Initializes the charstream, and opens a file
+		this(new CharStream(file));
+	}
+
+	/** Constructor for the lexical analyzer. Reads a file, or a source held in memory */
+	public Tokenizer(Source source){
+		this(new CharStream(source));
+	}
+
+	/** Constructor for the lexical analyzer. Reads characters from an already opened
+	 *  CharStream, which may be any CharStream implementation (e.g. a ByteCharStream) */
+	public Tokenizer(CharStream stream){
 		// Gets the singleton instance of the Classification object.
 		classification = Classification.getInstance();
-		// Initializes the charstream, and opens a file
-		charStream = new CharStream(file);
+		charStream = stream;
 		if(!charStream.isOpen()){
 			System.err.println("An error occurred. The file is not open.");
 		}
 		previousToken = null;
+		lexemes = new LexemePool();
 		// Initializes the buffer
 		buffer = new StringBuilder();
 		// Initializes current char
@@ -60,37 +72,72 @@ public class Tokenizer {
 		return charStream.getCurrentLine();
 	}
 	
+	/** Returns the offset of the current line in the source */
+	public int getLineOffset(){
+		return charStream.currentLineOffset();
+	}
+	
+	/** Returns the offset in the source of the first character of the current token */
+	public int getTokenOffset(){
+		return tokenOffset;
+	}
+	
+	/** Returns the line of the source starting at the given offset */
+	public String lineAt(int offset){
+		return charStream.lineAt(offset);
+	}
+	
+	/** Returns the offset of the line of the source holding the given offset */
+	public int lineStart(int offset){
+		return charStream.lineStart(offset);
+	}
+	
+	/** Returns the number of the line of the source holding the given offset */
+	public int lineNumber(int offset){
+		return charStream.lineNumber(offset);
+	}
+	
+	/** Returns the pool holding the canonical Strings of the identifiers */
+	public LexemePool getLexemes(){
+		return lexemes;
+	}
+	
+	/** Sets the sink for the diagnostics of the compilation. The default is the standard output */
+	public void setDiagnostics(PrintStream diagnostics){
+		this.diagnostics = diagnostics;
+	}
+	
 	/** Pushes back character into input */
-	private void pushback(int ch){
+	protected void pushback(int ch){
 		charStream.pushBack(ch);
 	}
 	
 	/** Pushes back two dots into input. Used when we see a doubledot directly after a constant*/
-	private void doublePushback(){
+	protected void doublePushback(){
 		charStream.pushBack('.');
 		charStream.pushBack('.');
 	}
 	
 	/** Method to check if the string used for an identifier is reserved for a keyword. <br>
-	 *  Checks if the given string is in the Keyword Table
+	 *  Checks if the given string is in the shared Keywords table (ignoring case)
 	 * 
 	 * @param lexeme An identifier's value
 	 * @return true if the string is reserved for a keyword <br>
 	 *         false otherwise
 	 */
 	public boolean isKeyword(String lexeme){
-		return (keywordTable.lookup(lexeme) != null);
+		return Keywords.lookup(lexeme) != null;
 	}
 	
-	/** Returns the keyword token stored in the keyword table <br>
-	 *  We only have to create one instance of each keyword token
+	/** Returns the keyword token stored in the Keywords table <br>
+	 *  There is only one instance of each keyword token
 	 * 
 	 * @param lexeme The keyword string
-	 * @return The corresponding keyword token (a Token with TokenType == KEYWORD)
+	 * @return The corresponding keyword token (a Token with TokenType == KEYWORD),
+	 *         or null if the string is not a keyword
 	 */
 	public Token getKeyword(String lexeme){
-		KeywordEntry ke = (KeywordEntry)keywordTable.lookup(lexeme);
-		return ke.getToken();
+		return Keywords.lookup(lexeme);
 	}
 	
 	/** Upon seeing a '+' or '-', call this function to see if the operator is 
@@ -99,11 +146,17 @@ public class Tokenizer {
 	 *         an INTCONSTANT, or a REALCONSTANT.
 	 *         Returns false otherwise. 
 	 */
-	private boolean isBinaryOperator(){
-		return previousToken != null && 
-				(previousToken.type == TokenType.RIGHTPAREN || previousToken.type == TokenType.RIGHTBRACKET 
-				|| previousToken.type == TokenType.IDENTIFIER || previousToken.type == TokenType.INTCONSTANT
-				|| previousToken.type == TokenType.REALCONSTANT);
+	protected boolean isBinaryOperator(){
+		return previousToken != null && endsOperand(previousToken.type);
+	}
+	
+	/** Returns true if a '+' or '-' following a token of the given type is a binary operator:
+	 *  the type is a RIGHTPAREN, a RIGHTBRACKET, an IDENTIFIER, an INTCONSTANT, or a REALCONSTANT.
+	 */
+	protected static boolean endsOperand(TokenType type){
+		return type == TokenType.RIGHTPAREN || type == TokenType.RIGHTBRACKET 
+				|| type == TokenType.IDENTIFIER || type == TokenType.INTCONSTANT
+				|| type == TokenType.REALCONSTANT;
 	}
 
 // == Lexical Analysis Methods ===================================================================
@@ -119,14 +172,15 @@ public class Tokenizer {
 	 *  Calls <code>getChar()</code> repeatedly until we find a 
 	 *  string that corresponds to a token or we find a lexical 
 	 *  error. 
-	 * @return Any Token (except for Keyword Tokens)
+	 * @return Any Token, including Keyword Tokens
 	 * @throws LexicalError
 	 */
 	public Token assemble() throws LexicalError{
 		// Buffer is cleared to start
 		buffer = new StringBuilder();
-		// Get a new char from the input
+		// Get a new char from the input, which starts the token unless it is blank
 		currentChar = getChar();
+		tokenOffset = charStream.lastOffset();
 		// We first check if the character is the EOF marker. It is the only one
 		// that will not be within the ASCII range (below 256). 
 		if(isEndOfInput(currentChar)){
@@ -186,7 +240,7 @@ public class Tokenizer {
 				return new Token(TokenType.DOUBLEDOT);
 			}
 			else if(isLetterOrDigit(currentChar)){
-				throw LexicalError.IllegalDecimal(getLineNumber(), getCurrentLine());
+				throw LexicalError.IllegalDecimal(this, getTokenOffset());
 			}
 			else{
 				pushback(currentChar);
@@ -194,27 +248,17 @@ public class Tokenizer {
 			}
 		}
 		else{
-			throw LexicalError.IllegalCharacter(currentChar, getLineNumber(), getCurrentLine());
+			throw LexicalError.IllegalCharacter(currentChar, this, getTokenOffset());
 		}
 	} // End function
 	
-	/** Gets simple tokens from <code>assemble()</code>, and assigns types to keywords.
-	 *  Provides symbol table pointers for identifiers and constants. 
+	/** Gets tokens from <code>assemble()</code>, which already recognizes keywords,
+	 *  and remembers the token for distinguishing unary operators. 
 	 * @return A token with the proper type associated with it
 	 */
 	public Token GetNextToken() throws LexicalError{
 		// Call the assemble function
 		Token newToken = assemble();
-		// Must check if token is an identifier or a keyword
-		if(newToken.getType() == TokenType.IDENTIFIER){
-			// Get the lexeme value for the Token
-			String lexeme = newToken.getValue();
-			// If the string is indeed a keyword, 
-			// return the new Token
-			if(isKeyword(lexeme)){
-				newToken = getKeyword(lexeme); 
-			}
-		}
 		// Update the previous token. Used for distinguishing unary operators
 		previousToken = newToken;
 		return newToken;		
@@ -224,12 +268,16 @@ public class Tokenizer {
 //============================================================================================
 	
 	/** This subroutine is called when <code>assemble()</code> encounters a letter. 
-	 *  @return An identifier token 
+	 *  @return An identifier token, or a keyword token if the identifier is reserved
 	 *  @throws LexicalError IdentifierTooLong*/
 	private Token getIdentifierToken() throws LexicalError{
-		// Initialize the state, and append the previously seen letter to the buffer
+		// Initialize the state, and append the previously seen letter to the buffer.
+		// Letters are stored in upper case, and the hash code of the identifier is computed 
+		// as the characters are read
 		int state = 0;
-		buffer.append(currentChar);
+		char upper = toUpperCase(currentChar);
+		buffer.append(upper);
+		int hash = upper;
 		// Length of current identifier. If this number is greater than MAX_LENGTH, throw an error
 		int IDLength = 1;
 		// Loop infinitely
@@ -240,7 +288,9 @@ public class Tokenizer {
 				// If the current Char is either a letter or digit
 				// Don't change the state
 				if(isLetterOrDigit(currentChar)){
-					buffer.append(currentChar);
+					upper = toUpperCase(currentChar);
+					buffer.append(upper);
+					hash = 31 * hash + upper;
 					IDLength++;
 				}
 				// The next character is something else
@@ -255,15 +305,18 @@ public class Tokenizer {
 			case 1: {
 				// If the identifier is too long, throw an exception
 				if(IDLength > MAX_LENGTH){
-					throw LexicalError.IdentifierTooLong(getLineNumber(), getCurrentLine());
+					throw LexicalError.IdentifierTooLong(this, getTokenOffset());
 				}
 				// Otherwise the identifier is a correct length
 				// Return a new identifier token
 				else{
-					// Converts the string to all uppercase characters
-					// Create a new Identifier Token
-					String s = buffer.toString().toUpperCase();
-					return new Identifier(TokenType.IDENTIFIER, s);
+					// Keywords are looked up directly in the buffer, ignoring case
+					Token keyword = Keywords.lookup(buffer);
+					if(keyword != null){
+						return keyword;
+					}
+					// Create a new Identifier Token holding the canonical String for the name
+					return new Identifier(TokenType.IDENTIFIER, lexemes.canonical(buffer, hash), tokenOffset);
 				}
 			}
 			}
@@ -410,7 +463,7 @@ public class Tokenizer {
 				}
 				// Throw an exception if we have a non-E letter in this constant
 				else if(isLetter(currentChar)){
-					throw LexicalError.BadConstant(getLineNumber(), getCurrentLine());
+					throw LexicalError.BadConstant(this, getTokenOffset());
 				}
 				// Otherwise we see a delimeter. Return push back the character, move on to the int state
 				else{
@@ -435,13 +488,13 @@ public class Tokenizer {
 				}
 				// Otherwise, we have an error! A digit must follow a decimal
 				else{
-					throw LexicalError.IllegalFLoat(getLineNumber(), getCurrentLine());
+					throw LexicalError.IllegalFLoat(this, getTokenOffset());
 				}
 				break;
 			}
 			// We have an INTCONSTANT
 			case 3: {
-				return new Constant(TokenType.INTCONSTANT, buffer.toString());
+				return new Constant(buffer.toString(), Constant.intValue(buffer));
 			}
 			// We have a float constant on our hands
 			case 5: {
@@ -458,11 +511,11 @@ public class Tokenizer {
 				}
 				// If we see a different letter, throw an exception
 				else if(isLetter(currentChar)){
-					throw LexicalError.BadConstant(getLineNumber(), getCurrentLine());
+					throw LexicalError.BadConstant(this, getTokenOffset());
 				}
 				// Similarly, if we see another dot throw an exception
 				else if(currentChar == '.'){
-					throw LexicalError.IllegalFloat2(getLineNumber(), getCurrentLine());
+					throw LexicalError.IllegalFloat2(this, getTokenOffset());
 				}
 				// Otherwise we've seen a delimeter. We can now return a realconstant
 				else{
@@ -485,7 +538,7 @@ public class Tokenizer {
 					state = 8;
 				}
 				else{
-					throw LexicalError.IllegalExponent(getLineNumber(), getCurrentLine());
+					throw LexicalError.IllegalExponent(this, getTokenOffset());
 				}
 				break;
 			}
@@ -497,7 +550,7 @@ public class Tokenizer {
 					state = 8;
 				}
 				else{
-					throw LexicalError.IllegalExponent(getLineNumber(), getCurrentLine());
+					throw LexicalError.IllegalExponent(this, getTokenOffset());
 				}
 			}
 			// Saw a valid number following the 'E'
@@ -507,10 +560,10 @@ public class Tokenizer {
 					buffer.append(currentChar);
 				}
 				else if(currentChar == '.'){
-					throw LexicalError.IllegalExponent(getLineNumber(), getCurrentLine());
+					throw LexicalError.IllegalExponent(this, getTokenOffset());
 				}
 				else if(isLetter(currentChar)){
-					throw LexicalError.BadConstant(getLineNumber(), getCurrentLine());
+					throw LexicalError.BadConstant(this, getTokenOffset());
 				}
 				else{
 					pushback(currentChar);
@@ -520,7 +573,8 @@ public class Tokenizer {
 			}
 			// Found a realConstant! 
 			case 9: {
-				return new Constant(TokenType.REALCONSTANT, buffer.toString());
+				String lexeme = buffer.toString();
+				return new Constant(lexeme, Constant.realValue(lexeme));
 			}
 			default: {
 				return unexpectedInput();
@@ -534,11 +588,15 @@ public class Tokenizer {
 	 * @return an ERROR token
 	 */
 	private Token unexpectedInput(){
-		System.out.println("Unexpected Input for currentChar: " + currentChar);
+		diagnostics.println("Unexpected Input for currentChar: " + currentChar);
 		return new Token(TokenType.ERROR);
 	}
 // == Methods for character classification ====================================================
 // ============================================================================================
+	/** Converts an (ASCII) letter to upper case */
+	private char toUpperCase(char ch){
+		return (ch >= 'a' && ch <= 'z') ? (char)(ch - ('a' - 'A')) : ch;
+	}
 	private boolean isEndOfInput(char ch){
 		return ch == (char)CharStream.EOF;
 	}
@@ -566,30 +624,4 @@ public class Tokenizer {
 	private boolean isOperator(char ch){
 		return classification.isOperator(ch);
 	}
-	
-	/** Method to reserve the keywords in the program */
-	public void initializeTable(){
-		keywordTable.insert(new KeywordEntry("PROGRAM", new Token(TokenType.PROGRAM)));
-		keywordTable.insert(new KeywordEntry("BEGIN", new Token(TokenType.BEGIN)));
-		keywordTable.insert(new KeywordEntry("END", new Token(TokenType.END)));
-		keywordTable.insert(new KeywordEntry("VAR", new Token(TokenType.VAR)));
-		keywordTable.insert(new KeywordEntry("FUNCTION", new Token(TokenType.FUNCTION)));
-		keywordTable.insert(new KeywordEntry("PROCEDURE", new Token(TokenType.PROCEDURE)));
-		keywordTable.insert(new KeywordEntry("RESULT", new Token(TokenType.RESULT)));
-		keywordTable.insert(new KeywordEntry("INTEGER", new Token(TokenType.INTEGER)));
-		keywordTable.insert(new KeywordEntry("REAL", new Token(TokenType.REAL)));
-		keywordTable.insert(new KeywordEntry("ARRAY", new Token(TokenType.ARRAY)));
-		keywordTable.insert(new KeywordEntry("OF", new Token(TokenType.OF)));
-		keywordTable.insert(new KeywordEntry("IF", new Token(TokenType.IF)));
-		keywordTable.insert(new KeywordEntry("THEN", new Token(TokenType.THEN)));
-		keywordTable.insert(new KeywordEntry("ELSE", new Token(TokenType.ELSE)));
-		keywordTable.insert(new KeywordEntry("DO", new Token(TokenType.DO)));
-		keywordTable.insert(new KeywordEntry("WHILE", new Token(TokenType.WHILE)));
-		keywordTable.insert(new KeywordEntry("NOT", new Token(TokenType.NOT)));
-		// Reserve the operator keywords
-		keywordTable.insert(new KeywordEntry("OR", new Operator(TokenType.ADDOP, "OR")));
-		keywordTable.insert(new KeywordEntry("DIV", new Operator(TokenType.MULOP, "DIV")));
-		keywordTable.insert(new KeywordEntry("MOD", new Operator(TokenType.MULOP, "MOD")));
-		keywordTable.insert(new KeywordEntry("AND", new Operator(TokenType.MULOP, "AND")));
-	}
 }
@@ -0,0 +1,78 @@
+package parser;
+import java.io.*;
+
+import semanticActions.Quadruples;
+
+/** The outputs of one compilation: a sink for the generated TVI code, and a sink for the
+ *  diagnostics (error messages, error recovery, and "Compilation successful"). A Parser and
+ *  its SemanticActions write nothing but to the Compilation they are given, so compilations
+ *  running on different threads of one process do not share any output. <br>
+ *  console() is the output of the command line compiler: the diagnostics and the code go
+ *  to the standard output, and the code is written to out.tvi as well.
+ */
+public class Compilation {
+	/** File the code of a console compilation is written to */
+	public static final String TVI_FILE = "out.tvi";
+
+	/** Sink for the diagnostics */
+	private final PrintStream diagnostics;
+	/** Sink for the code, or null */
+	private final PrintStream code;
+	/** File the code is written to as well, or null */
+	private final File codeFile;
+
+	/** Constructor. The code is printed to the code sink, if it is not null */
+	public Compilation(PrintStream diagnostics, PrintStream code){
+		this(diagnostics, code, null);
+	}
+
+	/** Constructor. The code is printed to the code sink, if it is not null, and written to
+	 *  the code file, if it is not null. The file is only created if the compilation succeeds */
+	public Compilation(PrintStream diagnostics, PrintStream code, File codeFile){
+		this.diagnostics = diagnostics;
+		this.code = code;
+		this.codeFile = codeFile;
+	}
+
+	/** Returns a compilation printing to the current standard output, and writing the code
+	 *  to out.tvi in the working directory */
+	public static Compilation console(){
+		return new Compilation(System.out, System.out, new File(TVI_FILE));
+	}
+
+	/** Returns the sink for the diagnostics */
+	public PrintStream getDiagnostics(){
+		return diagnostics;
+	}
+
+	/** Writes the code generated by a successful compilation to the code sink, and to the
+	 *  code file. A failure to write the code file is printed to the diagnostics.
+	 *  @return false if the code file could not be written */
+	public boolean emit(Quadruples quads){
+		boolean written = true;
+		if(code != null){
+			quads.print(code);
+			code.flush();
+		}
+		if(codeFile != null){
+			try{
+				PrintStream file = new PrintStream(new BufferedOutputStream(new FileOutputStream(codeFile)));
+				try{
+					quads.print(file);
+					// PrintStream swallows write errors
+					written = !file.checkError();
+				}finally{
+					file.close();
+				}
+				if(!written){
+					diagnostics.println("Could not write the code to " + codeFile);
+				}
+			}catch(FileNotFoundException e){
+				diagnostics.println("Could not write the code to " + codeFile + ": " + e.getMessage());
+				written = false;
+			}
+		}
+		diagnostics.flush();
+		return written;
+	}
+}
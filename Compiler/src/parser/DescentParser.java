@@ -0,0 +1,1496 @@
+package parser;
+import errors.CompilerError;
+
+/** Recursive-descent parser for the grammar, for the DESCENT engine of the Parser: one
+ *  method per NonTerminal, which parses the tokens the NonTerminal derives. The parser
+ *  reads the tokens, and executes the semantic actions, through the Parser. On an error
+ *  the methods unwind, adding the rest of their productions to the Parser.Unwind, and
+ *  the Parser finishes the parse with its table-driven loop.
+ *  Generated by parser.Grammar from pascal.grammar: edit the grammar, not this file. */
+final class DescentParser {
+
+	private final Parser parser;
+
+	DescentParser(Parser parser){
+		this.parser = parser;
+	}
+
+	// <program> ::= PROGRAM IDENTIFIER LEFTPAREN <identifier_list> RIGHTPAREN #9 SEMICOLON <declarations> <sub_declarations> #56 <compound_statement> #55
+	void program() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 0:	// PROGRAM
+				parser.expanded();
+				p = 1;
+				at = 0;
+				parser.match(0);	// PROGRAM
+				at = 1;
+				parser.match(17);	// IDENTIFIER
+				at = 2;
+				parser.match(28);	// LEFTPAREN
+				at = 3;
+				identifier_list();
+				at = 4;
+				parser.match(27);	// RIGHTPAREN
+				parser.execute(9);
+				at = 6;
+				parser.match(25);	// SEMICOLON
+				at = 7;
+				declarations();
+				at = 8;
+				sub_declarations();
+				parser.execute(56);
+				at = 10;
+				compound_statement();
+				parser.execute(55);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 0);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <identifier_list> ::= IDENTIFIER #13 <identifier_list_tail>
+	void identifier_list() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 2;
+				at = 0;
+				parser.match(17);	// IDENTIFIER
+				parser.execute(13);
+				at = 2;
+				identifier_list_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 1);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <declarations> ::= VAR #1 <declaration_list> #2
+	// <declarations> ::=
+	void declarations() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 1:	// BEGIN
+			case 4:	// FUNCTION
+			case 5:	// PROCEDURE
+				return;
+			case 3:	// VAR
+				parser.expanded();
+				p = 5;
+				at = 0;
+				parser.match(3);	// VAR
+				parser.execute(1);
+				at = 2;
+				declaration_list();
+				parser.execute(2);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 2);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <sub_declarations> ::= <subprogram_declaration> <sub_declarations>
+	// <sub_declarations> ::=
+	void sub_declarations() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 1:	// BEGIN
+					return;
+				case 4:	// FUNCTION
+				case 5:	// PROCEDURE
+					parser.expanded();
+					p = 15;
+					at = 0;
+					subprogram_declaration();
+					continue;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 3);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <compound_statement> ::= BEGIN <statement_list> END
+	void compound_statement() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 1:	// BEGIN
+				parser.expanded();
+				p = 25;
+				at = 0;
+				parser.match(1);	// BEGIN
+				at = 1;
+				statement_list();
+				at = 2;
+				parser.match(2);	// END
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 4);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <identifier_list_tail> ::= COMMA IDENTIFIER #13 <identifier_list_tail>
+	// <identifier_list_tail> ::=
+	void identifier_list_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 24:	// COMMA
+					parser.expanded();
+					p = 3;
+					at = 0;
+					parser.match(24);	// COMMA
+					at = 1;
+					parser.match(17);	// IDENTIFIER
+					parser.execute(13);
+					continue;
+				case 26:	// COLON
+				case 27:	// RIGHTPAREN
+					return;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 5);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <declaration_list> ::= <identifier_list> COLON <type> #3 SEMICOLON <declaration_list_tail>
+	void declaration_list() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 7;
+				at = 0;
+				identifier_list();
+				at = 1;
+				parser.match(26);	// COLON
+				at = 2;
+				type();
+				parser.execute(3);
+				at = 4;
+				parser.match(25);	// SEMICOLON
+				at = 5;
+				declaration_list_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 6);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <type> ::= <standard_type>
+	// <type> ::= <array_type>
+	void type() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 7:	// INTEGER
+			case 8:	// REAL
+				parser.expanded();
+				p = 10;
+				at = 0;
+				standard_type();
+				return;
+			case 9:	// ARRAY
+				parser.expanded();
+				p = 11;
+				at = 0;
+				array_type();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 7);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <declaration_list_tail> ::= <identifier_list> COLON <type> #3 SEMICOLON <declaration_list_tail>
+	// <declaration_list_tail> ::=
+	void declaration_list_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 1:	// BEGIN
+				case 4:	// FUNCTION
+				case 5:	// PROCEDURE
+					return;
+				case 17:	// IDENTIFIER
+					parser.expanded();
+					p = 8;
+					at = 0;
+					identifier_list();
+					at = 1;
+					parser.match(26);	// COLON
+					at = 2;
+					type();
+					parser.execute(3);
+					at = 4;
+					parser.match(25);	// SEMICOLON
+					continue;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 8);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <standard_type> ::= INTEGER #4
+	// <standard_type> ::= REAL #4
+	void standard_type() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 7:	// INTEGER
+				parser.expanded();
+				p = 12;
+				at = 0;
+				parser.match(7);	// INTEGER
+				parser.execute(4);
+				return;
+			case 8:	// REAL
+				parser.expanded();
+				p = 13;
+				at = 0;
+				parser.match(8);	// REAL
+				parser.execute(4);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 9);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <array_type> ::= #6 ARRAY LEFTBRACKET INTCONSTANT #7 DOUBLEDOT INTCONSTANT #7 RIGHTBRACKET OF <standard_type>
+	void array_type() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 9:	// ARRAY
+				parser.expanded();
+				p = 14;
+				parser.execute(6);
+				at = 1;
+				parser.match(9);	// ARRAY
+				at = 2;
+				parser.match(30);	// LEFTBRACKET
+				at = 3;
+				parser.match(18);	// INTCONSTANT
+				parser.execute(7);
+				at = 5;
+				parser.match(33);	// DOUBLEDOT
+				at = 6;
+				parser.match(18);	// INTCONSTANT
+				parser.execute(7);
+				at = 8;
+				parser.match(29);	// RIGHTBRACKET
+				at = 9;
+				parser.match(10);	// OF
+				at = 10;
+				standard_type();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 10);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <subprogram_declaration> ::= #1 <subprogram_head> <declarations> #5 <compound_statement> #11
+	void subprogram_declaration() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 4:	// FUNCTION
+			case 5:	// PROCEDURE
+				parser.expanded();
+				p = 17;
+				parser.execute(1);
+				at = 1;
+				subprogram_head();
+				at = 2;
+				declarations();
+				parser.execute(5);
+				at = 4;
+				compound_statement();
+				parser.execute(11);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 11);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <subprogram_head> ::= FUNCTION IDENTIFIER #15 <arguments> COLON RESULT <standard_type> SEMICOLON #16
+	// <subprogram_head> ::= PROCEDURE IDENTIFIER #17 <arguments> SEMICOLON
+	void subprogram_head() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 4:	// FUNCTION
+				parser.expanded();
+				p = 18;
+				at = 0;
+				parser.match(4);	// FUNCTION
+				at = 1;
+				parser.match(17);	// IDENTIFIER
+				parser.execute(15);
+				at = 3;
+				arguments();
+				at = 4;
+				parser.match(26);	// COLON
+				at = 5;
+				parser.match(6);	// RESULT
+				at = 6;
+				standard_type();
+				at = 7;
+				parser.match(25);	// SEMICOLON
+				parser.execute(16);
+				return;
+			case 5:	// PROCEDURE
+				parser.expanded();
+				p = 19;
+				at = 0;
+				parser.match(5);	// PROCEDURE
+				at = 1;
+				parser.match(17);	// IDENTIFIER
+				parser.execute(17);
+				at = 3;
+				arguments();
+				at = 4;
+				parser.match(25);	// SEMICOLON
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 12);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <arguments> ::= LEFTPAREN #19 <parameter_list> RIGHTPAREN #20
+	// <arguments> ::=
+	void arguments() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 25:	// SEMICOLON
+			case 26:	// COLON
+				return;
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 20;
+				at = 0;
+				parser.match(28);	// LEFTPAREN
+				parser.execute(19);
+				at = 2;
+				parameter_list();
+				at = 3;
+				parser.match(27);	// RIGHTPAREN
+				parser.execute(20);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 13);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <parameter_list> ::= <identifier_list> COLON <type> #21 <parameter_list_tail>
+	void parameter_list() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 22;
+				at = 0;
+				identifier_list();
+				at = 1;
+				parser.match(26);	// COLON
+				at = 2;
+				type();
+				parser.execute(21);
+				at = 4;
+				parameter_list_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 14);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <parameter_list_tail> ::= SEMICOLON <identifier_list> COLON <type> #21 <parameter_list_tail>
+	// <parameter_list_tail> ::=
+	void parameter_list_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 25:	// SEMICOLON
+					parser.expanded();
+					p = 23;
+					at = 0;
+					parser.match(25);	// SEMICOLON
+					at = 1;
+					identifier_list();
+					at = 2;
+					parser.match(26);	// COLON
+					at = 3;
+					type();
+					parser.execute(21);
+					continue;
+				case 27:	// RIGHTPAREN
+					return;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 15);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <statement_list> ::= <statement> <statement_list_tail>
+	void statement_list() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 1:	// BEGIN
+			case 11:	// IF
+			case 14:	// WHILE
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 26;
+				at = 0;
+				statement();
+				at = 1;
+				statement_list_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 16);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <statement> ::= <elementary_statement>
+	// <statement> ::= IF <expression> #22 THEN <statement> <else_clause>
+	// <statement> ::= WHILE #24 <expression> #25 DO <statement> #26
+	void statement() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 1:	// BEGIN
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 29;
+				at = 0;
+				elementary_statement();
+				return;
+			case 11:	// IF
+				parser.expanded();
+				p = 30;
+				at = 0;
+				parser.match(11);	// IF
+				at = 1;
+				expression();
+				parser.execute(22);
+				at = 3;
+				parser.match(12);	// THEN
+				at = 4;
+				statement();
+				at = 5;
+				else_clause();
+				return;
+			case 14:	// WHILE
+				parser.expanded();
+				p = 31;
+				at = 0;
+				parser.match(14);	// WHILE
+				parser.execute(24);
+				at = 2;
+				expression();
+				parser.execute(25);
+				at = 4;
+				parser.match(15);	// DO
+				at = 5;
+				statement();
+				parser.execute(26);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 17);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <statement_list_tail> ::= SEMICOLON <statement> <statement_list_tail>
+	// <statement_list_tail> ::=
+	void statement_list_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 2:	// END
+					return;
+				case 25:	// SEMICOLON
+					parser.expanded();
+					p = 27;
+					at = 0;
+					parser.match(25);	// SEMICOLON
+					at = 1;
+					statement();
+					continue;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 18);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <elementary_statement> ::= IDENTIFIER #30 <es_tail>
+	// <elementary_statement> ::= <compound_statement>
+	void elementary_statement() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 1:	// BEGIN
+				parser.expanded();
+				p = 35;
+				at = 0;
+				compound_statement();
+				return;
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 34;
+				at = 0;
+				parser.match(17);	// IDENTIFIER
+				parser.execute(30);
+				at = 2;
+				es_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 19);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <expression> ::= <simple_expression> <expression_tail>
+	void expression() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 16:	// NOT
+			case 17:	// IDENTIFIER
+			case 18:	// INTCONSTANT
+			case 19:	// REALCONSTANT
+			case 28:	// LEFTPAREN
+			case 31:	// UNARYMINUS
+			case 32:	// UNARYPLUS
+				parser.expanded();
+				p = 45;
+				at = 0;
+				simple_expression();
+				at = 1;
+				expression_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 20);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <else_clause> ::= ELSE #27 <statement> #28
+	// <else_clause> ::= #29
+	void else_clause() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 25:	// SEMICOLON
+				parser.expanded();
+				p = 33;
+				parser.execute(29);
+				return;
+			case 13:	// ELSE
+				parser.expanded();
+				p = 32;
+				at = 0;
+				parser.match(13);	// ELSE
+				parser.execute(27);
+				at = 2;
+				statement();
+				parser.execute(28);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 21);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <es_tail> ::= #53 <subscript> ASSIGNOP <expression> #31
+	// <es_tail> ::= #54 <parameters>
+	void es_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 13:	// ELSE
+			case 25:	// SEMICOLON
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 37;
+				parser.execute(54);
+				at = 1;
+				parameters();
+				return;
+			case 23:	// ASSIGNOP
+			case 30:	// LEFTBRACKET
+				parser.expanded();
+				p = 36;
+				parser.execute(53);
+				at = 1;
+				subscript();
+				at = 2;
+				parser.match(23);	// ASSIGNOP
+				at = 3;
+				expression();
+				parser.execute(31);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 22);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <subscript> ::= #32 LEFTBRACKET <expression> RIGHTBRACKET #33
+	// <subscript> ::= #34
+	void subscript() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 12:	// THEN
+			case 13:	// ELSE
+			case 15:	// DO
+			case 20:	// RELOP
+			case 21:	// MULOP
+			case 22:	// ADDOP
+			case 23:	// ASSIGNOP
+			case 24:	// COMMA
+			case 25:	// SEMICOLON
+			case 27:	// RIGHTPAREN
+			case 29:	// RIGHTBRACKET
+				parser.expanded();
+				p = 39;
+				parser.execute(34);
+				return;
+			case 30:	// LEFTBRACKET
+				parser.expanded();
+				p = 38;
+				parser.execute(32);
+				at = 1;
+				parser.match(30);	// LEFTBRACKET
+				at = 2;
+				expression();
+				at = 3;
+				parser.match(29);	// RIGHTBRACKET
+				parser.execute(33);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 23);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <parameters> ::= #35 LEFTPAREN <expression_list> RIGHTPAREN #51
+	// <parameters> ::= #36
+	void parameters() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 13:	// ELSE
+			case 25:	// SEMICOLON
+				parser.expanded();
+				p = 41;
+				parser.execute(36);
+				return;
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 40;
+				parser.execute(35);
+				at = 1;
+				parser.match(28);	// LEFTPAREN
+				at = 2;
+				expression_list();
+				at = 3;
+				parser.match(27);	// RIGHTPAREN
+				parser.execute(51);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 24);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <expression_list> ::= <expression> #37 <expression_list_tail>
+	void expression_list() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 16:	// NOT
+			case 17:	// IDENTIFIER
+			case 18:	// INTCONSTANT
+			case 19:	// REALCONSTANT
+			case 28:	// LEFTPAREN
+			case 31:	// UNARYMINUS
+			case 32:	// UNARYPLUS
+				parser.expanded();
+				p = 42;
+				at = 0;
+				expression();
+				parser.execute(37);
+				at = 2;
+				expression_list_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 25);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <expression_list_tail> ::= COMMA <expression> #37 <expression_list_tail>
+	// <expression_list_tail> ::=
+	void expression_list_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 24:	// COMMA
+					parser.expanded();
+					p = 43;
+					at = 0;
+					parser.match(24);	// COMMA
+					at = 1;
+					expression();
+					parser.execute(37);
+					continue;
+				case 27:	// RIGHTPAREN
+					return;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 26);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <simple_expression> ::= <term> <simple_expression_tail>
+	// <simple_expression> ::= <sign> #40 <term> #41 <simple_expression_tail>
+	void simple_expression() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 16:	// NOT
+			case 17:	// IDENTIFIER
+			case 18:	// INTCONSTANT
+			case 19:	// REALCONSTANT
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 48;
+				at = 0;
+				term();
+				at = 1;
+				simple_expression_tail();
+				return;
+			case 31:	// UNARYMINUS
+			case 32:	// UNARYPLUS
+				parser.expanded();
+				p = 49;
+				at = 0;
+				sign();
+				parser.execute(40);
+				at = 2;
+				term();
+				parser.execute(41);
+				at = 4;
+				simple_expression_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 27);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <expression_tail> ::= RELOP #38 <simple_expression> #39
+	// <expression_tail> ::=
+	void expression_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 12:	// THEN
+			case 13:	// ELSE
+			case 15:	// DO
+			case 24:	// COMMA
+			case 25:	// SEMICOLON
+			case 27:	// RIGHTPAREN
+			case 29:	// RIGHTBRACKET
+				return;
+			case 20:	// RELOP
+				parser.expanded();
+				p = 46;
+				at = 0;
+				parser.match(20);	// RELOP
+				parser.execute(38);
+				at = 2;
+				simple_expression();
+				parser.execute(39);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 28);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <term> ::= <factor> <term_tail>
+	void term() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 16:	// NOT
+			case 17:	// IDENTIFIER
+			case 18:	// INTCONSTANT
+			case 19:	// REALCONSTANT
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 52;
+				at = 0;
+				factor();
+				at = 1;
+				term_tail();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 29);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <simple_expression_tail> ::= ADDOP #42 <term> #43 <simple_expression_tail>
+	// <simple_expression_tail> ::=
+	void simple_expression_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 2:	// END
+				case 12:	// THEN
+				case 13:	// ELSE
+				case 15:	// DO
+				case 20:	// RELOP
+				case 24:	// COMMA
+				case 25:	// SEMICOLON
+				case 27:	// RIGHTPAREN
+				case 29:	// RIGHTBRACKET
+					return;
+				case 22:	// ADDOP
+					parser.expanded();
+					p = 50;
+					at = 0;
+					parser.match(22);	// ADDOP
+					parser.execute(42);
+					at = 2;
+					term();
+					parser.execute(43);
+					continue;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 30);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <sign> ::= UNARYPLUS
+	// <sign> ::= UNARYMINUS
+	void sign() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 31:	// UNARYMINUS
+				parser.expanded();
+				p = 64;
+				at = 0;
+				parser.match(31);	// UNARYMINUS
+				return;
+			case 32:	// UNARYPLUS
+				parser.expanded();
+				p = 63;
+				at = 0;
+				parser.match(32);	// UNARYPLUS
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 31);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <factor> ::= IDENTIFIER #46 <factor_tail>
+	// <factor> ::= <constant> #46
+	// <factor> ::= LEFTPAREN <expression> RIGHTPAREN
+	// <factor> ::= NOT <factor> #47
+	void factor() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 16:	// NOT
+				parser.expanded();
+				p = 58;
+				at = 0;
+				parser.match(16);	// NOT
+				at = 1;
+				factor();
+				parser.execute(47);
+				return;
+			case 17:	// IDENTIFIER
+				parser.expanded();
+				p = 55;
+				at = 0;
+				parser.match(17);	// IDENTIFIER
+				parser.execute(46);
+				at = 2;
+				factor_tail();
+				return;
+			case 18:	// INTCONSTANT
+			case 19:	// REALCONSTANT
+				parser.expanded();
+				p = 56;
+				at = 0;
+				constant();
+				parser.execute(46);
+				return;
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 57;
+				at = 0;
+				parser.match(28);	// LEFTPAREN
+				at = 1;
+				expression();
+				at = 2;
+				parser.match(27);	// RIGHTPAREN
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 32);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <term_tail> ::= MULOP #44 <factor> #45 <term_tail>
+	// <term_tail> ::=
+	void term_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			while(true){
+				p = 0;
+				switch(parser.lookahead()){
+				case 2:	// END
+				case 12:	// THEN
+				case 13:	// ELSE
+				case 15:	// DO
+				case 20:	// RELOP
+				case 22:	// ADDOP
+				case 24:	// COMMA
+				case 25:	// SEMICOLON
+				case 27:	// RIGHTPAREN
+				case 29:	// RIGHTBRACKET
+					return;
+				case 21:	// MULOP
+					parser.expanded();
+					p = 53;
+					at = 0;
+					parser.match(21);	// MULOP
+					parser.execute(44);
+					at = 2;
+					factor();
+					parser.execute(45);
+					continue;
+				case 35:	// ENDOFFILE
+				case 36:	// FILE
+				case 37:	// ERROR
+					parser.expanded();
+					return;
+				default:
+					throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 33);
+				}
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <factor_tail> ::= <actual_parameters>
+	// <factor_tail> ::= <subscript> #48
+	void factor_tail() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 12:	// THEN
+			case 13:	// ELSE
+			case 15:	// DO
+			case 20:	// RELOP
+			case 21:	// MULOP
+			case 22:	// ADDOP
+			case 24:	// COMMA
+			case 25:	// SEMICOLON
+			case 27:	// RIGHTPAREN
+			case 29:	// RIGHTBRACKET
+			case 30:	// LEFTBRACKET
+				parser.expanded();
+				p = 60;
+				at = 0;
+				subscript();
+				parser.execute(48);
+				return;
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 59;
+				at = 0;
+				actual_parameters();
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 34);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <actual_parameters> ::= #49 LEFTPAREN <expression_list> RIGHTPAREN #50
+	// <actual_parameters> ::= #52
+	void actual_parameters() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 2:	// END
+			case 12:	// THEN
+			case 13:	// ELSE
+			case 15:	// DO
+			case 20:	// RELOP
+			case 21:	// MULOP
+			case 22:	// ADDOP
+			case 24:	// COMMA
+			case 25:	// SEMICOLON
+			case 27:	// RIGHTPAREN
+			case 29:	// RIGHTBRACKET
+				parser.expanded();
+				p = 62;
+				parser.execute(52);
+				return;
+			case 28:	// LEFTPAREN
+				parser.expanded();
+				p = 61;
+				parser.execute(49);
+				at = 1;
+				parser.match(28);	// LEFTPAREN
+				at = 2;
+				expression_list();
+				at = 3;
+				parser.match(27);	// RIGHTPAREN
+				parser.execute(50);
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 35);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <Goal> ::= <program> ENDMARKER
+	void Goal() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 0:	// PROGRAM
+				parser.expanded();
+				p = 65;
+				at = 0;
+				program();
+				at = 1;
+				parser.match(34);	// ENDMARKER
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 36);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+
+	// <constant> ::= INTCONSTANT
+	// <constant> ::= REALCONSTANT
+	void constant() throws CompilerError{
+		int p = 0;	// production being parsed
+		int at = 0;	// position in the production
+		try{
+			switch(parser.lookahead()){
+			case 18:	// INTCONSTANT
+				parser.expanded();
+				p = 66;
+				at = 0;
+				parser.match(18);	// INTCONSTANT
+				return;
+			case 19:	// REALCONSTANT
+				parser.expanded();
+				p = 67;
+				at = 0;
+				parser.match(19);	// REALCONSTANT
+				return;
+			case 35:	// ENDOFFILE
+			case 36:	// FILE
+			case 37:	// ERROR
+				parser.expanded();
+				return;
+			default:
+				throw new Parser.Unwind(PackedGrammar.NONTERMINAL | 37);
+			}
+		}catch(Parser.Unwind u){
+			u.pending(p, at);
+			throw u;
+		}
+	}
+}
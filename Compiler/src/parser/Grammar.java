@@ -0,0 +1,631 @@
+package parser;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import grammarsymbols.*;
+
+/** An LL(1) grammar read from a grammar file (see pascal.grammar for the format), and the
+ *  tables the parser generates from it. <br>
+ *  The generator computes the nullable NonTerminals and the FIRST and FOLLOW sets, and from
+ *  them the parse table: the entry for a NonTerminal A and a token t is the production of A
+ *  whose right hand side starts with t, or derives the empty string when t can follow A.
+ *  An entry claimed by two productions is an LL(1) conflict: the grammar file must settle
+ *  it with a %resolve line, or the tables are not generated. Entries no production claims
+ *  hold an error code (see ParseTable), and the rows of tokens which do not appear in the
+ *  grammar are 0. <br>
+ *  The synchronizing set of each NonTerminal, for error recovery, is its FOLLOW set plus
+ *  the tokens of the %sync line. <br>
+ *  main() writes the parse table (parsetable.bin), RHSTable.java and the recursive-descent
+ *  parser DescentParser.java from pascal.grammar.
+ */
+public class Grammar {
+	/** Name of the grammar of the compiler, a resource next to this class */
+	public static final String RESOURCE = "pascal.grammar";
+	/** Number of TokenTypes, and of NonTerminals */
+	private static final int SIZE = ParseTable.SIZE;
+
+	/** The start symbol */
+	private NonTerminal start;
+	/** Tokens added to every synchronizing set */
+	private final EnumSet<TokenType> syncTokens = EnumSet.noneOf(TokenType.class);
+	/** Left and right hand side of each production, indexed by production number. Entry 0
+	 *  is an empty dummy production */
+	private final List<NonTerminal> left = new ArrayList<NonTerminal>();
+	private final List<GrammarSymbol[]> right = new ArrayList<GrammarSymbol[]>();
+	/** Production chosen for each conflict settled in the grammar file, keyed by
+	 *  NonTerminal index * SIZE + TokenType index */
+	private final Map<Integer, Integer> resolutions = new HashMap<Integer, Integer>();
+	/** Production chosen for every conflict of a NonTerminal, when settled for all tokens */
+	private final Map<NonTerminal, Integer> preferences = new EnumMap<NonTerminal, Integer>(NonTerminal.class);
+	/** The tokens that appear in the productions */
+	private final EnumSet<TokenType> terminals = EnumSet.noneOf(TokenType.class);
+
+	// Computed from the productions
+	private final EnumSet<NonTerminal> nullable = EnumSet.noneOf(NonTerminal.class);
+	private final Map<NonTerminal, EnumSet<TokenType>> first = new EnumMap<NonTerminal, EnumSet<TokenType>>(NonTerminal.class);
+	private final Map<NonTerminal, EnumSet<TokenType>> follow = new EnumMap<NonTerminal, EnumSet<TokenType>>(NonTerminal.class);
+	/** The parse table, indexed by TokenType and NonTerminal */
+	private final int[][] table = new int[SIZE][SIZE];
+	/** Descriptions of the conflicts the grammar file does not settle */
+	private final List<String> conflicts = new ArrayList<String>();
+
+	/** Reads a grammar and computes its tables
+	 * @param in The grammar file
+	 * @param name Name of the grammar file, for error messages
+	 * @throws IllegalArgumentException if the grammar file is not well formed
+	 */
+	public Grammar(Reader in, String name) throws IOException{
+		left.add(null);
+		right.add(new GrammarSymbol[0]);
+		read(new BufferedReader(in), name);
+		for(NonTerminal a: NonTerminal.values()){
+			first.put(a, EnumSet.noneOf(TokenType.class));
+			follow.put(a, EnumSet.noneOf(TokenType.class));
+		}
+		computeFirst();
+		computeFollow();
+		computeTable();
+	}
+
+	/** Reads the grammar of the compiler from the classpath */
+	public static Grammar load(){
+		InputStream in = Grammar.class.getResourceAsStream(RESOURCE);
+		if(in == null){
+			throw new IllegalStateException(RESOURCE + " is not on the classpath");
+		}
+		try{
+			try{
+				return new Grammar(new InputStreamReader(in, StandardCharsets.UTF_8), RESOURCE);
+			}finally{
+				in.close();
+			}
+		}catch(IOException e){
+			throw new IllegalStateException("Cannot read " + RESOURCE, e);
+		}
+	}
+
+	/** Reads the lines of a grammar file */
+	private void read(BufferedReader in, String name) throws IOException{
+		String line;
+		int number = 0;
+		while((line = in.readLine()) != null){
+			number++;
+			int comment = line.indexOf("//");
+			if(comment >= 0){
+				line = line.substring(0, comment);
+			}
+			String[] words = line.trim().split("\\s+");
+			if(words[0].isEmpty()){
+				continue;
+			}
+			String where = name + ":" + number + ": ";
+			try{
+				if(words[0].equals("%start") && words.length == 2){
+					start = nonTerminal(words[1]);
+				}
+				else if(words[0].equals("%sync")){
+					for(int i = 1; i < words.length; i++){
+						syncTokens.add(TokenType.valueOf(words[i]));
+					}
+				}
+				else if(words[0].equals("%resolve") && words.length == 4){
+					NonTerminal a = nonTerminal(words[1]);
+					int p = Integer.parseInt(words[3]);
+					if(words[2].equals("*")){
+						preferences.put(a, p);
+					}
+					else{
+						resolutions.put(a.getIndex() * SIZE + TokenType.valueOf(words[2]).getIndex(), p);
+					}
+				}
+				else if(words.length >= 2 && words[1].equals("::=")){
+					left.add(nonTerminal(words[0]));
+					GrammarSymbol[] rule = new GrammarSymbol[words.length - 2];
+					for(int i = 2; i < words.length; i++){
+						rule[i - 2] = symbol(words[i]);
+						if(rule[i - 2].isToken()){
+							terminals.add((TokenType)rule[i - 2]);
+						}
+					}
+					right.add(rule);
+				}
+				else{
+					throw new IllegalArgumentException("Expected a production or a directive: " + line.trim());
+				}
+			}catch(IllegalArgumentException e){
+				throw new IllegalArgumentException(where + e.getMessage(), e);
+			}
+		}
+		if(start == null){
+			throw new IllegalArgumentException(name + ": no %start symbol");
+		}
+		for(Map.Entry<Integer, Integer> resolution: resolutions.entrySet()){
+			checkProduction(name, NonTerminal.values()[resolution.getKey() / SIZE], resolution.getValue());
+		}
+		for(Map.Entry<NonTerminal, Integer> preference: preferences.entrySet()){
+			checkProduction(name, preference.getKey(), preference.getValue());
+		}
+	}
+
+	/** Checks that a %resolve line names a production of its NonTerminal */
+	private void checkProduction(String name, NonTerminal a, int p){
+		if(p < 1 || p >= left.size() || left.get(p) != a){
+			throw new IllegalArgumentException(name + ": %resolve <" + a + "> names production " + p
+					+ ", which is not one of its productions");
+		}
+	}
+
+	/** Returns the NonTerminal written as &lt;name&gt; */
+	private static NonTerminal nonTerminal(String word){
+		if(!word.startsWith("<") || !word.endsWith(">")){
+			throw new IllegalArgumentException("Expected a NonTerminal: " + word);
+		}
+		return NonTerminal.valueOf(word.substring(1, word.length() - 1));
+	}
+
+	/** Returns the symbol written as &lt;name&gt;, #n or NAME */
+	private static GrammarSymbol symbol(String word){
+		if(word.startsWith("<")){
+			return nonTerminal(word);
+		}
+		if(word.startsWith("#")){
+			return SemanticAction.valueOf("action" + word.substring(1));
+		}
+		return TokenType.valueOf(word);
+	}
+
+	/** Computes the nullable NonTerminals and the FIRST sets */
+	private void computeFirst(){
+		boolean changed = true;
+		while(changed){
+			changed = false;
+			for(int p = 1; p < left.size(); p++){
+				NonTerminal a = left.get(p);
+				EnumSet<TokenType> set = first.get(a);
+				int size = set.size();
+				if(firstOf(right.get(p), 0, set) && nullable.add(a)){
+					changed = true;
+				}
+				changed |= set.size() != size;
+			}
+		}
+	}
+
+	/** Computes the FOLLOW sets */
+	private void computeFollow(){
+		follow.get(start).add(TokenType.ENDOFFILE);
+		boolean changed = true;
+		while(changed){
+			changed = false;
+			for(int p = 1; p < left.size(); p++){
+				GrammarSymbol[] rule = right.get(p);
+				for(int i = 0; i < rule.length; i++){
+					if(rule[i].isNonTerminal()){
+						EnumSet<TokenType> set = follow.get((NonTerminal)rule[i]);
+						int size = set.size();
+						if(firstOf(rule, i + 1, set)){
+							set.addAll(follow.get(left.get(p)));
+						}
+						changed |= set.size() != size;
+					}
+				}
+			}
+		}
+	}
+
+	/** Adds the FIRST set of the symbols of a right hand side from index from on to a set
+	 * @return true if those symbols derive the empty string */
+	private boolean firstOf(GrammarSymbol[] rule, int from, EnumSet<TokenType> into){
+		for(int i = from; i < rule.length; i++){
+			if(rule[i].isToken()){
+				into.add((TokenType)rule[i]);
+				return false;
+			}
+			if(rule[i].isNonTerminal()){
+				into.addAll(first.get((NonTerminal)rule[i]));
+				if(!nullable.contains((NonTerminal)rule[i])){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/** Fills the parse table, recording the conflicts that are not settled */
+	private void computeTable(){
+		for(TokenType t: terminals){
+			for(NonTerminal a: NonTerminal.values()){
+				table[t.getIndex()][a.getIndex()] = errorCode(a);
+			}
+		}
+		Set<Integer> resolved = new HashSet<Integer>();
+		Set<NonTerminal> preferred = EnumSet.noneOf(NonTerminal.class);
+		for(int p = 1; p < left.size(); p++){
+			NonTerminal a = left.get(p);
+			EnumSet<TokenType> lookahead = EnumSet.noneOf(TokenType.class);
+			if(firstOf(right.get(p), 0, lookahead)){
+				lookahead.addAll(follow.get(a));
+			}
+			lookahead.retainAll(terminals);
+			for(TokenType t: lookahead){
+				int old = table[t.getIndex()][a.getIndex()];
+				int key = a.getIndex() * SIZE + t.getIndex();
+				if(old < ParseTable.ERRORCODE && old != code(p)){
+					Integer choice = resolutions.get(key);
+					if(choice != null){
+						resolved.add(key);
+					}
+					else if((choice = preferences.get(a)) != null){
+						preferred.add(a);
+					}
+					else{
+						conflicts.add("<" + a + "> on " + t + ": productions " + Math.abs(old) + " and " + p);
+						continue;
+					}
+					table[t.getIndex()][a.getIndex()] = code(choice);
+				}
+				else{
+					table[t.getIndex()][a.getIndex()] = code(p);
+				}
+			}
+		}
+		for(int key: resolutions.keySet()){
+			if(!resolved.contains(key)){
+				conflicts.add("%resolve <" + NonTerminal.values()[key / SIZE] + "> " + TokenType.values()[key % SIZE]
+						+ " settles no conflict");
+			}
+		}
+		for(NonTerminal a: preferences.keySet()){
+			if(!preferred.contains(a)){
+				conflicts.add("%resolve <" + a + "> * settles no conflict");
+			}
+		}
+	}
+
+	/** Returns the code of production p in the parse table: its number, negated if its
+	 *  right hand side is empty */
+	private int code(int p){
+		return right.get(p).length == 0 ? -p : p;
+	}
+
+	/** Returns the error code for a NonTerminal on the stack. The code indexes the error
+	 *  messages of the ParseTable */
+	private static int errorCode(NonTerminal a){
+		// <program> has the same message as <Goal>: the program does not start with PROGRAM
+		if(a == NonTerminal.program){
+			a = NonTerminal.Goal;
+		}
+		return ParseTable.ERRORCODE + a.getIndex();
+	}
+
+	/** Returns the number of productions, including the dummy production 0 */
+	public int size(){
+		return right.size();
+	}
+
+	/** Returns the left hand side of production p */
+	public NonTerminal getLeft(int p){
+		return left.get(p);
+	}
+
+	/** Returns the right hand side of production p */
+	public GrammarSymbol[] getRule(int p){
+		return right.get(p).clone();
+	}
+
+	/** Returns the start symbol */
+	public NonTerminal getStart(){
+		return start;
+	}
+
+	/** Returns true if a NonTerminal derives the empty string */
+	public boolean isNullable(NonTerminal a){
+		return nullable.contains(a);
+	}
+
+	/** Returns the tokens a NonTerminal's expansions can start with */
+	public EnumSet<TokenType> getFirst(NonTerminal a){
+		return first.get(a).clone();
+	}
+
+	/** Returns the tokens that can follow a NonTerminal. ENDOFFILE follows the start symbol */
+	public EnumSet<TokenType> getFollow(NonTerminal a){
+		return follow.get(a).clone();
+	}
+
+	/** Returns the tokens at which recovery from an error in a NonTerminal can resume */
+	public EnumSet<TokenType> getSyncSet(NonTerminal a){
+		EnumSet<TokenType> set = getFollow(a);
+		set.addAll(syncTokens);
+		return set;
+	}
+
+	/** Returns the LL(1) conflicts the grammar file does not settle. The tables of a
+	 *  grammar with conflicts are incomplete */
+	public List<String> getConflicts(){
+		return Collections.unmodifiableList(conflicts);
+	}
+
+	/** Returns the code of the parse table for a token and a NonTerminal on the stack */
+	public int getCode(TokenType t, NonTerminal a){
+		return table[t.getIndex()][a.getIndex()];
+	}
+
+	/** Writes RHSTable.java, holding the right hand sides of the productions */
+	public void writeRHSTable(Writer out) throws IOException{
+		PrintWriter java = new PrintWriter(out);
+		java.println("package parser;");
+		java.println("import grammarsymbols.*;");
+		java.println();
+		java.println("/** Right hand sides of the productions of the grammar, indexed by production number.");
+		java.println(" *  The table is never changed once it is built, so parsers on any number of threads");
+		java.println(" *  share one instance (see getInstance()).");
+		java.println(" *  Generated by parser.Grammar from " + RESOURCE + ": edit the grammar, not this file. */");
+		java.println("public class RHSTable {");
+		java.println();
+		java.println("\tprivate final GrammarSymbol[][] rules;");
+		java.println("\t");
+		java.println("\t/** The table shared by every parser, built the first time it is needed */");
+		java.println("\tprivate static final class Shared {");
+		java.println("\t\tstatic final RHSTable INSTANCE = new RHSTable();");
+		java.println("\t}");
+		java.println("\t");
+		java.println("\tpublic RHSTable()");
+		java.println("\t{");
+		java.println("\t\trules = init();");
+		java.println("\t}");
+		java.println();
+		java.println("\t/** Returns the table shared by every parser */");
+		java.println("\tpublic static RHSTable getInstance()");
+		java.println("\t{");
+		java.println("\t\treturn Shared.INSTANCE;");
+		java.println("\t}");
+		java.println();
+		java.println("\tprivate static GrammarSymbol[][] init()");
+		java.println("\t   {");
+		java.println("\t\t   return new GrammarSymbol [][]  {");
+		java.println("//dummy element 0");
+		java.print("\t\t\t\t   {}");
+		for(int p = 1; p < right.size(); p++){
+			java.println(",");
+			java.println("//production " + p + "\t<" + left.get(p) + ">");
+			StringBuilder line = new StringBuilder("\t\t\t\t   {");
+			GrammarSymbol[] rule = right.get(p);
+			for(int i = 0; i < rule.length; i++){
+				String symbol = " " + qualifiedName(rule[i]) + (i < rule.length - 1 ? "," : " ");
+				if(line.length() + symbol.length() > 100){
+					java.println(line);
+					line = new StringBuilder("\t\t\t\t\t  ");
+				}
+				line.append(symbol);
+			}
+			java.print(line.append("}"));
+		}
+		java.println();
+		java.println("\t\t\t      };");
+		java.println("\t   }");
+		java.println();
+		java.println("\t   /** Returns a copy of the right hand side of production n */");
+		java.println("\t   public GrammarSymbol[] getRule(int n)");
+		java.println("\t   {");
+		java.println("\t\t\t\t   return rules[n].clone();");
+		java.println("\t   }");
+		java.println();
+		java.println("\t   /** Returns the right hand side of production n, for the parser. It must not be changed */");
+		java.println("\t   GrammarSymbol[] rule(int n)");
+		java.println("\t   {");
+		java.println("\t\t\t\t   return rules[n];");
+		java.println("\t   }");
+		java.println();
+		java.println("\t   /** Returns the number of productions, including the dummy production 0 */");
+		java.println("\t   int size()");
+		java.println("\t   {");
+		java.println("\t\t\t\t   return rules.length;");
+		java.println("\t   }");
+		java.println();
+		java.println("\t   public void dumpTable()");
+		java.println("\t   {");
+		java.println("\t      for (int i = 1; i < rules.length; ++i)");
+		java.println("\t      {");
+		java.println("\t         System.out.print(\"RULE : \");");
+		java.println("\t         GrammarSymbol[] rule = getRule(i);");
+		java.println("\t         for (GrammarSymbol j : rule)");
+		java.println("\t         {");
+		java.println("\t            System.out.print(\" \" + j);");
+		java.println("\t         }");
+		java.println("\t         System.out.println();");
+		java.println("\t      }");
+		java.println("\t   }");
+		java.println("\t   ");
+		java.println("\t   public void printrule(int n)");
+		java.println("\t   {");
+		java.println("\t         GrammarSymbol[] rule = getRule(n);");
+		java.println("\t         ");
+		java.println("\t         System.out.print(\"Rule \" + n);");
+		java.println("\t         for (GrammarSymbol j : rule)");
+		java.println("\t         {");
+		java.println("\t            System.out.print(\" \" + j);");
+		java.println("\t         }");
+		java.println("\t         System.out.println();");
+		java.println("\t    }  ");
+		java.println("\t   }");
+		java.flush();
+	}
+
+	/** Writes DescentParser.java, a recursive-descent parser for the grammar: one method per
+	 *  NonTerminal, which switches on the type code of the current token to the production
+	 *  the parse table gives, and matches its tokens, calls the methods of its NonTerminals
+	 *  and executes its semantic actions in turn. A production which ends with the
+	 *  NonTerminal it expands loops instead of calling itself. The methods track the
+	 *  position they have reached in their production, which they add to a Parser.Unwind
+	 *  passing through them when the parser meets an error. */
+	public void writeDescentParser(Writer out) throws IOException{
+		PrintWriter java = new PrintWriter(out);
+		TokenType[] tokens = TokenType.values();
+		java.println("package parser;");
+		java.println("import errors.CompilerError;");
+		java.println();
+		java.println("/** Recursive-descent parser for the grammar, for the DESCENT engine of the Parser: one");
+		java.println(" *  method per NonTerminal, which parses the tokens the NonTerminal derives. The parser");
+		java.println(" *  reads the tokens, and executes the semantic actions, through the Parser. On an error");
+		java.println(" *  the methods unwind, adding the rest of their productions to the Parser.Unwind, and");
+		java.println(" *  the Parser finishes the parse with its table-driven loop.");
+		java.println(" *  Generated by parser.Grammar from " + RESOURCE + ": edit the grammar, not this file. */");
+		java.println("final class DescentParser {");
+		java.println();
+		java.println("	private final Parser parser;");
+		java.println();
+		java.println("	DescentParser(Parser parser){");
+		java.println("		this.parser = parser;");
+		java.println("	}");
+		for(NonTerminal a: NonTerminal.values()){
+			// Group the tokens by code, in order of first appearance
+			Map<Integer, List<TokenType>> cases = new LinkedHashMap<Integer, List<TokenType>>();
+			boolean loops = false;
+			for(TokenType t: tokens){
+				int code = table[t.getIndex()][a.getIndex()];
+				if(code >= ParseTable.ERRORCODE){
+					continue;
+				}
+				// Empty productions need not be told apart
+				Integer key = code < 0 ? -1 : code;
+				if(!cases.containsKey(key)){
+					cases.put(key, new ArrayList<TokenType>());
+					GrammarSymbol[] rule = right.get(Math.max(code, 0));
+					loops |= rule.length > 0 && rule[rule.length - 1] == a;
+				}
+				cases.get(key).add(t);
+			}
+			String indent = loops ? "				" : "			";
+			java.println();
+			for(int p = 1; p < right.size(); p++){
+				if(left.get(p) == a){
+					java.println("	// " + production(p));
+				}
+			}
+			java.println("	void " + a + "() throws CompilerError{");
+			java.println("		int p = 0;	// production being parsed");
+			java.println("		int at = 0;	// position in the production");
+			java.println("		try{");
+			if(loops){
+				java.println("			while(true){");
+				java.println("				p = 0;");
+			}
+			java.println(indent + "switch(parser.lookahead()){");
+			for(Map.Entry<Integer, List<TokenType>> entry: cases.entrySet()){
+				for(TokenType t: entry.getValue()){
+					java.println(indent + "case " + t.getIndex() + ":	// " + t);
+				}
+				int code = entry.getKey();
+				String body = indent + "	";
+				if(code < 0){
+					java.println(body + "return;");
+					continue;
+				}
+				java.println(body + "parser.expanded();");
+				GrammarSymbol[] rule = right.get(code);
+				if(rule.length > 0){
+					java.println(body + "p = " + code + ";");
+				}
+				boolean tail = false;
+				for(int i = 0; i < rule.length; i++){
+					GrammarSymbol symbol = rule[i];
+					if(symbol.isAction()){
+						java.println(body + "parser.execute(" + symbol.getIndex() + ");");
+					}
+					else if(symbol == a && i == rule.length - 1){
+						tail = true;
+					}
+					else{
+						java.println(body + "at = " + i + ";");
+						java.println(body + (symbol.isToken() ? "parser.match(" + symbol.getIndex() + ");	// " + symbol
+								: symbol + "();"));
+					}
+				}
+				java.println(body + (tail ? "continue;" : "return;"));
+			}
+			java.println(indent + "default:");
+			java.println(indent + "	throw new Parser.Unwind(PackedGrammar.NONTERMINAL | " + a.getIndex() + ");");
+			java.println(indent + "}");
+			if(loops){
+				java.println("			}");
+			}
+			java.println("		}catch(Parser.Unwind u){");
+			java.println("			u.pending(p, at);");
+			java.println("			throw u;");
+			java.println("		}");
+			java.println("	}");
+		}
+		java.println("}");
+		java.flush();
+	}
+
+	/** Returns production p in the form of the grammar file */
+	private String production(int p){
+		StringBuilder text = new StringBuilder("<" + left.get(p) + "> ::=");
+		for(GrammarSymbol symbol: right.get(p)){
+			text.append(' ');
+			if(symbol.isToken()){
+				text.append(symbol);
+			}
+			else if(symbol.isNonTerminal()){
+				text.append('<').append(symbol).append('>');
+			}
+			else{
+				text.append('#').append(symbol.getIndex());
+			}
+		}
+		return text.toString();
+	}
+
+	/** Returns a symbol as Java source */
+	private static String qualifiedName(GrammarSymbol symbol){
+		String type = symbol.isToken() ? "TokenType" : symbol.isNonTerminal() ? "NonTerminal" : "SemanticAction";
+		return type + "." + symbol;
+	}
+
+	/** Generates the parse table, RHSTable.java and DescentParser.java from a grammar file.
+	 *  Run when the grammar changes, from the project directory. Nothing is written if the
+	 *  grammar has conflicts.
+	 *  @param args The grammar file and the directory to write to, by default
+	 *  src/parser/pascal.grammar and src/parser */
+	public static void main(String[] args) throws IOException{
+		String file = args.length > 0 ? args[0] : "src/parser/" + RESOURCE;
+		File directory = new File(args.length > 1 ? args[1] : "src/parser");
+		Grammar grammar;
+		Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try{
+			grammar = new Grammar(in, file);
+		}finally{
+			in.close();
+		}
+		if(!grammar.getConflicts().isEmpty()){
+			for(String conflict: grammar.getConflicts()){
+				System.err.println(file + ": conflict: " + conflict);
+			}
+			System.err.println("Nothing written");
+			System.exit(1);
+		}
+		OutputStream table = new FileOutputStream(new File(directory, ParseTable.RESOURCE));
+		try{
+			new ParseTable(grammar).write(table);
+		}finally{
+			table.close();
+		}
+		Writer rhs = new OutputStreamWriter(new FileOutputStream(new File(directory, "RHSTable.java")), StandardCharsets.UTF_8);
+		try{
+			grammar.writeRHSTable(rhs);
+		}finally{
+			rhs.close();
+		}
+		Writer descent = new OutputStreamWriter(new FileOutputStream(new File(directory, "DescentParser.java")), StandardCharsets.UTF_8);
+		try{
+			grammar.writeDescentParser(descent);
+		}finally{
+			descent.close();
+		}
+		System.out.println("Wrote " + new File(directory, ParseTable.RESOURCE) + ", " + new File(directory, "RHSTable.java")
+				+ " and " + new File(directory, "DescentParser.java"));
+	}
+}
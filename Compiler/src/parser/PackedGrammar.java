@@ -0,0 +1,123 @@
+package parser;
+import grammarsymbols.*;
+
+/** The parse table and the right hand sides of the productions, with every grammar symbol
+ *  encoded as an int, for the ENCODED engine of the Parser. <br>
+ *  The kind of a symbol is held in the bits above TAG_SHIFT and its index (see
+ *  GrammarSymbol.getIndex()) in the bits below, so a token is encoded as its type code.
+ *  The table is a single array indexed by <code>type * SIZE + nonterminal</code>, and the
+ *  right hand sides are stored reversed, one after the other, in a single array, so a
+ *  production is pushed on the stack by copying its slice. <br>
+ *  The tables are built once, from the shared ParseTable, and are never changed.
+ */
+public final class PackedGrammar {
+	/** Position of the tag in an encoded symbol */
+	public static final int TAG_SHIFT = 24;
+	/** Bits of an encoded symbol holding its tag */
+	public static final int TAG_MASK = ~0 << TAG_SHIFT;
+	/** Bits of an encoded symbol holding its index */
+	public static final int INDEX_MASK = ~TAG_MASK;
+	/** Tag of a token */
+	public static final int TOKEN = 0;
+	/** Tag of a NonTerminal */
+	public static final int NONTERMINAL = 1 << TAG_SHIFT;
+	/** Tag of a semantic action */
+	public static final int ACTION = 2 << TAG_SHIFT;
+	/** Number of rows and of columns of the table */
+	public static final int SIZE = ParseTable.SIZE;
+
+	/** Grammar symbols, indexed by tag and index, for decoding */
+	private static final TokenType[] TOKENS = TokenType.values();
+	private static final NonTerminal[] NONTERMINALS = NonTerminal.values();
+	private static final SemanticAction[] ACTIONS = new SemanticAction[SemanticAction.action51Read.getIndex() + 1];
+	static{
+		for(SemanticAction action: SemanticAction.values()){
+			ACTIONS[action.getIndex()] = action;
+		}
+	}
+
+	/** Codes of the parse table, indexed by type * SIZE + nonterminal */
+	private final int[] table;
+	/** Encoded right hand sides, each one reversed */
+	private final int[] rhs;
+	/** Start of the right hand side of each production in rhs; the last entry is its length */
+	private final int[] rhsStart;
+
+	/** The tables shared by every parser, built the first time they are needed */
+	private static final class Shared {
+		static final PackedGrammar INSTANCE = new PackedGrammar(ParseTable.getInstance(), RHSTable.getInstance());
+	}
+
+	/** Constructor. Encodes a parse table and its productions */
+	PackedGrammar(ParseTable parseTable, RHSTable rhsTable){
+		table = new int[SIZE * SIZE];
+		for(int row = 0; row < SIZE; row++){
+			for(int column = 0; column < SIZE; column++){
+				table[row * SIZE + column] = parseTable.getCode(row, column);
+			}
+		}
+		int size = rhsTable.size();
+		rhsStart = new int[size + 1];
+		for(int p = 0; p < size; p++){
+			rhsStart[p + 1] = rhsStart[p] + rhsTable.rule(p).length;
+		}
+		rhs = new int[rhsStart[size]];
+		for(int p = 0; p < size; p++){
+			GrammarSymbol[] rule = rhsTable.rule(p);
+			for(int i = 0; i < rule.length; i++){
+				rhs[rhsStart[p] + rule.length - 1 - i] = encode(rule[i]);
+			}
+		}
+	}
+
+	/** Returns the tables shared by every parser */
+	public static PackedGrammar getInstance(){
+		return Shared.INSTANCE;
+	}
+
+	/** Returns the int encoding a grammar symbol */
+	public static int encode(GrammarSymbol symbol){
+		if(symbol.isToken()){
+			return TOKEN | symbol.getIndex();
+		}
+		else if(symbol.isNonTerminal()){
+			return NONTERMINAL | symbol.getIndex();
+		}
+		return ACTION | symbol.getIndex();
+	}
+
+	/** Returns the grammar symbol an int encodes */
+	public static GrammarSymbol decode(int symbol){
+		int index = symbol & INDEX_MASK;
+		switch(symbol & TAG_MASK){
+		case TOKEN:
+			return TOKENS[index];
+		case NONTERMINAL:
+			return NONTERMINALS[index];
+		default:
+			return ACTIONS[index];
+		}
+	}
+
+	/** Returns the code of the table for a token type code and the index of a NonTerminal:
+	 *  a production number, a negative number for an empty production, or an error code */
+	public int getCode(int type, int nonterminal){
+		return table[type * SIZE + nonterminal];
+	}
+
+	/** Returns the flat table, indexed by type * SIZE + nonterminal. It must not be changed. */
+	int[] table(){
+		return table;
+	}
+
+	/** Returns the encoded right hand sides, each one reversed. It must not be changed. */
+	int[] rhs(){
+		return rhs;
+	}
+
+	/** Returns the start of each right hand side in rhs(), followed by the length of rhs().
+	 *  It must not be changed. */
+	int[] rhsStart(){
+		return rhsStart;
+	}
+}
@@ -1,6 +1,5 @@
 package parser;
 import java.io.*;
-import java.util.Scanner;
 import grammarsymbols.*;
 
 
@@ -9,35 +8,101 @@ import grammarsymbols.*;
  * a Stack Symbol (Grammar Symbol: a NonTerminal). Each entry in this matrix 
  * consists of an integer code representing either a production number, 
  * an accept action indicator, or an error indicator. 
+ * The table is generated from the grammar (see Grammar) into a binary resource, which 
+ * is loaded from the classpath once, into the instance shared by every parser. A table 
+ * is never changed once it is built, so parsers on any number of threads can share it. 
  * @author kentahasui
  *
  */
 public class ParseTable {
 	// A two-dimensional array
-	public int[][] matrix;
+	private final int[][] matrix;
 	// Array of error messages
-	public String[] errors;
+	private final String[] errors;
 	// number of Token Types (Terminal Types), which is conveniently the number of NonTerminal Types
-	public final int SIZE = 38;
+	public static final int SIZE = 38;
 	// The integer code that represents an error
-	public final int ERRORCODE = 999;
+	public static final int ERRORCODE = 999;
 	
-	/** Constructor. Initializes the table */
+	/** Name of the binary form of the table, a resource next to this class */
+	public static final String RESOURCE = "parsetable.bin";
+	/** First int of the binary form */
+	private static final int MAGIC = 0x50544232;	// "PTB2"
+	
+	/** Synchronizing set of each NonTerminal, as a bit mask of TokenType indices */
+	private final long[] syncSets;
+	
+	/** The table shared by every parser, loaded the first time it is needed */
+	private static final class Shared {
+		static final ParseTable INSTANCE = load();
+	}
+	
+	/** Constructor. Initializes a table holding the codes of the shared table. 
+	 *  Parsers use the shared table itself (see getInstance()). */
 	public ParseTable(){
-		initializeTable();
+		ParseTable shared = getInstance();
+		matrix = shared.matrix;
+		errors = shared.errors;
+		syncSets = shared.syncSets;
 	}
 	
-	/** Creates and fills the table */
-	private void initializeTable(){
-		// Create the parse table
+	/** Constructor. Initializes the table generated from a grammar */
+	ParseTable(Grammar grammar){
 		matrix = new int[SIZE][SIZE];
-		// Create the error table
-		errors = new String[SIZE];
-		// Fill the parse table
-		fillTable();
-		// Fill the error table
-		fillErrorTable();
-		//printTable();
+		errors = errorTable();
+		syncSets = new long[SIZE];
+		for(TokenType t: TokenType.values()){
+			for(NonTerminal a: NonTerminal.values()){
+				matrix[t.getIndex()][a.getIndex()] = grammar.getCode(t, a);
+			}
+		}
+		for(NonTerminal a: NonTerminal.values()){
+			for(TokenType t: grammar.getSyncSet(a)){
+				syncSets[a.getIndex()] |= 1L << t.getIndex();
+			}
+		}
+	}
+	
+	/** Constructor. Initializes the table from its binary form */
+	private ParseTable(DataInputStream data) throws IOException{
+		matrix = new int[SIZE][SIZE];
+		errors = errorTable();
+		syncSets = new long[SIZE];
+		if(data.readInt() != MAGIC || data.readInt() != SIZE){
+			throw new IOException(RESOURCE + " is not a parse table of size " + SIZE);
+		}
+		for(int row = 0; row < SIZE; row++){
+			for(int column = 0; column < SIZE; column++){
+				matrix[row][column] = data.readShort();
+			}
+		}
+		for(int column = 0; column < SIZE; column++){
+			syncSets[column] = data.readLong();
+		}
+	}
+	
+	/** Returns the table shared by every parser */
+	public static ParseTable getInstance(){
+		return Shared.INSTANCE;
+	}
+	
+	/** Loads the binary form of the table from the classpath, wherever the compiler is run 
+	 *  from. If there is none, generates the table from the grammar on the classpath. */
+	private static ParseTable load(){
+		InputStream in = ParseTable.class.getResourceAsStream(RESOURCE);
+		if(in == null){
+			return new ParseTable(Grammar.load());
+		}
+		try {
+			DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+			try{
+				return new ParseTable(data);
+			}finally{
+				data.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot load " + RESOURCE, e);
+		}
 	}
 	
 	/** Returns a specific error message from the values in the error table */
@@ -53,54 +118,30 @@ public class ParseTable {
 		}
 	}
 	
-	/** Method to fill the parse table with the appropriate values. 
-	 * This method uses a Scanner to fill the table using the 
-	 * resources/parsetable-2const.dat file
-	 */
-	private void fillTable(){
-		// Holds the current indices of the matrix
-		int row = 0;
-		int column = 0;
-		// Parse the file
-		try {
-			Scanner scanner = new Scanner(new File("resources/parsetable-2const.dat"));
-			while(scanner.hasNextInt()){
-				// Update indices
-				if(column >= SIZE){
-					column = 0;
-					row++;
-				}
-				int code = scanner.nextInt();
-				// Add appropriate error codes
-				if(code == ERRORCODE){
-					code = getErrorCode(column);
-				}
-				matrix[row][column] = code;
-				column++;
+	/** Writes the binary form of the table: MAGIC, SIZE, every code of the matrix 
+	 *  (error codes included) as a short, row by row, then the synchronizing set of 
+	 *  each NonTerminal as a long */
+	public void write(OutputStream out) throws IOException{
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(SIZE);
+		for(int[] row: matrix){
+			for(int code: row){
+				data.writeShort(code);
 			}
-			scanner.close();
-		} catch (FileNotFoundException e1) {
-			System.out.println("The file is not found, and cannot be opened");
-			e1.printStackTrace();
 		}
+		for(long set: syncSets){
+			data.writeLong(set);
+		}
+		data.flush();
 	}
 	
-	/** Method to get an number to index into the error table. 
-	 * Depends on the nonterminal on the top of the stack 
-	 */
-	private int getErrorCode(int column){
-		int value = ERRORCODE;
-		switch(column){
-		// <Program> or <Goal> is on stack, but next token is not 'PROGRAM'
-		case 0:{
-			value = ERRORCODE + 36;
-			break;
-		}
-		default:{
-			value = ERRORCODE + column;
-		}
-		}
-		return value;
+	/** Returns true if the parser can resume at a token after an error in a NonTerminal: 
+	 *  if the token can follow the NonTerminal, or always ends a statement or a block. 
+	 *  Panic-mode recovery in the Parser does not use the sets yet: it skips to ';', END, 
+	 *  or the end of the file */
+	public boolean isSynchronizing(TokenType t, NonTerminal a){
+		return (syncSets[a.getIndex()] & (1L << t.getIndex())) != 0;
 	}
 	
 	/** Method to get the value at the specified column and row 
@@ -127,11 +168,12 @@ public class ParseTable {
 		}
 	}
 	
-	/** Method that fills the error array with specific error messages. 
+	/** Method that creates the error array, filled with specific error messages. 
 	 *  These messages will be helpful to the user.
 	 *  The error code specified in the parse table will determine which error message is returned
 	 */
-	private void fillErrorTable(){
+	private static String[] errorTable(){
+		String[] errors = new String[SIZE];
 		errors[0] = "UNKNOWN_ERROR";
 		// <identifier-list> is on stack, but next token is not 'IDENTIFIER'
 		errors[NonTerminal.identifier_list.getIndex()] = "Missing an identifier";
@@ -243,6 +285,7 @@ public class ParseTable {
 		// <constant> on stack
 		errors[NonTerminal.constant.getIndex()] = 
 				"A constant must either be an integer or a real number";
+		return errors;
 	}
 
 }
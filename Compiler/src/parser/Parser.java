@@ -9,19 +9,40 @@ import errors.*;
 import grammarsymbols.*;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class Parser {
 	
+	/** Parser engines: TABLE works on GrammarSymbols, with a stack of them, 
+	 *  ENCODED works on grammar symbols encoded as ints (see PackedGrammar), with a stack of ints, 
+	 *  and DESCENT runs the recursive-descent parser generated from the grammar (see DescentParser). 
+	 *  All of them parse a program the same way. */
+	public enum Engine { TABLE, ENCODED, DESCENT }
+	
 	private ArrayDeque<GrammarSymbol> stack;	// Stack of grammar symbols
 	private RHSTable rhsTable;					// Table for right hand side productions
 	private ParseTable parseTable;				// Parse Table
-	private Tokenizer lexer;					// Lexical Analyzer
-	private Token currentToken;					// Current Token
+	private PackedGrammar packedGrammar;		// Parse Table and RHSTable, encoded as ints
+	private Engine engine = Engine.TABLE;		// Engine running the parse
+	private int[] encodedStack;					// Stack of encoded grammar symbols
+	private int top;							// Number of symbols on the encoded stack
+	private long productions;					// Number of productions expanded by the last parse
+	private TokenStream lexer;					// Lexical Analyzer
+	private PackedTokens packed;				// The lexer, if it replays packed tokens
+	private TokenType currentType;				// Type of the current token
+	private int currentCode;					// Type code of the current token
+	private Token currentToken;					// Current Token (null for packed tokens)
 	private Token prevToken;
+	private int prevIndex;						// Index of the previous packed token
 	private GrammarSymbol predicted;			// Next predicted grammar symbol
 	private final boolean DUMPSTACK = false;		// Flag to dump the stack upon error
 	private SemanticActions semanticActions;
+	private Compilation compilation;			// Outputs of the compilation
+	private PrintStream diagnostics;			// Sink for the diagnostics of the compilation
+	/** Token types, indexed by type code */
+	private static final TokenType[] TYPES = TokenType.values();
 	
 	/** Private Constructor for the parser. 
 	 * Initializes the stack of grammar symbols, the RHSTable, and the ParseTable.
@@ -29,8 +50,9 @@ public class Parser {
 	 */
 	private Parser(){
 		stack = new ArrayDeque<GrammarSymbol>();
-		rhsTable = new RHSTable();
-		parseTable = new ParseTable();
+		rhsTable = RHSTable.getInstance();
+		parseTable = ParseTable.getInstance();
+		packedGrammar = PackedGrammar.getInstance();
 	}
 	
 	/** Constructor for the parser. 
@@ -39,18 +61,112 @@ public class Parser {
 	 * Initializes the lexical analyzer to return tokens from the file given.
 	 */
 	public Parser(String fileName){
+		this(new Tokenizer(fileName));
+	}
+	
+	/** Constructor for the parser. 
+	 * Initializes the lexical analyzer to return tokens from the given source, which 
+	 * may be a file or a program held in memory. 
+	 */
+	public Parser(Source source){
+		this(new Tokenizer(source));
+	}
+	
+	/** Constructor for the parser. 
+	 * Parses the tokens returned by an existing lexical analyzer, which can be 
+	 * reading from any CharStream implementation. 
+	 * If the tokens are PackedTokens, the parser works on their type codes, and only
+	 * creates Token objects for the semantic actions which use them.
+	 * The output goes to the standard output and to out.tvi (see Compilation.console()).
+	 */
+	public Parser(TokenStream lexer){
+		this(lexer, Compilation.console());
+	}
+	
+	/** Constructor for the parser. 
+	 * Parses the tokens returned by an existing lexical analyzer, and writes the 
+	 * diagnostics and the generated code to the sinks of the given compilation only.
+	 */
+	public Parser(TokenStream lexer, Compilation compilation){
 		this();
-		lexer = new Tokenizer(fileName);
+		this.lexer = lexer;
+		this.compilation = compilation;
+		this.diagnostics = compilation.getDiagnostics();
+		if(lexer instanceof PackedTokens){
+			packed = (PackedTokens)lexer;
+		}
+		if(lexer instanceof Tokenizer){
+			((Tokenizer)lexer).setDiagnostics(diagnostics);
+		}
 		semanticActions = new SemanticActions(this);
 	}
 	
+	/** Reads the next token from the lexical analyzer into currentType (and currentToken). */
+	private void nextToken() throws LexicalError{
+		if(packed != null){
+			currentCode = packed.nextType();
+			currentType = TYPES[currentCode];
+		}
+		else{
+			currentToken = lexer.GetNextToken();
+			currentType = currentToken.getType();
+			currentCode = currentType.getIndex();
+		}
+	}
+	
+	/** Selects the engine running the parse. The default is Engine.TABLE. */
+	public void setEngine(Engine engine){
+		this.engine = engine;
+	}
+	
+	/** Returns the engine running the parse */
+	public Engine getEngine(){
+		return engine;
+	}
+	
+	/** Returns the number of productions expanded by the last parse */
+	public long getProductionCount(){
+		return productions;
+	}
+	
+	/** Returns the token last matched by the parser, which is passed to semantic actions. 
+	 * Packed tokens are only turned into a Token if the action uses it. */
+	private Token previousToken(SemanticAction action){
+		return previousToken(action.getIndex());
+	}
+	
+	/** Returns the token last matched by the parser for the semantic action with the given number */
+	private Token previousToken(int actionNumber){
+		if(packed != null && prevToken == null && prevIndex >= 0 && SemanticActions.usesToken(actionNumber)){
+			prevToken = packed.getToken(prevIndex);
+		}
+		return prevToken;
+	}
+	
 	/** Method to parse the file. Repeatedly retrieves tokens from the lexical analyzer.
+	 * @return false if the generated code could not be written out (see Compilation.emit())
 	 * @throws CompilerError Throws an exception if the parser is not able to recover from a parse error, 
 	 * or if there is a lexical error in the input file. 
 	 */
-	public void parse() throws CompilerError{
-		System.setOut(System.out);
-		currentToken = lexer.GetNextToken();	// Get first token from input
+	public boolean parse() throws CompilerError{
+		prevIndex = -1;
+		productions = 0;
+		nextToken();	// Get first token from input
+		if(engine == Engine.ENCODED){
+			parseEncoded();
+		}
+		else if(engine == Engine.DESCENT){
+			parseDescent();
+		}
+		else{
+			parseTable();
+		}
+		diagnostics.println("Compilation successful");
+		return compilation.emit(semanticActions.getQuads());
+	}
+	
+	/** The TABLE engine: parses the tokens with a stack of GrammarSymbols */
+	private void parseTable() throws CompilerError{
 		// Clear stack at the start
 		stack.clear();
 		// Push the end marker and the start symbol on the stack
@@ -63,19 +179,22 @@ public class Parser {
 			// Check if there is a token (terminal) on the stack
 			if(predicted.isToken()){
 				// Try to match the current token with the non-terminal: 
-				if(predicted == currentToken.getType()){
+				if(predicted == currentType){
 					// If they match, we get the next token from the input
 					prevToken = currentToken;
-					currentToken = lexer.GetNextToken();
+					if(packed != null){
+						prevIndex = packed.position();
+					}
+					nextToken();
 				}
 				// The terminals do not match: print error message.  
 				// Start error recovery routine
 				else{
 					if(DUMPSTACK) { dumpStack(); }
 					try {
-						throw ParseError.UnmatchedTerminals(lexer.getLineNumber(), lexer.getCurrentLine(), predicted, currentToken.getType());
+						throw ParseError.UnmatchedTerminals(lexer, lexer.getTokenOffset(), predicted, currentType);
 					}catch(ParseError e){
-						System.out.println(e.getMessage());
+						diagnostics.println(e.getMessage());
 						unMatchedTerminalRecovery();
 					}
 				}
@@ -85,27 +204,28 @@ public class Parser {
 				// Find the production in the parse table
 				// We index into the table using the current token's type and the predicted 
 				// grammarSymbol
-				int index = parseTable.getCode(currentToken.getType(), predicted);
+				int index = parseTable.getCode(currentType, predicted);
 				// A negative value for the code represents the empty string
 				if(index < 0){
 					continue;
 				}
 				// An error code is found: go into panic mode error recovery
-				else if(index >= parseTable.ERRORCODE){
+				else if(index >= ParseTable.ERRORCODE){
 					if(DUMPSTACK) { dumpStack(); }
 					try{
-						throw ParseError.ErrorProduction(lexer.getLineNumber(), lexer.getCurrentLine(), 
-								parseTable.getErrorMessage(index), currentToken.getType());
+						throw ParseError.ErrorProduction(lexer, lexer.getTokenOffset(), 
+								parseTable.getErrorMessage(index), currentType);
 					}catch(ParseError e){
-						System.out.println(e.getMessage());
+						diagnostics.println(e.getMessage());
 						panicModeRecovery();
 					}
 					
 				}
 				// If the code is not negative or an error, we have a valid production
 				else{
+					productions++;
 					// Retrieve productions to push onto the stack from the RHSTable
-					GrammarSymbol[] productions = rhsTable.getRule(index);
+					GrammarSymbol[] productions = rhsTable.rule(index);
 					// Push onto the stack in reverse order, so they are popped off in the correct order
 					for(int i = productions.length-1; i>=0; i--){
 						stack.push(productions[i]);
@@ -115,24 +235,183 @@ public class Parser {
 			// Otherwise if the symbol popped off is a semantic action, we ignore it and keep popping symbols off
 			else if(predicted.isAction()){
 //				System.out.println(predicted + ": " + prevToken);
-				semanticActions.Execute((SemanticAction)predicted, prevToken);
+				semanticActions.Execute((SemanticAction)predicted, previousToken((SemanticAction)predicted));
 				continue;
 			}
 			// This portion of code shouldn't execute! The symbol is neither a terminal, nonterminal,
 			// or a semantic action. throw an error.
 			else{
-				throw ParseError.UnknownSymbolType(lexer.getLineNumber(), lexer.getCurrentLine(), predicted);
+				throw ParseError.UnknownSymbolType(lexer, lexer.getTokenOffset(), predicted);
 			}
 		} // End While Loop
-		System.out.println("Compilation successful");
-		semanticActions.printGeneratedCode();
-		try {
-			System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream("out.tvi")), true));
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+	}
+	
+	/** The ENCODED engine: parses the tokens with a stack of grammar symbols encoded as ints 
+	 *  (see PackedGrammar), which are only decoded to report an error. */
+	private void parseEncoded() throws CompilerError{
+		if(encodedStack == null){
+			encodedStack = new int[64];
+		}
+		// Push the end marker and the start symbol on the stack
+		encodedStack[0] = PackedGrammar.encode(TokenType.ENDOFFILE);
+		encodedStack[1] = PackedGrammar.encode(NonTerminal.Goal);
+		top = 2;
+		runEncoded();
+	}
+	
+	/** Runs the ENCODED engine until its stack is empty */
+	private void runEncoded() throws CompilerError{
+		int[] table = packedGrammar.table();
+		int[] rhs = packedGrammar.rhs();
+		int[] rhsStart = packedGrammar.rhsStart();
+		int[] stack = encodedStack;
+		while(top > 0){
+			int symbol = stack[--top];
+			switch(symbol & PackedGrammar.TAG_MASK){
+			case PackedGrammar.TOKEN:
+				if(symbol == currentCode){
+					prevToken = currentToken;
+					if(packed != null){
+						prevIndex = packed.position();
+					}
+					nextToken();
+				}
+				else{
+					predicted = PackedGrammar.decode(symbol);
+					if(DUMPSTACK) { dumpStack(); }
+					try {
+						throw ParseError.UnmatchedTerminals(lexer, lexer.getTokenOffset(), predicted, currentType);
+					}catch(ParseError e){
+						diagnostics.println(e.getMessage());
+						unMatchedTerminalRecovery();
+					}
+				}
+				break;
+			case PackedGrammar.NONTERMINAL:{
+				int index = table[currentCode * PackedGrammar.SIZE + (symbol & PackedGrammar.INDEX_MASK)];
+				if(index < 0){
+					break;
+				}
+				else if(index >= ParseTable.ERRORCODE){
+					predicted = PackedGrammar.decode(symbol);
+					if(DUMPSTACK) { dumpStack(); }
+					try{
+						throw ParseError.ErrorProduction(lexer, lexer.getTokenOffset(), 
+								parseTable.getErrorMessage(index), currentType);
+					}catch(ParseError e){
+						diagnostics.println(e.getMessage());
+						panicModeRecovery();
+					}
+				}
+				else{
+					productions++;
+					// Copy the reversed right hand side onto the stack
+					int start = rhsStart[index];
+					int length = rhsStart[index + 1] - start;
+					if(top + length > stack.length){
+						stack = encodedStack = Arrays.copyOf(stack, Math.max(2 * stack.length, top + length));
+					}
+					System.arraycopy(rhs, start, stack, top, length);
+					top += length;
+				}
+				break;
+			}
+			default:
+				semanticActions.Execute(symbol & PackedGrammar.INDEX_MASK, previousToken(symbol & PackedGrammar.INDEX_MASK));
+				break;
+			}
+		}
+	}
+	
+	/** The DESCENT engine: parses the tokens with the recursive-descent parser. If it meets 
+	 *  an error, the stack the table-driven engines would hold at that point is rebuilt from 
+	 *  the productions the parser was in, and the ENCODED engine reports the error, recovers 
+	 *  and finishes the parse. */
+	private void parseDescent() throws CompilerError{
+		try{
+			new DescentParser(this).Goal();
+			match(TokenType.ENDOFFILE.getIndex());
+		}catch(Unwind u){
+			int[] rhs = packedGrammar.rhs();
+			int[] rhsStart = packedGrammar.rhsStart();
+			int size = 2;
+			for(int i = 0; i < u.count; i += 2){
+				size += rhsStart[u.frames[i] + 1] - rhsStart[u.frames[i]];
+			}
+			encodedStack = new int[Math.max(64, size)];
+			top = 0;
+			if(u.symbol != TokenType.ENDOFFILE.getIndex()){
+				encodedStack[top++] = PackedGrammar.encode(TokenType.ENDOFFILE);
+			}
+			// Outermost production first: the symbols after the position reached, reversed
+			for(int i = u.count - 2; i >= 0; i -= 2){
+				int p = u.frames[i];
+				int length = rhsStart[p + 1] - rhsStart[p] - u.frames[i + 1] - 1;
+				System.arraycopy(rhs, rhsStart[p], encodedStack, top, length);
+				top += length;
+			}
+			encodedStack[top++] = u.symbol;
+			runEncoded();
+		}
+	}
+	
+	/** Returns the type code of the current token, for the DescentParser */
+	int lookahead(){
+		return currentCode;
+	}
+	
+	/** Matches the current token with a token of the given type code, and reads the next 
+	 *  token, for the DescentParser. 
+	 *  @throws Unwind if the current token is of another type */
+	void match(int type) throws LexicalError{
+		if(type != currentCode){
+			throw new Unwind(PackedGrammar.TOKEN | type);
+		}
+		prevToken = currentToken;
+		if(packed != null){
+			prevIndex = packed.position();
+		}
+		nextToken();
+	}
+	
+	/** Executes the semantic action with the given number, for the DescentParser */
+	void execute(int actionNumber) throws SemanticError{
+		semanticActions.Execute(actionNumber, previousToken(actionNumber));
+	}
+	
+	/** Counts a production expanded by the DescentParser */
+	void expanded(){
+		productions++;
+	}
+	
+	/** Thrown through the methods of the DescentParser when it meets a parse error. Each 
+	 *  method adds the production it was in and the position it had reached, from the 
+	 *  innermost one out, so that the Parser can rebuild its stack. */
+	static final class Unwind extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		/** The encoded grammar symbol which did not match the current token */
+		final int symbol;
+		/** Pairs of production number and position in the production */
+		int[] frames = new int[16];
+		/** Number of ints in frames */
+		int count;
+		
+		Unwind(int symbol){
+			super(null, null, false, false);
+			this.symbol = symbol;
+		}
+		
+		/** Adds a production a method was in, unless it is production 0 (none) */
+		void pending(int production, int at){
+			if(production == 0){
+				return;
+			}
+			if(count == frames.length){
+				frames = Arrays.copyOf(frames, 2 * count);
+			}
+			frames[count++] = production;
+			frames[count++] = at;
 		}
-		semanticActions.printGeneratedCode();
-		System.out.flush();
 	}
 	
 	/** Method to print out the contents of the stack. 
@@ -140,13 +419,19 @@ public class Parser {
 	 *  to the bottom of the stack, as if we were continually popping elements off of the stack
 	 */
 	public void dumpStack(){
-		System.out.println();
+		diagnostics.println();
 		// Print the symbol we are currently looking at: "top" of the stack
-		System.out.println(predicted);
+		diagnostics.println(predicted);
 		// Print the rest of the stack
+		if(engine != Engine.TABLE){
+			for(int i = top - 1; i >= 0; i--){
+				diagnostics.println(PackedGrammar.decode(encodedStack[i]));
+			}
+			return;
+		}
 		Iterator<GrammarSymbol> iter = stack.iterator();
 		while(iter.hasNext()){
-			System.out.println(iter.next());
+			diagnostics.println(iter.next());
 		}
 	}
 	
@@ -161,7 +446,7 @@ public class Parser {
 		if(predicted == TokenType.ENDMARKER){
 			throw ParseError.ParserQuit();
 		}
-		System.out.println("Error recovery: A " + predicted.toString() + " terminal was inserted into the file");
+		diagnostics.println("Error recovery: A " + predicted.toString() + " terminal was inserted into the file");
 	}
 	
 	/** Panic mode recovery: Skips tokens until semicolon, end or EOF encountered. 
@@ -169,36 +454,56 @@ public class Parser {
 	 * Minimizes cascading errors. 
 	 * @throws LexicalError */
 	private void panicModeRecovery() throws CompilerError{
-		System.out.println("Error recovery: Panic mode");
+		diagnostics.println("Error recovery: Panic mode");
 		// Skip over terminals from the input
-		while(currentToken.getType() != TokenType.ENDOFFILE && 
-				currentToken.getType() !=TokenType.SEMICOLON &&
-				currentToken.getType() != TokenType.END)
+		while(currentType != TokenType.ENDOFFILE && 
+				currentType !=TokenType.SEMICOLON &&
+				currentType != TokenType.END)
 		{
-			//System.out.println("Skipping over " + currentToken.getType().toString());
-			currentToken = lexer.GetNextToken();
+			//System.out.println("Skipping over " + currentType.toString());
+			nextToken();
 		}
 		// Skip over grammar symbols on the stack
 		while(predicted != TokenType.ENDOFFILE && 
 				predicted != TokenType.SEMICOLON &&
 				predicted != TokenType.END)
 		{
-			predicted = stack.pop();
+			predicted = pop();
 		}
 		// Push the eof, semicolon, or end symbol back onto the stack
-		stack.push(predicted);
+		if(engine != Engine.TABLE){
+			encodedStack[top++] = PackedGrammar.encode(predicted);
+		}
+		else{
+			stack.push(predicted);
+		}
 		// If we couldn't recover fully, we quit execution. 
 		// This prevents cascading errors. 
 		if(predicted == TokenType.ENDOFFILE
-			|| (currentToken.getType() == TokenType.SEMICOLON && predicted == TokenType.END)){
+			|| (currentType == TokenType.SEMICOLON && predicted == TokenType.END)){
 			throw ParseError.ParserQuit();
 		}
 	}
 	
+	/** Pops a grammar symbol off the stack of the engine running the parse */
+	private GrammarSymbol pop(){
+		if(engine != Engine.TABLE){
+			if(top == 0){
+				throw new NoSuchElementException();
+			}
+			return PackedGrammar.decode(encodedStack[--top]);
+		}
+		return stack.pop();
+	}
+	
 	public void printGlobalTable(){
 		semanticActions.dumpGlobalTable();
 	}
-	public Tokenizer getLexer(){
+	/** Returns the outputs of the compilation */
+	public Compilation getCompilation(){
+		return compilation;
+	}
+	public TokenStream getLexer(){
 		return lexer;
 	}
 
@@ -1,184 +1,217 @@
 package parser;
 import grammarsymbols.*;
 
+/** Right hand sides of the productions of the grammar, indexed by production number.
+ *  The table is never changed once it is built, so parsers on any number of threads
+ *  share one instance (see getInstance()).
+ *  Generated by parser.Grammar from pascal.grammar: edit the grammar, not this file. */
 public class RHSTable {
 
-	GrammarSymbol[][] rules;
+	private final GrammarSymbol[][] rules;
+	
+	/** The table shared by every parser, built the first time it is needed */
+	private static final class Shared {
+		static final RHSTable INSTANCE = new RHSTable();
+	}
 	
 	public RHSTable()
 	{
-		init();
+		rules = init();
+	}
+
+	/** Returns the table shared by every parser */
+	public static RHSTable getInstance()
+	{
+		return Shared.INSTANCE;
 	}
 
-	public void init()
+	private static GrammarSymbol[][] init()
 	   {
-		   rules = new GrammarSymbol [][]  {
+		   return new GrammarSymbol [][]  {
 //dummy element 0
 				   {},
-//production 1         
-				   { TokenType.PROGRAM, TokenType.IDENTIFIER, TokenType.LEFTPAREN, NonTerminal.identifier_list, 
+//production 1	<program>
+				   { TokenType.PROGRAM, TokenType.IDENTIFIER, TokenType.LEFTPAREN, NonTerminal.identifier_list,
 					   TokenType.RIGHTPAREN, SemanticAction.action9, TokenType.SEMICOLON, NonTerminal.declarations,
-					   NonTerminal.sub_declarations, SemanticAction.action56, NonTerminal.compound_statement, 
-					   SemanticAction.action55 },  	
-//production 2		         
-				   { TokenType.IDENTIFIER,  SemanticAction.action13,  NonTerminal.identifier_list_tail },  											
-//production 3		         
-				   { TokenType.COMMA, TokenType.IDENTIFIER, SemanticAction.action13, NonTerminal.identifier_list_tail },  									
-//production 4		         
-				   { },  																						
-//production 5		         
-				   { TokenType.VAR, SemanticAction.action1, NonTerminal.declaration_list, SemanticAction.action2 },  												
-//production 6		         
-				   { },  																						
-//production 7		         
-				   { NonTerminal.identifier_list, TokenType.COLON, NonTerminal.type, SemanticAction.action3, 
-					   TokenType.SEMICOLON, NonTerminal.declaration_list_tail },  				
-//production 8		         
-				   { NonTerminal.identifier_list,  TokenType.COLON,  NonTerminal.type,  SemanticAction.action3,  
-						   TokenType.SEMICOLON,  NonTerminal.declaration_list_tail },  			
-//production 9		         
-				   { },  																						
-//production 10		         
-				   { NonTerminal.standard_type },  																		
-//production 11		         
-				   { NonTerminal.array_type },  																			
-//production 12		         
-				   { TokenType.INTEGER,  SemanticAction.action4 },  																	
-//production 13		         
-				   { TokenType.REAL,  SemanticAction.action4 },  																		
-//production 14		         
-				   { SemanticAction.action6,  TokenType.ARRAY,  TokenType.LEFTBRACKET,  TokenType.INTCONSTANT,  
-					   SemanticAction.action7,  TokenType.DOUBLEDOT,  TokenType.INTCONSTANT, SemanticAction.action7,  
-					   TokenType.RIGHTBRACKET,  TokenType.OF,  NonTerminal.standard_type },  											
-//production 15		         
-				   { NonTerminal.subprogram_declaration,  NonTerminal.sub_declarations },  											
-//production 16		         
-				   { },  																						
-//production 17		         
-				   { SemanticAction.action1,  NonTerminal.subprogram_head,  NonTerminal.declarations,  
-					   SemanticAction.action5,  NonTerminal.compound_statement,  SemanticAction.action11 },  	
-//production 18		         
-				   { TokenType.FUNCTION,  TokenType.IDENTIFIER,  SemanticAction.action15,  NonTerminal.arguments,  
-						   TokenType.COLON,  TokenType.RESULT,  NonTerminal.standard_type, TokenType.SEMICOLON, 
-						   SemanticAction.action16 },  																	
-//production 19		         
-				   { TokenType.PROCEDURE,  TokenType.IDENTIFIER,  SemanticAction.action17,  NonTerminal.arguments,  
-							   TokenType.SEMICOLON },  							
-//production 20		         
-				   { TokenType.LEFTPAREN,  SemanticAction.action19,  NonTerminal.parameter_list,  TokenType.RIGHTPAREN,  
-					   SemanticAction.action20 },  						
-//production 21		         
-				   { },  																						
-//production 22		         
-				   { NonTerminal.identifier_list,  TokenType.COLON,  NonTerminal.type,  SemanticAction.action21,  
-					   NonTerminal.parameter_list_tail },  						
-//production 23		         
-				   { TokenType.SEMICOLON,  NonTerminal.identifier_list,  TokenType.COLON,  NonTerminal.type,  SemanticAction.action21,  
-						   NonTerminal.parameter_list_tail },  			
-//production 24		         
-				   { },  																						
-//production 25		         
-				   { TokenType.BEGIN,  NonTerminal.statement_list,  TokenType.END },  															
-//production 26		         
-				   { NonTerminal.statement,  NonTerminal.statement_list_tail },   														
-//production 27		         
-				   { TokenType.SEMICOLON,  NonTerminal.statement,  NonTerminal.statement_list_tail },  											
-//production 28		         
-				   { },  																						
-//production 29		         
-				   { NonTerminal.elementary_statement },  																	
-//production 30		         
-				   { TokenType.IF,  NonTerminal.expression,  SemanticAction.action22,  TokenType.THEN,  
-					   NonTerminal.statement,  NonTerminal.else_clause },  							
-//production 31		         
-				   { TokenType.WHILE,  SemanticAction.action24,  NonTerminal.expression,  SemanticAction.action25,  
-						   TokenType.DO,  NonTerminal.statement,  SemanticAction.action26 },  					
-//production 32		         
-				   { TokenType.ELSE,  SemanticAction.action27,  NonTerminal.statement,  SemanticAction.action28 },  												
-//production 33		         
-				   { SemanticAction.action29 },  																				
-//production 34		         
-				   { TokenType.IDENTIFIER,  SemanticAction.action30,  NonTerminal.es_tail },  														
-//production 35		         
-				   { NonTerminal.compound_statement },  																	
-//production 36		         
-				   { SemanticAction.action53,  NonTerminal.subscript,  TokenType.ASSIGNOP,  NonTerminal.expression,  
-					   SemanticAction.action31 },  								
-//production 37		         
-				   { SemanticAction.action54,  NonTerminal.parameters },  																
-//production 38		         
-				   { SemanticAction.action32,  TokenType.LEFTBRACKET,  NonTerminal.expression,  TokenType.RIGHTBRACKET,  
-					   SemanticAction.action33 },  						
-//production 39		         
-				   { SemanticAction.action34 },  																				
-//production 40		         
-				   { SemanticAction.action35,  TokenType.LEFTPAREN,  NonTerminal.expression_list,  TokenType.RIGHTPAREN,  
-					   SemanticAction.action51 },  						
-//production 41		         
-				   { SemanticAction.action36 },  																				
-//production 42		         
-				   { NonTerminal.expression,  SemanticAction.action37,  NonTerminal.expression_list_tail },  											
-//production 43		         
-				   { TokenType.COMMA,  NonTerminal.expression,  SemanticAction.action37,  NonTerminal.expression_list_tail },  									
-//production 44		         
-				   { },  																						
-//production 45		         
-				   { NonTerminal.simple_expression,  NonTerminal.expression_tail },  													
-//production 46		         
-				   { TokenType.RELOP,  SemanticAction.action38,  NonTerminal.simple_expression,  SemanticAction.action39 },  										
-//production 47		         
-				   { },  																						
-//production 48		         
-				   { NonTerminal.term,  NonTerminal.simple_expression_tail },  														
-//production 49		         
-				   { NonTerminal.sign,  SemanticAction.action40,  NonTerminal.term,  SemanticAction.action41,  
-					   NonTerminal.simple_expression_tail },  							
-//production 50		         
-				   { TokenType.ADDOP,  SemanticAction.action42,  NonTerminal.term,  SemanticAction.action43,  
-						   NonTerminal.simple_expression_tail },  							
-//production 51		         
-				   { },  																						
-//production 52		         
-				   { NonTerminal.factor,  NonTerminal.term_tail },  																	
-//production 53		         
-				   { TokenType.MULOP,  SemanticAction.action44,  NonTerminal.factor,  SemanticAction.action45,  
-					   NonTerminal.term_tail },  										
-//production 54		  
-				   { },
-//production 55					   
-				   { TokenType.IDENTIFIER,  SemanticAction.action46,  NonTerminal.factor_tail },  													
-//production 56		         
-				   { NonTerminal.constant,  SemanticAction.action46 },  																	
-//production 57		         
-				   { TokenType.LEFTPAREN,  NonTerminal.expression,  TokenType.RIGHTPAREN },  													
-//production 58		         
-				   { TokenType.NOT,  NonTerminal.factor,  SemanticAction.action47 },  																
-//production 59		         
-				   { NonTerminal.actual_parameters },  																	
-//production 60		         
-				   { NonTerminal.subscript,  SemanticAction.action48 },  																	
-//production 61		         
-				   { SemanticAction.action49,  TokenType.LEFTPAREN,  NonTerminal.expression_list,  TokenType.RIGHTPAREN,  SemanticAction.action50 },  						
-//production 62		         
-				   { SemanticAction.action52 },  																				
-//production 63		         
-				   { TokenType.UNARYPLUS },  																			
-//production 64		         
-				   { TokenType.UNARYMINUS },  																			
-//production 65		         
-				   { NonTerminal.program,  TokenType.ENDMARKER },  																	
-//production 66		         
-				   { TokenType.INTCONSTANT },  																			
-//production 67		         
-				   { TokenType.REALCONSTANT } 				
+					   NonTerminal.sub_declarations, SemanticAction.action56, NonTerminal.compound_statement,
+					   SemanticAction.action55 },
+//production 2	<identifier_list>
+				   { TokenType.IDENTIFIER, SemanticAction.action13, NonTerminal.identifier_list_tail },
+//production 3	<identifier_list_tail>
+				   { TokenType.COMMA, TokenType.IDENTIFIER, SemanticAction.action13,
+					   NonTerminal.identifier_list_tail },
+//production 4	<identifier_list_tail>
+				   {},
+//production 5	<declarations>
+				   { TokenType.VAR, SemanticAction.action1, NonTerminal.declaration_list,
+					   SemanticAction.action2 },
+//production 6	<declarations>
+				   {},
+//production 7	<declaration_list>
+				   { NonTerminal.identifier_list, TokenType.COLON, NonTerminal.type, SemanticAction.action3,
+					   TokenType.SEMICOLON, NonTerminal.declaration_list_tail },
+//production 8	<declaration_list_tail>
+				   { NonTerminal.identifier_list, TokenType.COLON, NonTerminal.type, SemanticAction.action3,
+					   TokenType.SEMICOLON, NonTerminal.declaration_list_tail },
+//production 9	<declaration_list_tail>
+				   {},
+//production 10	<type>
+				   { NonTerminal.standard_type },
+//production 11	<type>
+				   { NonTerminal.array_type },
+//production 12	<standard_type>
+				   { TokenType.INTEGER, SemanticAction.action4 },
+//production 13	<standard_type>
+				   { TokenType.REAL, SemanticAction.action4 },
+//production 14	<array_type>
+				   { SemanticAction.action6, TokenType.ARRAY, TokenType.LEFTBRACKET, TokenType.INTCONSTANT,
+					   SemanticAction.action7, TokenType.DOUBLEDOT, TokenType.INTCONSTANT, SemanticAction.action7,
+					   TokenType.RIGHTBRACKET, TokenType.OF, NonTerminal.standard_type },
+//production 15	<sub_declarations>
+				   { NonTerminal.subprogram_declaration, NonTerminal.sub_declarations },
+//production 16	<sub_declarations>
+				   {},
+//production 17	<subprogram_declaration>
+				   { SemanticAction.action1, NonTerminal.subprogram_head, NonTerminal.declarations,
+					   SemanticAction.action5, NonTerminal.compound_statement, SemanticAction.action11 },
+//production 18	<subprogram_head>
+				   { TokenType.FUNCTION, TokenType.IDENTIFIER, SemanticAction.action15, NonTerminal.arguments,
+					   TokenType.COLON, TokenType.RESULT, NonTerminal.standard_type, TokenType.SEMICOLON,
+					   SemanticAction.action16 },
+//production 19	<subprogram_head>
+				   { TokenType.PROCEDURE, TokenType.IDENTIFIER, SemanticAction.action17, NonTerminal.arguments,
+					   TokenType.SEMICOLON },
+//production 20	<arguments>
+				   { TokenType.LEFTPAREN, SemanticAction.action19, NonTerminal.parameter_list,
+					   TokenType.RIGHTPAREN, SemanticAction.action20 },
+//production 21	<arguments>
+				   {},
+//production 22	<parameter_list>
+				   { NonTerminal.identifier_list, TokenType.COLON, NonTerminal.type, SemanticAction.action21,
+					   NonTerminal.parameter_list_tail },
+//production 23	<parameter_list_tail>
+				   { TokenType.SEMICOLON, NonTerminal.identifier_list, TokenType.COLON, NonTerminal.type,
+					   SemanticAction.action21, NonTerminal.parameter_list_tail },
+//production 24	<parameter_list_tail>
+				   {},
+//production 25	<compound_statement>
+				   { TokenType.BEGIN, NonTerminal.statement_list, TokenType.END },
+//production 26	<statement_list>
+				   { NonTerminal.statement, NonTerminal.statement_list_tail },
+//production 27	<statement_list_tail>
+				   { TokenType.SEMICOLON, NonTerminal.statement, NonTerminal.statement_list_tail },
+//production 28	<statement_list_tail>
+				   {},
+//production 29	<statement>
+				   { NonTerminal.elementary_statement },
+//production 30	<statement>
+				   { TokenType.IF, NonTerminal.expression, SemanticAction.action22, TokenType.THEN,
+					   NonTerminal.statement, NonTerminal.else_clause },
+//production 31	<statement>
+				   { TokenType.WHILE, SemanticAction.action24, NonTerminal.expression, SemanticAction.action25,
+					   TokenType.DO, NonTerminal.statement, SemanticAction.action26 },
+//production 32	<else_clause>
+				   { TokenType.ELSE, SemanticAction.action27, NonTerminal.statement, SemanticAction.action28 },
+//production 33	<else_clause>
+				   { SemanticAction.action29 },
+//production 34	<elementary_statement>
+				   { TokenType.IDENTIFIER, SemanticAction.action30, NonTerminal.es_tail },
+//production 35	<elementary_statement>
+				   { NonTerminal.compound_statement },
+//production 36	<es_tail>
+				   { SemanticAction.action53, NonTerminal.subscript, TokenType.ASSIGNOP, NonTerminal.expression,
+					   SemanticAction.action31 },
+//production 37	<es_tail>
+				   { SemanticAction.action54, NonTerminal.parameters },
+//production 38	<subscript>
+				   { SemanticAction.action32, TokenType.LEFTBRACKET, NonTerminal.expression,
+					   TokenType.RIGHTBRACKET, SemanticAction.action33 },
+//production 39	<subscript>
+				   { SemanticAction.action34 },
+//production 40	<parameters>
+				   { SemanticAction.action35, TokenType.LEFTPAREN, NonTerminal.expression_list,
+					   TokenType.RIGHTPAREN, SemanticAction.action51 },
+//production 41	<parameters>
+				   { SemanticAction.action36 },
+//production 42	<expression_list>
+				   { NonTerminal.expression, SemanticAction.action37, NonTerminal.expression_list_tail },
+//production 43	<expression_list_tail>
+				   { TokenType.COMMA, NonTerminal.expression, SemanticAction.action37,
+					   NonTerminal.expression_list_tail },
+//production 44	<expression_list_tail>
+				   {},
+//production 45	<expression>
+				   { NonTerminal.simple_expression, NonTerminal.expression_tail },
+//production 46	<expression_tail>
+				   { TokenType.RELOP, SemanticAction.action38, NonTerminal.simple_expression,
+					   SemanticAction.action39 },
+//production 47	<expression_tail>
+				   {},
+//production 48	<simple_expression>
+				   { NonTerminal.term, NonTerminal.simple_expression_tail },
+//production 49	<simple_expression>
+				   { NonTerminal.sign, SemanticAction.action40, NonTerminal.term, SemanticAction.action41,
+					   NonTerminal.simple_expression_tail },
+//production 50	<simple_expression_tail>
+				   { TokenType.ADDOP, SemanticAction.action42, NonTerminal.term, SemanticAction.action43,
+					   NonTerminal.simple_expression_tail },
+//production 51	<simple_expression_tail>
+				   {},
+//production 52	<term>
+				   { NonTerminal.factor, NonTerminal.term_tail },
+//production 53	<term_tail>
+				   { TokenType.MULOP, SemanticAction.action44, NonTerminal.factor, SemanticAction.action45,
+					   NonTerminal.term_tail },
+//production 54	<term_tail>
+				   {},
+//production 55	<factor>
+				   { TokenType.IDENTIFIER, SemanticAction.action46, NonTerminal.factor_tail },
+//production 56	<factor>
+				   { NonTerminal.constant, SemanticAction.action46 },
+//production 57	<factor>
+				   { TokenType.LEFTPAREN, NonTerminal.expression, TokenType.RIGHTPAREN },
+//production 58	<factor>
+				   { TokenType.NOT, NonTerminal.factor, SemanticAction.action47 },
+//production 59	<factor_tail>
+				   { NonTerminal.actual_parameters },
+//production 60	<factor_tail>
+				   { NonTerminal.subscript, SemanticAction.action48 },
+//production 61	<actual_parameters>
+				   { SemanticAction.action49, TokenType.LEFTPAREN, NonTerminal.expression_list,
+					   TokenType.RIGHTPAREN, SemanticAction.action50 },
+//production 62	<actual_parameters>
+				   { SemanticAction.action52 },
+//production 63	<sign>
+				   { TokenType.UNARYPLUS },
+//production 64	<sign>
+				   { TokenType.UNARYMINUS },
+//production 65	<Goal>
+				   { NonTerminal.program, TokenType.ENDMARKER },
+//production 66	<constant>
+				   { TokenType.INTCONSTANT },
+//production 67	<constant>
+				   { TokenType.REALCONSTANT }
 			      };
 	   }
 
+	   /** Returns a copy of the right hand side of production n */
 	   public GrammarSymbol[] getRule(int n)
+	   {
+				   return rules[n].clone();
+	   }
+
+	   /** Returns the right hand side of production n, for the parser. It must not be changed */
+	   GrammarSymbol[] rule(int n)
 	   {
 				   return rules[n];
 	   }
 
+	   /** Returns the number of productions, including the dummy production 0 */
+	   int size()
+	   {
+				   return rules.length;
+	   }
+
 	   public void dumpTable()
 	   {
 	      for (int i = 1; i < rules.length; ++i)
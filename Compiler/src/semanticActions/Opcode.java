@@ -0,0 +1,46 @@
+package semanticActions;
+import java.util.HashMap;
+
+/** Enumerated Class of the TVI opcodes generated by the semantic actions.
+ * Quadruples stores the opcode of a quadruple as the index of its Opcode,
+ * and prints it as its text*/
+public enum Opcode {
+	CODE("CODE"), PROCBEGIN("PROCBEGIN"), PROCEND("PROCEND"),
+	ALLOC("alloc"), FREE("free"), CALL("call"), PARAM("param"), EXIT("exit"),
+	MOVE("move"), STOR("stor"), LOAD("load"), LTOF("ltof"), FTOL("ftol"),
+	ADD("add"), SUB("sub"), MUL("mul"), DIV("div"), UMINUS("uminus"),
+	FADD("fadd"), FSUB("fsub"), FMUL("fmul"), FDIV("fdiv"),
+	BEQ("beq"), BNE("bne"), BLT("blt"), BGT("bgt"), BLE("ble"), BGE("bge"), GOTO("goto"),
+	PRINT("print"), NEWL("newl"), INP("inp"), FINP("finp"), OUTP("outp"), FOUTP("foutp"),
+	// Not TVI opcodes: generated for operators with no TVI equivalent (see Operator)
+	ERROR("error"), FERROR("ferror");
+
+	/** Opcodes, by their text */
+	private static final HashMap<String, Opcode> BY_TEXT = new HashMap<String, Opcode>();
+	static{
+		for(Opcode opcode: values()){
+			BY_TEXT.put(opcode.text, opcode);
+		}
+	}
+
+	private String text;
+	private Opcode(String s) { text = s; }
+	public String getText() { return text; }
+
+	/** Returns the opcode doing the same arithmetic on reals: fadd for add, and so on */
+	public Opcode toReal(){
+		switch(this){
+		case ADD: return FADD;
+		case SUB: return FSUB;
+		case MUL: return FMUL;
+		case DIV: return FDIV;
+		case ERROR: return FERROR;
+		default: throw new IllegalArgumentException("No real opcode for " + text);
+		}
+	}
+
+	/** Returns the opcode with the given text, or null if there is none */
+	public static Opcode lookup(String text){
+		return BY_TEXT.get(text);
+	}
+}
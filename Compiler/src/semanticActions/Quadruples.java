@@ -1,70 +1,378 @@
 package semanticActions;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
-/** Class to store intermediate code as it is generated */
+/** Class to store intermediate code as it is generated. <br>
+ *  The quadruples are stored as columns of arrays rather than as arrays of Strings: the
+ *  opcode of each quadruple, its number of fields, and the kind and value of each operand.
+ *  An address or a label is stored as an int, and any other operand (the name of a
+ *  procedure, a real constant, a message) as the index of its text in a pool. The text of
+ *  a quadruple is only built when it is asked for, or printed. <br>
+ *  A quadruple is added with its Opcode, and each operand as a long holding its kind and its
+ *  value (see operand()). Quadruples given as Strings (addQuad(), setField()) are parsed.
+ */
 public class Quadruples {
-	/** A Collection of Quadruples, which are themselves arrays of Strings */
-	private ArrayList<String[]> quadArray;
+	/** Kind of an operand held in the pool of texts */
+	public static final int TEXT = 0;
+	/** Kind of a number, such as a label or the size of an allocation */
+	public static final int NUMBER = 1;
+	/** Kind of a label to be back-patched, printed "_" */
+	public static final int PENDING = 2;
+	/** Kind of the address of a global variable, printed "_n" */
+	public static final int GLOBAL = 3;
+	/** Kind of the address of a local variable, printed "%n" */
+	public static final int LOCAL = 4;
+	/** Kind of a parameter passed by reference, printed "^%n" */
+	public static final int INDIRECT = 5;
+	/** Kind of a reference to a global variable, printed "@_n" */
+	public static final int GLOBAL_REFERENCE = 6;
+	/** Kind of a reference to a local variable, printed "@%n" */
+	public static final int LOCAL_REFERENCE = 7;
+	/** Prefixes of the kinds of operands, when printed */
+	private static final String[] PREFIXES = {null, "", null, "_", "%", "^%", "@_", "@%"};
+
+	/** Number of operands of a quadruple */
+	private static final int OPERANDS = 3;
+	/** Opcodes from the Opcode class */
+	private static final Opcode[] OPCODES = Opcode.values();
+
+	/** Opcode of each quadruple: the index of its Opcode, or -1 - the index of its text in the
+	 *  pool, for other opcodes (comments, for instance) */
+	private int[] opcodes;
+	/** Number of fields of each quadruple, the opcode included */
+	private byte[] sizes;
+	/** Kind of each operand, OPERANDS for each quadruple */
+	private byte[] kinds;
+	/** Value of each operand, OPERANDS for each quadruple */
+	private int[] values;
+	/** Number of quadruples stored */
+	private int count;
+	/** Pool of the texts of the operands and of other opcodes */
+	private ArrayList<String> texts;
+	/** Index of each text of the pool */
+	private HashMap<String, Integer> textIndex;
 	/** Index of the next quadruple entry */
 	private int nextQuad;
-	
+
 	public Quadruples(){
-		quadArray = new ArrayList<String[]>();
+		opcodes = new int[64];
+		sizes = new byte[64];
+		kinds = new byte[64 * OPERANDS];
+		values = new int[64 * OPERANDS];
+		texts = new ArrayList<String>();
+		textIndex = new HashMap<String, Integer>();
 		nextQuad = 0;
 	}
-	
+
+	/** Returns an operand of the given kind and value */
+	public static long operand(int kind, int value){
+		return ((long) kind << 32) | (value & 0xffffffffL);
+	}
+
+	/** Returns a number operand, such as a label or the size of an allocation */
+	public static long number(int value){
+		return operand(NUMBER, value);
+	}
+
+	/** Returns the operand of a label to be back-patched (see setNumber()) */
+	public static long pending(){
+		return operand(PENDING, 0);
+	}
+
+	/** Returns an operand holding a text, which is printed as it is */
+	public long text(String text){
+		return operand(TEXT, intern(text));
+	}
+
+	/** Returns the operand printed as the given String */
+	public long parse(String field){
+		int length = field.length();
+		if(length == 1 && field.charAt(0) == '_'){
+			return pending();
+		}
+		int kind = NUMBER;
+		int start = 0;
+		if(field.startsWith("@_")){
+			kind = GLOBAL_REFERENCE;
+			start = 2;
+		}
+		else if(field.startsWith("@%")){
+			kind = LOCAL_REFERENCE;
+			start = 2;
+		}
+		else if(field.startsWith("^%")){
+			kind = INDIRECT;
+			start = 2;
+		}
+		else if(length > 0 && field.charAt(0) == '_'){
+			kind = GLOBAL;
+			start = 1;
+		}
+		else if(length > 0 && field.charAt(0) == '%'){
+			kind = LOCAL;
+			start = 1;
+		}
+		// Only a number printed the same way is stored as a number
+		if(isNumber(field, start, kind == NUMBER)){
+			return operand(kind, Integer.parseInt(field.substring(start)));
+		}
+		return text(field);
+	}
+
+	/** Returns true if a String holds an int from start on, written the way Integer.toString()
+	 *  writes it */
+	private static boolean isNumber(String s, int start, boolean signed){
+		int length = s.length() - start;
+		if(signed && length > 1 && s.charAt(start) == '-'){
+			start++;
+			length--;
+			if(s.charAt(start) == '0'){
+				return false;
+			}
+		}
+		if(length < 1 || length > 10 || (length > 1 && s.charAt(start) == '0')){
+			return false;
+		}
+		for(int i = start; i < s.length(); i++){
+			if(s.charAt(i) < '0' || s.charAt(i) > '9'){
+				return false;
+			}
+		}
+		return length < 10 || Long.parseLong(s.substring(start)) <= Integer.MAX_VALUE;
+	}
+
+	/** Returns the index of a text in the pool, adding it if need be */
+	private int intern(String text){
+		Integer index = textIndex.get(text);
+		if(index == null){
+			index = texts.size();
+			texts.add(text);
+			textIndex.put(text, index);
+		}
+		return index;
+	}
+
 	/** Returns one of the four fields within the quadruple at index quadIndex */
 	public String getField(int quadIndex, int field){
-		String[] quad = quadArray.get(quadIndex);
-		return quad[field];
+		check(quadIndex);
+		if(field == 0){
+			return opcode(quadIndex);
+		}
+		if(field >= sizes[quadIndex]){
+			throw new ArrayIndexOutOfBoundsException(field);
+		}
+		int at = quadIndex * OPERANDS + field - 1;
+		return render(kinds[at], values[at]);
 	}
-	
+
 	/** Sets the value of a given field in a given quadruple */
 	public void setField(int quadIndex, int field, String value){
-		quadArray.get(quadIndex)[field] = value;
+		check(quadIndex);
+		if(field == 0){
+			setOpcode(quadIndex, value);
+			return;
+		}
+		setOperand(quadIndex, field, parse(value));
+	}
+
+	/** Sets an operand of a given quadruple to a number, such as the label of a jump */
+	public void setNumber(int quadIndex, int field, int value){
+		check(quadIndex);
+		setOperand(quadIndex, field, number(value));
+	}
+
+	/** Sets an operand of a quadruple, field being 1, 2, or 3 */
+	private void setOperand(int quadIndex, int field, long operand){
+		if(field < 1 || field >= sizes[quadIndex]){
+			throw new ArrayIndexOutOfBoundsException(field);
+		}
+		int at = quadIndex * OPERANDS + field - 1;
+		kinds[at] = (byte) (operand >>> 32);
+		values[at] = (int) operand;
+	}
+
+	/** Returns the number of fields of the quadruple at the given index, the opcode included */
+	public int getSize(int quadIndex){
+		check(quadIndex);
+		return sizes[quadIndex];
 	}
-	
+
 	/** Returns the index of the next quadruple */
 	public int getNextQuad(){
 		return nextQuad;
 	}
-	
+
 	/** Increment the nextQuad index */
 	public void incrementNextQuad(){
 		nextQuad++;
 	}
-	
+
 	/** Adds a new generated quadruple to the list of quadruples */
 	public void addQuad(String[] quadruple){
-		quadArray.add(quadruple);
+		long[] operands = new long[quadruple.length - 1];
+		for(int field = 1; field < quadruple.length; field++){
+			operands[field - 1] = parse(quadruple[field]);
+		}
+		if(operands.length > OPERANDS){
+			throw new IllegalArgumentException("Quadruple of " + quadruple.length + " fields");
+		}
+		int quad = begin(opcode(quadruple[0]), quadruple.length);
+		for(int i = 0; i < operands.length; i++){
+			kinds[quad * OPERANDS + i] = (byte) (operands[i] >>> 32);
+			values[quad * OPERANDS + i] = (int) operands[i];
+		}
+	}
+
+	/** Adds a comment, a quadruple whose opcode is the text of the comment */
+	public void addComment(String comment){
+		begin(opcode(comment), 1);
+	}
+
+	/** Adds a quadruple without operands */
+	public void add(Opcode opcode){
+		begin(opcode.ordinal(), 1);
+	}
+
+	/** Adds a quadruple with one operand */
+	public void add(Opcode opcode, long operand1){
+		int at = begin(opcode.ordinal(), 2) * OPERANDS;
+		kinds[at] = (byte) (operand1 >>> 32);
+		values[at] = (int) operand1;
+	}
+
+	/** Adds a quadruple with two operands */
+	public void add(Opcode opcode, long operand1, long operand2){
+		int at = begin(opcode.ordinal(), 3) * OPERANDS;
+		kinds[at] = (byte) (operand1 >>> 32);
+		values[at] = (int) operand1;
+		kinds[at + 1] = (byte) (operand2 >>> 32);
+		values[at + 1] = (int) operand2;
+	}
+
+	/** Adds a quadruple with three operands */
+	public void add(Opcode opcode, long operand1, long operand2, long operand3){
+		int at = begin(opcode.ordinal(), 4) * OPERANDS;
+		kinds[at] = (byte) (operand1 >>> 32);
+		values[at] = (int) operand1;
+		kinds[at + 1] = (byte) (operand2 >>> 32);
+		values[at + 1] = (int) operand2;
+		kinds[at + 2] = (byte) (operand3 >>> 32);
+		values[at + 2] = (int) operand3;
+	}
+
+	/** Stores the opcode (as stored in opcodes) and the size of a new quadruple, and returns
+	 *  its index */
+	private int begin(int opcode, int size){
+		if(count == opcodes.length){
+			int capacity = count * 2;
+			opcodes = Arrays.copyOf(opcodes, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+			kinds = Arrays.copyOf(kinds, capacity * OPERANDS);
+			values = Arrays.copyOf(values, capacity * OPERANDS);
+		}
+		int quad = count++;
+		opcodes[quad] = opcode;
+		sizes[quad] = (byte) size;
 		nextQuad++;
+		return quad;
+	}
+
+	/** Sets the opcode of a quadruple */
+	private void setOpcode(int quadIndex, String opcode){
+		opcodes[quadIndex] = opcode(opcode);
 	}
-	
-	/** Returns the quadruple at the given index */
+
+	/** Returns an opcode given as text, as stored in opcodes */
+	private int opcode(String opcode){
+		Opcode known = Opcode.lookup(opcode);
+		return known != null ? known.ordinal() : -1 - intern(opcode);
+	}
+
+	/** Returns the text of the opcode of a quadruple */
+	private String opcode(int quadIndex){
+		int opcode = opcodes[quadIndex];
+		return opcode >= 0 ? OPCODES[opcode].getText() : texts.get(-1 - opcode);
+	}
+
+	/** Returns the text of an operand */
+	public String render(long operand){
+		return render((int) (operand >>> 32), (int) operand);
+	}
+
+	/** Returns the text of an operand of the given kind and value */
+	private String render(int kind, int value){
+		switch(kind){
+		case TEXT:
+			return texts.get(value);
+		case PENDING:
+			return "_";
+		case NUMBER:
+			return Integer.toString(value);
+		default:
+			return PREFIXES[kind] + value;
+		}
+	}
+
+	/** Appends the text of an operand */
+	private void render(StringBuilder line, int kind, int value){
+		switch(kind){
+		case TEXT:
+			line.append(texts.get(value));
+			break;
+		case PENDING:
+			line.append('_');
+			break;
+		default:
+			line.append(PREFIXES[kind]).append(value);
+		}
+	}
+
+	/** Throws an exception if no quadruple is stored at an index */
+	private void check(int quadIndex){
+		if(quadIndex < 0 || quadIndex >= count){
+			throw new IndexOutOfBoundsException("Index " + quadIndex + " out of bounds for length " + count);
+		}
+	}
+
+	/** Returns the quadruple at the given index, as a new array of Strings */
 	public String[] getQuad(int index){
-		return quadArray.get(index);
+		check(index);
+		String[] quadruple = new String[sizes[index]];
+		for(int field = 0; field < quadruple.length; field++){
+			quadruple[field] = getField(index, field);
+		}
+		return quadruple;
 	}
-	
+
 	/** Prints the contents of the array of quadruples */
-	public void print(){
+	public void print(PrintStream out){
+		check(0);
 		// Print "CODE"
-		System.out.println(quadArray.get(0)[0]);
-		// Iterate through the quadruple array
-		for(int index = 1; index<quadArray.size(); index++){
-			String[] quadruple = quadArray.get(index);
-			System.out.printf("%2d: ", index);
-			for(int field = 0; field<quadruple.length; field++){
-				System.out.print(quadruple[field]); 
+		out.println(opcode(0));
+		StringBuilder line = new StringBuilder();
+		// Iterate through the quadruples
+		for(int index = 1; index<count; index++){
+			line.setLength(0);
+			if(index < 10){
+				line.append(' ');
+			}
+			line.append(index).append(": ").append(opcode(index)).append(' ');
+			int size = sizes[index];
+			for(int field = 1; field<size; field++){
+				int at = index * OPERANDS + field - 1;
+				render(line, kinds[at], values[at]);
 				// Print appropriate commas
-				if((field>0) && (field < quadruple.length - 1)){
-					System.out.print(",");
+				if(field < size - 1){
+					line.append(',');
 				}
-				System.out.print(" ");
+				line.append(' ');
 			}
-			System.out.println();
+			out.println(line);
 		}
 	}
-	
-	
+
+
 
 }
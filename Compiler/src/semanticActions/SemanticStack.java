@@ -0,0 +1,354 @@
+package semanticActions;
+import grammarsymbols.TokenType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import symboltable.*;
+import token.*;
+
+/** The stack of the semantic actions. <br>
+ *  Each slot is tagged with the kind of value it holds. Expression types, token types, and
+ *  numbers are held as ints in a column of their own, so pushing them allocates nothing;
+ *  tokens, symbol table entries, and lists of labels to back-patch are held as references.
+ *  A value is popped by a method of its kind, which checks the tag of the slot: a value of
+ *  another kind is an error of the semantic actions, and fails at once with a
+ *  ClassCastException naming what was expected and what was found.
+ */
+public class SemanticStack {
+	/** Kind of an expression type, ARITHMETIC or RELATIONAL */
+	private static final int ETYPE = 0;
+	/** Kind of a number, such as the label of the start of a loop */
+	private static final int NUMBER = 1;
+	/** Kind of a token type, such as the type of declared variables */
+	private static final int TYPE = 2;
+	/** Kind of an identifier token */
+	private static final int IDENTIFIER = 3;
+	/** Kind of a constant token */
+	private static final int CONSTANT = 4;
+	/** Kind of an operator token */
+	private static final int OPERATOR = 5;
+	/** Kind of any other token, such as a sign */
+	private static final int TOKEN = 6;
+	/** Kind of a symbol table entry */
+	private static final int ENTRY = 7;
+	/** Kind of a list of labels to back-patch */
+	private static final int LABELS = 8;
+	/** Names of the kinds, for the messages */
+	private static final String[] KINDS = {"an expression type", "a number", "a token type", "an identifier",
+			"a constant", "an operator", "a token", "a symbol table entry", "a list of labels"};
+
+	/** Expression types and token types, by their ordinal */
+	private static final EType[] ETYPES = EType.values();
+	private static final TokenType[] TYPES = TokenType.values();
+
+	/** Kind of the value in each slot, from the bottom of the stack */
+	private byte[] kinds;
+	/** Value of each slot holding an expression type, a token type, or a number */
+	private int[] ints;
+	/** Value of each slot holding a token, an entry, or a list of labels */
+	private Object[] refs;
+	/** Number of slots in use */
+	private int size;
+
+	public SemanticStack(){
+		kinds = new byte[32];
+		ints = new int[32];
+		refs = new Object[32];
+	}
+
+	/** Pushes an expression type */
+	public void push(EType eType){
+		int index = slot(ETYPE);
+		ints[index] = eType.ordinal();
+	}
+
+	/** Pushes a number */
+	public void push(int number){
+		int index = slot(NUMBER);
+		ints[index] = number;
+	}
+
+	/** Pushes a token type */
+	public void push(TokenType type){
+		int index = slot(TYPE);
+		ints[index] = type.ordinal();
+	}
+
+	/** Pushes a token, tagged with its class */
+	public void push(Token token){
+		int kind = token instanceof Identifier ? IDENTIFIER : token instanceof Constant ? CONSTANT
+				: token instanceof Operator ? OPERATOR : TOKEN;
+		int index = slot(kind);
+		refs[index] = token;
+	}
+
+	/** Pushes a symbol table entry */
+	public void push(SymbolTableEntry entry){
+		int index = slot(ENTRY);
+		refs[index] = entry;
+	}
+
+	/** Pushes a list of labels to back-patch */
+	public void push(List<Integer> labels){
+		int index = slot(LABELS);
+		refs[index] = labels;
+	}
+
+	/** Tags a new slot on top of the stack, and returns its index. The arrays may be replaced,
+	 *  so the caller must read them after the call */
+	private int slot(int kind){
+		if(size == kinds.length){
+			int capacity = size * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			ints = Arrays.copyOf(ints, capacity);
+			refs = Arrays.copyOf(refs, capacity);
+		}
+		kinds[size] = (byte) kind;
+		return size++;
+	}
+
+	/** Pops an expression type */
+	public EType popEType(){
+		return ETYPES[ints[pop(ETYPE)]];
+	}
+
+	/** Pops a number */
+	public int popNumber(){
+		return ints[pop(NUMBER)];
+	}
+
+	/** Pops a token type */
+	public TokenType popType(){
+		return TYPES[ints[pop(TYPE)]];
+	}
+
+	/** Pops an identifier token */
+	public Identifier popIdentifier(){
+		return (Identifier) take(pop(IDENTIFIER));
+	}
+
+	/** Pops a constant token */
+	public Constant popConstant(){
+		return (Constant) take(pop(CONSTANT));
+	}
+
+	/** Pops an operator token */
+	public Operator popOperator(){
+		return (Operator) take(pop(OPERATOR));
+	}
+
+	/** Pops a token of any class */
+	public Token popToken(){
+		check(topIsToken(), TOKEN);
+		return (Token) take(--size);
+	}
+
+	/** Pops a symbol table entry */
+	public SymbolTableEntry popEntry(){
+		return (SymbolTableEntry) take(pop(ENTRY));
+	}
+
+	/** Returns the symbol table entry on top of the stack */
+	public SymbolTableEntry peekEntry(){
+		check(size > 0 && kinds[size - 1] == ENTRY, ENTRY);
+		return (SymbolTableEntry) refs[size - 1];
+	}
+
+	/** Pops the entry of a function */
+	public FunctionEntry popFunction(){
+		FunctionEntry function = function(peekEntry());
+		take(--size);
+		return function;
+	}
+
+	/** Returns the entry of a function, on top of the stack */
+	public FunctionEntry peekFunction(){
+		return function(peekEntry());
+	}
+
+	/** Pops the entry of a procedure */
+	public ProcedureEntry popProcedure(){
+		SymbolTableEntry entry = peekEntry();
+		if(!(entry instanceof ProcedureEntry)){
+			throw new ClassCastException("Semantic stack: expected a procedure, found " + entry.getName());
+		}
+		take(--size);
+		return (ProcedureEntry) entry;
+	}
+
+	/** Checks that an entry is the entry of a function */
+	private static FunctionEntry function(SymbolTableEntry entry){
+		if(!(entry instanceof FunctionEntry)){
+			throw new ClassCastException("Semantic stack: expected a function, found " + entry.getName());
+		}
+		return (FunctionEntry) entry;
+	}
+
+	/** Pops a list of labels */
+	@SuppressWarnings("unchecked")
+	public List<Integer> popLabels(){
+		return (List<Integer>) take(pop(LABELS));
+	}
+
+	/** Returns the list of labels on top of the stack */
+	@SuppressWarnings("unchecked")
+	public List<Integer> peekLabels(){
+		check(size > 0 && kinds[size - 1] == LABELS, LABELS);
+		return (List<Integer>) refs[size - 1];
+	}
+
+	/** Pops the value on top of the stack, of any kind */
+	public void pop(){
+		if(size == 0){
+			throw new NoSuchElementException("Semantic stack is empty");
+		}
+		take(--size);
+	}
+
+	/** Pops a slot of the given kind, and returns its index */
+	private int pop(int kind){
+		check(size > 0 && kinds[size - 1] == kind, kind);
+		return --size;
+	}
+
+	/** Returns the reference in a slot, and clears the slot */
+	private Object take(int index){
+		Object value = refs[index];
+		refs[index] = null;
+		return value;
+	}
+
+	/** Throws an exception naming the kind expected, if the top of the stack is not of that kind */
+	private void check(boolean found, int expected){
+		if(!found){
+			if(size == 0){
+				throw new NoSuchElementException("Semantic stack: expected " + KINDS[expected] + ", found nothing");
+			}
+			throw new ClassCastException("Semantic stack: expected " + KINDS[expected] + ", found "
+					+ KINDS[kinds[size - 1]] + " " + describe(0));
+		}
+	}
+
+	/** Returns the text of the value at a depth from the top of the stack, for the messages */
+	private String describe(int depth){
+		Object value = get(depth);
+		return value instanceof SymbolTableEntry ? ((SymbolTableEntry) value).getName() : String.valueOf(value);
+	}
+
+	/** Returns true if the top of the stack is an identifier */
+	public boolean topIsIdentifier(){
+		return size > 0 && kinds[size - 1] == IDENTIFIER;
+	}
+
+	/** Returns true if the top of the stack is a token of any class */
+	public boolean topIsToken(){
+		return size > 0 && kinds[size - 1] >= IDENTIFIER && kinds[size - 1] <= TOKEN;
+	}
+
+	/** Returns true if the top of the stack is a symbol table entry */
+	public boolean topIsEntry(){
+		return size > 0 && kinds[size - 1] == ENTRY;
+	}
+
+	/** Returns the symbol table entry nearest the top of the stack, or null */
+	public SymbolTableEntry findEntry(){
+		for(int i = size - 1; i >= 0; i--){
+			if(kinds[i] == ENTRY){
+				return (SymbolTableEntry) refs[i];
+			}
+		}
+		return null;
+	}
+
+	/** Returns the entry of an array nearest the top of the stack, or null */
+	public ArrayEntry findArray(){
+		for(int i = size - 1; i >= 0; i--){
+			if(kinds[i] == ENTRY && refs[i] instanceof ArrayEntry){
+				return (ArrayEntry) refs[i];
+			}
+		}
+		return null;
+	}
+
+	/** Returns the entry of a procedure or function nearest the top of the stack, or null */
+	public SubroutineEntry findSubroutine(){
+		for(int i = size - 1; i >= 0; i--){
+			if(kinds[i] == ENTRY && refs[i] instanceof SubroutineEntry){
+				return (SubroutineEntry) refs[i];
+			}
+		}
+		return null;
+	}
+
+	/** Returns the entry of a procedure nearest the bottom of the stack, or null */
+	public ProcedureEntry findOutermostProcedure(){
+		for(int i = 0; i < size; i++){
+			if(kinds[i] == ENTRY && refs[i] instanceof ProcedureEntry){
+				return (ProcedureEntry) refs[i];
+			}
+		}
+		return null;
+	}
+
+	/** Returns the list of labels nearest the top of the stack, or null */
+	@SuppressWarnings("unchecked")
+	public List<Integer> findLabels(){
+		for(int i = size - 1; i >= 0; i--){
+			if(kinds[i] == LABELS){
+				return (List<Integer>) refs[i];
+			}
+		}
+		return null;
+	}
+
+	/** Returns the value at a depth from the top of the stack (0 is the top), as an object */
+	public Object get(int depth){
+		if(depth < 0 || depth >= size){
+			throw new IndexOutOfBoundsException("Index " + depth + " out of bounds for length " + size);
+		}
+		int index = size - 1 - depth;
+		switch(kinds[index]){
+		case ETYPE:
+			return ETYPES[ints[index]];
+		case NUMBER:
+			return ints[index];
+		case TYPE:
+			return TYPES[ints[index]];
+		default:
+			return refs[index];
+		}
+	}
+
+	/** Returns true if a value equal to the given object is on the stack */
+	public boolean contains(Object value){
+		for(int depth = 0; depth < size; depth++){
+			if(value == null ? get(depth) == null : value.equals(get(depth))){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Returns the number of values on the stack */
+	public int size(){
+		return size;
+	}
+
+	/** Returns true if the stack is empty */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/** Returns the values on the stack, from the top */
+	@Override
+	public String toString(){
+		StringBuilder text = new StringBuilder("[");
+		for(int depth = 0; depth < size; depth++){
+			if(depth > 0){
+				text.append(", ");
+			}
+			text.append(get(depth));
+		}
+		return text.append(']').toString();
+	}
+}
@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 import grammarsymbols.*;
 
 /** Symbol Table Entry for Array Types */
@@ -65,14 +66,14 @@ public class ArrayEntry extends SymbolTableEntry {
 	}
 	
 	@Override
-	public void print () {
-		System.out.println("Array Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println("   Address : " + this.getAddress());
-		System.out.println("   Up Bound: " + this.getUpperBound());
-		System.out.println("   Lo Bound: " + this.getLowerBound());
-		System.out.println();
+	public void print(PrintStream out){
+		out.println("Array Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println("   Address : " + this.getAddress());
+		out.println("   Up Bound: " + this.getUpperBound());
+		out.println("   Lo Bound: " + this.getLowerBound());
+		out.println();
 	}
 
 }
@@ -1,51 +1,115 @@
 package symboltable;
-import java.math.BigDecimal;
+import java.io.PrintStream;
 
 import grammarsymbols.TokenType;
 
 public class ConstantEntry extends SymbolTableEntry{
 	int intValue;
 	double realValue;
-	
+
 	public ConstantEntry(String name){
 		super(name);
 	}
-	
+
 	public ConstantEntry(String name, TokenType type){
 		super(name, type);
 		setValue();
 	}
-	
+
+	/** Constructor for an INTEGER constant whose value is already known (computed by the lexer).
+	 * @throws NumberFormatException if the value does not fit in an int */
+	public ConstantEntry(String name, long value){
+		super(name, TokenType.INTEGER);
+		if(value != (int)value){
+			throw new NumberFormatException("For input string: \"" + name + "\"");
+		}
+		intValue = (int)value;
+	}
+
+	/** Constructor for a REAL constant whose value is already known (computed by the lexer) */
+	public ConstantEntry(String name, double value){
+		super(plainString(name), TokenType.REAL);
+		realValue = value;
+	}
+
 	@Override
 	public boolean isConstant(){
 		return true;
 	}
-	
+
 	public void setValue(){
 		if(this.getType() == TokenType.INTEGER){
 			intValue = Integer.parseInt(this.getName());
 		}
 		if(this.getType() == TokenType.REAL){
-			BigDecimal bd = new BigDecimal(this.getName());
-			realValue = bd.doubleValue();
-			this.setName(bd.toPlainString());
+			realValue = Double.parseDouble(this.getName());
+			this.setName(plainString(this.getName()));
 		}
 	}
-	
+
 	public int getIntValue(){
 		return intValue;
 	}
-	
+
 	public double getRealValue(){
 		return realValue;
 	}
-	
+
+	/** Writes a real constant without an exponent, the way <code>BigDecimal.toPlainString()</code>
+	 * does: "1.5E3" is written as "1500", and "25E-3" as "0.025". Leading zeros are removed,
+	 * and every digit of the fraction is kept.
+	 * @param lexeme Digits, with an optional fraction and an optional exponent
+	 */
+	public static String plainString(String lexeme){
+		int e = Math.max(lexeme.indexOf('E'), lexeme.indexOf('e'));
+		String mantissa = e < 0 ? lexeme : lexeme.substring(0, e);
+		int exponent = 0;
+		if(e >= 0){
+			String power = lexeme.substring(e + 1);
+			exponent = Integer.parseInt(power.startsWith("+") ? power.substring(1) : power);
+		}
+		int point = mantissa.indexOf('.');
+		StringBuilder digits = new StringBuilder(mantissa.length() + 2);
+		int scale = 0;
+		if(point < 0){
+			digits.append(mantissa);
+		}
+		else{
+			digits.append(mantissa, 0, point).append(mantissa, point + 1, mantissa.length());
+			scale = mantissa.length() - point - 1;
+		}
+		scale -= exponent;
+		// Remove leading zeros, keeping at least one digit
+		int first = 0;
+		while(first < digits.length() - 1 && digits.charAt(first) == '0'){
+			first++;
+		}
+		digits.delete(0, first);
+		if(scale <= 0){
+			if(digits.length() == 1 && digits.charAt(0) == '0'){
+				return "0";
+			}
+			for(int i = 0; i < -scale; i++){
+				digits.append('0');
+			}
+			return digits.toString();
+		}
+		if(digits.length() > scale){
+			return digits.insert(digits.length() - scale, '.').toString();
+		}
+		StringBuilder plain = new StringBuilder(scale + 2).append("0.");
+		for(int i = digits.length(); i < scale; i++){
+			plain.append('0');
+		}
+		return plain.append(digits).toString();
+	}
+
 	@Override
-	public void print () {
-		System.out.println("Constant Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println();
+	public void print(PrintStream out){
+		out.println("Constant Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println();
 	}
 
 }
@@ -0,0 +1,126 @@
+package symboltable;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import grammarsymbols.TokenType;
+
+/** Symbol table for constants, keyed on their values instead of their names. <br>
+ *  Constants written differently but with the same value ("1.0" and "1.00", or "7" and "07")
+ *  share a single entry, whose name is the spelling of the first one seen. <br>
+ *  The values are kept in an open addressing hash table of longs, as LexemePool keeps its
+ *  lexemes, so looking up a constant does not create any objects: an INTEGER is keyed on its
+ *  value, and a REAL on the bits of its value.
+ */
+public class ConstantTable {
+	/** Open addressing hash table holding (id + 1) of each constant, or 0 for an empty slot */
+	private int[] slots;
+	/** Value of each constant, or the bits of its value, indexed by id */
+	private long[] keys;
+	/** The constants, indexed by id, in the order they were inserted */
+	private ConstantEntry[] entries;
+	/** Number of constants in the table */
+	private int size;
+
+	/** Constructor */
+	public ConstantTable(int size){
+		int capacity = 16;
+		while(capacity < size * 2){
+			capacity *= 2;
+		}
+		slots = new int[capacity];
+		keys = new long[capacity / 2];
+		entries = new ConstantEntry[capacity / 2];
+	}
+
+	/** Returns the INTEGER constant with the given value, or null if not found */
+	public ConstantEntry lookup(long value){
+		return entries(find(value, false));
+	}
+
+	/** Returns the REAL constant with the given value, or null if not found */
+	public ConstantEntry lookup(double value){
+		return entries(find(Double.doubleToLongBits(value), true));
+	}
+
+	/** Returns the constant in a slot, or null for an empty slot */
+	private ConstantEntry entries(int slot){
+		return slots[slot] == 0 ? null : entries[slots[slot] - 1];
+	}
+
+	/** Returns the slot holding the constant with the given key and type, or the empty slot
+	 *  where it belongs */
+	private int find(long key, boolean real){
+		int mask = slots.length - 1;
+		for(int slot = mix(key, real) & mask; ; slot = (slot + 1) & mask){
+			int id = slots[slot] - 1;
+			if(id < 0 || (keys[id] == key && isReal(entries[id]) == real)){
+				return slot;
+			}
+		}
+	}
+
+	/** Inserts a constant. Does nothing if the table already contains a constant
+	 *  of the same type with the same value */
+	public void insert(ConstantEntry entry){
+		boolean real = isReal(entry);
+		long key = real ? Double.doubleToLongBits(entry.getRealValue()) : entry.getIntValue();
+		int slot = find(key, real);
+		if(slots[slot] != 0){
+			return;
+		}
+		int id = size++;
+		if(id == entries.length){
+			keys = Arrays.copyOf(keys, id * 2);
+			entries = Arrays.copyOf(entries, id * 2);
+		}
+		keys[id] = key;
+		entries[id] = entry;
+		slots[slot] = id + 1;
+		// Keep the table at most half full
+		if(size * 2 > slots.length){
+			rehash();
+		}
+	}
+
+	/** Doubles the size of the hash table */
+	private void rehash(){
+		int[] table = new int[slots.length * 2];
+		int mask = table.length - 1;
+		for(int id = 0; id < size; id++){
+			int slot = mix(keys[id], isReal(entries[id])) & mask;
+			while(table[slot] != 0){
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+		slots = table;
+	}
+
+	/** Returns true for a REAL constant */
+	private static boolean isReal(ConstantEntry entry){
+		return entry.getType() == TokenType.REAL;
+	}
+
+	/** Spreads the bits of a key, so that neighbouring values do not end up in neighbouring
+	 *  slots, and an INTEGER and a REAL with the same bits seldom share a slot */
+	private static int mix(long key, boolean real){
+		int hash = (int)(key ^ (key >>> 32)) ^ (real ? 0x5bd1e995 : 0);
+		return (hash ^ (hash >>> 16)) * 0x45d9f3b;
+	}
+
+	/** Returns the number of constants in the table */
+	public int size(){
+		return size;
+	}
+
+	/** Prints out the contents of the table to the given stream, in the order the constants
+	 *  were inserted */
+	public void dumpTable(PrintStream out){
+		out.println("Printing table: ");
+		for(int id = 0; id < size; id++){
+			entries[id].print(out);
+		}
+		out.println();
+	}
+
+}
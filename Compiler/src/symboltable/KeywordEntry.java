@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 import token.*;
 
 /** Class used to insert keywords into the keyword table during the lexical analysis phase*/
@@ -21,11 +22,11 @@ public class KeywordEntry extends SymbolTableEntry{
 		return true;
 	}
 	
-	public void print(){
-		System.out.println("Keyword Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println();
+	public void print(PrintStream out){
+		out.println("Keyword Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println();
 	}
 	
 	
@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 import java.util.*;
 
 import grammarsymbols.TokenType;
@@ -57,17 +58,17 @@ public class ProcedureEntry extends SymbolTableEntry implements SubroutineEntry{
 	}
 	
 	@Override
-	public void print () {
-		System.out.println("Procedure Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println("   NumParams: " + this.getNumberOfParameters());
-		System.out.print("   ParamInfo: ");
+	public void print(PrintStream out){
+		out.println("Procedure Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println("   NumParams: " + this.getNumberOfParameters());
+		out.print("   ParamInfo: ");
 		for(ParmInfoEntry p: this.getParameterInfo()){
-			System.out.print(p.toString());
+			out.print(p.toString());
 		}
-		System.out.println();
-		System.out.println();
+		out.println();
+		out.println();
 	}
 
 }
@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 
 import grammarsymbols.TokenType;
 
@@ -27,6 +28,7 @@ public interface SubroutineEntry {
 	public boolean isProcedure();
 	
 	public void print();
+	public void print(PrintStream out);
 }
 
 
@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -13,11 +14,10 @@ public class SymbolTable {
 	}
 	
 	/** Looks up a given token in the symbol table. Returns the token if found, 
-	 * returns null if not. 
+	 * returns null if not. Entries are never null, so a single get() is enough. 
 	 */
 	public SymbolTableEntry lookup(String name){
-		if(table.containsKey(name)) return table.get(name);
-		else return null;
+		return table.get(name);
 	}
 	
 	public boolean contains(String name){
@@ -39,12 +39,17 @@ public class SymbolTable {
 	
 	/** Prints out the contents of the symbol table */
 	public void dumpTable(){
-		System.out.println("Printing table: ");
+		dumpTable(System.out);
+	}
+	
+	/** Prints out the contents of the symbol table to the given stream */
+	public void dumpTable(PrintStream out){
+		out.println("Printing table: ");
 		// Iterates through the hash table and prints the key-value pairs
 		for(Entry<String, SymbolTableEntry> entry: table.entrySet()){
-			entry.getValue().print();
+			entry.getValue().print(out);
 		}
-		System.out.println();
+		out.println();
 	}
 
 }
@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 
 import java.util.List;
 
@@ -118,11 +119,17 @@ public class SymbolTableEntry {
 		return null;
 	}
 	
+	/** Prints the entry to the standard output */
 	public void print(){
-		System.out.println("Base Class - SymbolTable Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println();
+		print(System.out);
+	}
+	
+	/** Prints the entry */
+	public void print(PrintStream out){
+		out.println("Base Class - SymbolTable Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println();
 	}
 
 	
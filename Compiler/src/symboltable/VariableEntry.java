@@ -1,4 +1,5 @@
 package symboltable;
+import java.io.PrintStream;
 import grammarsymbols.*;
 
 public class VariableEntry extends SymbolTableEntry {
@@ -36,13 +37,13 @@ public class VariableEntry extends SymbolTableEntry {
 	}
 	
 	@Override
-	public void print () {
+	public void print(PrintStream out){
 		
-		System.out.println("Variable Entry:");
-		System.out.println("   Name    : " + this.getName());
-		System.out.println("   Type    : " + this.getType());
-		System.out.println("   Address : " + this.getAddress());
-		System.out.println();
+		out.println("Variable Entry:");
+		out.println("   Name    : " + this.getName());
+		out.println("   Type    : " + this.getType());
+		out.println("   Address : " + this.getAddress());
+		out.println();
 	}
 
 /***********************************************************
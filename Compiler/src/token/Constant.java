@@ -3,19 +3,53 @@ package token;
 import grammarsymbols.TokenType;
 
 public class Constant extends Token{
+	/** Largest number of digits whose value is always exactly representable as a double */
+	private static final int EXACT_DIGITS = 15;
+	/** Powers of ten which are exactly representable as doubles */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
 	/** String representation of the constant. Will eventually
 	 *   be a pointer to a symbol table entry. **/
 	public String lexeme;
-	
-	/** Constructor for a Constant Token
-	 * 
+	/** Value of an INTCONSTANT. Values too large for a long are stored as Long.MAX_VALUE */
+	private long intValue;
+	/** Value of a REALCONSTANT (or of an INTCONSTANT, converted to a double) */
+	private double realValue;
+
+	/** Constructor for a Constant Token. The value is computed from the lexeme
+	 *
 	 * @param type : Can be either a INTCONSTANT or a REALCONSTANT
 	 * @param lexeme: String representation of the constant. Will eventually
-	 *                be a pointer to a symbol table entry. 
+	 *                be a pointer to a symbol table entry.
 	 */
 	public Constant(TokenType type, String lexeme){
 		super(type);
 		this.lexeme = lexeme;
+		if(type == TokenType.INTCONSTANT){
+			intValue = intValue(lexeme);
+			realValue = intValue;
+		}
+		else{
+			realValue = realValue(lexeme);
+		}
+	}
+
+	/** Constructor for an INTCONSTANT whose value was computed by the lexer */
+	public Constant(String lexeme, long intValue){
+		super(TokenType.INTCONSTANT);
+		this.lexeme = lexeme;
+		this.intValue = intValue;
+		this.realValue = intValue;
+	}
+
+	/** Constructor for a REALCONSTANT whose value was computed by the lexer */
+	public Constant(String lexeme, double realValue){
+		super(TokenType.REALCONSTANT);
+		this.lexeme = lexeme;
+		this.realValue = realValue;
 	}
 
 	/** Returns a String representation of the constant. Will eventually
@@ -25,4 +59,96 @@ public class Constant extends Token{
 		return lexeme;
 	}
 
+	/** Returns the value of an INTCONSTANT */
+	public long getIntValue(){
+		return intValue;
+	}
+
+	/** Returns the value of the constant as a double */
+	public double getRealValue(){
+		return realValue;
+	}
+
+	/** Computes the value of the integer constant held in a CharSequence
+	 *  @return The value, or Long.MAX_VALUE if it is too large for a long */
+	public static long intValue(CharSequence digits){
+		long value = 0;
+		for(int i = 0; i < digits.length(); i++){
+			if(value > (Long.MAX_VALUE - 9) / 10){
+				return Long.MAX_VALUE;
+			}
+			value = 10 * value + (digits.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	/** Computes the value of the integer constant stored in chars[start .. start+length-1]
+	 *  @return The value, or Long.MAX_VALUE if it is too large for a long */
+	public static long intValue(char[] chars, int start, int length){
+		long value = 0;
+		for(int i = start; i < start + length; i++){
+			if(value > (Long.MAX_VALUE - 9) / 10){
+				return Long.MAX_VALUE;
+			}
+			value = 10 * value + (chars[i] - '0');
+		}
+		return value;
+	}
+
+	/** Computes the value of the real constant held in a CharSequence */
+	public static double realValue(CharSequence lexeme){
+		int length = lexeme.length();
+		char[] chars = new char[length];
+		for(int i = 0; i < length; i++){
+			chars[i] = lexeme.charAt(i);
+		}
+		return realValue(chars, 0, length);
+	}
+
+	/** Computes the value of the real constant stored in chars[start .. start+length-1]. <br>
+	 *  The constant is made of digits, an optional fraction and an optional exponent. When the
+	 *  digits and the power of ten are both exactly representable as doubles, a single
+	 *  multiplication or division gives the correctly rounded result. Other constants are
+	 *  rare, and are converted by <code>Double.parseDouble()</code>.
+	 */
+	public static double realValue(char[] chars, int start, int length){
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		int i = start;
+		int end = start + length;
+		for(; i < end && chars[i] >= '0' && chars[i] <= '9'; i++){
+			mantissa = 10 * mantissa + (chars[i] - '0');
+			if(mantissa != 0) digits++;
+		}
+		if(i < end && chars[i] == '.'){
+			for(i++; i < end && chars[i] >= '0' && chars[i] <= '9'; i++){
+				mantissa = 10 * mantissa + (chars[i] - '0');
+				if(mantissa != 0) digits++;
+				exponent--;
+			}
+		}
+		if(i < end && (chars[i] == 'E' || chars[i] == 'e')){
+			boolean negative = false;
+			i++;
+			if(chars[i] == '+' || chars[i] == '-'){
+				negative = chars[i] == '-';
+				i++;
+			}
+			int power = 0;
+			for(; i < end; i++){
+				if(power > POWERS_OF_TEN.length + EXACT_DIGITS){
+					digits = Integer.MAX_VALUE;
+					break;
+				}
+				power = 10 * power + (chars[i] - '0');
+			}
+			exponent += negative ? -power : power;
+		}
+		if(digits > EXACT_DIGITS || exponent >= POWERS_OF_TEN.length || exponent <= -POWERS_OF_TEN.length){
+			return Double.parseDouble(new String(chars, start, length));
+		}
+		return exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+	}
+
 }
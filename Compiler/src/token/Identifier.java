@@ -5,6 +5,8 @@ import grammarsymbols.TokenType;
 public class Identifier extends Token{
 	// Will eventually be a pointer to location in the symbol table
 	private String lexeme;
+	/** Offset in the source of the first character of the identifier, or -1 if unknown */
+	private final int offset;
 	
 	/** Constructor for an Identifier Token. 
 	 *  Initializes the token type
@@ -12,13 +14,20 @@ public class Identifier extends Token{
 	 * @param lexeme
 	 */
 	public Identifier(TokenType type, String lexeme){
+		this(type, lexeme, -1);
+	}
+	
+	/** Constructor for an Identifier Token read from a source. 
+	 * @param offset Offset in the source of the first character of the identifier
+	 */
+	public Identifier(TokenType type, String lexeme, int offset){
 		super(type);
 		this.lexeme = lexeme;
+		this.offset = offset;
 	}
 	
 	public Identifier(String lexeme){
-		super(TokenType.IDENTIFIER);
-		this.lexeme = lexeme;
+		this(TokenType.IDENTIFIER, lexeme);
 	}
 	
 	/** Returns the lexeme (string) representation of this Identifier. 
@@ -29,5 +38,11 @@ public class Identifier extends Token{
 		return lexeme;
 	}
 	
+	/** Returns the offset in the source of the first character of the identifier, or -1 if
+	 *  it was not read from a source */
+	public int getOffset(){
+		return offset;
+	}
+	
 
 }
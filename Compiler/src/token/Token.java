@@ -4,14 +4,15 @@ import grammarsymbols.TokenType;
 
 
 public class Token{
-	public TokenType type; 
+	/** The type of the token. Final, since keyword tokens are shared by every lexer */
+	public final TokenType type; 
 	
 	public Token(TokenType type){
 		this.type = type;
 	}
 	
 	public Token(){
-		super();
+		this(null);
 	}
 	
 	/** A function to find this token's TokenType 